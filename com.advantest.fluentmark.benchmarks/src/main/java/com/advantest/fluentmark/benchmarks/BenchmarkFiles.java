@@ -0,0 +1,166 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.spi.RegistryFactory;
+
+/**
+ * Sets up what FluentMark core needs outside of an Eclipse workbench: an (empty) extension registry, and
+ * Markdown files on disk that are accessed via {@link IFile} handles.
+ */
+public class BenchmarkFiles {
+	
+	public static final String MAIN_DOCUMENT_NAME = "main.md";
+	
+	private BenchmarkFiles() {
+	}
+	
+	/**
+	 * FluentMark core looks up its extensions (e.g. anchor resolvers) in the extension registry, that does
+	 * not exist without OSGi. An empty registry lets the look-ups find nothing instead of failing.
+	 */
+	public static synchronized void installEmptyExtensionRegistry() {
+		try {
+			RegistryFactory.setDefaultRegistryProvider(() -> RegistryFactory.createRegistry(null, null, null));
+		} catch (Exception e) {
+			// a registry provider is already set, e.g. by a previous benchmark in the same JVM
+		}
+	}
+	
+	/**
+	 * Writes the given Markdown code to the file {@value #MAIN_DOCUMENT_NAME} in a new temporary folder,
+	 * together with the files that documents generated by {@link MarkdownCorpus} link to.
+	 *
+	 * @return the Markdown file
+	 */
+	public static Path writeCorpus(String markdown) {
+		try {
+			Path folder = Files.createTempDirectory("fluentmark-benchmark");
+			Path images = Files.createDirectories(folder.resolve(MarkdownCorpus.IMAGES_FOLDER_NAME));
+			for (int i = 0; i < MarkdownCorpus.IMAGE_COUNT; i++) {
+				Files.writeString(images.resolve(MarkdownCorpus.getImageName(i)),
+						"<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"10\" height=\"10\"/>\n");
+			}
+			Files.writeString(folder.resolve(MarkdownCorpus.LINKED_DOCUMENT_NAME), MarkdownCorpus.generateLinkedDocument());
+			
+			Path file = folder.resolve(MAIN_DOCUMENT_NAME);
+			Files.writeString(file, markdown);
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Deletes the folder created by {@link #writeCorpus(String)} for the given file.
+	 */
+	public static void deleteCorpus(Path file) {
+		if (file == null) {
+			return;
+		}
+		
+		try (Stream<Path> paths = Files.walk(file.getParent())) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		} catch (IOException e) {
+			// just a temporary folder
+		}
+	}
+	
+	/**
+	 * Creates an {@link IFile} handle for a file on disk that does not belong to any workspace. The handle
+	 * supports what FluentMark's validators and model need: existence, name, extension, location, and
+	 * contents. All other methods return <code>null</code>, <code>false</code>, or <code>0</code>.
+	 */
+	public static IFile createFile(Path file) {
+		if (file == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		IPath location = org.eclipse.core.runtime.Path.fromOSString(file.toAbsolutePath().toString());
+		
+		InvocationHandler handler = new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				switch (method.getName()) {
+					case "exists", "isAccessible":
+						return Files.isRegularFile(file);
+					case "getName":
+						return location.lastSegment();
+					case "getFileExtension":
+						return location.getFileExtension();
+					case "getLocation", "getRawLocation", "getFullPath", "getProjectRelativePath":
+						return location;
+					case "getLocationURI", "getRawLocationURI":
+						return file.toUri();
+					case "getType":
+						return IResource.FILE;
+					case "getCharset":
+						return StandardCharsets.UTF_8.name();
+					case "getContents":
+						return new ByteArrayInputStream(Files.readAllBytes(file));
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return "L" + location;
+					default:
+						return defaultValue(method.getReturnType());
+				}
+			}
+		};
+		
+		return (IFile) Proxy.newProxyInstance(BenchmarkFiles.class.getClassLoader(), new Class<?>[] { IFile.class }, handler);
+	}
+	
+	private static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) {
+			return null;
+		}
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == char.class) {
+			return (char) 0;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		if (type == float.class) {
+			return 0f;
+		}
+		if (type == double.class) {
+			return 0d;
+		}
+		if (type == byte.class) {
+			return (byte) 0;
+		}
+		if (type == short.class) {
+			return (short) 0;
+		}
+		return 0;
+	}
+
+}
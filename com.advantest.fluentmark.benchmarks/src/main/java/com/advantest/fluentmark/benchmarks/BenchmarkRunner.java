@@ -0,0 +1,57 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes their results as JSON file, so that the results of different commits
+ * can be compared.
+ *
+ * <p>Accepts all JMH command line options, e.g. a regular expression selecting the benchmarks to run.
+ * The result file is <code>jmh-&lt;label&gt;.json</code> in the folder given by the system property
+ * {@value #RESULT_FOLDER_PROPERTY}, the label is given by the system property {@value #LABEL_PROPERTY}
+ * (e.g. a commit hash) and defaults to the current time.</p>
+ */
+public class BenchmarkRunner {
+	
+	public static final String LABEL_PROPERTY = "fluentmark.benchmark.label";
+	public static final String RESULT_FOLDER_PROPERTY = "fluentmark.benchmark.resultFolder";
+	
+	public static void main(String[] args) throws Exception {
+		String label = System.getProperty(LABEL_PROPERTY);
+		if (label == null || label.isBlank()) {
+			label = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+		}
+		
+		File resultFolder = new File(System.getProperty(RESULT_FOLDER_PROPERTY, "jmh-results"));
+		resultFolder.mkdirs();
+		File resultFile = new File(resultFolder, "jmh-" + label.replaceAll("[^\\w.-]", "_") + ".json");
+		
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile.getAbsolutePath())
+				.build();
+		
+		new Runner(options).run();
+		
+		System.out.println("Benchmark results written to " + resultFile.getAbsolutePath());
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+/**
+ * Sizes of the synthetic Markdown documents used as benchmark parameter.
+ */
+public enum CorpusSize {
+	
+	/** about 150 lines, a short README */
+	SMALL(10),
+	
+	/** about 1,500 lines, a typical specification chapter */
+	MEDIUM(100),
+	
+	/** about 15,000 lines, a large generated document */
+	LARGE(1000);
+	
+	private final int sections;
+	
+	private CorpusSize(int sections) {
+		this.sections = sections;
+	}
+	
+	public int getSections() {
+		return sections;
+	}
+	
+	public String generate(boolean webLinks) {
+		return MarkdownCorpus.generate(sections, webLinks);
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitioner;
+import net.certiv.fluentmark.core.markdown.validation.MarkdownAnchorValidator;
+import net.certiv.fluentmark.core.markdown.validation.MarkdownLinkValidator;
+import net.certiv.fluentmark.core.validation.FileValidator;
+import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
+
+/**
+ * Validating a Markdown file (links, images, reference links, anchors), as done for each change in an
+ * editor and for each changed file in the workspace.
+ *
+ * <p>The corpus has no links to web sites, so that the benchmark does not depend on the network. Each
+ * validation uses a new document, so that no per-document caches are hit.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileValidationBenchmark {
+	
+	private static class CountingValidationResultConsumer implements IValidationResultConsumer {
+		
+		int results = 0;
+		
+		@Override
+		public void reportValidationResult(IFile file, String issueTypeId, int issueSeverity, String message,
+				Integer issueLineNumber, Integer issueStartOffset, Integer issueEndOffset) {
+			results++;
+		}
+	}
+	
+	@Param
+	public CorpusSize size;
+	
+	private Path path;
+	private IFile file;
+	private String markdown;
+	private CountingValidationResultConsumer resultConsumer;
+	private FileValidator fileValidator;
+	
+	@Setup
+	public void setUp() {
+		BenchmarkFiles.installEmptyExtensionRegistry();
+		
+		markdown = size.generate(false);
+		path = BenchmarkFiles.writeCorpus(markdown);
+		file = BenchmarkFiles.createFile(path);
+		
+		resultConsumer = new CountingValidationResultConsumer();
+		fileValidator = new FileValidator(
+				List.of(new MarkdownPartitioner()),
+				List.of(new MarkdownLinkValidator(), new MarkdownAnchorValidator()),
+				resultConsumer);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		BenchmarkFiles.deleteCorpus(path);
+	}
+	
+	@Benchmark
+	public int validateFile() {
+		IDocument document = new Document(markdown);
+		fileValidator.performResourceValidation(document, file, new NullProgressMonitor());
+		return resultConsumer.results;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vladsch.flexmark.util.ast.Document;
+
+import net.certiv.fluentmark.core.util.FlexmarkUtil;
+
+/**
+ * Parsing Markdown to flexmark's AST and rendering the AST to HTML, as done for the preview, the outline,
+ * and several validators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlexmarkBenchmark {
+	
+	@Param
+	public CorpusSize size;
+	
+	private String markdown;
+	private Document markdownAst;
+	
+	@Setup
+	public void setUp() {
+		markdown = size.generate(true);
+		markdownAst = FlexmarkUtil.parseMarkdown(markdown);
+	}
+	
+	@Benchmark
+	public Document parseMarkdown() {
+		return FlexmarkUtil.parseMarkdown(markdown);
+	}
+	
+	@Benchmark
+	public String renderHtml() {
+		return FlexmarkUtil.renderHtml(markdownAst);
+	}
+
+}
@@ -0,0 +1,212 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic Markdown documents for benchmarks.
+ *
+ * <p>The documents are deterministic: the same number of sections and the same seed always result in
+ * the same document, so that benchmark results of different commits are comparable. The documents
+ * contain the statements FluentMark's hot paths care about: headings with anchors, inline links, images,
+ * reference links and their definitions, lists, tables, code blocks, PlantUML and math blocks, comments,
+ * and HTML.</p>
+ */
+public class MarkdownCorpus {
+	
+	public static final long DEFAULT_SEED = 20250301L;
+	
+	/** Name of a second Markdown file that the generated documents link to, see {@link #generateLinkedDocument()} */
+	public static final String LINKED_DOCUMENT_NAME = "chapter.md";
+	
+	/** Folder of the images that the generated documents link to, see {@link #getImageName(int)} */
+	public static final String IMAGES_FOLDER_NAME = "images";
+	
+	public static final int IMAGE_COUNT = 10;
+	
+	private static final String[] WORDS = {
+			"the", "test", "program", "device", "wafer", "signal", "timing", "level", "pattern", "site",
+			"measurement", "result", "limit", "pin", "channel", "power", "supply", "flow", "module", "instrument",
+			"calibration", "sequence", "parameter", "value", "specification", "voltage", "current", "digital",
+			"analog", "frequency", "is", "are", "with", "for", "and", "of", "in", "to", "on", "by" };
+	
+	private final Random random;
+	private final int sections;
+	private final boolean webLinks;
+	private final StringBuilder markdown = new StringBuilder();
+	
+	private MarkdownCorpus(int sections, long seed, boolean webLinks) {
+		this.random = new Random(seed);
+		this.sections = sections;
+		this.webLinks = webLinks;
+	}
+	
+	/**
+	 * @param sections the number of sections (headings), each section has about 15 lines
+	 * @param webLinks <code>true</code> if the document should contain links to web sites (that validators
+	 *        would check in the background), <code>false</code> for local links only
+	 * @return a deterministic Markdown document
+	 */
+	public static String generate(int sections, boolean webLinks) {
+		return generate(sections, DEFAULT_SEED, webLinks);
+	}
+	
+	public static String generate(int sections, long seed, boolean webLinks) {
+		if (sections < 1) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new MarkdownCorpus(sections, seed, webLinks).generate();
+	}
+	
+	/**
+	 * @return the document the generated documents link to with links like <code>chapter.md#intro</code>
+	 */
+	public static String generateLinkedDocument() {
+		return "# Chapter {#intro}\n\nSee [the main document](main.md).\n\n## Details {#details}\n\nMore details.\n";
+	}
+	
+	public static String getImageName(int index) {
+		return "diagram-" + index + ".svg";
+	}
+	
+	private String generate() {
+		markdown.append("---\ntitle: Synthetic benchmark document\n---\n\n");
+		markdown.append("# Synthetic Document {#top}\n\n");
+		
+		for (int section = 0; section < sections; section++) {
+			appendSection(section);
+		}
+		
+		// link reference definitions, one per section
+		markdown.append("## References {#references}\n\n");
+		for (int section = 0; section < sections; section++) {
+			if (webLinks && section % 4 == 0) {
+				markdown.append("[ref-").append(section).append("]: https://www.example.com/docs/").append(section).append(" \"Example\"\n");
+			} else {
+				markdown.append("[ref-").append(section).append("]: #section-").append(section).append('\n');
+			}
+		}
+		
+		return markdown.toString();
+	}
+	
+	private void appendSection(int section) {
+		markdown.append(section % 5 == 0 ? "## " : "### ")
+			.append(capitalize(words(3))).append(" {#section-").append(section).append("}\n\n");
+		
+		appendParagraph(section);
+		
+		switch (section % 8) {
+			case 1 -> appendList();
+			case 2 -> appendCodeBlock();
+			case 3 -> appendTable();
+			case 4 -> appendPlantUml(section);
+			case 5 -> appendMath();
+			case 6 -> markdown.append("<!-- TODO review section ").append(section).append(" -->\n\n");
+			case 7 -> markdown.append("<div class=\"note\">\n").append(capitalize(words(8))).append(".\n</div>\n\n");
+			default -> {}
+		}
+		
+		appendParagraph(section);
+	}
+	
+	private void appendParagraph(int section) {
+		int sentences = 3 + random.nextInt(4);
+		for (int sentence = 0; sentence < sentences; sentence++) {
+			markdown.append(capitalize(words(4 + random.nextInt(8))));
+			
+			switch (random.nextInt(10)) {
+				case 0 -> markdown.append(" [see section](#section-").append(random.nextInt(sections)).append(')');
+				case 1 -> markdown.append(" [").append(words(2)).append("][ref-").append(random.nextInt(sections)).append(']');
+				case 2 -> markdown.append(" [ref-").append(random.nextInt(sections)).append(']');
+				case 3 -> markdown.append(" [the chapter](").append(LINKED_DOCUMENT_NAME).append("#intro)");
+				case 4 -> markdown.append(" ![diagram](").append(IMAGES_FOLDER_NAME).append('/')
+						.append(getImageName(random.nextInt(IMAGE_COUNT))).append(')');
+				case 5 -> markdown.append(" with **").append(words(2)).append("** and `").append(WORDS[random.nextInt(WORDS.length)]).append("()`");
+				case 6 -> {
+					if (webLinks) {
+						markdown.append(" [example](https://www.example.com/page/").append(random.nextInt(100)).append(')');
+					} else {
+						markdown.append(" *").append(words(2)).append('*');
+					}
+				}
+				default -> {}
+			}
+			
+			markdown.append(". ");
+			if (random.nextInt(3) == 0) {
+				markdown.append('\n');
+			}
+		}
+		markdown.append("\n\n");
+	}
+	
+	private void appendList() {
+		int items = 3 + random.nextInt(4);
+		for (int item = 0; item < items; item++) {
+			markdown.append("* ").append(capitalize(words(5))).append('\n');
+			if (random.nextBoolean()) {
+				markdown.append("    1. ").append(words(3)).append('\n');
+			}
+		}
+		markdown.append('\n');
+	}
+	
+	private void appendCodeBlock() {
+		markdown.append("```java\npublic class Example {\n");
+		int lines = 2 + random.nextInt(5);
+		for (int line = 0; line < lines; line++) {
+			markdown.append("    int ").append(WORDS[random.nextInt(WORDS.length)]).append(line)
+				.append(" = ").append(random.nextInt(1000)).append("; // [not a link](#section-0)\n");
+		}
+		markdown.append("}\n```\n\n");
+	}
+	
+	private void appendTable() {
+		markdown.append("| Parameter | Value | Unit |\n|-----------|------:|------|\n");
+		int rows = 2 + random.nextInt(5);
+		for (int row = 0; row < rows; row++) {
+			markdown.append("| ").append(WORDS[random.nextInt(WORDS.length)]).append(" | ")
+				.append(random.nextInt(1000)).append(" | mV |\n");
+		}
+		markdown.append('\n');
+	}
+	
+	private void appendPlantUml(int section) {
+		markdown.append("```plantuml\n@startuml\n");
+		int messages = 2 + random.nextInt(4);
+		for (int message = 0; message < messages; message++) {
+			markdown.append("Tester -> Device").append(section).append(" : ").append(words(2)).append('\n');
+		}
+		markdown.append("@enduml\n```\n\n");
+	}
+	
+	private void appendMath() {
+		markdown.append("$$\nV_{out} = V_{in} \\cdot \\frac{R_2}{R_1 + R_2}\n$$\n\n");
+	}
+	
+	private String words(int count) {
+		StringBuilder words = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				words.append(' ');
+			}
+			words.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return words.toString();
+	}
+	
+	private static String capitalize(String text) {
+		return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokens;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+
+/**
+ * Finding links, images, reference links, link reference definitions, and section anchors in Markdown
+ * code, as done by validators, hyperlink detection, content assist, and refactorings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownParsingToolsBenchmark {
+	
+	@Param
+	public CorpusSize size;
+	
+	private String markdown;
+	
+	@Setup
+	public void setUp() {
+		markdown = size.generate(true);
+	}
+	
+	@Benchmark
+	public MarkdownLinkTokens tokenize() {
+		return MarkdownLinkTokens.tokenize(markdown);
+	}
+	
+	@Benchmark
+	public long findLinksAndImages() {
+		return MarkdownParsingTools.findLinksAndImages(markdown).count();
+	}
+	
+	@Benchmark
+	public long findLinkReferenceDefinitions() {
+		return MarkdownParsingTools.findLinkReferenceDefinitions(markdown).count();
+	}
+	
+	@Benchmark
+	public long findFullAndCollapsedReferenceLinks() {
+		return MarkdownParsingTools.findFullAndCollapsedReferenceLinks(markdown).count();
+	}
+	
+	@Benchmark
+	public long findShortcutReferenceLinks() {
+		return MarkdownParsingTools.findShortcutReferenceLinks(markdown).count();
+	}
+	
+	@Benchmark
+	public long findHeadingAnchorIds() {
+		return MarkdownParsingTools.findHeadingAnchorIds(markdown).count();
+	}
+	
+	@Benchmark
+	public Set<String> findValidSectionAnchors() {
+		return MarkdownParsingTools.findValidSectionAnchorsInMarkdownCode(markdown);
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.certiv.fluentmark.core.markdown.model.PageRoot;
+
+/**
+ * Building and updating the page model that backs the outline, as done for each change in an editor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageModelBenchmark {
+	
+	private static final String LINE_DELIMITER = "\n";
+	private static final int TAB_WIDTH = 4;
+	
+	@Param
+	public CorpusSize size;
+	
+	private IFile file;
+	private String markdown;
+	private String editedMarkdown;
+	private PageRoot model;
+	private boolean edited;
+	
+	@Setup
+	public void setUp() throws CoreException {
+		file = BenchmarkFiles.createFile(Path.of(BenchmarkFiles.MAIN_DOCUMENT_NAME));
+		markdown = size.generate(true);
+		
+		// type a word into a line in the middle of the document
+		int offset = markdown.indexOf(LINE_DELIMITER, markdown.length() / 2);
+		editedMarkdown = markdown.substring(0, offset) + " typed" + markdown.substring(offset);
+		
+		model = new PageRoot(() -> offset, LINE_DELIMITER, TAB_WIDTH);
+		model.updateModel(file, markdown);
+		edited = false;
+	}
+	
+	@TearDown
+	public void tearDown() {
+		model.dispose();
+	}
+	
+	/**
+	 * Builds the model of a document from scratch, as for a newly opened editor.
+	 */
+	@Benchmark
+	public PageRoot parseModel() throws CoreException {
+		PageRoot newModel = new PageRoot(() -> 0, LINE_DELIMITER, TAB_WIDTH);
+		newModel.updateModel(file, markdown);
+		newModel.dispose();
+		return newModel;
+	}
+	
+	/**
+	 * Updates an existing model after a small edit, alternately adding and removing a word.
+	 */
+	@Benchmark
+	public PageRoot updateModel() throws CoreException {
+		edited = !edited;
+		model.updateModel(file, edited ? editedMarkdown : markdown);
+		return model;
+	}
+	
+	@Setup(Level.Iteration)
+	public void resetModel() throws CoreException {
+		// each iteration starts with the same model state
+		if (edited) {
+			model.updateModel(file, markdown);
+			edited = false;
+		}
+	}
+
+}
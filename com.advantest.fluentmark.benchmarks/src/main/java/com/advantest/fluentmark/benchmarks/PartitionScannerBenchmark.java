@@ -0,0 +1,87 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package com.advantest.fluentmark.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.rules.IToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitionScanner;
+import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitioner;
+
+/**
+ * Partitioning a Markdown document into code blocks, comments, HTML blocks, math blocks, etc., as done
+ * for every editor and before every file validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionScannerBenchmark {
+	
+	@Param
+	public CorpusSize size;
+	
+	private String markdown;
+	private IDocument document;
+	private MarkdownPartitionScanner scanner;
+	private MarkdownPartitioner partitioner;
+	
+	@Setup
+	public void setUp() {
+		BenchmarkFiles.installEmptyExtensionRegistry();
+		
+		markdown = size.generate(true);
+		document = new Document(markdown);
+		scanner = new MarkdownPartitionScanner();
+		partitioner = new MarkdownPartitioner();
+	}
+	
+	/**
+	 * Scans all partitions of a document, i.e. just the scanner's rules.
+	 */
+	@Benchmark
+	public int scanPartitions() {
+		scanner.setPartialRange(document, 0, document.getLength(), null, 0);
+		
+		int partitions = 0;
+		for (IToken token = scanner.nextToken(); !token.isEOF(); token = scanner.nextToken()) {
+			partitions++;
+		}
+		return partitions;
+	}
+	
+	/**
+	 * Sets up a partitioner for a new document and computes its partitioning, like the file validation.
+	 */
+	@Benchmark
+	public ITypedRegion[] computePartitioning() {
+		IDocument newDocument = new Document(markdown);
+		partitioner.setupDocumentPartitioner(newDocument);
+		return partitioner.computePartitioning(newDocument);
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class HtmlTemplateTest {
+	
+	@Test
+	public void testReplacesAllOccurrences() {
+		// given
+		HtmlTemplate template = HtmlTemplate.compile("<figure>%image%<p>%caption%</p>%image%</figure>", "%image%", "%caption%");
+		
+		// when
+		String html = template.render("<svg/>", "A caption");
+		
+		// then
+		assertEquals("<figure><svg/><p>A caption</p><svg/></figure>", html);
+	}
+	
+	@Test
+	public void testKeepsOtherPercentSigns() {
+		// given
+		HtmlTemplate template = HtmlTemplate.compile("width: 100%; %styles% %unknown%", "%styles%");
+		
+		// when
+		String html = template.render("body {}");
+		
+		// then
+		assertEquals("width: 100%; body {} %unknown%", html);
+	}
+	
+	@Test
+	public void testDoesNotReplacePlaceholdersInValues() {
+		// given
+		HtmlTemplate template = HtmlTemplate.compile("%path%|%styles%", "%path%", "%styles%");
+		
+		// when
+		String html = template.render("%styles%", "");
+		
+		// then
+		assertEquals("%styles%|", html);
+	}
+	
+	@Test
+	public void testAppendsToBuilder() {
+		// given
+		HtmlTemplate template = HtmlTemplate.compile("%a%", "%a%");
+		StringBuilder out = new StringBuilder("start ");
+		
+		// when
+		template.appendTo(out, "value");
+		
+		// then
+		assertEquals("start value", out.toString());
+		assertEquals("no placeholders", HtmlTemplate.compile("no placeholders").render());
+	}
+	
+}
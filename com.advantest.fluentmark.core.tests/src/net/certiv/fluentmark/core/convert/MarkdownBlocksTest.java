@@ -0,0 +1,202 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MarkdownBlocksTest {
+	
+	@Test
+	public void testParagraphsAreSplitAtBlankLines() {
+		// given
+		String markdown = "# Title\n\nFirst paragraph\nwith two lines\n\nSecond paragraph";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("# Title\n\n", "First paragraph\nwith two lines\n\n", "Second paragraph"), blocks.getSources());
+		assertEquals("", blocks.getReferenceDefinitions());
+	}
+	
+	@Test
+	public void testBlocksContainTheWholeMarkdown() {
+		// given
+		String markdown = "Text\r\n\r\n```\r\ncode\r\n\r\n```\r\n\r\n- item\r\n\r\nEnd\r\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(markdown, String.join("", blocks.getSources()));
+	}
+	
+	@Test
+	public void testFencedCodeIsNotSplit() {
+		// given
+		String markdown = "Before\n\n```java\nint a;\n\nint b;\n```\n\n~~~~\n```\n\nstill code\n~~~~\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("Before\n\n", "```java\nint a;\n\nint b;\n```\n\n", "~~~~\n```\n\nstill code\n~~~~\n\n", "After\n"),
+				blocks.getSources());
+	}
+	
+	@Test
+	public void testPlantUmlCodeIsNotSplit() {
+		// given
+		String markdown = "@startuml\nAlice -> Bob\n\nBob -> Alice\n@enduml\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("@startuml\nAlice -> Bob\n\nBob -> Alice\n@enduml\n\n", "After\n"), blocks.getSources());
+	}
+	
+	@Test
+	public void testListsAreNotSplit() {
+		// given a loose list with continuation paragraphs and an ordered list
+		String markdown = "- first\n\n- second\n\n  continued\n\n1. one\n\n2) two\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("- first\n\n- second\n\n  continued\n\n1. one\n\n2) two\n\n", "After\n"), blocks.getSources());
+	}
+	
+	@Test
+	public void testHtmlBlocksAreNotSplit() {
+		// given
+		String markdown = "<pre>\nfirst\n\nSecond\n</pre>\n\n<!-- comment\n\nStill comment -->\n\n<script>var a;</script>\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("<pre>\nfirst\n\nSecond\n</pre>\n\n", "<!-- comment\n\nStill comment -->\n\n",
+				"<script>var a;</script>\n\n", "After\n"), blocks.getSources());
+	}
+	
+	@Test
+	public void testDetailsAreNotSplit() {
+		// given
+		String markdown = "<details><summary>More</summary>\n\nHidden *content*\n\n</details>\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("<details><summary>More</summary>\n\nHidden *content*\n\n</details>\n\n", "After\n"),
+				blocks.getSources());
+	}
+	
+	@Test
+	public void testNestedDivsAreNotSplit() {
+		// given
+		String markdown = "<div class=\"note\">\n\n<div>\n\nInner\n\n</div>\n\nOuter\n\n</DIV>\n\n<div/>\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("<div class=\"note\">\n\n<div>\n\nInner\n\n</div>\n\nOuter\n\n</DIV>\n\n", "<div/>\n\n", "After\n"),
+				blocks.getSources());
+	}
+	
+	@Test
+	public void testClosedAndVoidHtmlElementsAreSplit() {
+		// given
+		String markdown = "<span>Text</span>\n\n<img src=\"a.png\">\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("<span>Text</span>\n\n", "<img src=\"a.png\">\n\n", "After\n"), blocks.getSources());
+	}
+	
+	@Test
+	public void testFrontMatterIsNotSplit() {
+		// given
+		String markdown = "---\ntitle: Test\n\nauthor: Me\n---\n\nText\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of("---\ntitle: Test\n\nauthor: Me\n---\n\n", "Text\n"), blocks.getSources());
+	}
+	
+	@Test
+	public void testReferenceDefinitionsAreCollected() {
+		// given
+		String markdown = "See [the docs][docs] and [other].\n\n[docs]: https://example.com/docs \"Docs\"\n   [other]: other.md\n\nAfter\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(3, blocks.getSources().size());
+		assertEquals("[docs]: https://example.com/docs \"Docs\"\n   [other]: other.md\n", blocks.getReferenceDefinitions());
+	}
+	
+	@Test
+	public void testReferenceDefinitionsInCodeAreIgnored() {
+		// given
+		String markdown = "```\n[docs]: https://example.com/docs\n```\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals("", blocks.getReferenceDefinitions());
+	}
+	
+	@Test
+	public void testDocumentsWithFootnotesAreNotSplit() {
+		// given
+		String markdown = "Text with a footnote[^1].\n\nMore text\n\n[^1]: The footnote\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of(markdown), blocks.getSources());
+		assertEquals("", blocks.getReferenceDefinitions());
+	}
+	
+	@Test
+	public void testDocumentsWithSimilarHeadingsAreNotSplit() {
+		// given headings that may get the same anchor
+		String markdown = "# Intro\n\nText\n\nIntro!\n------\n\nMore text\n";
+		
+		// when
+		MarkdownBlocks blocks = MarkdownBlocks.split(markdown);
+		
+		// then
+		assertEquals(List.of(markdown), blocks.getSources());
+	}
+	
+	@Test
+	public void testEmptyMarkdown() {
+		assertEquals(List.of(), MarkdownBlocks.split("").getSources());
+		assertThrows(IllegalArgumentException.class, () -> MarkdownBlocks.split(null));
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class PandocServerTest {
+	
+	private static final String PANDOC = "pandoc";
+	
+	/**
+	 * Stands in for <code>pandoc server</code>: answers health checks and returns the posted request as
+	 * the conversion's output.
+	 */
+	private static class StandInLauncher implements PandocServer.Launcher {
+		
+		final List<String> requests = new ArrayList<>();
+		int launches = 0;
+		boolean failing = false;
+		HttpServer server;
+		
+		@Override
+		public URI launch(String pandocCommand) throws IOException {
+			launches++;
+			if (failing) {
+				throw new IOException("Cannot run program \"" + pandocCommand + "\"");
+			}
+			
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+			server.createContext("/version", exchange -> respond(exchange, 200, "3.1.11"));
+			server.createContext("/", exchange -> {
+				String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+				requests.add(request);
+				respond(exchange, 200, "{\"output\":\"<p>converted</p>\\n\",\"base64\":false,"
+						+ "\"messages\":[{\"verbosity\":\"WARNING\",\"message\":\"Duplicate identifier \\\"a\\\"\"}]}");
+			});
+			server.start();
+			return URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+		}
+		
+		private void respond(HttpExchange exchange, int status, String body) throws IOException {
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(status, bytes.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(bytes);
+			}
+		}
+		
+		@Override
+		public boolean isAlive() {
+			return server != null;
+		}
+		
+		@Override
+		public void stop() {
+			if (server != null) {
+				server.stop(0);
+				server = null;
+			}
+		}
+	}
+	
+	private final StandInLauncher launcher = new StandInLauncher();
+	private final PandocServer pandocServer = new PandocServer(launcher, Duration.ofSeconds(5), Duration.ofMinutes(1));
+	
+	@AfterEach
+	public void tearDown() {
+		pandocServer.stop();
+	}
+	
+	private Map<String, Object> options() {
+		Map<String, Object> options = new LinkedHashMap<>();
+		options.put("from", "markdown");
+		options.put("to", "html5");
+		options.put("highlight-style", null);
+		options.put("standalone", false);
+		return options;
+	}
+	
+	@Test
+	public void testConvertPostsOptionsAndText() throws Exception {
+		// when
+		PandocServer.Result result = pandocServer.convert(PANDOC, options(), "# \"Title\"\n\tText");
+		
+		// then
+		assertEquals("<p>converted</p>\n", result.output);
+		assertEquals("[WARNING] Duplicate identifier \"a\"\n", result.messages);
+		assertEquals(List.of("{\"from\":\"markdown\",\"to\":\"html5\",\"highlight-style\":null,\"standalone\":false,"
+				+ "\"text\":\"# \\\"Title\\\"\\n\\tText\"}"), launcher.requests);
+	}
+	
+	@Test
+	public void testServerIsReused() throws Exception {
+		// when
+		pandocServer.convert(PANDOC, options(), "first");
+		pandocServer.convert(PANDOC, options(), "second");
+		
+		// then
+		assertEquals(1, launcher.launches);
+		assertEquals(2, launcher.requests.size());
+	}
+	
+	@Test
+	public void testServerIsRestartedAfterItDied() throws Exception {
+		// given
+		pandocServer.convert(PANDOC, options(), "first");
+		launcher.stop();
+		
+		// when
+		PandocServer.Result result = pandocServer.convert(PANDOC, options(), "second");
+		
+		// then
+		assertEquals(2, launcher.launches);
+		assertEquals("<p>converted</p>\n", result.output);
+	}
+	
+	@Test
+	public void testFailedStartIsNotRetriedImmediately() {
+		// given
+		launcher.failing = true;
+		
+		// when
+		assertThrows(IOException.class, () -> pandocServer.convert(PANDOC, options(), "first"));
+		IOException exception = assertThrows(IOException.class, () -> pandocServer.convert(PANDOC, options(), "second"));
+		
+		// then
+		assertEquals(1, launcher.launches);
+		assertTrue(exception.getMessage().contains("not available"));
+	}
+	
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PumlFileCacheTest {
+	
+	private static final String CONFIGURATION = "test";
+	
+	@TempDir
+	File temporaryFolder;
+	
+	private File diagram;
+	private File style;
+	private File colors;
+	
+	@BeforeEach
+	public void setUp() throws Exception {
+		diagram = new File(temporaryFolder, "diagram.puml");
+		style = new File(temporaryFolder, "common/style.iuml");
+		colors = new File(temporaryFolder, "common/colors.iuml");
+		
+		write(diagram, "@startuml\n!include common/style.iuml\n!include <C4/C4_Container>\nA -> B\n@enduml\n");
+		write(style, "!include_once colors.iuml!1\nskinparam shadowing false\n");
+		write(colors, "skinparam backgroundColor white\n");
+		
+		PumlFileCache.getInstance().clear();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		PumlFileCache.getInstance().clear();
+	}
+	
+	@Test
+	public void testReadCollectsDependencies() throws Exception {
+		// given
+		write(diagram, "@startuml\n!include common/style.iuml\n!include <C4/C4_Container>\n!import lib/sprites.zip\n"
+				+ "A -> B : <img:images/logo.png{scale=0.5}>\n@enduml\n");
+		
+		// when
+		PumlFileCache.Source source = PumlFileCache.read(diagram);
+		
+		// then
+		assertEquals(Set.of(normalize(diagram), normalize(style), normalize(colors),
+				normalize(new File(temporaryFolder, "lib/sprites.zip")), normalize(new File(temporaryFolder, "images/logo.png"))),
+				source.stamps.keySet());
+		assertTrue(source.trackable);
+	}
+	
+	@Test
+	public void testDependenciesOnUrlsAreNotTrackable() throws Exception {
+		// given
+		write(diagram, "@startuml\n!includeurl https://example.com/style.iuml\nA -> B\n@enduml\n");
+		PumlFileCache cache = PumlFileCache.getInstance();
+		
+		// when
+		PumlFileCache.Source source = PumlFileCache.read(diagram);
+		cache.put(source, CONFIGURATION, "<svg/>");
+		
+		// then
+		assertFalse(source.trackable);
+		assertNull(cache.get(diagram, CONFIGURATION));
+	}
+	
+	@Test
+	public void testDescribeDependenciesOfCode() throws Exception {
+		// given
+		String code = "@startuml\n!include %dirpath()/common/style.iuml\nA -> B\n@enduml\n";
+		String description = PumlFileCache.describeDependencies(temporaryFolder.toPath(), code);
+		
+		// when
+		write(colors, "skinparam backgroundColor black\n");
+		
+		// then
+		assertTrue(description.contains(normalize(colors).toString()));
+		assertNotEquals(description, PumlFileCache.describeDependencies(temporaryFolder.toPath(), code));
+		assertEquals("", PumlFileCache.describeDependencies(temporaryFolder.toPath(), "@startuml\nA -> B\n@enduml\n"));
+		assertNull(PumlFileCache.describeDependencies(temporaryFolder.toPath(), "!include $LIBRARY/style.iuml\n"));
+	}
+	
+	@Test
+	public void testReadNonExistingFile() {
+		assertNull(PumlFileCache.read(new File(temporaryFolder, "missing.puml")));
+	}
+	
+	@Test
+	public void testEntryValidUntilIncludedFileChanges() throws Exception {
+		// given
+		PumlFileCache cache = PumlFileCache.getInstance();
+		PumlFileCache.Source source = PumlFileCache.read(diagram);
+		cache.put(source, CONFIGURATION, "<svg/>");
+		
+		// when, then
+		assertEquals("<svg/>", cache.get(diagram, CONFIGURATION));
+		assertNull(cache.get(diagram, "other"));
+		
+		// when
+		cache.put(source, CONFIGURATION, "<svg/>");
+		write(colors, "skinparam backgroundColor black\n");
+		
+		// then
+		assertNull(cache.get(diagram, CONFIGURATION));
+	}
+	
+	@Test
+	public void testEntryInvalidatedByCreatingMissingInclude() throws Exception {
+		// given
+		write(diagram, "@startuml\n!include missing.iuml\n@enduml\n");
+		PumlFileCache cache = PumlFileCache.getInstance();
+		cache.put(PumlFileCache.read(diagram), CONFIGURATION, "<svg/>");
+		assertEquals("<svg/>", cache.get(diagram, CONFIGURATION));
+		
+		// when
+		write(new File(temporaryFolder, "missing.iuml"), "A -> B\n");
+		
+		// then
+		assertNull(cache.get(diagram, CONFIGURATION));
+	}
+	
+	private void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		long previousModification = file.exists() ? file.lastModified() : -1;
+		Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+		// make sure the change is visible even on file systems with a coarse time resolution
+		if (file.lastModified() <= previousModification) {
+			file.setLastModified(previousModification + 2000);
+		}
+	}
+	
+	private Path normalize(File file) {
+		return file.toPath().toAbsolutePath().normalize();
+	}
+	
+}
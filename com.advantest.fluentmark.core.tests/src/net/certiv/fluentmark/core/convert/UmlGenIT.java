@@ -0,0 +1,89 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UmlGenIT {
+	
+	// a PNG image with a single pixel
+	private static final String PIXEL_PNG = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==";
+	
+	@TempDir
+	File temporaryFolder;
+	
+	private UmlGen umlGen;
+	
+	@BeforeEach
+	public void setUp() {
+		umlGen = new UmlGen(null);
+		PumlFileCache.getInstance().clear();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		PumlFileCache.getInstance().clear();
+	}
+	
+	@Test
+	public void testRelativePathsAreResolvedRelativeToTheFile() throws Exception {
+		// given paths relative to the diagram's folder, not to the current directory
+		File diagram = new File(temporaryFolder, "diagrams/diagram.puml");
+		write(diagram, "@startuml\n!include parts/alice.iuml\nBob -> Alice : <img:images/pixel.png>\n@enduml\n");
+		write(new File(temporaryFolder, "diagrams/parts/alice.iuml"), "participant \"Included Alice\" as Alice\n");
+		File image = new File(temporaryFolder, "diagrams/images/pixel.png");
+		image.getParentFile().mkdirs();
+		Files.write(image.toPath(), Base64.getDecoder().decode(PIXEL_PNG));
+		
+		// when
+		String svg = umlGen.pumlFile2svg(diagram);
+		
+		// then
+		assertNotNull(svg);
+		assertTrue(svg.contains("Included Alice"));
+		assertTrue(svg.contains("data:image/png;base64"));
+		assertFalse(new File(temporaryFolder, "diagrams/diagram.svg").exists());
+	}
+	
+	@Test
+	public void testInlineCodeIsRenderedAgainAfterIncludedFileChanged() throws Exception {
+		// given
+		File part = new File(temporaryFolder, "part.iuml");
+		write(part, "participant \"First Alice\" as Alice\n");
+		String code = "@startuml\n!include " + part.getAbsolutePath() + "\nBob -> Alice\n@enduml\n";
+		assertTrue(umlGen.uml2svg(code).contains("First Alice"));
+		
+		// when
+		write(part, "participant \"Changed Alice\" as Alice\n");
+		part.setLastModified(part.lastModified() + 2000);
+		String svg = umlGen.uml2svg(code);
+		
+		// then
+		assertTrue(svg.contains("Changed Alice"));
+	}
+	
+	private void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+	}
+	
+}
@@ -0,0 +1,54 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.advantest.plantuml.PlantUmlToSvgRenderer;
+
+public class UmlGenTest {
+	
+	@Test
+	public void testEachThreadGetsItsOwnRenderer() throws Exception {
+		// given
+		UmlGen umlGen = new UmlGen(null);
+		PlantUmlToSvgRenderer renderer = umlGen.getRenderer();
+		
+		// when
+		PlantUmlToSvgRenderer otherThreadsRenderer = CompletableFuture.supplyAsync(umlGen::getRenderer).get();
+		
+		// then
+		assertNotNull(renderer);
+		assertSame(renderer, umlGen.getRenderer());
+		assertNotNull(otherThreadsRenderer);
+		assertNotSame(renderer, otherThreadsRenderer);
+	}
+	
+	@Test
+	public void testSettingDotExecutableCreatesNewRenderers() {
+		// given
+		UmlGen umlGen = new UmlGen(null);
+		PlantUmlToSvgRenderer renderer = umlGen.getRenderer();
+		
+		// when
+		umlGen.setDotExecutable("dot");
+		
+		// then
+		assertNotSame(renderer, umlGen.getRenderer());
+		assertSame(umlGen.getRenderer(), umlGen.getRenderer());
+	}
+	
+}
@@ -14,6 +14,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Random;
 
 import net.certiv.fluentmark.core.TestFileUtil;
 import net.certiv.fluentmark.core.markdown.model.Lines;
@@ -49,4 +50,149 @@ public class LinesTest {
 		assertEquals(kind, lines.identifyKind(lineIndex));
 	}
 	
+	private void assertSameLines(Lines expectedLines, Lines actualLines, String message) {
+		assertEquals(expectedLines.length(), actualLines.length(), message);
+		for (int idx = 0; idx < expectedLines.length(); idx++) {
+			assertEquals(expectedLines.getOffset(idx), actualLines.getOffset(idx), message);
+			assertEquals(expectedLines.getTextLength(idx), actualLines.getTextLength(idx), message);
+			assertEquals(expectedLines.getText(idx), actualLines.getText(idx), message);
+		}
+	}
+	
+	@Test
+	public void testEmptyDocument() {
+		// when
+		Lines lines = new Lines("", "\n");
+		
+		// then
+		assertEquals(1, lines.length());
+		assertEquals("", lines.getText(0));
+		assertEquals(0, lines.lineAtOffset(0));
+		
+		// when
+		int firstChangedLine = lines.replace(0, 0, "# Title\n\nText");
+		
+		// then
+		assertEquals(0, firstChangedLine);
+		assertSameLines(new Lines("# Title\n\nText", "\n"), lines, "after inserting text");
+		
+		// when
+		lines.replace(0, "# Title\n\nText".length(), "");
+		
+		// then
+		assertSameLines(new Lines("", "\n"), lines, "after removing all text");
+	}
+	
+	@Test
+	public void testLastLineWithoutDelimiter() {
+		// when
+		Lines lines = new Lines("one\ntwo", "\n");
+		
+		// then
+		assertEquals(2, lines.length());
+		assertEquals("two", lines.getText(1));
+		assertEquals(4, lines.getTextLength(1));
+		assertEquals(1, lines.lineAtOffset(7));
+		
+		// when appending a delimiter, there is a new empty last line
+		lines.replace(7, 0, "\n");
+		
+		// then
+		assertEquals(3, lines.length());
+		assertEquals("two", lines.getText(1));
+		assertEquals("", lines.getText(2));
+		assertSameLines(new Lines("one\ntwo\n", "\n"), lines, "after appending a delimiter");
+		
+		// when appending text to the last line
+		lines.replace(8, 0, "three");
+		
+		// then
+		assertSameLines(new Lines("one\ntwo\nthree", "\n"), lines, "after appending text");
+	}
+	
+	@Test
+	public void testReplaceAcrossLines() {
+		// given
+		Lines lines = new Lines("one\ntwo\nthree\nfour", "\n");
+		lines.setKind(0, Type.TEXT);
+		lines.setKind(3, Type.HEADER);
+		
+		// when replacing "two\nth" in the second and third line
+		int firstChangedLine = lines.replace(4, 6, "2\n2.5\n");
+		
+		// then
+		assertEquals(1, firstChangedLine);
+		assertSameLines(new Lines("one\n2\n2.5\nree\nfour", "\n"), lines, "after replacing text across lines");
+		assertEquals(Type.TEXT, lines.getKind(0));
+		assertEquals(Type.UNDEFINED, lines.getKind(1));
+		assertEquals(Type.HEADER, lines.getKind(4));
+		
+		// when replacing the second line and its delimiters with a space
+		lines.replace(3, 3, " ");
+		
+		// then
+		assertSameLines(new Lines("one 2.5\nree\nfour", "\n"), lines, "after joining lines");
+		assertEquals(Type.HEADER, lines.getKind(2));
+	}
+	
+	@Test
+	public void testReplaceWithCrLfDelimiters() {
+		// given
+		Lines lines = new Lines("one\r\ntwo\r\nthree", "\r\n");
+		
+		// then
+		assertEquals(3, lines.length());
+		assertEquals("two", lines.getText(1));
+		assertEquals(5, lines.getTextLength(1));
+		
+		// when removing the \r of the first delimiter, the first two lines become one line
+		lines.replace(3, 1, "");
+		
+		// then
+		assertSameLines(new Lines("one\ntwo\r\nthree", "\r\n"), lines, "after removing \\r");
+		assertEquals(2, lines.length());
+		
+		// when inserting the \r again
+		lines.replace(3, 0, "\r");
+		
+		// then
+		assertSameLines(new Lines("one\r\ntwo\r\nthree", "\r\n"), lines, "after inserting \\r");
+		
+		// when inserting text between \r and \n
+		lines.replace(9, 0, "x");
+		
+		// then
+		assertSameLines(new Lines("one\r\ntwo\rx\nthree", "\r\n"), lines, "after splitting a delimiter");
+		assertEquals(2, lines.length());
+	}
+	
+	@Test
+	public void testRandomReplacementsLikeReloading() {
+		Random random = new Random(4711);
+		String characters = "ab \r\n";
+		
+		for (String lineDelim : new String[] { "\n", "\r\n" }) {
+			String content = "";
+			Lines lines = new Lines(content, lineDelim);
+			
+			for (int i = 0; i < 2000; i++) {
+				// given
+				int offset = random.nextInt(content.length() + 1);
+				int length = random.nextInt(Math.min(content.length() - offset, 8) + 1);
+				StringBuilder text = new StringBuilder();
+				int textLength = random.nextInt(content.length() > 200 ? 4 : 12);
+				for (int n = 0; n < textLength; n++) {
+					text.append(characters.charAt(random.nextInt(characters.length())));
+				}
+				
+				// when
+				lines.replace(offset, length, text.toString());
+				content = content.substring(0, offset) + text + content.substring(offset + length);
+				
+				// then
+				assertSameLines(new Lines(content, lineDelim), lines, "replaced " + length + " characters at " + offset);
+			}
+		}
+	}
+	
 }
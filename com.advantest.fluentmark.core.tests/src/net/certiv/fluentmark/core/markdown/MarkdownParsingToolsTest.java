@@ -13,18 +13,42 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import net.certiv.fluentmark.core.TestFileUtil;
 import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
 import net.certiv.fluentmark.core.markdown.parsing.RegexMatch;
 
 public class MarkdownParsingToolsTest {
 	
+	// the regular expressions that MarkdownParsingTools used before the MarkdownLinkTokenizer replaced them,
+	// the tokenizer is expected to find exactly the same matches
+	private static final Pattern LINK_PATTERN = Pattern.compile("(!){0,1}(?<!\\\\)\\[(?<label>([^\\n](?<![^\\\\](\\]|\\[)))*?)?"
+			+ "(?<!\\\\)\\]\\((?<target>([^\\n](?<![^\\\\](\\)|\\()))*?)?(?<!\\\\)\\)");
+	private static final Pattern LINK_REF_DEF_PATTERN = Pattern.compile("^ {0,3}\\[(?<label>([^^\\n](?<![^\\\\](\\]|\\[)))*?)"
+			+ "(?<!\\\\)\\]:([ \\t]*\\n?[ \\t]*(?=[^ \\n\\r\\t\\f\\v\\]\\[]))?(?<target>[^ \\n\\r\\t\\f\\v\\]\\[]*)",
+			Pattern.MULTILINE);
+	private static final Pattern REF_LINK_FULL_PATTERN = Pattern.compile("(?<!\\\\)\\[(?<label>([^\\n](?<![^\\\\](\\]|\\[)))*?)"
+			+ "(?<!\\\\)\\]\\[(?<target>([^\\n](?<![^\\\\](\\]|\\[)))*?)(?<!\\\\)\\]");
+	private static final Pattern REF_LINK_SHORT_PATTERN = Pattern.compile("(?<!\\]|\\\\)(\\[(?<target>([^\\n](?<![^\\\\](\\]|\\[)))*?)"
+			+ "(?<!\\\\)\\])(?!(\\[|\\(|:))");
+	private static final Pattern HEADING_PATTERN = Pattern.compile("#+\\s.*\\{#(?<anchor>.*)\\}\\s*");
+	
 	private String getLabel(RegexMatch match) {
 		RegexMatch labelMatch = match.subMatches.get(MarkdownParsingTools.CAPTURING_GROUP_LABEL);
 		if (labelMatch != null) {
@@ -411,6 +435,90 @@ public class MarkdownParsingToolsTest {
 		assertTrue(match.isEmpty());
 	}
 	
+	private List<String> findWithRegex(Pattern pattern, String markdownCode, String... capturingGroupNames) {
+		List<String> matches = new ArrayList<>();
+		Matcher matcher = pattern.matcher(markdownCode);
+		while (matcher.find()) {
+			StringBuilder match = new StringBuilder(describe(matcher.group(), matcher.start(), matcher.end()));
+			for (String capturingGroupName : capturingGroupNames) {
+				if (matcher.group(capturingGroupName) != null) {
+					match.append(" ").append(capturingGroupName).append("=").append(describe(matcher.group(capturingGroupName),
+							matcher.start(capturingGroupName), matcher.end(capturingGroupName)));
+				}
+			}
+			matches.add(match.toString());
+		}
+		return matches;
+	}
+	
+	private List<String> findAnchorsWithRegex(String markdownCode) {
+		List<String> anchors = new ArrayList<>();
+		Matcher matcher = HEADING_PATTERN.matcher(markdownCode);
+		while (matcher.find()) {
+			anchors.add(describe(matcher.group("anchor"), matcher.start("anchor"), matcher.end("anchor")));
+		}
+		return anchors;
+	}
+	
+	private List<String> describe(Stream<RegexMatch> matches) {
+		return matches.map(match -> {
+			StringBuilder description = new StringBuilder(describe(match));
+			new TreeMap<>(match.subMatches).forEach((name, subMatch) -> description.append(" ").append(name).append("=").append(describe(subMatch)));
+			return description.toString();
+		}).collect(Collectors.toList());
+	}
+	
+	private String describe(RegexMatch match) {
+		return describe(match.matchedText, match.startIndex, match.endIndex);
+	}
+	
+	private String describe(String text, int start, int end) {
+		return start + "-" + end + ":" + text;
+	}
+	
+	private void assertSameMatchesAsRegularExpressions(String markdownCode) {
+		String message = "Markdown code: \"" + markdownCode + "\"";
+		
+		assertEquals(findWithRegex(LINK_PATTERN, markdownCode, "label", "target"),
+				describe(MarkdownParsingTools.findLinksAndImages(markdownCode)), message);
+		assertEquals(findWithRegex(LINK_REF_DEF_PATTERN, markdownCode, "label", "target"),
+				describe(MarkdownParsingTools.findLinkReferenceDefinitions(markdownCode)), message);
+		assertEquals(findWithRegex(REF_LINK_FULL_PATTERN, markdownCode, "label", "target"),
+				describe(MarkdownParsingTools.findFullAndCollapsedReferenceLinks(markdownCode)), message);
+		assertEquals(findWithRegex(REF_LINK_SHORT_PATTERN, markdownCode, "target"),
+				describe(MarkdownParsingTools.findShortcutReferenceLinks(markdownCode)), message);
+		assertEquals(findAnchorsWithRegex(markdownCode),
+				describe(MarkdownParsingTools.findHeadingAnchorIds(markdownCode)), message);
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"resources/md/comments.md",
+			"resources/md/bug-hmr-43.md",
+			"resources/md/test-headers.md"
+	})
+	public void tokenizerFindsSameMatchesAsRegularExpressionsInFiles(String filePath) throws IOException {
+		String markdownCode = TestFileUtil.readTextFromFile(filePath);
+		
+		assertSameMatchesAsRegularExpressions(markdownCode);
+		assertSameMatchesAsRegularExpressions(markdownCode.replace("\n", "\r\n"));
+	}
+	
+	@Test
+	public void tokenizerFindsSameMatchesAsRegularExpressionsInRandomCode() {
+		// given random code made of the characters that matter for links, references, and anchors
+		String characters = "[]()!#{}\\:^ \t\r\nab\u0085\u2028";
+		Random random = new Random(4711);
+		Function<Integer, String> randomCode = length -> random.ints(length, 0, characters.length())
+				.mapToObj(index -> String.valueOf(characters.charAt(index)))
+				.collect(Collectors.joining());
+		
+		for (int i = 0; i < 20000; i++) {
+			// when / then
+			assertSameMatchesAsRegularExpressions(randomCode.apply(random.nextInt(40)));
+		}
+	}
+	
 	// TODO Add tests for anchor search
 	// TODO Add tests for findings sets of links in longer texts
 }
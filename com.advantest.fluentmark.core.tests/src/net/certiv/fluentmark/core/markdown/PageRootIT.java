@@ -12,6 +12,8 @@ package net.certiv.fluentmark.core.markdown;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.eclipse.core.resources.IFile;
@@ -25,10 +27,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.certiv.fluentmark.core.TestFileUtil;
 import net.certiv.fluentmark.core.markdown.model.CodeBlockConstants;
+import net.certiv.fluentmark.core.markdown.model.ElementChangedEvent;
+import net.certiv.fluentmark.core.markdown.model.IElement;
 import net.certiv.fluentmark.core.markdown.model.IOffsetProvider;
 import net.certiv.fluentmark.core.markdown.model.IParent;
 import net.certiv.fluentmark.core.markdown.model.PagePart;
@@ -40,6 +45,11 @@ public class PageRootIT {
 	
 	private static final int TAB_WIDTH = 4;
 	
+	// top-level sections, one of them including PlantUML diagrams
+	private static final String SECTIONS = "# One\n\nText one\n\n## One.1\n\nText one.1\n\n"
+			+ "# Two\n\nText two\n\n![Diagram A](a.puml)\n![Diagram B](b.puml)\n\n"
+			+ "# Three\n\nText three\n";
+	
 	private PageRoot pageModel = null;
 	private OffsetProviderMock offsetProvider = null;
 	private IFile markdownFile = null;
@@ -177,6 +187,114 @@ public class PageRootIT {
 		assertEquals(Type.BLANK, part.getKind());
 	}
 	
+	@Test
+	public void testIncrementalUpdate() throws Exception {
+		// given
+		String text = TestFileUtil.readTextFromFile("resources/md/comments.md");
+		pageModel.updateModel(markdownFile, text);
+		List<ElementChangedEvent> events = new ArrayList<>();
+		pageModel.addElementChangedListener(events::add);
+		String changedText = text.replace("Even more text", "Even more text,\nand another line");
+		
+		// when
+		pageModel.updateModel(markdownFile, changedText);
+		
+		// then
+		assertEquals(1, events.size());
+		assertTrue(events.get(0).isIncremental());
+		List<IElement> added = events.get(0).getAddedElements();
+		assertTrue(added.size() < pageModel.getPageParts().size());
+		assertTrue(added.stream().anyMatch(part -> part.getContent().equals("Even more text,\nand another line\n")));
+		assertSameAsParsed(changedText);
+	}
+	
+	private ElementChangedEvent updateIncrementally(String text, String changedText) throws Exception {
+		pageModel.updateModel(markdownFile, text);
+		List<ElementChangedEvent> events = new ArrayList<>();
+		pageModel.addElementChangedListener(events::add);
+		
+		pageModel.updateModel(markdownFile, changedText);
+		
+		assertEquals(1, events.size());
+		assertSameAsParsed(changedText);
+		return events.get(0);
+	}
+	
+	private void assertSameAsParsed(String text) throws Exception {
+		PageRoot parsedModel = new PageRoot(offsetProvider, "\n", TAB_WIDTH);
+		parsedModel.updateModel(markdownFile, text);
+		assertEquals(describe(parsedModel), describe(pageModel));
+		parsedModel.dispose();
+	}
+	
+	private IParent findChild(IParent parent, String content) {
+		return parent.getChildList().stream()
+				.filter(child -> child.getContent().equals(content))
+				.findFirst()
+				.orElse(null);
+	}
+	
+	@Test
+	public void testIncrementalUpdate_RemoveTopLevelHeader() throws Exception {
+		// given
+		String changedText = SECTIONS.replace("# Two\n\n", "");
+		
+		// when
+		ElementChangedEvent event = updateIncrementally(SECTIONS, changedText);
+		
+		// then the parts of the removed section belong to the section in front of it
+		assertTrue(event.isIncremental());
+		assertTrue(event.getRemovedElements().stream().anyMatch(part -> part.getContent().equals("# Two\n")));
+		assertEquals(2, pageModel.getChildList().size());
+		IParent one = findChild(pageModel, "# One\n");
+		IParent subSection = findChild(one, "## One.1\n");
+		assertNotNull(findChild(subSection, "Text two\n"));
+		assertNull(findChild(pageModel, "# Two\n"));
+	}
+	
+	@Test
+	public void testIncrementalUpdate_MoveTextBetweenHeaders() throws Exception {
+		// given
+		String changedText = SECTIONS.replace("Text two\n\n", "").replace("Text three\n", "Text three\n\nText two\n");
+		
+		// when
+		ElementChangedEvent event = updateIncrementally(SECTIONS, changedText);
+		
+		// then
+		assertTrue(event.isIncremental());
+		IParent two = findChild(pageModel, "# Two\n");
+		IParent three = findChild(pageModel, "# Three\n");
+		assertNull(findChild(two, "Text two\n"));
+		assertNotNull(findChild(three, "Text two\n"));
+	}
+	
+	@Test
+	public void testIncrementalUpdate_ChangeIncludedDiagrams() throws Exception {
+		// given
+		String changedText = SECTIONS.replace("![Diagram B](b.puml)\n", "![Diagram C](c.puml)\n![Diagram D](d.puml)\n");
+		
+		// when
+		ElementChangedEvent event = updateIncrementally(SECTIONS, changedText);
+		
+		// then
+		assertTrue(event.isIncremental());
+		IParent two = findChild(pageModel, "# Two\n");
+		assertNotNull(findChild(two, "![Diagram A](a.puml)\n"));
+		assertNull(findChild(two, "![Diagram B](b.puml)\n"));
+		assertNotNull(findChild(two, "![Diagram C](c.puml)\n"));
+		assertNotNull(findChild(two, "![Diagram D](d.puml)\n"));
+		assertEquals(3, pageModel.getPageParts(Type.PLANTUML_INCLUDE).size());
+	}
+	
+	private String describe(IParent element) {
+		StringBuilder sb = new StringBuilder();
+		for (IParent child : element.getChildren()) {
+			sb.append(child.getKind()).append(' ').append(child.getSourceRange()).append(' ').append(child.getContent());
+			sb.append(describe(child));
+		}
+		return sb.toString();
+	}
+	
 	// TODO Add tests for parsing HTML code and comments
 	// see https://spec.commonmark.org/0.30/#html-blocks
 	// and https://spec.commonmark.org/0.30/#raw-html
@@ -0,0 +1,144 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.partitions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import net.certiv.fluentmark.core.TestFileUtil;
+import net.certiv.fluentmark.core.markdown.scanner.IScannerExt;
+
+/**
+ * Compares the partitions found by the {@link MarkdownPartitionScanner}, which only evaluates the rules that
+ * may match at the current character, with those found by a {@link RuleBasedPartitionScanner} evaluating the
+ * same rules one after another at each offset.
+ */
+public class MarkdownPartitionScannerTest {
+	
+	private static final String[] MARKDOWN_PIECES = { "$", "$$", "x", " ", "\n", "\r\n", "`", "```", "~~~", "<!--", "-->",
+			"<a href='x'>", "\\", "@startuml", "@enduml", "![a](b.puml)", "---", "    ", "\t", "1. ", "- ", "5", "ä", "😀",
+			"<div>", "```dot", "digraph", "{", "}" };
+	
+	private static final String[] RESUMED_CONTENT_TYPES = { null, MarkdownPartitioner.MATHBLOCK,
+			MarkdownPartitioner.CODEBLOCK, MarkdownPartitioner.COMMENT, MarkdownPartitioner.UMLBLOCK };
+	
+	private static class MarkdownRules extends MarkdownPartitionScanner {
+		
+		IPredicateRule[] get() {
+			return Arrays.copyOf(fRules, fRules.length, IPredicateRule[].class);
+		}
+	}
+	
+	/**
+	 * Evaluates the Markdown partition rules like before the rules were dispatched by their first characters.
+	 */
+	private static class UndispatchedScanner extends RuleBasedPartitionScanner implements IScannerExt {
+		
+		UndispatchedScanner() {
+			setPredicateRules(new MarkdownRules().get());
+		}
+		
+		@Override
+		public IDocument getDocument() {
+			return fDocument;
+		}
+		
+		@Override
+		public int getOffset() {
+			return fOffset;
+		}
+		
+		@Override
+		public int getRangeEnd() {
+			return fRangeEnd;
+		}
+	}
+	
+	private List<String> scan(RuleBasedPartitionScanner scanner, IDocument document, int offset, String contentType,
+			int partitionOffset) {
+		scanner.setPartialRange(document, offset, document.getLength() - offset, contentType, partitionOffset);
+		
+		List<String> partitions = new ArrayList<>();
+		IToken token = scanner.nextToken();
+		while (!token.isEOF()) {
+			partitions.add(scanner.getTokenOffset() + ":" + scanner.getTokenLength() + ":" + token.getData());
+			token = scanner.nextToken();
+		}
+		return partitions;
+	}
+	
+	private void assertSamePartitions(String markdown) {
+		IDocument document = new Document(markdown);
+		
+		assertEquals(scan(new UndispatchedScanner(), document, 0, null, -1),
+				scan(new MarkdownPartitionScanner(), document, 0, null, -1), markdown);
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"resources/md/comments.md",
+			"resources/md/bug-hmr-43.md",
+			"resources/md/test-headers.md"
+	})
+	public void testSamePartitionsInFiles(String filePath) throws IOException {
+		String markdown = TestFileUtil.readTextFromFile(filePath);
+		
+		assertSamePartitions(markdown);
+		assertSamePartitions(markdown.replace("\n", "\r\n"));
+	}
+	
+	@Test
+	public void testSamePartitionsInRandomMarkdown() {
+		Random random = new Random(4711);
+		
+		for (int i = 0; i < 3000; i++) {
+			// given
+			StringBuilder markdown = new StringBuilder();
+			int pieces = random.nextInt(60);
+			for (int piece = 0; piece < pieces; piece++) {
+				markdown.append(MARKDOWN_PIECES[random.nextInt(MARKDOWN_PIECES.length)]);
+			}
+			IDocument document = new Document(markdown.toString());
+			
+			// when / then
+			assertSamePartitions(markdown.toString());
+			
+			// resumed scans, e.g. after a document change inside a code block
+			for (int resume = 0; resume < 5 && markdown.length() > 0; resume++) {
+				int partitionOffset = random.nextInt(markdown.length());
+				int offset = partitionOffset + random.nextInt(markdown.length() - partitionOffset);
+				String contentType = RESUMED_CONTENT_TYPES[random.nextInt(RESUMED_CONTENT_TYPES.length)];
+				if (contentType == null) {
+					partitionOffset = -1;
+				}
+				
+				assertEquals(scan(new UndispatchedScanner(), document, offset, contentType, partitionOffset),
+						scan(new MarkdownPartitionScanner(), document, offset, contentType, partitionOffset),
+						markdown + " resumed at " + offset + " in " + contentType);
+			}
+		}
+	}
+
+}
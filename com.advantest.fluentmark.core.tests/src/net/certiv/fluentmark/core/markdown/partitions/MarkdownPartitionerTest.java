@@ -0,0 +1,182 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.partitions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension3;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.ITypedRegion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+public class MarkdownPartitionerTest {
+	
+	private static final int THREADS = 8;
+	private static final int DOCUMENTS = 64;
+	private static final int ROUNDS = 5;
+	
+	private static String createMarkdown(int index) {
+		StringBuilder markdown = new StringBuilder();
+		if (index % 3 == 0) {
+			markdown.append("---\ntitle: Document ").append(index).append("\n---\n\n");
+		}
+		for (int section = 0; section <= index % 7; section++) {
+			markdown.append("# Section ").append(section).append("\n\n");
+			markdown.append("Some text with `code span ").append(index).append("` and a [link](other.md).\n\n");
+			markdown.append("<!-- comment ").append(section).append(" -->\n\n");
+			markdown.append("```java\nint value = ").append(index * section).append(";\n```\n\n");
+			if ((index + section) % 2 == 0) {
+				markdown.append("```plantuml\n@startuml\nA -> B\n@enduml\n```\n\n");
+			}
+			if ((index + section) % 3 == 0) {
+				markdown.append("$$\nx^").append(section).append("\n$$\n\n");
+			}
+			if ((index + section) % 4 == 0) {
+				markdown.append("<div>\nHTML block\n</div>\n\n");
+			}
+		}
+		return markdown.toString();
+	}
+	
+	private static List<String> partition(MarkdownPartitioner partitioner, IDocument document) {
+		partitioner.setupDocumentPartitioner(document);
+		ITypedRegion[] regions = partitioner.computePartitioning(document);
+		
+		List<String> partitions = new ArrayList<>(regions.length);
+		for (ITypedRegion region : regions) {
+			partitions.add(region.getType() + "@" + region.getOffset() + "+" + region.getLength());
+		}
+		return partitions;
+	}
+	
+	private static <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<T>> futures = new ArrayList<>();
+			for (Callable<T> task : tasks) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			start.countDown();
+			
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get(60, TimeUnit.SECONDS));
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testSharedPartitionerPartitionsManyDocumentsInParallel() throws Exception {
+		// given
+		List<List<String>> expectedPartitions = new ArrayList<>();
+		for (int index = 0; index < DOCUMENTS; index++) {
+			expectedPartitions.add(partition(new MarkdownPartitioner(), new Document(createMarkdown(index))));
+		}
+		
+		MarkdownPartitioner sharedPartitioner = new MarkdownPartitioner();
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int round = 0; round < ROUNDS; round++) {
+			for (int index = 0; index < DOCUMENTS; index++) {
+				int documentIndex = index;
+				tasks.add(() -> {
+					IDocument document = new Document(createMarkdown(documentIndex));
+					
+					assertEquals(expectedPartitions.get(documentIndex), partition(sharedPartitioner, document));
+					return documentIndex;
+				});
+			}
+		}
+		
+		// when
+		List<Integer> partitionedDocuments = runConcurrently(tasks);
+		
+		// then
+		assertEquals(DOCUMENTS * ROUNDS, partitionedDocuments.size());
+	}
+	
+	@Test
+	public void testSharedPartitionerKeepsPartitionsOfEditedDocumentsUpToDate() throws Exception {
+		// given
+		MarkdownPartitioner sharedPartitioner = new MarkdownPartitioner();
+		List<IDocument> documents = new ArrayList<>();
+		for (int index = 0; index < DOCUMENTS; index++) {
+			IDocument document = new Document(createMarkdown(index));
+			partition(sharedPartitioner, document);
+			documents.add(document);
+		}
+		
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int index = 0; index < DOCUMENTS; index++) {
+			int documentIndex = index;
+			tasks.add(() -> {
+				// each document is edited by one thread only, like editors edit their own documents
+				IDocument document = documents.get(documentIndex);
+				for (int round = 0; round < ROUNDS; round++) {
+					document.replace(0, 0, "```\ncode " + round + "\n```\n\n");
+					
+					List<String> expectedPartitions = partition(new MarkdownPartitioner(), new Document(document.get()));
+					assertEquals(expectedPartitions, partition(sharedPartitioner, document));
+				}
+				return documentIndex;
+			});
+		}
+		
+		// when
+		List<Integer> editedDocuments = runConcurrently(tasks);
+		
+		// then
+		assertEquals(DOCUMENTS, editedDocuments.size());
+	}
+	
+	@Test
+	public void testSameDocumentIsSetUpOnlyOnce() throws Exception {
+		// given
+		MarkdownPartitioner sharedPartitioner = new MarkdownPartitioner();
+		IDocument document = new Document(createMarkdown(DOCUMENTS));
+		
+		List<Callable<IDocumentPartitioner>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS * 4; i++) {
+			tasks.add(() -> {
+				sharedPartitioner.setupDocumentPartitioner(document);
+				return ((IDocumentExtension3) document).getDocumentPartitioner(sharedPartitioner.getSupportedPartitioning());
+			});
+		}
+		
+		// when
+		List<IDocumentPartitioner> documentPartitioners = runConcurrently(tasks);
+		
+		// then
+		for (IDocumentPartitioner documentPartitioner : documentPartitioners) {
+			assertSame(documentPartitioners.get(0), documentPartitioner);
+		}
+	}
+	
+}
@@ -0,0 +1,63 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SequencePatternTest {
+	
+	private static final char[] ALPHABET = { '$', 'a', 'Z', '1', '_', '.', '-', ' ', '\t', '\n', '\r',
+			'\u0085', 'ä', '\ud83d', '\ude00' };
+	
+	@Test
+	public void testMathSequences() {
+		SequencePattern start = SequencePattern.compile("\\$\\S");
+		SequencePattern end = SequencePattern.compile("\\S\\$\\D");
+		
+		assertTrue(start.matchesPrefix("$x+1 ".toCharArray(), 5));
+		assertFalse(start.matchesPrefix("$ x".toCharArray(), 3));
+		assertFalse(start.matchesPrefix("$x$\nab".toCharArray(), 6));
+		
+		assertTrue(end.matchesSuffix("a+b$ ".toCharArray(), 5));
+		assertFalse(end.matchesSuffix("a+b$1".toCharArray(), 5));
+		assertFalse(end.matchesSuffix("a\nb$ ".toCharArray(), 5));
+		
+		assertEquals('$', start.getFirstCharacter());
+		assertEquals(-1, end.getFirstCharacter());
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = { "\\$\\S", "\\S\\$\\D", "\n", "\r\n", "", "a.b", "\\w\\W\\d\\s", "\\.\\-", "x[ab]", "\\$+" })
+	public void testSameResultsAsStringMatches(String regex) {
+		SequencePattern pattern = SequencePattern.compile(regex);
+		Random random = new Random(regex.hashCode());
+		char[] text = new char[6];
+		
+		for (int run = 0; run < 20_000; run++) {
+			int length = random.nextInt(text.length + 1);
+			for (int index = 0; index < length; index++) {
+				text[index] = ALPHABET[random.nextInt(ALPHABET.length)];
+			}
+			String string = new String(text, 0, length);
+			
+			assertEquals(string.matches(regex + ".*"), pattern.matchesPrefix(text, length), string);
+			assertEquals(string.matches(".*" + regex), pattern.matchesSuffix(text, length), string);
+		}
+	}
+	
+}
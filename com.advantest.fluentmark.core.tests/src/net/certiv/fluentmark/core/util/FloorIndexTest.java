@@ -0,0 +1,127 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+public class FloorIndexTest {
+	
+	@Test
+	public void testEmptyIndex() {
+		// given
+		FloorIndex index = new FloorIndex();
+		
+		// then
+		assertTrue(index.isEmpty());
+		assertEquals(FloorIndex.NOT_FOUND, index.floorKey(0));
+		assertEquals(FloorIndex.NOT_FOUND, index.floorKey(Integer.MAX_VALUE));
+		assertEquals(7, index.floorValue(0, 7));
+		assertEquals(FloorIndex.NOT_FOUND, index.higherKey(Integer.MIN_VALUE));
+		assertArrayEquals(new int[0], index.keys());
+	}
+	
+	@Test
+	public void testFloorOfLineStarts() {
+		// given the line starts of "# Title\n\nText" (the last line has no delimiter)
+		FloorIndex index = new FloorIndex();
+		index.put(0, 0);
+		index.put(8, 1);
+		index.put(9, 2);
+		
+		// then
+		assertEquals(FloorIndex.NOT_FOUND, index.floorKey(-1));
+		assertEquals(0, index.floorValue(0, -1));
+		assertEquals(0, index.floorValue(7, -1));
+		assertEquals(1, index.floorValue(8, -1));
+		assertEquals(2, index.floorValue(9, -1));
+		assertEquals(2, index.floorValue(13, -1), "end of the document");
+		assertEquals(2, index.floorValue(Integer.MAX_VALUE, -1));
+		assertEquals(8, index.higherKey(0));
+		assertEquals(9, index.higherKey(8));
+		assertEquals(FloorIndex.NOT_FOUND, index.higherKey(9));
+	}
+	
+	@Test
+	public void testPutInAnyOrder() {
+		// given
+		FloorIndex index = new FloorIndex(1);
+		
+		// when
+		index.put(20, 2);
+		index.put(0, 0);
+		index.put(10, 1);
+		index.put(30, 3);
+		index.put(10, 11);
+		
+		// then
+		assertEquals(4, index.size());
+		assertArrayEquals(new int[] { 0, 10, 20, 30 }, index.keys());
+		assertEquals(11, index.floorValue(19, -1));
+		assertTrue(index.containsKey(20));
+		assertFalse(index.containsKey(21));
+		assertEquals("{0=0, 10=11, 20=2, 30=3}", index.toString());
+	}
+	
+	@Test
+	public void testShiftKeysAndClear() {
+		// given
+		FloorIndex index = new FloorIndex();
+		index.add(0);
+		index.add(5);
+		
+		// when
+		index.shiftKeys(-5);
+		
+		// then
+		assertArrayEquals(new int[] { -5, 0 }, index.keys());
+		assertEquals(0, index.floorKey(4));
+		assertEquals(-5, index.floorKey(-1));
+		
+		// when
+		index.clear();
+		
+		// then
+		assertTrue(index.isEmpty());
+		assertEquals(FloorIndex.NOT_FOUND, index.floorKey(0));
+	}
+	
+	@Test
+	public void testSameResultsAsTreeMap() {
+		// given
+		Random random = new Random(4711);
+		FloorIndex index = new FloorIndex(2);
+		TreeMap<Integer, Integer> map = new TreeMap<>();
+		
+		for (int i = 0; i < 2000; i++) {
+			// when
+			int key = random.nextInt(500);
+			index.put(key, i);
+			map.put(key, i);
+			
+			// then
+			int probe = random.nextInt(520) - 10;
+			Integer floorKey = map.floorKey(probe);
+			Integer higherKey = map.higherKey(probe);
+			assertEquals(floorKey != null ? floorKey : FloorIndex.NOT_FOUND, index.floorKey(probe));
+			assertEquals(floorKey != null ? map.get(floorKey) : -1, index.floorValue(probe, -1));
+			assertEquals(higherKey != null ? higherKey : FloorIndex.NOT_FOUND, index.higherKey(probe));
+			assertEquals(map.size(), index.size());
+		}
+	}
+
+}
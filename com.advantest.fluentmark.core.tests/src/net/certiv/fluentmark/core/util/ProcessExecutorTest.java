@@ -0,0 +1,160 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import net.certiv.fluentmark.core.util.Cmd.CmdResult;
+
+@DisabledOnOs(OS.WINDOWS)
+public class ProcessExecutorTest {
+	
+	private static final String[] SLEEP_10_SECONDS = { "sleep", "10" };
+	private static final String[] CAT = { "cat" };
+	
+	private ProcessExecutor executor;
+	
+	@BeforeEach
+	public void setUp() {
+		executor = new ProcessExecutor(2);
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		executor = null;
+	}
+	
+	@Test
+	public void testProcessExceedingTimeoutIsKilled() {
+		// given
+		long start = System.nanoTime();
+		
+		// when
+		RuntimeException exception = assertThrows(RuntimeException.class,
+				() -> executor.execute(SLEEP_10_SECONDS, null, null, "\n", Duration.ofMillis(200), null));
+		
+		// then
+		assertTrue(exception.getMessage().contains("time limit"), exception.getMessage());
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+	}
+	
+	@Test
+	public void testProcessIsKilledWhenMonitorIsCanceled() {
+		// given
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		CompletableFuture.runAsync(() -> monitor.setCanceled(true), CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+		long start = System.nanoTime();
+		
+		// when
+		assertThrows(OperationCanceledException.class,
+				() -> executor.execute(SLEEP_10_SECONDS, null, null, "\n", null, monitor));
+		
+		// then
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+	}
+	
+	@Test
+	public void testProcessIsKilledWhenFutureIsCanceled() throws Exception {
+		// given
+		CompletableFuture<CmdResult> result = executor.submit(SLEEP_10_SECONDS, null, (String) null, "\n", null, null);
+		
+		// when
+		result.cancel(true);
+		
+		// then the slot is released again and other processes can run
+		executor.setMaxProcesses(1);
+		CmdResult echoed = executor.execute(CAT, null, "text", "\n", Duration.ofSeconds(5), null);
+		assertEquals("text\n", echoed.stdOutput);
+	}
+	
+	@Test
+	public void testNumberOfConcurrentProcessesIsLimited() {
+		// given
+		String[] sleep = { "sleep", "0.5" };
+		long start = System.nanoTime();
+		
+		// when
+		List<CompletableFuture<CmdResult>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(executor.submit(sleep, null, (String) null, "\n", null, null));
+		}
+		results.forEach(CompletableFuture::join);
+		
+		// then two rounds of two processes each
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1000));
+	}
+	
+	@Test
+	public void testFailingCommandIsReported() {
+		// when
+		CompletionException exception = assertThrows(CompletionException.class,
+				() -> executor.submit(new String[] { "no-such-command-for-fluentmark" }, null, (String) null, "\n", null, null).join());
+		
+		// then
+		assertTrue(exception.getCause() instanceof RuntimeException);
+	}
+	
+	@Test
+	public void testLineEndingsAreNormalizedInLargeOutput() {
+		// given lines with all kinds of line endings, crossing the boundaries of the read buffer
+		String[] lineEndings = { "\n", "\r\n", "\r" };
+		List<String> parts = new ArrayList<>();
+		StringBuilder expected = new StringBuilder();
+		for (int part = 0; part < 20; part++) {
+			StringBuilder input = new StringBuilder();
+			for (int line = 0; line < 500; line++) {
+				String text = "part " + part + " line " + line + " " + "x".repeat((part * 7 + line * 13) % 40);
+				input.append(text).append(lineEndings[(part + line) % lineEndings.length]);
+				expected.append(text).append("\r\n");
+			}
+			parts.add(input.toString());
+		}
+		parts.add("last line without line ending");
+		expected.append("last line without line ending\r\n");
+		
+		// when
+		CmdResult result = executor.execute(CAT, null, processInput -> {
+			for (String part : parts) {
+				processInput.write(part);
+			}
+		}, expected.length(), "\r\n", Duration.ofSeconds(30), null);
+		
+		// then
+		assertEquals(expected.toString(), result.stdOutput);
+		assertEquals("", result.errOutput);
+	}
+	
+	@Test
+	public void testEmptyLinesArePreserved() {
+		// when
+		CmdResult result = executor.execute(CAT, null, "\n\r\n\r\nfirst\r\n\r\nsecond\n\n", "\n", Duration.ofSeconds(5), null);
+		
+		// then
+		assertEquals("\n\n\nfirst\n\nsecond\n\n", result.stdOutput);
+	}
+	
+}
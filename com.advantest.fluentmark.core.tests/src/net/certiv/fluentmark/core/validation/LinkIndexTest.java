@@ -0,0 +1,185 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LinkIndexTest {
+	
+	@TempDir
+	File temporaryFolder;
+	
+	private LinkIndex linkIndex;
+	private IFile changedFile;
+	private IFile linkingFile;
+	private IFile otherFile;
+	
+	private File target;
+	private IPath targetLocation;
+	
+	@BeforeEach
+	public void setUp() throws Exception {
+		linkIndex = new LinkIndex();
+		changedFile = mock(IFile.class);
+		linkingFile = mock(IFile.class);
+		otherFile = mock(IFile.class);
+		
+		target = new File(temporaryFolder, "target.md");
+		write(target, "# Introduction {#introduction}\n\nSome text.\n\n# Usage {#usage}\n");
+		targetLocation = Path.fromOSString(target.getAbsolutePath());
+	}
+	
+	private void write(File file, String content) throws Exception {
+		long lastModified = file.lastModified();
+		Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+		// make sure that the modification is noticed even on file systems with a coarse time resolution
+		file.setLastModified(lastModified + 2000);
+	}
+	
+	@Test
+	public void testFilesLinkingToAddedOrRemovedFileAreRevalidated() {
+		// given
+		linkIndex.addLink(linkingFile, targetLocation, false);
+		linkIndex.addLink(otherFile, Path.fromOSString(new File(temporaryFolder, "other.md").getAbsolutePath()), false);
+		
+		// when
+		Set<IFile> filesToValidate = linkIndex.getFilesToRevalidate(List.of(changedFile), List.of(targetLocation), List.of());
+		
+		// then
+		assertEquals(Set.of(changedFile, linkingFile), filesToValidate);
+	}
+	
+	@Test
+	public void testFilesLinkingToDirectoryAreRevalidated() {
+		// given
+		IPath directory = Path.fromOSString(temporaryFolder.getAbsolutePath());
+		linkIndex.addLink(linkingFile, directory.addTrailingSeparator(), false);
+		
+		// when
+		Set<IFile> filesToValidate = linkIndex.getFilesToRevalidate(List.of(), List.of(directory), List.of());
+		
+		// then
+		assertEquals(Set.of(linkingFile), filesToValidate);
+	}
+	
+	@Test
+	public void testFilesLinkingToChangedAnchorsAreRevalidated() throws Exception {
+		// given
+		linkIndex.addLink(linkingFile, targetLocation, true);
+		linkIndex.addLink(otherFile, targetLocation, false);
+		linkIndex.updateSectionAnchors(targetLocation);
+		
+		write(target, "# Introduction {#introduction}\n\nSome text.\n\n# Installation {#installation}\n");
+		
+		// when
+		Set<IFile> filesToValidate = linkIndex.getFilesToRevalidate(List.of(changedFile), List.of(), List.of(targetLocation));
+		
+		// then
+		assertEquals(Set.of(changedFile, linkingFile), filesToValidate);
+		assertTrue(linkIndex.getSectionAnchors(targetLocation).contains("installation"));
+	}
+	
+	@Test
+	public void testFilesLinkingToUnchangedAnchorsAreNotRevalidated() throws Exception {
+		// given
+		linkIndex.addLink(linkingFile, targetLocation, true);
+		linkIndex.updateSectionAnchors(targetLocation);
+		
+		write(target, "# Introduction {#introduction}\n\nSome other text.\n\n# Usage {#usage}\n");
+		
+		// when
+		Set<IFile> filesToValidate = linkIndex.getFilesToRevalidate(List.of(changedFile), List.of(), List.of(targetLocation));
+		
+		// then
+		assertEquals(Set.of(changedFile), filesToValidate);
+	}
+	
+	@Test
+	public void testFilesLinkingToAnchorsInChangedNonMarkdownFileAreRevalidated() {
+		// given
+		IPath diagramLocation = Path.fromOSString(new File(temporaryFolder, "diagram.puml").getAbsolutePath());
+		linkIndex.addLink(linkingFile, diagramLocation, true);
+		
+		// when
+		Set<IFile> filesToValidate = linkIndex.getFilesToRevalidate(List.of(), List.of(), List.of(diagramLocation));
+		
+		// then
+		assertEquals(Set.of(linkingFile), filesToValidate);
+	}
+	
+	@Test
+	public void testRemovedLinksAreForgotten() {
+		// given
+		linkIndex.addLink(linkingFile, targetLocation, true);
+		linkIndex.addLink(otherFile, targetLocation, true);
+		
+		// when
+		linkIndex.removeLinksOf(linkingFile);
+		
+		// then
+		assertEquals(Set.of(otherFile), linkIndex.getFilesLinkingTo(targetLocation));
+		assertEquals(Set.of(otherFile), linkIndex.getFilesLinkingToAnchorsIn(targetLocation));
+	}
+	
+	@Test
+	public void testIndexedProjectsAreRestoredFromSavedIndex() {
+		// given
+		IProject project = mock(IProject.class);
+		when(project.getName()).thenReturn("project");
+		linkIndex.setIndexed(project, true);
+		File indexFile = new File(temporaryFolder, "link-index-1.dat");
+		assertTrue(linkIndex.save(indexFile));
+		
+		// when
+		LinkIndex restoredIndex = new LinkIndex();
+		restoredIndex.load(indexFile);
+		
+		// then
+		assertTrue(restoredIndex.isIndexed(project));
+	}
+	
+	@Test
+	public void testSavedIndexIsNotRestoredTwice() {
+		// given
+		IProject project = mock(IProject.class);
+		when(project.getName()).thenReturn("project");
+		linkIndex.setIndexed(project, true);
+		File indexFile = new File(temporaryFolder, "link-index-1.dat");
+		assertTrue(linkIndex.save(indexFile));
+		new LinkIndex().load(indexFile);
+		
+		// when the index is loaded again, e.g. after a crash
+		LinkIndex restoredIndex = new LinkIndex();
+		restoredIndex.load(indexFile);
+		
+		// then
+		assertFalse(indexFile.exists());
+		assertFalse(restoredIndex.isIndexed(project));
+	}
+	
+}
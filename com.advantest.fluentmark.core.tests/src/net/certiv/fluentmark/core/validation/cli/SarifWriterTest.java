@@ -0,0 +1,188 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import net.certiv.fluentmark.core.validation.IssueTypes;
+
+public class SarifWriterTest {
+	
+	@TempDir
+	File temporaryFolder;
+	
+	private IPath baseLocation;
+	private StringWriter out;
+	private SarifWriter sarifWriter;
+	
+	@BeforeEach
+	public void setUp() throws Exception {
+		baseLocation = Path.fromOSString(temporaryFolder.getAbsolutePath());
+		out = new StringWriter();
+		sarifWriter = new SarifWriter(out, baseLocation, "1.2.3");
+	}
+	
+	private IFile mockFile(String relativePath) {
+		IFile file = mock(IFile.class);
+		when(file.getLocation()).thenReturn(baseLocation.append(relativePath));
+		return file;
+	}
+	
+	private JsonObject readLog() throws Exception {
+		sarifWriter.close();
+		return JsonParser.parseString(out.toString()).getAsJsonObject();
+	}
+	
+	private JsonObject getRun(JsonObject log) {
+		return log.getAsJsonArray("runs").get(0).getAsJsonObject();
+	}
+	
+	private JsonArray getResults(JsonObject log) {
+		return getRun(log).getAsJsonArray("results");
+	}
+	
+	@Test
+	public void testEmptyLog() throws Exception {
+		// when
+		JsonObject log = readLog();
+		
+		// then
+		assertEquals("2.1.0", log.get("version").getAsString());
+		JsonObject driver = getRun(log).getAsJsonObject("tool").getAsJsonObject("driver");
+		assertEquals("FluentMark", driver.get("name").getAsString());
+		assertEquals("1.2.3", driver.get("version").getAsString());
+		assertEquals(0, getResults(log).size());
+		assertEquals(0, sarifWriter.getErrors() + sarifWriter.getWarnings() + sarifWriter.getNotes());
+	}
+	
+	@Test
+	public void testAllRulesAreDeclared() throws Exception {
+		// when
+		JsonObject log = readLog();
+		
+		// then
+		List<String> ruleIds = new ArrayList<>();
+		for (JsonElement rule : getRun(log).getAsJsonObject("tool").getAsJsonObject("driver").getAsJsonArray("rules")) {
+			ruleIds.add(rule.getAsJsonObject().get("id").getAsString());
+		}
+		assertEquals(List.of(IssueTypes.MARKDOWN_ISSUE, IssueTypes.PLANTUML_ISSUE, SarifWriter.MARKDOWN_TASK, SarifWriter.PLANTUML_TASK),
+				ruleIds);
+	}
+	
+	@Test
+	public void testProblemsGetLevelOfTheirSeverity() throws Exception {
+		// given
+		IFile file = mockFile("doc.md");
+		
+		// when
+		sarifWriter.reportValidationResult(file, IssueTypes.MARKDOWN_ISSUE, IMarker.SEVERITY_ERROR, "error", 1, null, null);
+		sarifWriter.reportValidationResult(file, IssueTypes.PLANTUML_ISSUE, IMarker.SEVERITY_WARNING, "warning", 2, null, null);
+		sarifWriter.reportValidationResult(file, IssueTypes.MARKDOWN_ISSUE, IMarker.SEVERITY_INFO, "info", 3, null, null);
+		JsonObject log = readLog();
+		
+		// then
+		JsonArray results = getResults(log);
+		assertEquals(3, results.size());
+		assertEquals("error", results.get(0).getAsJsonObject().get("level").getAsString());
+		assertEquals(IssueTypes.MARKDOWN_ISSUE, results.get(0).getAsJsonObject().get("ruleId").getAsString());
+		assertEquals("warning", results.get(1).getAsJsonObject().get("level").getAsString());
+		assertEquals("note", results.get(2).getAsJsonObject().get("level").getAsString());
+		assertEquals(1, sarifWriter.getErrors());
+		assertEquals(1, sarifWriter.getWarnings());
+		assertEquals(1, sarifWriter.getNotes());
+	}
+	
+	@Test
+	public void testTasksAreNotes() throws Exception {
+		// given a FIXME, its high priority has the same value as the error severity
+		IFile file = mockFile("doc.md");
+		
+		// when
+		sarifWriter.reportValidationResult(file, SarifWriter.MARKDOWN_TASK, IMarker.PRIORITY_HIGH, "FIXME broken", 1, null, null);
+		sarifWriter.reportValidationResult(file, SarifWriter.PLANTUML_TASK, IMarker.PRIORITY_NORMAL, "TODO later", 2, null, null);
+		JsonObject log = readLog();
+		
+		// then
+		JsonArray results = getResults(log);
+		assertEquals("note", results.get(0).getAsJsonObject().get("level").getAsString());
+		assertEquals("note", results.get(1).getAsJsonObject().get("level").getAsString());
+		assertEquals(0, sarifWriter.getErrors());
+		assertEquals(0, sarifWriter.getWarnings());
+		assertEquals(2, sarifWriter.getNotes());
+	}
+	
+	@Test
+	public void testLocations() throws Exception {
+		// given
+		IFile file = mockFile("sub folder/doc.md");
+		IFile outsideFile = mock(IFile.class);
+		when(outsideFile.getLocation()).thenReturn(Path.fromOSString(new File(temporaryFolder.getParentFile(), "other.md").getAbsolutePath()));
+		
+		// when
+		sarifWriter.reportValidationResult(file, IssueTypes.MARKDOWN_ISSUE, IMarker.SEVERITY_ERROR, "error", 7, 10, 15);
+		sarifWriter.reportValidationResult(outsideFile, IssueTypes.MARKDOWN_ISSUE, IMarker.SEVERITY_ERROR, "error", null, null, null);
+		sarifWriter.reportValidationResult(null, IssueTypes.MARKDOWN_ISSUE, IMarker.SEVERITY_ERROR, "error", null, null, null);
+		JsonObject log = readLog();
+		
+		// then
+		JsonArray results = getResults(log);
+		JsonObject location = results.get(0).getAsJsonObject().getAsJsonArray("locations").get(0).getAsJsonObject()
+				.getAsJsonObject("physicalLocation");
+		assertEquals("sub%20folder/doc.md", location.getAsJsonObject("artifactLocation").get("uri").getAsString());
+		assertEquals("SRCROOT", location.getAsJsonObject("artifactLocation").get("uriBaseId").getAsString());
+		assertEquals(7, location.getAsJsonObject("region").get("startLine").getAsInt());
+		assertEquals(10, location.getAsJsonObject("region").get("charOffset").getAsInt());
+		assertEquals(5, location.getAsJsonObject("region").get("charLength").getAsInt());
+		
+		JsonObject outsideLocation = results.get(1).getAsJsonObject().getAsJsonArray("locations").get(0).getAsJsonObject()
+				.getAsJsonObject("physicalLocation");
+		assertTrue(outsideLocation.getAsJsonObject("artifactLocation").get("uri").getAsString().startsWith("file:"));
+		assertFalse(outsideLocation.getAsJsonObject("artifactLocation").has("uriBaseId"));
+		assertFalse(outsideLocation.has("region"));
+		
+		assertFalse(results.get(2).getAsJsonObject().has("locations"));
+	}
+	
+	@Test
+	public void testMessagesAreEscaped() throws Exception {
+		// given
+		String message = "Link \"a\\b\"\tis\nbroken\u0001";
+		
+		// when
+		sarifWriter.reportValidationResult(mockFile("doc.md"), IssueTypes.MARKDOWN_ISSUE, IMarker.SEVERITY_ERROR, message, 1, null, null);
+		JsonObject log = readLog();
+		
+		// then
+		assertEquals(message, getResults(log).get(0).getAsJsonObject().getAsJsonObject("message").get("text").getAsString());
+	}
+	
+}
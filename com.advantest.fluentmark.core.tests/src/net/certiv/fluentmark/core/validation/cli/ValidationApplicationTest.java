@@ -0,0 +1,79 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ValidationApplicationTest {
+	
+	@TempDir
+	File temporaryFolder;
+	
+	private ValidationApplication.Arguments parse(String... args) {
+		return ValidationApplication.Arguments.parse(args);
+	}
+	
+	@Test
+	public void testParseFolderOnly() {
+		// when
+		ValidationApplication.Arguments arguments = parse(temporaryFolder.getPath());
+		
+		// then
+		assertEquals(temporaryFolder.getAbsoluteFile(), arguments.folder);
+		assertNull(arguments.output);
+		assertFalse(arguments.offline);
+		assertEquals(Runtime.getRuntime().availableProcessors(), arguments.threads);
+	}
+	
+	@Test
+	public void testParseAllOptions() {
+		// given
+		File output = new File(temporaryFolder, "results.sarif");
+		
+		// when
+		ValidationApplication.Arguments arguments = parse("--offline", "--threads", "3", "--output", output.getPath(),
+				temporaryFolder.getPath());
+		
+		// then
+		assertEquals(temporaryFolder.getAbsoluteFile(), arguments.folder);
+		assertEquals(output, arguments.output);
+		assertTrue(arguments.offline);
+		assertEquals(3, arguments.threads);
+	}
+	
+	@Test
+	public void testParseThreads() {
+		assertEquals(Runtime.getRuntime().availableProcessors(), parse("--threads", "auto", temporaryFolder.getPath()).threads);
+		assertEquals(1, parse("--threads", "0", temporaryFolder.getPath()).threads);
+		assertThrows(IllegalArgumentException.class, () -> parse("--threads", "many", temporaryFolder.getPath()));
+	}
+	
+	@Test
+	public void testParseInvalidArguments() {
+		File missingFolder = new File(temporaryFolder, "missing");
+		
+		assertThrows(IllegalArgumentException.class, () -> parse());
+		assertThrows(IllegalArgumentException.class, () -> parse((String[]) null));
+		assertThrows(IllegalArgumentException.class, () -> parse(missingFolder.getPath()));
+		assertThrows(IllegalArgumentException.class, () -> parse("--verbose", temporaryFolder.getPath()));
+		assertThrows(IllegalArgumentException.class, () -> parse(temporaryFolder.getPath(), "--output"));
+		assertThrows(IllegalArgumentException.class, () -> parse(temporaryFolder.getPath(), temporaryFolder.getPath()));
+	}
+	
+}
@@ -0,0 +1,257 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.uri;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HttpLinkCheckerIT {
+	
+	/**
+	 * Minimal HTTP/1.1 server that answers each request with the status code computed by a handler and
+	 * closes the connection afterwards. It counts requests per method and path and tracks the maximum
+	 * number of requests handled concurrently.
+	 */
+	private static class StubHttpServer {
+		
+		private final ServerSocket serverSocket;
+		private final Thread acceptingThread;
+		
+		private volatile BiFunction<String, String, Integer> handler = (method, path) -> 200;
+		private volatile long responseDelayMillis = 0;
+		
+		private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+		private final AtomicInteger runningRequests = new AtomicInteger();
+		private final AtomicInteger maxRunningRequests = new AtomicInteger();
+		
+		StubHttpServer() throws IOException {
+			serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+			acceptingThread = new Thread(this::acceptConnections, "Stub HTTP server");
+			acceptingThread.setDaemon(true);
+			acceptingThread.start();
+		}
+		
+		URI uri(String path) {
+			return URI.create("http://localhost:" + serverSocket.getLocalPort() + path);
+		}
+		
+		int getRequestCount(String method, String path) {
+			AtomicInteger count = requestCounts.get(method + " " + path);
+			return count != null ? count.get() : 0;
+		}
+		
+		void close() throws IOException {
+			serverSocket.close();
+		}
+		
+		private void acceptConnections() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					Thread connectionThread = new Thread(() -> handleConnection(socket), "Stub HTTP connection");
+					connectionThread.setDaemon(true);
+					connectionThread.start();
+				} catch (IOException e) {
+					// server socket closed
+				}
+			}
+		}
+		
+		private void handleConnection(Socket socket) {
+			try (socket) {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+				String requestLine = reader.readLine();
+				if (requestLine == null) {
+					return;
+				}
+				
+				// skip the headers, our requests do not have a body
+				String headerLine;
+				do {
+					headerLine = reader.readLine();
+				} while (headerLine != null && !headerLine.isEmpty());
+				
+				String[] requestParts = requestLine.split(" ");
+				String method = requestParts[0];
+				String path = requestParts[1];
+				requestCounts.computeIfAbsent(method + " " + path, key -> new AtomicInteger()).incrementAndGet();
+				
+				int running = runningRequests.incrementAndGet();
+				maxRunningRequests.accumulateAndGet(running, Math::max);
+				try {
+					Thread.sleep(responseDelayMillis);
+				} finally {
+					runningRequests.decrementAndGet();
+				}
+				
+				int statusCode = handler.apply(method, path);
+				OutputStream output = socket.getOutputStream();
+				output.write(("HTTP/1.1 " + statusCode + " Stub\r\n"
+						+ "Content-Length: 0\r\n"
+						+ "Connection: close\r\n"
+						+ "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+				output.flush();
+			} catch (IOException | InterruptedException e) {
+				// client closed the connection
+			}
+		}
+	}
+	
+	private StubHttpServer server;
+	private HttpClient httpClient;
+	
+	@BeforeEach
+	public void setUp() throws Exception {
+		server = new StubHttpServer();
+		httpClient = HttpClient.newBuilder()
+				.version(Version.HTTP_1_1)
+				.build();
+	}
+	
+	@AfterEach
+	public void tearDown() throws Exception {
+		server.close();
+		server = null;
+		httpClient = null;
+	}
+	
+	private HttpLinkChecker createChecker(int maxRequestsPerHost, int maxRetries) {
+		return new HttpLinkChecker(httpClient, maxRequestsPerHost, maxRetries, Duration.ofMillis(10), Duration.ofSeconds(5));
+	}
+	
+	private static int getStatusCode(CompletableFuture<HttpResponse<Void>> check) throws Exception {
+		return check.get(10, TimeUnit.SECONDS).statusCode();
+	}
+	
+	@Test
+	public void testReachableAddress() throws Exception {
+		HttpLinkChecker checker = createChecker(4, 2);
+		
+		assertEquals(200, getStatusCode(checker.check(server.uri("/index.html"))));
+		assertEquals(1, server.getRequestCount("HEAD", "/index.html"));
+		assertEquals(0, server.getRequestCount("GET", "/index.html"));
+	}
+	
+	@Test
+	public void testNotFoundIsNeitherRetriedNorRequestedWithGet() throws Exception {
+		server.handler = (method, path) -> 404;
+		HttpLinkChecker checker = createChecker(4, 2);
+		
+		assertEquals(404, getStatusCode(checker.check(server.uri("/missing.html"))));
+		assertEquals(1, server.getRequestCount("HEAD", "/missing.html"));
+		assertEquals(0, server.getRequestCount("GET", "/missing.html"));
+	}
+	
+	@Test
+	public void testConcurrentChecksOfSameAddressShareOneRequest() throws Exception {
+		server.responseDelayMillis = 300;
+		HttpLinkChecker checker = createChecker(4, 2);
+		
+		List<CompletableFuture<HttpResponse<Void>>> checks = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			checks.add(checker.check(server.uri("/same.html")));
+		}
+		
+		for (CompletableFuture<HttpResponse<Void>> check : checks) {
+			assertSame(checks.get(0), check);
+			assertEquals(200, getStatusCode(check));
+		}
+		assertEquals(1, server.getRequestCount("HEAD", "/same.html"));
+	}
+	
+	@Test
+	public void testFallbackToGetIfHeadIsNotAllowed() throws Exception {
+		server.handler = (method, path) -> method.equals("HEAD") ? 405 : 200;
+		HttpLinkChecker checker = createChecker(4, 2);
+		
+		assertEquals(200, getStatusCode(checker.check(server.uri("/no-head.html"))));
+		assertEquals(1, server.getRequestCount("HEAD", "/no-head.html"));
+		assertEquals(1, server.getRequestCount("GET", "/no-head.html"));
+	}
+	
+	@Test
+	public void testRetryOnTemporaryProblem() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		server.handler = (method, path) -> requests.incrementAndGet() <= 2 ? 503 : 200;
+		HttpLinkChecker checker = createChecker(4, 2);
+		
+		assertEquals(200, getStatusCode(checker.check(server.uri("/busy.html"))));
+		assertEquals(3, server.getRequestCount("HEAD", "/busy.html"));
+	}
+	
+	@Test
+	public void testRetriesAreLimited() throws Exception {
+		server.handler = (method, path) -> 503;
+		HttpLinkChecker checker = createChecker(4, 1);
+		
+		assertEquals(503, getStatusCode(checker.check(server.uri("/down.html"))));
+		assertEquals(2, server.getRequestCount("HEAD", "/down.html"));
+	}
+	
+	@Test
+	public void testRequestsPerHostAreLimited() throws Exception {
+		server.responseDelayMillis = 200;
+		HttpLinkChecker checker = createChecker(2, 0);
+		
+		List<CompletableFuture<HttpResponse<Void>>> checks = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			checks.add(checker.check(server.uri("/page" + i + ".html")));
+		}
+		
+		for (CompletableFuture<HttpResponse<Void>> check : checks) {
+			assertEquals(200, getStatusCode(check));
+		}
+		assertTrue(server.maxRunningRequests.get() <= 2, "Too many concurrent requests: " + server.maxRunningRequests.get());
+	}
+	
+	@Test
+	public void testUnreachableServer() throws Exception {
+		URI uri = server.uri("/index.html");
+		server.close();
+		HttpLinkChecker checker = createChecker(4, 1);
+		
+		try {
+			checker.check(uri).get(10, TimeUnit.SECONDS);
+			fail("Expected the check to fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IOException, "Unexpected error: " + e.getCause());
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.uri;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UriReachabilityCacheTest {
+	
+	private static final Duration LONG = Duration.ofDays(1);
+	
+	@TempDir
+	File temporaryFolder;
+	
+	@Test
+	public void testEntriesExpireAfterTheirTtl() {
+		// given
+		UriReachabilityCache cache = new UriReachabilityCache(Duration.ZERO, LONG, LONG, 10);
+		
+		// when
+		cache.putStatusCode("https://example.com/ok", 200);
+		cache.putStatusCode("https://example.com/missing", 404);
+		
+		// then
+		assertNull(cache.get("https://example.com/ok"));
+		assertEquals(404, cache.get("https://example.com/missing").statusCode);
+	}
+	
+	@Test
+	public void testFailedChecksExpireAfterNegativeTtl() {
+		// given
+		UriReachabilityCache cache = new UriReachabilityCache(LONG, Duration.ZERO, LONG, 10);
+		
+		// when
+		cache.putStatusCode("https://example.com/ok", 200);
+		cache.putStatusCode("https://example.com/missing", 404);
+		cache.putError("https://example.com/broken", new IllegalStateException());
+		
+		// then
+		assertTrue(cache.get("https://example.com/ok").isReachable());
+		assertNull(cache.get("https://example.com/missing"));
+		assertNull(cache.get("https://example.com/broken"));
+	}
+	
+	@Test
+	public void testIoErrorsExpireAfterTransientTtl() {
+		// given
+		UriReachabilityCache cache = new UriReachabilityCache(LONG, LONG, Duration.ZERO, 10);
+		
+		// when
+		UriReachabilityCache.Entry timeout = cache.putError("https://example.com/slow", new HttpTimeoutException("request timed out"));
+		UriReachabilityCache.Entry refused = cache.putError("https://example.com/down", new ConnectException());
+		cache.putError("https://example.com/broken", new IllegalStateException());
+		
+		// then
+		assertTrue(timeout.transientError);
+		assertTrue(refused.transientError);
+		assertFalse(timeout.isReachable());
+		assertNull(cache.get("https://example.com/slow"));
+		assertNull(cache.get("https://example.com/down"));
+		assertNotNull(cache.get("https://example.com/broken"));
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedEntriesAreEvicted() {
+		// given
+		UriReachabilityCache cache = new UriReachabilityCache(LONG, LONG, LONG, 2);
+		cache.putStatusCode("https://example.com/1", 200);
+		cache.putStatusCode("https://example.com/2", 200);
+		
+		// when
+		cache.get("https://example.com/1");
+		cache.putStatusCode("https://example.com/3", 200);
+		
+		// then
+		assertNotNull(cache.get("https://example.com/1"));
+		assertNull(cache.get("https://example.com/2"));
+		assertNotNull(cache.get("https://example.com/3"));
+	}
+	
+	@Test
+	public void testSaveAndLoad() {
+		// given
+		File cacheFile = new File(temporaryFolder, "uri-cache.dat");
+		UriReachabilityCache cache = new UriReachabilityCache(LONG, LONG, LONG, 10);
+		UriReachabilityCache.Entry ok = cache.putStatusCode("https://example.com/ok", 200);
+		cache.putStatusCode("https://example.com/missing", 404);
+		cache.putError("https://example.com/broken", new IllegalStateException());
+		cache.putError("https://example.com/slow", new HttpTimeoutException("request timed out"));
+		
+		// when
+		cache.save(cacheFile);
+		UriReachabilityCache loadedCache = new UriReachabilityCache(LONG, LONG, LONG, 10);
+		loadedCache.load(cacheFile);
+		
+		// then
+		UriReachabilityCache.Entry loadedOk = loadedCache.get("https://example.com/ok");
+		assertEquals(ok.statusCode, loadedOk.statusCode);
+		assertEquals(ok.checkedAt, loadedOk.checkedAt);
+		assertNull(loadedOk.errorClass);
+		assertEquals(404, loadedCache.get("https://example.com/missing").statusCode);
+		assertEquals(IllegalStateException.class.getName(), loadedCache.get("https://example.com/broken").errorClass);
+		assertNull(loadedCache.get("https://example.com/slow"));
+	}
+	
+	@Test
+	public void testLoadKeepsLeastRecentlyUsedOrder() {
+		// given
+		File cacheFile = new File(temporaryFolder, "uri-cache.dat");
+		UriReachabilityCache cache = new UriReachabilityCache(LONG, LONG, LONG, 10);
+		cache.putStatusCode("https://example.com/1", 200);
+		cache.putStatusCode("https://example.com/2", 200);
+		cache.get("https://example.com/1");
+		cache.save(cacheFile);
+		
+		// when
+		UriReachabilityCache loadedCache = new UriReachabilityCache(LONG, LONG, LONG, 2);
+		loadedCache.load(cacheFile);
+		loadedCache.putStatusCode("https://example.com/3", 200);
+		
+		// then
+		assertNotNull(loadedCache.get("https://example.com/1"));
+		assertNull(loadedCache.get("https://example.com/2"));
+	}
+	
+}
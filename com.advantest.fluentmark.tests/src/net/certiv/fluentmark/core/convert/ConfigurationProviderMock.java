@@ -60,6 +60,11 @@ public class ConfigurationProviderMock implements IConfigurationProvider {
 		}
 	}
 
+	@Override
+	public boolean usePandocServer() {
+		return false;
+	}
+
 	@Override
 	public String getDotCommand() {
 		return "";
@@ -0,0 +1,523 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+
+/*
+ * Runtime of the preview page (see preview.html). The page is loaded once, afterwards the preview view
+ * only calls the functions of the global Fluent object:
+ *
+ *   Fluent.set(html)              replaces the page contents by the given HTML
+ *   Fluent.patch(ids, fragments)  replaces the page contents by the given blocks (see HtmlBlocks)
+ *   Fluent.scrollTo(anchor)       scrolls to the given anchor
+ *   Fluent.updateImages()         reloads local images and enables zooming images
+ *
+ * Fluent.set() does not replace the page's DOM, but morphs it into the new contents, i.e. only nodes
+ * that actually changed are touched. Unchanged parts (e.g. large SVG diagrams) are neither re-created
+ * nor re-laid out, and the scroll position and the zoom state of images are kept.
+ */
+
+let imageSelector = 'figure, :not(figure) > img';
+let factor = 1.01;
+var scale = 1;
+var zoomX = 0;
+var zoomY = 0;
+var currentImage = null;
+var start = null;
+var panning = false;
+
+function setTransform(image, translateX, translateY, scale) {
+	image.style.transform = "translate(" + translateX + "px, " + translateY + "px) scale(" + scale + ")";
+}
+
+function resetTransform(image) {
+	setTransform(image, 0, 0, 1);
+}
+
+function tagCurrentZoomableImage(image) {
+	if (!image.classList.contains("fluentmark_zoom")) {
+		image.classList.add("fluentmark_zoom");
+	}
+}
+
+function untagCurrentZoomableImage(image) {
+	image.classList.remove("fluentmark_zoom");
+}
+
+function setCursor(image, cursor) {
+	image.style.cursor = cursor;
+}
+
+function setZoomInCursor(image) {
+	setCursor(image, "zoom-in");
+}
+
+function setZoomOutCursor(image) {
+	setCursor(image, "zoom-out");
+}
+
+function setGrabbingCursor(image) {
+	setCursor(image, "grabbing");
+}
+
+function resetZoomState() {
+	scale = 1;
+	zoomX = 0;
+	zoomY = 0;
+	currentImage = null;
+	start = null;
+	panning = false;
+}
+
+function resetAllImages() {
+	var allImages = document.body.querySelectorAll(imageSelector);
+	for (let n = 0; n < allImages.length; n++) {
+		untagCurrentZoomableImage(allImages[n]);
+		resetTransform(allImages[n]);
+		setZoomInCursor(allImages[n]);
+	}
+	
+	resetZoomState();
+}
+
+function updateCurrentImage(newCurrentImage) {
+	if (currentImage != newCurrentImage) {
+		scale = 1;
+		zoomX = 0;
+		zoomY = 0;
+		currentImage = newCurrentImage;
+		start = null;
+		panning = false;
+			
+		var allImages = document.body.querySelectorAll(imageSelector);
+		for (let n = 0; n < allImages.length; n++) {
+			if (allImages[n] == currentImage) {
+				tagCurrentZoomableImage(allImages[n]);
+			} else {
+				untagCurrentZoomableImage(allImages[n]);
+				resetTransform(allImages[n]);
+				setZoomInCursor(allImages[n]);
+			}
+		}
+	}
+}
+
+// Enables zooming for all images that are not zoomable yet. Images kept by the last update keep their
+// zoom state, the zoom state is only reset if the zoomed image is gone.
+function refreshImages() {
+	try {
+	
+	if (currentImage != null && !document.body.contains(currentImage)) {
+		resetZoomState();
+	}
+		
+	var images = document.body.querySelectorAll(imageSelector);
+	
+	for (let i = 0; i < images.length; i++) {
+		if (images[i].fluentZoomable) {
+			continue;
+		}
+		images[i].fluentZoomable = true;
+		
+		resetTransform(images[i]);
+		
+		images[i].onwheel=function(e) {
+			if (e.altKey != true) {
+				return
+			}
+			e.preventDefault();
+			
+			document.getElementById("zoom-hint").style.opacity = 0;
+			
+			updateCurrentImage(images[i]);
+				
+			var rect = images[i].getBoundingClientRect();
+			var move = (e.wheelDelta ? e.wheelDelta : -e.deltaY);
+				
+			if (move > 0) {
+				setZoomInCursor(images[i])
+			} else {
+				setZoomOutCursor(images[i])
+			}
+				
+			if (move > 0) {
+				zoomX = e.clientX - (e. clientX - rect.left) * factor - rect.left + zoomX;
+				zoomY = e.clientY - (e.clientY - rect.top) * factor - rect.top + zoomY;
+				scale = scale * factor;
+			} else {
+				zoomX = e.clientX - (e. clientX - rect.left) / factor - rect.left + zoomX;
+				zoomY = e.clientY - (e.clientY - rect.top) / factor - rect.top + zoomY;
+				scale = scale / factor;
+			}
+				
+			setTransform(currentImage, zoomX, zoomY, scale);
+		};
+
+		images[i].onmousedown=function(e) {
+			e.preventDefault();
+			
+			updateCurrentImage(images[i]);
+			
+			start = { x : e.clientX - zoomX, y : e.clientY - zoomY };
+			panning = true;
+			
+			setGrabbingCursor(images[i]);
+		};
+		
+		images[i].onmouseup=function(e) {
+			panning = false;
+			
+			setZoomInCursor(images[i])
+		};
+		
+		images[i].onmousemove=function(e) {
+			e.preventDefault();
+			
+			if (panning) {
+				document.getElementById("zoom-hint").style.opacity = 0;
+				
+				zoomX = e.clientX - start.x;
+				zoomY = e.clientY - start.y;
+				
+				setTransform(images[i], zoomX, zoomY, scale);
+			} else {
+				var tooltip = document.getElementById("zoom-hint");
+				
+				if (tooltip.style.opacity != 1) {
+					return;
+				}
+				
+				var x = e.clientX;
+				var y = e.clientY;
+				
+				tooltip.style.left = x + "px";
+				tooltip.style.top = (y + 20) + "px";
+			}
+		};
+		
+		images[i].onmouseenter=function(e) {
+			document.getElementById("zoom-hint").style.opacity = 1;
+		}
+		
+		images[i].onmouseleave=function(e) {
+			document.getElementById("zoom-hint").style.opacity = 0;
+		}
+		
+		images[i].addEventListener('contextmenu', function (e) {
+			e.preventDefault();
+			
+			document.getElementById("zoom-hint").style.opacity = 0;
+			
+			resetAllImages();
+			return false;
+		}, false);
+	}
+	
+	} catch (error) {
+		alert(error);
+	}
+}
+
+function reloadLocalImages() {
+	try {
+	var foundImages = document.body.getElementsByTagName('img');
+	
+	for (let k = 0; k < foundImages.length; k++) {
+		if (foundImages[k].src != null) {
+			let imgUrl = foundImages[k].src;
+			
+			if (!imgUrl.startsWith('http://') && !imgUrl.startsWith('https://')) {
+				fetch(imgUrl, {cache: 'reload', mode: 'no-cors'})
+					.then(response => {
+						foundImages[k].src = response.url;
+					});
+			}
+		}
+	}
+	} catch (error) {
+		alert (error);
+	}
+}
+
+// Highlights code blocks and typesets math in the given nodes (and removes typeset math of removed nodes).
+function enhance(addedNodes, removedNodes) {
+	if (window.hljs) {
+		for (let n = 0; n < addedNodes.length; n++) {
+			if (addedNodes[n].nodeType != Node.ELEMENT_NODE) {
+				continue;
+			}
+			var codeBlocks = addedNodes[n].querySelectorAll('pre code');
+			for (let k = 0; k < codeBlocks.length; k++) {
+				hljs.highlightElement(codeBlocks[k]);
+			}
+		}
+	}
+	
+	// MathJax is loaded asynchronously, it will typeset the whole page once it's ready
+	if (window.MathJax && MathJax.typesetPromise) {
+		MathJax.typesetClear(removedNodes);
+		MathJax.typesetPromise(addedNodes);
+	}
+}
+
+// The key of nodes that may be moved while morphing, e.g. blocks and headings with their anchors.
+function getKey(node) {
+	if (node.nodeType != Node.ELEMENT_NODE) {
+		return null;
+	}
+	return node.getAttribute('data-block') || node.id || null;
+}
+
+function isSameKind(node, otherNode) {
+	return node.nodeType == otherNode.nodeType && node.nodeName == otherNode.nodeName;
+}
+
+function morphAttributes(node, newNode) {
+	// keep the zoom state of images, that is stored in their style and class attributes
+	var zoomable = node.fluentZoomable;
+	var transform = zoomable ? node.style.transform : null;
+	var cursor = zoomable ? node.style.cursor : null;
+	var zoomed = zoomable && node.classList.contains("fluentmark_zoom");
+	
+	var newAttributes = newNode.attributes;
+	for (let n = 0; n < newAttributes.length; n++) {
+		var attribute = newAttributes[n];
+		if (attribute.namespaceURI) {
+			if (node.getAttributeNS(attribute.namespaceURI, attribute.localName) !== attribute.value) {
+				node.setAttributeNS(attribute.namespaceURI, attribute.name, attribute.value);
+			}
+		} else if (node.getAttribute(attribute.name) !== attribute.value) {
+			node.setAttribute(attribute.name, attribute.value);
+		}
+	}
+	
+	var attributes = node.attributes;
+	for (let n = attributes.length - 1; n >= 0; n--) {
+		var attribute = attributes[n];
+		if (attribute.namespaceURI) {
+			if (!newNode.hasAttributeNS(attribute.namespaceURI, attribute.localName)) {
+				node.removeAttributeNS(attribute.namespaceURI, attribute.localName);
+			}
+		} else if (!newNode.hasAttribute(attribute.name)) {
+			node.removeAttribute(attribute.name);
+		}
+	}
+	
+	if (zoomable) {
+		node.style.transform = transform;
+		node.style.cursor = cursor;
+		if (zoomed) {
+			tagCurrentZoomableImage(node);
+		}
+	}
+}
+
+// Turns the node into the new node, re-using the node and as many of its descendants as possible.
+function morphNode(node, newNode) {
+	if (node.nodeType != Node.ELEMENT_NODE) {
+		if (node.nodeValue !== newNode.nodeValue) {
+			node.nodeValue = newNode.nodeValue;
+		}
+		return;
+	}
+	
+	morphAttributes(node, newNode);
+	morphChildren(node, newNode, null);
+}
+
+// Turns the children of the given node into the children of the new node, and moves new children into
+// the page. If a list of changes is given, the children are the top-level nodes of the page: unchanged
+// children are looked up by their original HTML, and the children that were added or changed are added
+// to changes.added, removed children to changes.removed.
+function morphChildren(node, newNode, changes) {
+	var keyedChildren = {};
+	var unchangedChildren = {};
+	for (let child = node.firstChild; child; child = child.nextSibling) {
+		var key = getKey(child);
+		if (key) {
+			keyedChildren[key] = child;
+		} else if (changes && child.fluentSource !== undefined) {
+			(unchangedChildren[child.fluentSource] = unchangedChildren[child.fluentSource] || []).push(child);
+		}
+	}
+	
+	// unchanged children are not re-used for other contents, they will be matched by their HTML later
+	var newSources = new Set();
+	for (let child = changes ? newNode.firstChild : null; child; child = child.nextSibling) {
+		newSources.add(child.fluentSource);
+	}
+	
+	var matched = new Set();
+	var current = node.firstChild;
+	var next = newNode.firstChild;
+	while (next) {
+		var newChild = next;
+		next = next.nextSibling;
+		
+		var key = getKey(newChild);
+		var match = null;
+		if (key) {
+			match = keyedChildren[key];
+			delete keyedChildren[key];
+			if (match && !isSameKind(match, newChild)) {
+				match = null;
+			}
+		} else {
+			var candidates = changes ? unchangedChildren[newChild.fluentSource] : null;
+			while (candidates && candidates.length > 0 && !match) {
+				match = candidates.shift();
+				if (matched.has(match)) {
+					match = null;
+				}
+			}
+			if (!match && current && !getKey(current) && isSameKind(current, newChild)
+					&& !newSources.has(current.fluentSource)) {
+				match = current;
+			}
+		}
+		
+		if (!match) {
+			node.insertBefore(newChild, current);
+			if (changes) {
+				changes.added.push(newChild);
+			}
+			continue;
+		}
+		
+		matched.add(match);
+		if (match === current) {
+			current = current.nextSibling;
+		} else {
+			node.insertBefore(match, current);
+		}
+		
+		if (!changes) {
+			morphNode(match, newChild);
+		} else if (match.fluentSource === undefined || match.fluentSource !== newChild.fluentSource) {
+			// code blocks and math are changed by highlight.js and MathJax, thus we compare the original HTML
+			changes.removed.push(match);
+			morphNode(match, newChild);
+			match.fluentSource = newChild.fluentSource;
+			changes.added.push(match);
+		}
+	}
+	
+	while (current) {
+		var removed = current;
+		current = current.nextSibling;
+		node.removeChild(removed);
+		if (changes) {
+			changes.removed.push(removed);
+		}
+	}
+}
+
+// Turns the page contents into the given HTML, only touching the parts that changed.
+function morphContents(container, html) {
+	var template = document.createElement('template');
+	template.innerHTML = html;
+	var newContents = template.content;
+	
+	for (let child = newContents.firstChild; child; child = child.nextSibling) {
+		child.fluentSource = child.nodeType == Node.ELEMENT_NODE ? child.outerHTML : child.nodeValue;
+	}
+	
+	var scrollX = window.scrollX;
+	var scrollY = window.scrollY;
+	
+	var changes = { added: [], removed: [] };
+	morphChildren(container, newContents, changes);
+	
+	// the page may have become shorter while morphing
+	if (window.scrollX != scrollX || window.scrollY != scrollY) {
+		window.scrollTo(scrollX, scrollY);
+	}
+	
+	enhance(changes.added, changes.removed);
+}
+
+// Replaces the page contents by the given blocks. Blocks that are already shown are kept (and moved
+// if necessary), only the new blocks are created from the given HTML fragments.
+function patchBlocks(container, ids, fragments) {
+	var shownBlocks = {};
+	var otherNodes = [];
+	var children = Array.from(container.childNodes);
+	for (let n = 0; n < children.length; n++) {
+		if (children[n].nodeType == Node.ELEMENT_NODE && children[n].hasAttribute('data-block')) {
+			shownBlocks[children[n].getAttribute('data-block')] = children[n];
+		} else {
+			otherNodes.push(children[n]);
+		}
+	}
+	
+	// the page may have been re-loaded since the blocks were sent, the caller has to send all blocks then
+	for (let n = 0; n < ids.length; n++) {
+		if (!(ids[n] in shownBlocks) && !(ids[n] in fragments)) {
+			return false;
+		}
+	}
+	
+	for (let n = 0; n < otherNodes.length; n++) {
+		container.removeChild(otherNodes[n]);
+	}
+	
+	var newBlocks = [];
+	var previous = null;
+	for (let n = 0; n < ids.length; n++) {
+		var block = shownBlocks[ids[n]];
+		if (block) {
+			delete shownBlocks[ids[n]];
+		} else {
+			block = document.createElement('div');
+			block.className = 'fluent-block';
+			block.setAttribute('data-block', ids[n]);
+			block.innerHTML = fragments[ids[n]];
+			newBlocks.push(block);
+		}
+		
+		var expected = previous ? previous.nextSibling : container.firstChild;
+		if (block !== expected) {
+			container.insertBefore(block, expected);
+		}
+		previous = block;
+	}
+	
+	var removedBlocks = Object.values(shownBlocks);
+	for (let n = 0; n < removedBlocks.length; n++) {
+		container.removeChild(removedBlocks[n]);
+	}
+	
+	enhance(newBlocks, removedBlocks.concat(otherNodes));
+	
+	return true;
+}
+
+window.Fluent = {
+	
+	app: document.getElementById('app'),
+	
+	check: function() {
+		alert('Check: ' + this.app.innerHTML);
+	},
+	clear: function() {
+		this.set('Cleared...');
+	},
+	set: function(source) {
+		morphContents(this.app, source);
+	},
+	patch: function(ids, fragments) {
+		return patchBlocks(this.app, ids, fragments);
+	},
+	scrollTo: function(anchorname) {
+		location.hash = '#' + anchorname;
+	},
+	updateImages: function() {
+		reloadLocalImages();
+		refreshImages();
+	},
+};
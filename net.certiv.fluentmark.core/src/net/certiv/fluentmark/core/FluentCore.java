@@ -10,11 +10,17 @@
 package net.certiv.fluentmark.core;
 
 import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
+import net.certiv.fluentmark.core.convert.HtmlResources;
+import net.certiv.fluentmark.core.convert.PandocServer;
+import net.certiv.fluentmark.core.validation.LinkIndex;
+import net.certiv.fluentmark.core.validation.uri.UriReachabilityCache;
 
 public class FluentCore implements BundleActivator {
 
@@ -34,6 +40,11 @@ public class FluentCore implements BundleActivator {
 	}
 
 	public void stop(BundleContext bundleContext) throws Exception {
+		LinkIndex.shutdown();
+		UriReachabilityCache.shutdown();
+		HtmlResources.shutdown();
+		PandocServer.shutdown();
+		
 		FluentCore.context = null;
 		FluentCore.bundle = null;
 	}
@@ -42,6 +53,13 @@ public class FluentCore implements BundleActivator {
 		return bundle;
 	}
 	
+	public static IPath getStateLocation() {
+		if (context == null) {
+			return null;
+		}
+		return Platform.getStateLocation(context.getBundle());
+	}
+	
 	public static void log(String msg) {
 		log(IStatus.INFO, msg, null);
 	}
@@ -10,22 +10,43 @@
 package net.certiv.fluentmark.core.builders;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IIncrementalProjectBuilder2;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SubMonitor;
 
+import net.certiv.fluentmark.core.FluentCore;
 import net.certiv.fluentmark.core.validation.FileValidator;
 import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
+import net.certiv.fluentmark.core.validation.LinkIndex;
 import net.certiv.fluentmark.core.validation.visitor.AdaptableFilesCountingVisitor;
+import net.certiv.fluentmark.core.validation.visitor.AdaptableFilesDeltaVisitor;
 import net.certiv.fluentmark.core.validation.visitor.AdaptableFilesValidatingVisitor;
 
 public abstract class AbstractFileValidationBuilder extends IncrementalProjectBuilder implements IIncrementalProjectBuilder2 {
 	
+	/**
+	 * Number of threads validating files in parallel during full builds. Can be set as builder argument
+	 * in a project's build configuration or as system property with the plug-in ID as prefix
+	 * (e.g. <code>-Dnet.certiv.fluentmark.core.validationThreads=auto</code>).
+	 * Use <code>auto</code> for one thread per available processor. Defaults to <code>1</code> (sequential validation).
+	 */
+	public static final String ARG_VALIDATION_THREADS = "validationThreads";
+	
+	private static final String PROPERTY_VALIDATION_THREADS = FluentCore.PLUGIN_ID + "." + ARG_VALIDATION_THREADS;
+	private static final String VALIDATION_THREADS_AUTO = "auto";
+	
 	private final FileValidator fileValidator;
 	protected final IValidationResultConsumer validationResultConsumer;
 	
@@ -42,6 +63,31 @@ public abstract class AbstractFileValidationBuilder extends IncrementalProjectBu
 	protected IProject[] build(int kind, Map<String, String> args, IProgressMonitor monitor) throws CoreException {
 		IProject project = getProject();
 		
+		switch (kind) {
+			case FULL_BUILD:
+				fullBuild(args, monitor);
+				break;
+	
+			case INCREMENTAL_BUILD:
+			case AUTO_BUILD:
+				IResourceDelta resourceDelta = getDelta(project);
+				if (resourceDelta == null || !LinkIndex.getInstance().isIndexed(project)
+						|| (resourceDelta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.REPLACED)) != 0) {
+					// without a full build we don't know which files link to the changed ones,
+					// and the contents of re-opened or replaced projects may have changed completely
+					fullBuild(args, monitor);
+				} else {
+					incrementalBuild(resourceDelta, monitor);
+				}
+				break;
+		}
+		
+		return null;
+	}
+	
+	private void fullBuild(Map<String, String> args, IProgressMonitor monitor) throws CoreException {
+		IProject project = getProject();
+		
 		monitor.subTask("Counting files");
 		
 		AdaptableFilesCountingVisitor filesCountingVisitor = new AdaptableFilesCountingVisitor(fileValidator, monitor);
@@ -49,36 +95,118 @@ public abstract class AbstractFileValidationBuilder extends IncrementalProjectBu
 		int numFiles = filesCountingVisitor.getNumFiles();
 		
 		if (numFiles == 0) {
-			return null;
+			LinkIndex.getInstance().setIndexed(project, true);
+			return;
+		}
+		
+		int numThreads = getNumValidationThreads(args);
+		if (numThreads > 1) {
+			parallelFullBuild(numFiles, numThreads, monitor);
+			return;
 		}
 		
 		SubMonitor subMonitor = SubMonitor.convert(monitor, numFiles);
 		subMonitor.setTaskName("Analyzing " + numFiles + " Markdown, PlantUML and other files");
 		
-		switch (kind) {
-			case FULL_BUILD:
-				fullBuild(subMonitor);
-				break;
+		AdaptableFilesValidatingVisitor filesValidatingVisitor = new AdaptableFilesValidatingVisitor(fileValidator, subMonitor);
+		project.accept(filesValidatingVisitor);
+		
+		LinkIndex.getInstance().setIndexed(project, !subMonitor.isCanceled());
+	}
 	
-			case INCREMENTAL_BUILD:
-			case AUTO_BUILD:
-				IResourceDelta resourceDelta = getDelta(project);
-				if (resourceDelta == null) {
-					fullBuild(subMonitor);
-				} else {
-					// TODO Implement incremental build?
-					// We do a full build as long as incremental build is not implemented
-					fullBuild(subMonitor);
-				}
-				break;
+	private void parallelFullBuild(int numFiles, int numThreads, IProgressMonitor monitor) throws CoreException {
+		IProject project = getProject();
+		
+		// one unit of work for preparing and one for validating each file
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2 * numFiles);
+		subMonitor.setTaskName("Analyzing " + numFiles + " Markdown, PlantUML and other files using " + numThreads + " threads");
+		
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "FluentMark file validation " + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		
+		try {
+			// The visitor refreshes files and resolves documents in this thread, which owns the builder's
+			// scheduling rule, and lets the worker threads do the actual validation.
+			AdaptableFilesValidatingVisitor filesValidatingVisitor = new AdaptableFilesValidatingVisitor(fileValidator, subMonitor, executor);
+			try {
+				project.accept(filesValidatingVisitor);
+			} finally {
+				filesValidatingVisitor.awaitValidations(subMonitor);
+			}
+		} finally {
+			executor.shutdownNow();
 		}
 		
-		return null;
+		LinkIndex.getInstance().setIndexed(project, !subMonitor.isCanceled());
 	}
 	
-	private void fullBuild(SubMonitor monitor) throws CoreException {
-		AdaptableFilesValidatingVisitor filesValidatingVisitor = new AdaptableFilesValidatingVisitor(fileValidator, monitor);
-		getProject().accept(filesValidatingVisitor);
+	private int getNumValidationThreads(Map<String, String> args) {
+		String value = args != null ? args.get(ARG_VALIDATION_THREADS) : null;
+		if (value == null || value.isBlank()) {
+			value = System.getProperty(PROPERTY_VALIDATION_THREADS);
+		}
+		if (value == null || value.isBlank()) {
+			return 1;
+		}
+		
+		if (VALIDATION_THREADS_AUTO.equalsIgnoreCase(value.trim())) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		
+		try {
+			return Math.max(1, Integer.parseInt(value.trim()));
+		} catch (NumberFormatException e) {
+			FluentCore.log(IStatus.WARNING, String.format("Ignoring invalid number of validation threads \"%s\".", value));
+			return 1;
+		}
+	}
+	
+	private void incrementalBuild(IResourceDelta resourceDelta, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
+		
+		monitor.subTask("Collecting changed files");
+		
+		AdaptableFilesDeltaVisitor filesDeltaVisitor = new AdaptableFilesDeltaVisitor(fileValidator, subMonitor.split(1));
+		resourceDelta.accept(filesDeltaVisitor);
+		
+		LinkIndex linkIndex = LinkIndex.getInstance();
+		for (IFile removedFile : filesDeltaVisitor.getRemovedFiles()) {
+			linkIndex.removeLinksOf(removedFile);
+		}
+		
+		Set<IFile> filesToValidate = linkIndex.getFilesToRevalidate(filesDeltaVisitor.getChangedFiles(),
+				filesDeltaVisitor.getAddedOrRemovedLocations(), filesDeltaVisitor.getChangedLocations());
+		
+		if (filesToValidate.isEmpty()) {
+			return;
+		}
+		
+		SubMonitor validationMonitor = subMonitor.split(1).setWorkRemaining(filesToValidate.size());
+		validationMonitor.setTaskName("Analyzing " + filesToValidate.size() + " changed or dependent files");
+		
+		AdaptableFilesValidatingVisitor filesValidatingVisitor = new AdaptableFilesValidatingVisitor(fileValidator, validationMonitor);
+		for (IFile file : filesToValidate) {
+			if (validationMonitor.isCanceled()) {
+				// we may have lost track of some links, thus do a full build next time
+				linkIndex.setIndexed(getProject(), false);
+				return;
+			}
+			
+			if (!file.exists()) {
+				validationMonitor.worked(1);
+				continue;
+			}
+			
+			file.accept(filesValidatingVisitor);
+		}
 	}
 
 	@Override
@@ -9,16 +9,27 @@ package net.certiv.fluentmark.core.convert;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITypedRegion;
@@ -28,16 +39,52 @@ import com.google.common.html.HtmlEscapers;
 import com.vladsch.flexmark.ext.plantuml.PlantUmlExtension;
 import com.vladsch.flexmark.util.ast.Document;
 
+import net.certiv.fluentmark.core.FluentCore;
 import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitioner;
 import net.certiv.fluentmark.core.util.Cmd;
 import net.certiv.fluentmark.core.util.Cmd.CmdResult;
-import net.certiv.fluentmark.core.util.FileUtils;
 import net.certiv.fluentmark.core.util.FlexmarkUtil;
 
 public class Converter {
+	
+	/**
+	 * System property to set the maximum number of diagrams that are rendered concurrently. Rendering
+	 * mostly waits for dot processes (which are limited by the {@link net.certiv.fluentmark.core.util.ProcessExecutor}),
+	 * thus the default allows for more threads than there are processors.
+	 */
+	public static final String PROPERTY_MAX_DIAGRAM_THREADS = FluentCore.PLUGIN_ID + ".maxDiagramThreads";
+	
+	private static final int DEFAULT_MAX_DIAGRAM_THREADS = 32;
+	private static final long DIAGRAM_THREAD_KEEP_ALIVE_SECONDS = 60;
+	
+	private static ThreadPoolExecutor diagramExecutor = null;
+	
+	private static synchronized ExecutorService getDiagramExecutor() {
+		if (diagramExecutor == null) {
+			int maxThreads;
+			try {
+				maxThreads = Math.max(1, Integer.getInteger(PROPERTY_MAX_DIAGRAM_THREADS, DEFAULT_MAX_DIAGRAM_THREADS));
+			} catch (SecurityException e) {
+				maxThreads = DEFAULT_MAX_DIAGRAM_THREADS;
+			}
+			
+			AtomicInteger threadCount = new AtomicInteger();
+			diagramExecutor = new ThreadPoolExecutor(maxThreads, maxThreads,
+					DIAGRAM_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+						Thread thread = new Thread(runnable, "FluentMark diagram renderer " + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			// do not keep idle threads between conversions
+			diagramExecutor.allowCoreThreadTimeOut(true);
+		}
+		return diagramExecutor;
+	}
 
 	private static final Pattern DOTBEG = Pattern.compile("(~~~+|```+)\\s*dot\\s*", Pattern.DOTALL);
 	private static final Pattern DOTEND = Pattern.compile("(~~~+|```+)\\s*", Pattern.DOTALL);
+	// compare Lines.PATTERN_PLANTUML_INCLUDE
+	private static final Pattern PUML_FILE_INCLUSION = Pattern.compile("!\\[[^\\]]*\\]\\(\\s*([^)]*?\\.puml)\\s*\\)");
 	
 	private static final String PANDOC_EXTENSIONS_FOR_MARKDOWN = "+raw_html+header_attributes+auto_identifiers+implicit_figures+implicit_header_references+strikeout+footnotes+backtick_code_blocks+fenced_code_blocks+fenced_code_attributes+startnum+simple_tables+multiline_tables+grid_tables+pipe_tables+table_captions+task_lists+subscript+superscript+tex_math_dollars";
 	
@@ -58,7 +105,7 @@ public class Converter {
 	
 	private void initPlantUML() {
 		String dotexe = configurationProvider.getDotCommand();
-		umlGen.getRenderer().setDotExecutable(dotexe);
+		umlGen.setDotExecutable(dotexe);
 		
 		System.setProperty("PLANTUML_SECURITY_PROFILE", "UNSECURE");
 	}
@@ -77,38 +124,134 @@ public class Converter {
 		try {
 			switch (configurationProvider.getConverterType()) {
 				case FLEXMARK:
-					String markdownSourceCode = document.get();
-					
-					Document parsedMarkdownDocument = FlexmarkUtil.parseMarkdown(markdownSourceCode);
-					
-					// Set current file path. That's needed to resolve relative paths in PlantUML extension in flexmark.
-					parsedMarkdownDocument.set(PlantUmlExtension.KEY_DOCUMENT_FILE_PATH, filePath.toString());
-					
-					return FlexmarkUtil.renderHtml(parsedMarkdownDocument);
+					// not the shared AST from FlexmarkAstCache, since rendering stores the file path in the AST
+					return useFlexmark(filePath, document.get());
 				case PANDOC:
 					ITypedRegion[] typedRegions = MarkdownPartitioner.get().computePartitioning(document);
 					
-					String text = getText(filePath, document, typedRegions, true);
-					return usePandoc(basepath, text, kind);
+					List<String> textParts = getTextParts(filePath, document, typedRegions, true);
+					return usePandoc(basepath, textParts, kind);
 			}
+		} catch (OperationCanceledException e) {
+			throw e;
 		} catch (Exception e) {
 			return createHtmlMessageCouldNotConvertMarkdown(e.getMessage());
 		}
 		return "";
 	}
 	
-	private String combineOutputsForHtml(CmdResult result) {
-		if (result.errOutput == null || result.errOutput.isEmpty()) {
-			return result.stdOutput;
+	/**
+	 * Converts the document block by block for updating the preview. Only the top-level blocks that are
+	 * not part of the previous conversion are parsed and rendered, all other blocks re-use their HTML from
+	 * the previous conversion.
+	 *
+	 * @param previous the previous conversion of the same document or <code>null</code>
+	 * @return the converted blocks or <code>null</code> if the configured converter cannot convert
+	 *         block by block
+	 */
+	public HtmlBlocks convertBlocks(IPath filePath, IDocument document, HtmlBlocks previous) {
+		if (configurationProvider.getConverterType() != ConverterType.FLEXMARK) {
+			return null;
+		}
+		
+		MarkdownBlocks markdownBlocks = MarkdownBlocks.split(document.get());
+		String referenceDefinitions = markdownBlocks.getReferenceDefinitions();
+		String context = filePath + "\n" + referenceDefinitions;
+		
+		List<HtmlBlocks.Block> blocks = new ArrayList<>();
+		Map<String, Integer> occurrences = new HashMap<>();
+		
+		for (String source : markdownBlocks.getSources()) {
+			// blocks with diagrams are converted again as soon as a diagram file or an included file changes
+			String dependencies = describeDependencies(filePath, source);
+			
+			// identical blocks (e.g. empty table cells or separators) get different ids
+			String key = RenderCache.computeKey("flexmark", "", context + "\n" + dependencies, source).substring(0, 16);
+			String id = key + "-" + occurrences.merge(key, 1, Integer::sum);
+			
+			String html = previous != null && dependencies != null ? previous.getHtml(id) : null;
+			if (html == null) {
+				html = convertBlock(filePath, source, referenceDefinitions);
+			}
+			blocks.add(new HtmlBlocks.Block(id, html));
+		}
+		
+		return new HtmlBlocks(blocks);
+	}
+	
+	/**
+	 * Describes the current state of the files a block's HTML depends on: PlantUML files included via
+	 * <code>![caption](path/to/file.puml)</code> and the files they or the block's inline diagrams include.
+	 *
+	 * @return the description or <code>null</code> if the dependencies cannot be tracked (e.g. URLs)
+	 */
+	private String describeDependencies(IPath filePath, String source) {
+		File directory = filePath != null ? filePath.toFile().getAbsoluteFile().getParentFile() : null;
+		if (directory == null) {
+			directory = new File("").getAbsoluteFile();
+		}
+		
+		StringBuilder dependencies = new StringBuilder();
+		Matcher matcher = PUML_FILE_INCLUSION.matcher(source);
+		while (matcher.find()) {
+			if (matcher.group(1).contains("://")) {
+				return null;
+			}
+			
+			File pumlFile = new File(matcher.group(1));
+			if (!pumlFile.isAbsolute()) {
+				pumlFile = new File(directory, matcher.group(1));
+			}
+			
+			String pumlFileDependencies = PumlFileCache.getInstance().describeDependencies(pumlFile);
+			if (pumlFileDependencies == null) {
+				return null;
+			}
+			dependencies.append(pumlFileDependencies);
+		}
+		
+		String inlineDependencies = PumlFileCache.describeDependencies(directory.toPath(), source);
+		if (inlineDependencies == null) {
+			return null;
+		}
+		return dependencies.append(inlineDependencies).toString();
+	}
+	
+	private String convertBlock(IPath filePath, String source, String referenceDefinitions) {
+		try {
+			if (referenceDefinitions.isEmpty()) {
+				return useFlexmark(filePath, source);
+			}
+			// reference definitions do not create any HTML, but they are needed to resolve reference links
+			return useFlexmark(filePath, source + "\n\n" + referenceDefinitions);
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			return createHtmlMessageCouldNotConvertMarkdown(e.getMessage());
+		}
+	}
+	
+	private String useFlexmark(IPath filePath, String markdownSourceCode) {
+		Document parsedMarkdownDocument = FlexmarkUtil.parseMarkdown(markdownSourceCode);
+		
+		// Set current file path. That's needed to resolve relative paths in PlantUML extension in flexmark.
+		parsedMarkdownDocument.set(PlantUmlExtension.KEY_DOCUMENT_FILE_PATH, filePath.toString());
+		
+		return FlexmarkUtil.renderHtml(parsedMarkdownDocument);
+	}
+	
+	private String combineOutputsForHtml(String stdOutput, String errOutput) {
+		if (errOutput == null || errOutput.isEmpty()) {
+			return stdOutput;
 		}
 		
-		int indexOfBodyTag = result.stdOutput.indexOf("<body>");
+		int indexOfBodyTag = stdOutput.indexOf("<body>");
 		if (indexOfBodyTag < 0) {
-			indexOfBodyTag = result.stdOutput.indexOf("<BODY>");
+			indexOfBodyTag = stdOutput.indexOf("<BODY>");
 		}
 		
 		if (indexOfBodyTag < 0) {
-			return StringEscapeUtils.escapeHtml4(result.errOutput) + result.stdOutput; 
+			return StringEscapeUtils.escapeHtml4(errOutput) + stdOutput; 
 		}
 		
 		// 6 is the length of "<body>"
@@ -116,26 +259,39 @@ public class Converter {
 		
 		StringBuilder stringBuilder = new StringBuilder();
 		// append everything from stdOut including <body>
-		stringBuilder.append(result.stdOutput.substring(0, insertIndex));
+		stringBuilder.append(stdOutput.substring(0, insertIndex));
 		
 		// append the error messages and warnings, escaped for HTML, and on a separate paragraph
 		stringBuilder.append("<p>");
-		stringBuilder.append(StringEscapeUtils.escapeHtml4(result.errOutput));
+		stringBuilder.append(StringEscapeUtils.escapeHtml4(errOutput));
 		stringBuilder.append("</p>");
 		
 		// append the remainder of the stdOut
-		stringBuilder.append(result.stdOutput.substring(insertIndex));
+		stringBuilder.append(stdOutput.substring(insertIndex));
 		
 		return stringBuilder.toString();
 	}
 
 	// Use Pandoc
-	private String usePandoc(String basepath, String text, Kind kind) {
+	private String usePandoc(String basepath, List<String> textParts, Kind kind) {
 		String cmd = configurationProvider.getPandocCommand();
 		if (cmd.trim().isEmpty()) {
 			throw new IllegalStateException("No pandoc command set in preferences.");
 		}
 
+		String from = (configurationProvider.isSmartMode() ? "markdown-smart" : "markdown_strict") + PANDOC_EXTENSIONS_FOR_MARKDOWN;
+		
+		if (configurationProvider.usePandocServer() && (Kind.VIEW.equals(kind) || Kind.UPDATE.equals(kind))) {
+			try {
+				return usePandocServer(cmd, from, textParts, kind);
+			} catch (IOException e) {
+				// fall back to a pandoc process, e.g. if pandoc is older than 3.0 or the server just died
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+		}
+
 		List<String> args = new ArrayList<>();
 		args.add(cmd);
 		args.add("--no-highlight"); // use highlightjs instead
@@ -144,17 +300,44 @@ public class Converter {
 		}
 		if (configurationProvider.addTableOfContents()) args.add("--toc");
 		if (configurationProvider.useMathJax()) args.add("--mathjax");
-		if (configurationProvider.isSmartMode()) {
-			args.add("-f");
-			args.add("markdown-smart" + PANDOC_EXTENSIONS_FOR_MARKDOWN);
-		} else {
-			args.add("--ascii");
-			args.add("-f");
-			args.add("markdown_strict" + PANDOC_EXTENSIONS_FOR_MARKDOWN);
+		if (!configurationProvider.isSmartMode()) args.add("--ascii");
+		args.add("-f");
+		args.add(from);
+		
+		// stream the parts into pandoc instead of joining them first, HTML is usually a bit longer than Markdown
+		long textLength = 0;
+		for (String textPart : textParts) {
+			textLength += textPart.length();
 		}
+		int expectedOutputLength = (int) Math.min(Integer.MAX_VALUE - 16, textLength + textLength / 4);
+		
+		CmdResult result = Cmd.process(args.toArray(new String[args.size()]), basepath, processInput -> {
+			for (String textPart : textParts) {
+				processInput.write(textPart);
+			}
+		}, expectedOutputLength, configurationProvider.getPreferredLineEnding());
+		return combineOutputsForHtml(result.stdOutput, result.errOutput);
+	}
+	
+	// same options as for a pandoc process, see usePandoc()
+	private String usePandocServer(String cmd, String from, List<String> textParts, Kind kind) throws IOException, InterruptedException {
+		Map<String, Object> options = new HashMap<>();
+		options.put("from", from);
+		options.put("to", "html5");
+		options.put("highlight-style", null); // use highlightjs instead
+		options.put("standalone", Kind.EXPORT.equals(kind));
+		options.put("table-of-contents", configurationProvider.addTableOfContents());
+		if (configurationProvider.useMathJax()) options.put("html-math-method", "mathjax");
+		options.put("ascii", !configurationProvider.isSmartMode());
+		
+		PandocServer.Result result = PandocServer.getInstance().convert(cmd, options, String.join("", textParts));
 		
-		CmdResult result = Cmd.process(args.toArray(new String[args.size()]), basepath, text, configurationProvider.getPreferredLineEnding());
-		return combineOutputsForHtml(result);
+		String output = result.output;
+		String lineEnding = configurationProvider.getPreferredLineEnding();
+		if (lineEnding != null && !lineEnding.equals("\n")) {
+			output = output.replace("\n", lineEnding);
+		}
+		return combineOutputsForHtml(output, result.messages);
 	}
 	
 	public String getPandocVersion() {
@@ -178,12 +361,17 @@ public class Converter {
 		return "";
 	}
 	
-	private String getText(IPath filePath, IDocument document, ITypedRegion[] typedRegions, boolean includeFrontMatter) {
+	/**
+	 * Collects the document's text for converting it with Pandoc, replacing diagram regions with their
+	 * rendered HTML. All diagrams are rendered concurrently. The parts are returned in document order and
+	 * are not joined, so that they can be streamed to Pandoc without another copy of the whole text.
+	 */
+	private List<String> getTextParts(IPath filePath, IDocument document, ITypedRegion[] typedRegions, boolean includeFrontMatter) {
 		if (typedRegions == null || typedRegions.length == 0) {
-			return document.get();
+			return List.of(document.get());
 		}
 		
-		List<String> parts = new ArrayList<>();
+		List<CompletableFuture<String>> parts = new ArrayList<>();
 		
 		String text, regionType;
 		for (ITypedRegion typedRegion: typedRegions) {
@@ -191,10 +379,12 @@ public class Converter {
 			try {
 				text = document.get(typedRegion.getOffset(), typedRegion.getLength());
 			} catch (BadLocationException e) {
-				return document.get();
+				cancel(parts);
+				return List.of(document.get());
 			}
 			
 			regionType = typedRegion.getType();
+			String regionText = text;
 			
 			switch (regionType) {
 				case MarkdownPartitioner.FRONT_MATTER:
@@ -202,18 +392,20 @@ public class Converter {
 					break;
 				case MarkdownPartitioner.DOTBLOCK:
 					if (configurationProvider.isDotEnabled()) {
-						text = filter(text, DOTBEG, DOTEND);
-						text = translateDotCodeToHtmlFigure(text);
+						parts.add(renderDiagram(() -> translateDotCodeToHtmlFigure(filter(regionText, DOTBEG, DOTEND))));
+						continue;
 					}
 					break;
 				case MarkdownPartitioner.UMLBLOCK:
 					if (configurationProvider.isPlantUMLEnabled()) {
-						text = translatePumlCodeToHtmlFigure(text);
+						parts.add(renderDiagram(() -> translatePumlCodeToHtmlFigure(regionText)));
+						continue;
 					}
 					break;
 				case MarkdownPartitioner.PLANTUML_INCLUDE:
 					if (configurationProvider.isPlantUMLEnabled()) {
-						text = translatePumlIncludeLineToHtml(text, filePath);
+						parts.add(renderDiagram(() -> translatePumlIncludeLineToHtml(regionText, filePath)));
+						continue;
 					}
 					break;
 				case MarkdownPartitioner.COMMENT:
@@ -227,10 +419,59 @@ public class Converter {
 				default:
 					break;
 			}
-			parts.add(text);
+			parts.add(CompletableFuture.completedFuture(text));
 		}
-
-		return String.join("", parts);
+		
+		// Wait for all diagrams before starting Pandoc: rendering dot diagrams needs process slots, too
+		// (see ProcessExecutor), thus a waiting Pandoc process must not hold one.
+		List<String> result = new ArrayList<>(parts.size());
+		try {
+			for (CompletableFuture<String> part : parts) {
+				result.add(part.get());
+			}
+		} catch (InterruptedException e) {
+			cancel(parts);
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			// renderDiagram() turns all exceptions but cancellation into error messages
+			cancel(parts);
+			if (e.getCause() instanceof OperationCanceledException canceled) {
+				throw canceled;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		return result;
+	}
+	
+	/**
+	 * Renders a diagram in the diagram executor. If rendering fails, the diagram's HTML is an error message,
+	 * so that a broken diagram does not prevent converting the rest of the document. Several diagrams are
+	 * rendered concurrently with the same {@link DotGen} and {@link UmlGen}, both are thread-safe.
+	 */
+	private CompletableFuture<String> renderDiagram(Supplier<String> renderer) {
+		return CompletableFuture.supplyAsync(renderer, getDiagramExecutor())
+				.exceptionally(e -> {
+					Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+					if (cause instanceof OperationCanceledException canceled) {
+						throw canceled;
+					}
+					FluentCore.log(IStatus.WARNING, "Could not render diagram.",
+							cause instanceof Exception exception ? exception : new RuntimeException(cause));
+					return createHtmlMessageCouldNotRenderDiagram(cause.getMessage());
+				});
+	}
+	
+	private void cancel(List<CompletableFuture<String>> parts) {
+		for (CompletableFuture<String> part : parts) {
+			part.cancel(false);
+		}
+	}
+	
+	private String createHtmlMessageCouldNotRenderDiagram(String errorMessage) {
+		String message =  "<span style=\"color:red\">Could not render diagram. %s</span>";
+		message = String.format(message, HtmlEscapers.htmlEscaper().escape(String.valueOf(errorMessage)));
+		return message;
 	}
 
 	private String translateDotCodeToHtmlFigure(String dotSourcCode) {
@@ -257,23 +498,9 @@ public class Converter {
     		return message;
         }
         
-        Path tempDirPath;
-		try {
-			tempDirPath = Files.createTempDirectory("puml2svg-");
-		} catch (IOException e) {
-			throw new RuntimeException("Could not create temporary directory for generating SVG file.", e);
-		}
-        File svgFile = umlGen.uml2svg(pumlFile, tempDirPath.toFile());
-        String svgDiagram = "";
-        
-        if (svgFile != null && svgFile.exists()) {
-        	String svgFileContent = FileUtils.readTextFromFile(svgFile);
-        	svgDiagram = removeSvgMetaInfos(svgFileContent);
-        	
-        	boolean fileDeleted = svgFile.delete();
-        	if (fileDeleted) {
-        		tempDirPath.toFile().delete();
-        	}
+        String svgDiagram = removeSvgMetaInfos(umlGen.pumlFile2svg(pumlFile));
+        if (svgDiagram == null) {
+        	svgDiagram = "";
         }
         
         String htmlFigure = createHtmlFigure(svgDiagram, figureCaption);
@@ -322,35 +549,30 @@ public class Converter {
 	}
 	
 	private String createHtmlFigure(String svgCode, String figureCaption) {
-		String figureText;
+		HtmlTemplate figureTemplate;
 		try {
-			figureText = FileUtils.fromBundle("resources/html/puml-include.html");
+			figureTemplate = HtmlResources.getInstance().getBundleTemplate("resources/html/puml-include.html", "%image%", "%caption%");
 		} catch (IOException | URISyntaxException e) {
 			throw new RuntimeException(e);
 		}
         
-        if (figureText != null) {
-        	figureText = figureText.replace("%image%", svgCode);
-        	figureText = figureText.replace("%caption%", figureCaption);
-        	
-        	return figureText;
+        if (figureTemplate != null) {
+        	return figureTemplate.render(svgCode, figureCaption);
         }
         
         return null;
 	}
 	
 	private String createHtmlFigure(String svgCode) {
-		String figureText;
+		HtmlTemplate figureTemplate;
 		try {
-			figureText = FileUtils.fromBundle("resources/html/figure.html");
+			figureTemplate = HtmlResources.getInstance().getBundleTemplate("resources/html/figure.html", "%image%");
 		} catch (IOException | URISyntaxException e) {
 			throw new RuntimeException(e);
 		}
         
-        if (figureText != null) {
-        	figureText = figureText.replace("%image%", svgCode);
-        	
-        	return figureText;
+        if (figureTemplate != null) {
+        	return figureTemplate.render(svgCode);
         }
         
         return null;
@@ -8,16 +8,21 @@ package net.certiv.fluentmark.core.convert;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.certiv.fluentmark.core.util.Cmd;
 import net.certiv.fluentmark.core.util.Cmd.CmdResult;
-import net.certiv.fluentmark.core.util.LRUCache;
 import net.certiv.fluentmark.core.util.Strings;
 
+/**
+ * Renders DOT diagrams to SVG by running Graphviz's dot. Instances may be used by several threads
+ * concurrently (see {@link Converter}): each diagram is rendered by its own dot process and the shared
+ * state (the dot versions and the {@link RenderCache}) is thread-safe.
+ */
 public class DotGen {
 
 	private static final String[] DOTOPS = new String[] { "", "-Tsvg" };
-	private static final Map<Integer, String> dotCache = new LRUCache<>(20);
+	private static final Map<String, String> dotVersions = new ConcurrentHashMap<>();
 
 	private IConfigurationProvider configurationProvider;
 
@@ -34,15 +39,16 @@ public class DotGen {
 		if (data.trim().isEmpty() || cmd.trim().isEmpty()) return "";
 
 		// return cached value, if present
-		int key = data.hashCode();
-		String value = dotCache.get(key);
+		String preferredLineEnding = configurationProvider.getPreferredLineEnding();
+		String key = RenderCache.computeKey("dot", getDotVersion(cmd), String.join(" ", DOTOPS) + preferredLineEnding, data);
+		String value = RenderCache.getInstance().get(key);
 		if (value != null) return value;
 
-		// generate a new value by executing dot
-		String[] args = DOTOPS;
+		// generate a new value by executing dot (several threads may do that concurrently, thus we copy the options)
+		String[] args = DOTOPS.clone();
 		args[0] = cmd;
 
-		CmdResult result = Cmd.process(args, null, data, configurationProvider.getPreferredLineEnding());
+		CmdResult result = Cmd.process(args, null, data, preferredLineEnding);
 		
 		if (result.hasErrors()) {
 			return createHtmlErrorMessage("Problems occured while translating DOT code:\n\n" + result.errOutput);
@@ -62,7 +68,7 @@ public class DotGen {
 
 		// update cache if valid value
 		if (value != null && !value.trim().isEmpty()) {
-			dotCache.put(key, value);
+			RenderCache.getInstance().put(key, value);
 		} else {
 			return createHtmlErrorMessage("Dot created no output for" + Strings.EOL + data);
 		}
@@ -70,6 +76,32 @@ public class DotGen {
 		return value;
 	}
 	
+	/**
+	 * Returns the version string printed by "dot -V", so that cached diagrams are re-rendered after
+	 * a Graphviz update. The version is determined only once per dot command. Failures are not
+	 * remembered, so that the version is determined again, e.g. after installing Graphviz.
+	 */
+	private String getDotVersion(String cmd) {
+		String version = dotVersions.get(cmd);
+		if (version != null) {
+			return version;
+		}
+		
+		try {
+			// dot prints its version to stdErr
+			CmdResult result = Cmd.process(new String[] { cmd, "-V" }, null, null, configurationProvider.getPreferredLineEnding());
+			version = (result.stdOutput + result.errOutput).trim();
+		} catch (RuntimeException e) {
+			// dot will fail again when rendering and report the problem there
+			return "";
+		}
+		
+		if (!version.isEmpty()) {
+			dotVersions.put(cmd, version);
+		}
+		return version;
+	}
+	
 	String createHtmlErrorMessage(String message) {
 		StringBuilder strBuilder = new StringBuilder();
 		strBuilder.append("<pre>");
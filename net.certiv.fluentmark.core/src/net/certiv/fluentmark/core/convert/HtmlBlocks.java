@@ -0,0 +1,91 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HTML of a Markdown document, split into the HTML of its top-level blocks.
+ *
+ * <p>Each block has an id that is derived from the block's Markdown code (and from the context the block
+ * is converted in), so that a block's id only changes if its HTML may change. A preview that already
+ * shows the blocks of a previous conversion only needs the HTML of the blocks with new ids.</p>
+ *
+ * @see Converter#convertBlocks(org.eclipse.core.runtime.IPath, org.eclipse.jface.text.IDocument, HtmlBlocks)
+ */
+public class HtmlBlocks {
+	
+	public static final class Block {
+		
+		public final String id;
+		public final String html;
+		
+		Block(String id, String html) {
+			this.id = id;
+			this.html = html;
+		}
+	}
+	
+	private final List<Block> blocks;
+	private final Map<String, String> htmlById;
+	
+	HtmlBlocks(List<Block> blocks) {
+		this.blocks = Collections.unmodifiableList(blocks);
+		this.htmlById = new HashMap<>();
+		for (Block block : blocks) {
+			htmlById.put(block.id, block.html);
+		}
+	}
+	
+	public List<Block> getBlocks() {
+		return blocks;
+	}
+	
+	public boolean contains(String blockId) {
+		return htmlById.containsKey(blockId);
+	}
+	
+	/**
+	 * @return the block's HTML or <code>null</code> if there is no block with the given id
+	 */
+	public String getHtml(String blockId) {
+		return htmlById.get(blockId);
+	}
+	
+	/**
+	 * @return the HTML of the whole document
+	 */
+	public String getHtml() {
+		StringBuilder html = new StringBuilder();
+		for (Block block : blocks) {
+			html.append(block.html);
+		}
+		return html.toString();
+	}
+	
+	/**
+	 * @return <code>true</code> if both conversions consist of the same blocks in the same order
+	 */
+	public boolean hasSameBlocks(HtmlBlocks other) {
+		if (other == null || other.blocks.size() != blocks.size()) {
+			return false;
+		}
+		for (int i = 0; i < blocks.size(); i++) {
+			if (!blocks.get(i).id.equals(other.blocks.get(i).id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
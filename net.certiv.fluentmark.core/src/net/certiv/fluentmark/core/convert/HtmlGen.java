@@ -29,7 +29,6 @@ import java.io.File;
 import java.io.IOException;
 
 import net.certiv.fluentmark.core.FluentCore;
-import net.certiv.fluentmark.core.util.FileUtils;
 import net.certiv.fluentmark.core.util.Strings;
 
 /**
@@ -48,6 +47,8 @@ import net.certiv.fluentmark.core.util.Strings;
  * </ul>
  */
 public class HtmlGen {
+	
+	private static final String[] PREVIEW_PLACEHOLDERS = { "%preview%", "%path%", "%styles%", "%highlight%", "%mathjax%" };
 
 	private Converter converter;
 	private IConfigurationProvider configurationProvider;
@@ -86,19 +87,20 @@ public class HtmlGen {
 					return content;
 				}
 				
-				sb.append("<html><head>" + Strings.EOL);
-				sb.append(FileUtils.fromBundle("resources/html/meta.html") + Strings.EOL);
-				sb.append(FileUtils.fromBundle("resources/html/highlight.html") + Strings.EOL);
-				sb.append(FileUtils.fromBundle("resources/html/highlight-export-init.html") + Strings.EOL);
+				HtmlResources resources = HtmlResources.getInstance();
+				sb.append("<html><head>").append(Strings.EOL);
+				sb.append(resources.getBundleText("resources/html/meta.html")).append(Strings.EOL);
+				sb.append(resources.getBundleText("resources/html/highlight.html")).append(Strings.EOL);
+				sb.append(resources.getBundleText("resources/html/highlight-export-init.html")).append(Strings.EOL);
 				if (configurationProvider.useMathJax()) {
-					sb.append(FileUtils.fromBundle("resources/html/mathjax.html") + Strings.EOL);
+					sb.append(resources.getBundleText("resources/html/mathjax.html")).append(Strings.EOL);
 				}
-				sb.append("<style media=\"screen\" type=\"text/css\">" + Strings.EOL);
-				sb.append(getStyle(filePath) + Strings.EOL);
-				sb.append("</style>" + Strings.EOL);
-				sb.append("</head><body>" + Strings.EOL);
+				sb.append("<style media=\"screen\" type=\"text/css\">").append(Strings.EOL);
+				sb.append(getStyle(filePath)).append(Strings.EOL);
+				sb.append("</style>").append(Strings.EOL);
+				sb.append("</head><body>").append(Strings.EOL);
 				
-				sb.append(bodyContent + Strings.EOL);
+				sb.append(bodyContent).append(Strings.EOL);
 				
 				sb.append("</body></html>");
 				break;
@@ -111,18 +113,15 @@ public class HtmlGen {
 				break;
 
 			case VIEW:
-				String preview = FileUtils.fromBundle("resources/html/preview.html");
-				
-				preview = Strings.replaceFirst(preview, "%path%", filePath.toString());
-				preview = Strings.replaceFirst(preview, "%styles%", getStyle(filePath));
-				
-				String highlightScript = FileUtils.fromBundle("resources/html/highlight.html");
-				preview = Strings.replaceFirst(preview, "%highlight%", highlightScript);
+				HtmlResources previewResources = HtmlResources.getInstance();
+				HtmlTemplate preview = previewResources.getBundleTemplate("resources/html/preview.html", PREVIEW_PLACEHOLDERS);
 				
-				String mathJaxScript = FileUtils.fromBundle("resources/html/mathjax.html");
-				preview = Strings.replaceFirst(preview, "%mathjax%", mathJaxScript);
+				// the preview runtime is in-lined, since the page's base is the Markdown file's folder
+				String previewScript = previewResources.getBundleText("resources/js/preview.js");
+				String highlightScript = previewResources.getBundleText("resources/html/highlight.html");
+				String mathJaxScript = previewResources.getBundleText("resources/html/mathjax.html");
 				
-				sb.append(preview);
+				preview.appendTo(sb, previewScript, filePath.toString(), getStyle(filePath), highlightScript, mathJaxScript);
 				break;
 
 			case UPDATE:
@@ -153,8 +152,9 @@ public class HtmlGen {
 	// path is the searchable base for the style to use; returns the content
 	private String getStyle(IPath path) {
 		try {
-			URL url = findStyle(path);
-			return FileUtils.read(url);
+			String configuration = configurationProvider.getCustomCssSettingsFile() + "\n"
+					+ configurationProvider.getBuiltinCssSettingsFile();
+			return HtmlResources.getInstance().getStyle(path, configuration, this::findStyle);
 		} catch (Exception e) {
 			throw new RuntimeException(String.format("Failed finding / reading stylesheet for path %s", path), e);
 		}
@@ -0,0 +1,252 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.URIUtil;
+import org.osgi.framework.Bundle;
+
+import net.certiv.fluentmark.core.FluentCore;
+import net.certiv.fluentmark.core.util.FileUtils;
+
+/**
+ * Cache for the resources that HTML is generated from: the HTML templates and scripts in this bundle, and
+ * the stylesheets used for previewing and exporting Markdown files.
+ *
+ * <p>Files are read again only if their modification stamp changed. The stylesheet found for a Markdown
+ * file is remembered until a stylesheet is added to or removed from the workspace (or a project is opened
+ * or closed), since that may change which stylesheet applies.</p>
+ */
+public class HtmlResources implements IResourceChangeListener {
+	
+	private static HtmlResources INSTANCE = null;
+	
+	public static synchronized HtmlResources getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new HtmlResources();
+			try {
+				ResourcesPlugin.getWorkspace().addResourceChangeListener(INSTANCE, IResourceChangeEvent.POST_CHANGE);
+			} catch (IllegalStateException e) {
+				// no workspace, thus no stylesheets in the workspace to follow
+			}
+		}
+		return INSTANCE;
+	}
+	
+	/**
+	 * Drops all cached resources and stops following resource changes.
+	 */
+	public static synchronized void shutdown() {
+		if (INSTANCE == null) {
+			return;
+		}
+		
+		try {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(INSTANCE);
+		} catch (IllegalStateException e) {
+			// no workspace, nothing to remove
+		}
+		INSTANCE = null;
+	}
+	
+	/**
+	 * Finds the stylesheet to use for a Markdown file.
+	 */
+	@FunctionalInterface
+	public interface StyleLocator {
+		
+		URL findStyle(IPath markdownFilePath) throws Exception;
+	}
+	
+	private static class CachedFile {
+		
+		final File file;
+		final long lastModified;
+		final long length;
+		final String text;
+		
+		volatile HtmlTemplate template;
+		
+		CachedFile(File file) {
+			this.file = file;
+			// take the stamp before reading, so that a concurrent change is detected next time
+			this.lastModified = file.lastModified();
+			this.length = file.length();
+			this.text = FileUtils.read(file);
+		}
+		
+		boolean isUpToDate() {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+	
+	private final Map<String, CachedFile> bundleFiles = new ConcurrentHashMap<>();
+	private final Map<File, CachedFile> styleFiles = new ConcurrentHashMap<>();
+	private final Map<String, URL> styleLocations = new ConcurrentHashMap<>();
+	
+	private HtmlResources() {
+	}
+	
+	/**
+	 * @param path the file's path within this bundle, e.g. <code>resources/html/figure.html</code>
+	 * @return the file's contents or <code>null</code> if there is no such file
+	 */
+	public String getBundleText(String path) throws IOException, URISyntaxException {
+		CachedFile cachedFile = getBundleFile(path);
+		return cachedFile != null ? cachedFile.text : null;
+	}
+	
+	/**
+	 * @param path the template file's path within this bundle, e.g. <code>resources/html/figure.html</code>
+	 * @param placeholders the placeholders to replace, see {@link HtmlTemplate#compile(String, String...)}
+	 * @return the compiled template or <code>null</code> if there is no such file
+	 */
+	public HtmlTemplate getBundleTemplate(String path, String... placeholders) throws IOException, URISyntaxException {
+		CachedFile cachedFile = getBundleFile(path);
+		if (cachedFile == null) {
+			return null;
+		}
+		
+		HtmlTemplate template = cachedFile.template;
+		if (template == null || !Arrays.equals(template.getPlaceholders(), placeholders)) {
+			template = HtmlTemplate.compile(cachedFile.text, placeholders);
+			cachedFile.template = template;
+		}
+		return template;
+	}
+	
+	private CachedFile getBundleFile(String path) throws IOException, URISyntaxException {
+		if (path == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		CachedFile cachedFile = bundleFiles.get(path);
+		if (cachedFile != null && cachedFile.isUpToDate()) {
+			return cachedFile;
+		}
+		
+		Bundle bundle = Platform.getBundle(FluentCore.PLUGIN_ID);
+		URL url = bundle.getEntry(path);
+		if (url == null) {
+			bundleFiles.remove(path);
+			return null;
+		}
+		url = FileLocator.toFileURL(url);
+		
+		cachedFile = new CachedFile(URIUtil.toFile(URIUtil.toURI(url)));
+		bundleFiles.put(path, cachedFile);
+		return cachedFile;
+	}
+	
+	/**
+	 * @param configuration the settings that the stylesheet's location depends on, besides the
+	 *            Markdown file's location
+	 * @param locator finds the stylesheet if it is not cached
+	 * @return the stylesheet's contents
+	 */
+	public String getStyle(IPath markdownFilePath, String configuration, StyleLocator locator) throws Exception {
+		if (markdownFilePath == null || configuration == null || locator == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		String key = configuration + "\n" + markdownFilePath;
+		URL url = styleLocations.get(key);
+		File file = url != null ? toFile(url) : null;
+		
+		// external stylesheets may have been deleted without a resource change
+		if (url == null || (file != null && !file.isFile())) {
+			url = locator.findStyle(markdownFilePath);
+			if (url == null) {
+				throw new IllegalStateException(String.format("No stylesheet found for %s", markdownFilePath));
+			}
+			styleLocations.put(key, url);
+			file = toFile(url);
+		}
+		
+		if (file == null) {
+			return FileUtils.read(url);
+		}
+		
+		CachedFile cachedFile = styleFiles.get(file);
+		if (cachedFile == null || !cachedFile.isUpToDate()) {
+			cachedFile = new CachedFile(file);
+			styleFiles.put(file, cachedFile);
+		}
+		return cachedFile.text;
+	}
+	
+	private File toFile(URL url) {
+		if (!"file".equalsIgnoreCase(url.getProtocol())) {
+			return null;
+		}
+		try {
+			return URIUtil.toFile(URIUtil.toURI(url));
+		} catch (URISyntaxException e) {
+			return null;
+		}
+	}
+	
+	public void clear() {
+		bundleFiles.clear();
+		styleFiles.clear();
+		styleLocations.clear();
+	}
+	
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null || styleLocations.isEmpty()) {
+			return;
+		}
+		
+		try {
+			delta.accept(resourceDelta -> {
+				if (styleLocations.isEmpty()) {
+					return false;
+				}
+				
+				IResource resource = resourceDelta.getResource();
+				boolean addedOrRemoved = resourceDelta.getKind() == IResourceDelta.ADDED
+						|| resourceDelta.getKind() == IResourceDelta.REMOVED;
+				
+				if (resource instanceof IFile && addedOrRemoved
+						&& IConfigurationProvider.CSS.equalsIgnoreCase(resource.getFileExtension())) {
+					styleLocations.clear();
+				} else if (resource instanceof IProject && (resourceDelta.getFlags() & IResourceDelta.OPEN) != 0) {
+					styleLocations.clear();
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			FluentCore.log(IStatus.WARNING, "Could not update the stylesheet cache.", e);
+			styleLocations.clear();
+		}
+	}
+	
+}
@@ -0,0 +1,130 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTML text with placeholders like <code>%image%</code>, split once into literal segments and
+ * placeholders, so that filling in values appends each part exactly once to a single
+ * <code>StringBuilder</code> instead of copying the whole text for each replaced placeholder.
+ *
+ * <p>Only the placeholders given when compiling are replaced (all their occurrences), any other text with
+ * percent signs stays as it is. Values are inserted verbatim, placeholders within values are not
+ * replaced.</p>
+ */
+public class HtmlTemplate {
+	
+	private final String[] placeholders;
+	
+	// segments[i] is followed by the value of placeholders[placeholderIndices[i]], the last segment by nothing
+	private final String[] segments;
+	private final int[] placeholderIndices;
+	private final int literalLength;
+	
+	private HtmlTemplate(String[] placeholders, String[] segments, int[] placeholderIndices) {
+		this.placeholders = placeholders;
+		this.segments = segments;
+		this.placeholderIndices = placeholderIndices;
+		
+		int length = 0;
+		for (String segment : segments) {
+			length += segment.length();
+		}
+		this.literalLength = length;
+	}
+	
+	/**
+	 * @param text the template text
+	 * @param placeholders the placeholders to replace, e.g. <code>%image%</code>
+	 */
+	public static HtmlTemplate compile(String text, String... placeholders) {
+		if (text == null || placeholders == null) {
+			throw new IllegalArgumentException();
+		}
+		for (String placeholder : placeholders) {
+			if (placeholder == null || placeholder.isEmpty()) {
+				throw new IllegalArgumentException();
+			}
+		}
+		
+		List<String> segments = new ArrayList<>();
+		List<Integer> placeholderIndices = new ArrayList<>();
+		
+		int segmentStart = 0;
+		int position = 0;
+		while (position < text.length()) {
+			int placeholderIndex = findPlaceholderAt(text, position, placeholders);
+			if (placeholderIndex < 0) {
+				position++;
+				continue;
+			}
+			
+			segments.add(text.substring(segmentStart, position));
+			placeholderIndices.add(placeholderIndex);
+			position += placeholders[placeholderIndex].length();
+			segmentStart = position;
+		}
+		segments.add(text.substring(segmentStart));
+		
+		return new HtmlTemplate(placeholders.clone(), segments.toArray(new String[segments.size()]),
+				placeholderIndices.stream().mapToInt(Integer::intValue).toArray());
+	}
+	
+	private static int findPlaceholderAt(String text, int position, String[] placeholders) {
+		for (int index = 0; index < placeholders.length; index++) {
+			if (text.startsWith(placeholders[index], position)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+	
+	public String[] getPlaceholders() {
+		return placeholders.clone();
+	}
+	
+	/**
+	 * Appends the template text with the given values in place of the placeholders.
+	 *
+	 * @param values the values in the order of the placeholders given when compiling
+	 */
+	public StringBuilder appendTo(StringBuilder out, String... values) {
+		if (out == null || values == null || values.length != placeholders.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		int length = literalLength;
+		for (int placeholderIndex : placeholderIndices) {
+			length += values[placeholderIndex] != null ? values[placeholderIndex].length() : 0;
+		}
+		out.ensureCapacity(out.length() + length);
+		
+		for (int index = 0; index < placeholderIndices.length; index++) {
+			out.append(segments[index]);
+			String value = values[placeholderIndices[index]];
+			if (value != null) {
+				out.append(value);
+			}
+		}
+		out.append(segments[segments.length - 1]);
+		return out;
+	}
+	
+	/**
+	 * @param values the values in the order of the placeholders given when compiling
+	 * @return the template text with the given values in place of the placeholders
+	 */
+	public String render(String... values) {
+		return appendTo(new StringBuilder(), values).toString();
+	}
+	
+}
@@ -25,6 +25,12 @@ public interface IConfigurationProvider {
 	
 	String getPandocCommand();
 	
+	/**
+	 * @return <code>true</code> if the preview should be converted by a long-running Pandoc server
+	 *         instead of a new Pandoc process for each conversion
+	 */
+	boolean usePandocServer();
+	
 	String getDotCommand();
 	
 	boolean useMathJax();
@@ -0,0 +1,227 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits Markdown code into top-level blocks that can be converted to HTML independently of each other.
+ *
+ * <p>Blocks are only split at blank lines that are followed by a non-indented line, that is not a list
+ * item, and that is outside of fenced code, math, PlantUML, front matter, and multi-line HTML regions.
+ * An HTML region reaches from a line starting with an opening tag to the line closing that tag, so that
+ * e.g. the content of a <code>&lt;details&gt;</code> or <code>&lt;div&gt;</code> element stays inside it.
+ * The split is conservative: if in doubt, the lines stay in the same block. Documents with footnotes or
+ * with headings that may get the same anchor are not split at all, since their HTML depends on the whole
+ * document.</p>
+ */
+class MarkdownBlocks {
+	
+	private static final Pattern FENCE = Pattern.compile("^\\s*(`{3,}|~{3,})");
+	private static final Pattern UML_START = Pattern.compile("^\\s*@start(\\w+)");
+	private static final Pattern HTML_BLOCK_START = Pattern.compile("^ {0,3}<([a-zA-Z][a-zA-Z0-9-]*)(\\s|/?>|$)");
+	private static final Set<String> HTML_VOID_ELEMENTS = Set.of("area", "base", "br", "col", "embed", "hr", "img", "input",
+			"link", "meta", "source", "track", "wbr");
+	private static final Pattern LIST_ITEM = Pattern.compile("^([-*+]|\\d{1,9}[.)])(\\s|$)");
+	private static final Pattern REFERENCE_DEFINITION = Pattern.compile("^ {0,3}\\[[^\\]^][^\\]]*\\]:\\s*\\S.*$");
+	private static final Pattern FOOTNOTE = Pattern.compile("\\[\\^[^\\]]+\\]");
+	private static final Pattern ATX_HEADING = Pattern.compile("^ {0,3}#{1,6}\\s+(.*)$");
+	private static final Pattern SETEXT_UNDERLINE = Pattern.compile("^ {0,3}(=+|-+)\\s*$");
+	
+	private final List<String> sources = new ArrayList<>();
+	private final StringBuilder referenceDefinitions = new StringBuilder();
+	
+	private MarkdownBlocks() {
+	}
+	
+	/**
+	 * @return the Markdown code of the blocks in document order, including their line endings
+	 */
+	List<String> getSources() {
+		return Collections.unmodifiableList(sources);
+	}
+	
+	/**
+	 * Link reference definitions may be used in all blocks of a document, thus they have to be appended to
+	 * each block before converting it.
+	 *
+	 * @return all link reference definitions of the document, one per line
+	 */
+	String getReferenceDefinitions() {
+		return referenceDefinitions.toString();
+	}
+	
+	static MarkdownBlocks split(String markdown) {
+		if (markdown == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		MarkdownBlocks blocks = new MarkdownBlocks();
+		Set<String> headings = new HashSet<>();
+		boolean splittable = !FOOTNOTE.matcher(markdown).find();
+		
+		StringBuilder block = new StringBuilder();
+		Predicate<String> regionEnd = null;
+		String previousLine = "";
+		boolean firstLine = true;
+		
+		int lineStart = 0;
+		while (lineStart < markdown.length()) {
+			int lineEnd = markdown.indexOf('\n', lineStart);
+			lineEnd = lineEnd < 0 ? markdown.length() : lineEnd + 1;
+			String lineWithEnding = markdown.substring(lineStart, lineEnd);
+			String line = lineWithEnding.stripTrailing();
+			lineStart = lineEnd;
+			
+			if (regionEnd != null) {
+				if (regionEnd.test(line)) {
+					regionEnd = null;
+				}
+			} else {
+				if (block.length() > 0 && previousLine.isBlank() && isBlockStart(line)) {
+					blocks.sources.add(block.toString());
+					block.setLength(0);
+				}
+				
+				regionEnd = findRegionEnd(line, firstLine);
+				
+				if (REFERENCE_DEFINITION.matcher(line).matches()) {
+					blocks.referenceDefinitions.append(line).append('\n');
+				}
+				
+				String heading = getHeadingText(line, previousLine);
+				if (heading != null && !headings.add(heading)) {
+					splittable = false;
+				}
+			}
+			
+			block.append(lineWithEnding);
+			previousLine = line;
+			firstLine = false;
+		}
+		
+		if (block.length() > 0) {
+			blocks.sources.add(block.toString());
+		}
+		
+		if (!splittable && blocks.sources.size() > 1) {
+			blocks.sources.clear();
+			blocks.sources.add(markdown);
+		}
+		
+		return blocks;
+	}
+	
+	private static boolean isBlockStart(String line) {
+		return !line.isBlank()
+				&& !Character.isWhitespace(line.charAt(0))
+				&& !LIST_ITEM.matcher(line).find();
+	}
+	
+	/**
+	 * @return a predicate that is true for the last line of the region (that must not be split) starting
+	 *         with the given line, or <code>null</code> if no such region starts here
+	 */
+	private static Predicate<String> findRegionEnd(String line, boolean firstLine) {
+		if (firstLine && line.equals("---")) {
+			return Pattern.compile("^(---|\\.\\.\\.)$").asPredicate();
+		}
+		
+		Matcher matcher = FENCE.matcher(line);
+		if (matcher.find()) {
+			String fence = matcher.group(1);
+			return Pattern.compile("^\\s*" + Pattern.quote(fence.substring(0, 1)) + "{" + fence.length() + ",}\\s*$").asPredicate();
+		}
+		
+		matcher = UML_START.matcher(line);
+		if (matcher.find()) {
+			return Pattern.compile("^\\s*@end" + Pattern.quote(matcher.group(1))).asPredicate();
+		}
+		
+		String trimmedLine = line.trim();
+		if (trimmedLine.equals("$$") || (trimmedLine.startsWith("$$") && !trimmedLine.substring(2).contains("$$"))) {
+			return Pattern.compile("\\$\\$").asPredicate();
+		}
+		
+		int commentStart = line.indexOf("<!--");
+		if (commentStart >= 0 && line.indexOf("-->", commentStart + 4) < 0) {
+			return Pattern.compile("-->").asPredicate();
+		}
+		
+		matcher = HTML_BLOCK_START.matcher(line);
+		if (matcher.find() && !HTML_VOID_ELEMENTS.contains(matcher.group(1).toLowerCase())) {
+			HtmlElementEnd elementEnd = new HtmlElementEnd(matcher.group(1));
+			return elementEnd.test(line) ? null : elementEnd;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Finds the line closing an HTML element, taking nested elements with the same name into account.
+	 */
+	private static class HtmlElementEnd implements Predicate<String> {
+		
+		private final Pattern openingTag;
+		private final Pattern closingTag;
+		private int depth = 0;
+		
+		HtmlElementEnd(String tagName) {
+			// opening tags that are not self-closing (like <div/>)
+			this.openingTag = Pattern.compile("<" + Pattern.quote(tagName) + "(?![\\w-])(?![^<>]*/>)", Pattern.CASE_INSENSITIVE);
+			this.closingTag = Pattern.compile("</" + Pattern.quote(tagName) + "\\s*>", Pattern.CASE_INSENSITIVE);
+		}
+		
+		@Override
+		public boolean test(String line) {
+			depth += count(openingTag, line) - count(closingTag, line);
+			return depth <= 0;
+		}
+		
+		private static int count(Pattern pattern, String line) {
+			int count = 0;
+			Matcher matcher = pattern.matcher(line);
+			while (matcher.find()) {
+				count++;
+			}
+			return count;
+		}
+	}
+	
+	/**
+	 * @return the heading's text reduced to the characters that may end up in the heading's anchor,
+	 *         or <code>null</code> if the line is not a heading
+	 */
+	private static String getHeadingText(String line, String previousLine) {
+		String text = null;
+		
+		Matcher matcher = ATX_HEADING.matcher(line);
+		if (matcher.matches()) {
+			text = matcher.group(1);
+		} else if (!previousLine.isBlank() && SETEXT_UNDERLINE.matcher(line).matches()) {
+			text = previousLine;
+		}
+		
+		if (text == null) {
+			return null;
+		}
+		
+		// be conservative: headings with the same letters and digits may get the same anchor
+		return text.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", "");
+	}
+
+}
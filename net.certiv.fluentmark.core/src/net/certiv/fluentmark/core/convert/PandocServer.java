@@ -0,0 +1,318 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IStatus;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import net.certiv.fluentmark.core.FluentCore;
+
+/**
+ * Converts Markdown with a long-running Pandoc process in server mode (<code>pandoc server</code>, Pandoc
+ * 3.0 or later) instead of starting a new Pandoc process for each conversion.
+ *
+ * <p>The server is started with the first conversion and restarted if it dies or stops answering health
+ * checks. If it cannot be started, conversions fail with an {@link IOException} (so that the caller can
+ * fall back to a one-shot Pandoc process) and starting is not tried again for a while.</p>
+ */
+public class PandocServer {
+	
+	public static final Duration DEFAULT_STARTUP_TIMEOUT = Duration.ofSeconds(10);
+	public static final Duration DEFAULT_RESTART_DELAY = Duration.ofSeconds(60);
+	
+	// pandoc server's own limit per conversion, the default of 2 seconds is too short for large documents
+	private static final int CONVERSION_TIMEOUT_SECONDS = 60;
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(CONVERSION_TIMEOUT_SECONDS + 5);
+	private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(2);
+	private static final long STARTUP_POLLING_INTERVAL_MILLIS = 50;
+	
+	// null options must be sent, e.g. "highlight-style": null turns off Pandoc's highlighting
+	private static final Gson GSON = new GsonBuilder().serializeNulls().disableHtmlEscaping().create();
+	
+	private static PandocServer INSTANCE = null;
+	
+	public static synchronized PandocServer getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new PandocServer(new PandocProcessLauncher(), DEFAULT_STARTUP_TIMEOUT, DEFAULT_RESTART_DELAY);
+		}
+		return INSTANCE;
+	}
+	
+	/**
+	 * Stops the server process, if any.
+	 */
+	public static synchronized void shutdown() {
+		if (INSTANCE == null) {
+			return;
+		}
+		
+		INSTANCE.stop();
+		INSTANCE = null;
+	}
+	
+	/**
+	 * Starts and stops a server that accepts the same requests as <code>pandoc server</code>.
+	 */
+	interface Launcher {
+		
+		/**
+		 * @return the address of the started server, that may still be starting up
+		 */
+		URI launch(String pandocCommand) throws IOException;
+		
+		boolean isAlive();
+		
+		void stop();
+	}
+	
+	private static class PandocProcessLauncher implements Launcher {
+		
+		private Process process;
+		
+		@Override
+		public URI launch(String pandocCommand) throws IOException {
+			int port = findFreePort();
+			ProcessBuilder processBuilder = new ProcessBuilder(pandocCommand, "server",
+					"--port", String.valueOf(port), "--timeout", String.valueOf(CONVERSION_TIMEOUT_SECONDS));
+			processBuilder.redirectErrorStream(true);
+			processBuilder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+			process = processBuilder.start();
+			return URI.create("http://localhost:" + port + "/");
+		}
+		
+		private int findFreePort() throws IOException {
+			try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+				return socket.getLocalPort();
+			}
+		}
+		
+		@Override
+		public boolean isAlive() {
+			return process != null && process.isAlive();
+		}
+		
+		@Override
+		public void stop() {
+			if (process != null) {
+				process.destroy();
+				process = null;
+			}
+		}
+	}
+	
+	/**
+	 * Pandoc's output and the warnings it reported.
+	 */
+	public static final class Result {
+		
+		public final String output;
+		public final String messages;
+		
+		Result(String output, String messages) {
+			this.output = output;
+			this.messages = messages;
+		}
+	}
+	
+	private final Launcher launcher;
+	private final Duration startupTimeout;
+	private final Duration restartDelay;
+	private final HttpClient httpClient;
+	
+	private URI endpoint = null;
+	private String runningCommand = null;
+	private long lastFailedStart = 0;
+	private boolean failedBefore = false;
+	
+	PandocServer(Launcher launcher, Duration startupTimeout, Duration restartDelay) {
+		if (launcher == null || startupTimeout == null || restartDelay == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.launcher = launcher;
+		this.startupTimeout = startupTimeout;
+		this.restartDelay = restartDelay;
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(HEALTH_CHECK_TIMEOUT)
+				.build();
+	}
+	
+	/**
+	 * Converts the given text, starting the server first if it is not running.
+	 *
+	 * @param pandocCommand the Pandoc executable
+	 * @param options the conversion options, e.g. <code>"from"</code> and <code>"to"</code>, see the
+	 *            documentation of <code>pandoc server</code>; values must be strings, booleans, or
+	 *            <code>null</code>
+	 * @throws IOException if the server is not available or the conversion failed
+	 * @throws InterruptedException if interrupted while waiting for the server
+	 */
+	public Result convert(String pandocCommand, Map<String, Object> options, String text) throws IOException, InterruptedException {
+		if (pandocCommand == null || pandocCommand.isBlank() || options == null || text == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		URI serverEndpoint = ensureRunning(pandocCommand);
+		
+		Map<String, Object> request = new LinkedHashMap<>(options);
+		request.put("text", text);
+		
+		HttpRequest httpRequest = HttpRequest.newBuilder(serverEndpoint)
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.header("Accept", "application/json")
+				.POST(BodyPublishers.ofString(GSON.toJson(request), StandardCharsets.UTF_8))
+				.build();
+		
+		HttpResponse<String> response;
+		try {
+			response = httpClient.send(httpRequest, BodyHandlers.ofString(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			checkHealth(serverEndpoint);
+			throw e;
+		}
+		
+		if (response.statusCode() != 200) {
+			// e.g. unsupported options or a conversion that exceeded the server's time limit
+			throw new IOException(String.format("Pandoc server failed with status %d: %s", response.statusCode(), response.body()));
+		}
+		
+		return toResult(response.body());
+	}
+	
+	private Result toResult(String responseBody) throws IOException {
+		Response response;
+		try {
+			response = GSON.fromJson(responseBody, Response.class);
+		} catch (JsonParseException e) {
+			throw new IOException("Unexpected response from Pandoc server.", e);
+		}
+		if (response == null || response.output == null) {
+			throw new IOException("Unexpected response from Pandoc server.");
+		}
+		if (Boolean.TRUE.equals(response.base64)) {
+			throw new IOException("Unexpected binary output from Pandoc server.");
+		}
+		
+		StringBuilder messages = new StringBuilder();
+		if (response.messages != null) {
+			for (Message message : response.messages) {
+				if (message != null && message.message != null) {
+					messages.append('[').append(message.verbosity != null ? message.verbosity : "INFO").append("] ");
+					messages.append(message.message).append('\n');
+				}
+			}
+		}
+		
+		return new Result(response.output, messages.toString());
+	}
+	
+	// the parts of pandoc server's JSON response that we need
+	private static final class Response {
+		String output;
+		Boolean base64;
+		List<Message> messages;
+	}
+	
+	private static final class Message {
+		String verbosity;
+		String message;
+	}
+	
+	private synchronized URI ensureRunning(String pandocCommand) throws IOException, InterruptedException {
+		if (endpoint != null && launcher.isAlive() && pandocCommand.equals(runningCommand)) {
+			return endpoint;
+		}
+		
+		stop();
+		
+		if (failedBefore && System.nanoTime() - lastFailedStart < restartDelay.toNanos()) {
+			throw new IOException("Pandoc server is not available.");
+		}
+		
+		try {
+			URI startedEndpoint = launcher.launch(pandocCommand);
+			awaitStartup(startedEndpoint);
+			
+			endpoint = startedEndpoint;
+			runningCommand = pandocCommand;
+			failedBefore = false;
+			return endpoint;
+		} catch (IOException e) {
+			launcher.stop();
+			failedBefore = true;
+			lastFailedStart = System.nanoTime();
+			FluentCore.log(IStatus.WARNING, String.format("Could not start Pandoc server \"%s\", starting Pandoc for each conversion instead.", pandocCommand), e);
+			throw e;
+		}
+	}
+	
+	private void awaitStartup(URI serverEndpoint) throws IOException, InterruptedException {
+		long deadline = System.nanoTime() + startupTimeout.toNanos();
+		while (!isHealthy(serverEndpoint)) {
+			if (!launcher.isAlive()) {
+				throw new IOException("Pandoc server exited during start-up, Pandoc 3.0 or later is required.");
+			}
+			if (System.nanoTime() - deadline > 0) {
+				throw new IOException("Pandoc server did not start in time.");
+			}
+			Thread.sleep(STARTUP_POLLING_INTERVAL_MILLIS);
+		}
+	}
+	
+	private boolean isHealthy(URI serverEndpoint) throws InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(serverEndpoint.resolve("version"))
+				.timeout(HEALTH_CHECK_TIMEOUT)
+				.GET()
+				.build();
+		try {
+			return httpClient.send(request, BodyHandlers.discarding()).statusCode() == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+	
+	// after a failed request: stop an unhealthy server, so that the next conversion starts a new one
+	private void checkHealth(URI serverEndpoint) throws InterruptedException {
+		if (!isHealthy(serverEndpoint)) {
+			synchronized (this) {
+				if (serverEndpoint.equals(endpoint)) {
+					stop();
+				}
+			}
+		}
+	}
+	
+	synchronized void stop() {
+		launcher.stop();
+		endpoint = null;
+		runningCommand = null;
+	}
+
+}
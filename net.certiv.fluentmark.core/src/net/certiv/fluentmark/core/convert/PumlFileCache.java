@@ -0,0 +1,393 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.certiv.fluentmark.core.util.FileUtils;
+
+/**
+ * Cache for SVG rendered from PlantUML files, e.g. files included in Markdown with
+ * <code>![caption](path/to/file.puml)</code>, and tracker of the files PlantUML code depends on.
+ *
+ * <p>An entry is valid as long as neither the rendered file nor any file it depends on changed, i.e. files
+ * included directly or indirectly with <code>!include</code> and its variants, archives imported with
+ * <code>!import</code>, and images referenced with <code>&lt;img:...&gt;</code>. Checking that only
+ * compares file modification stamps, so unchanged diagrams are neither read nor rendered again. Editing a
+ * file invalidates exactly the entries of the diagrams that depend on it. Diagrams that depend on
+ * something without a stamp (e.g. a URL) are not cached.</p>
+ */
+class PumlFileCache {
+	
+	private static final int MAX_ENTRIES = 256;
+	
+	// e.g. "!include common.iuml", "!include_many ../defs.puml!2", "!includesub lib.puml!PART", "!import lib.zip"
+	private static final Pattern INCLUDE = Pattern.compile("^\\s*!(include|include_many|include_once|includesub|includedef|includeurl|import)\\s+(\\S.*?)\\s*$", Pattern.MULTILINE);
+	
+	// e.g. "<img:images/logo.png>" or "<img:logo.png{scale=0.5}>"
+	private static final Pattern IMAGE = Pattern.compile("<img:([^>{}]+)[>{]");
+	
+	private static final String DIRPATH = "%dirpath()";
+	
+	private static PumlFileCache INSTANCE = null;
+	
+	public static synchronized PumlFileCache getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new PumlFileCache();
+		}
+		return INSTANCE;
+	}
+	
+	/**
+	 * A PlantUML file's code with the modification stamps of the file and all files it depends on.
+	 */
+	static final class Source {
+		
+		final Path file;
+		final String code;
+		final Map<Path, Stamp> stamps;
+		
+		/** <code>false</code> if the file depends on something that has no stamp, e.g. a URL */
+		final boolean trackable;
+		
+		private Source(Path file, String code, Map<Path, Stamp> stamps, boolean trackable) {
+			this.file = file;
+			this.code = code;
+			this.stamps = stamps;
+			this.trackable = trackable;
+		}
+	}
+	
+	static final class Stamp {
+		
+		final long modified;
+		final long size;
+		
+		private Stamp(long modified, long size) {
+			this.modified = modified;
+			this.size = size;
+		}
+		
+		static Stamp of(Path file) {
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				return new Stamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+			} catch (IOException e) {
+				// a missing file is a dependency, too: creating it changes the diagram
+				return new Stamp(-1, -1);
+			}
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Stamp other && other.modified == modified && other.size == size;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Long.hashCode(modified) * 31 + Long.hashCode(size);
+		}
+		
+		@Override
+		public String toString() {
+			return modified + "/" + size;
+		}
+	}
+	
+	private static final class Entry {
+		
+		final Map<Path, Stamp> stamps;
+		final String configuration;
+		final String svg;
+		
+		Entry(Map<Path, Stamp> stamps, String configuration, String svg) {
+			this.stamps = stamps;
+			this.configuration = configuration;
+			this.svg = svg;
+		}
+		
+		boolean isUpToDate() {
+			for (Map.Entry<Path, Stamp> stamp : stamps.entrySet()) {
+				if (!stamp.getValue().equals(Stamp.of(stamp.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Collects the files PlantUML code depends on, following includes into the included files.
+	 */
+	private static final class Dependencies {
+		
+		final Map<Path, Stamp> stamps = new LinkedHashMap<>();
+		boolean trackable = true;
+		
+		private final Deque<Path> filesToScan = new ArrayDeque<>();
+		
+		/**
+		 * @param directory the directory relative paths in the code are resolved against
+		 */
+		void addDependenciesOf(Path directory, String code) {
+			addDirectDependenciesOf(directory, code);
+			
+			while (!filesToScan.isEmpty()) {
+				Path includedFile = filesToScan.remove();
+				String includedCode = Files.isRegularFile(includedFile) ? readQuietly(includedFile) : null;
+				if (includedCode != null) {
+					// PlantUML resolves relative paths in included files relative to the included file
+					addDirectDependenciesOf(includedFile.getParent(), includedCode);
+				}
+			}
+		}
+		
+		private void addDirectDependenciesOf(Path directory, String code) {
+			Matcher matcher = INCLUDE.matcher(code);
+			while (matcher.find()) {
+				Path include = resolve(directory, getIncludePath(matcher.group(2)));
+				if (include == null) {
+					continue;
+				}
+				if (!stamps.containsKey(include)) {
+					stamps.put(include, Stamp.of(include));
+					// imported archives contain files, but are no PlantUML code themselves
+					if (!"import".equals(matcher.group(1))) {
+						filesToScan.add(include);
+					}
+				}
+			}
+			
+			matcher = IMAGE.matcher(code);
+			while (matcher.find()) {
+				Path image = resolve(directory, matcher.group(1));
+				if (image != null) {
+					stamps.computeIfAbsent(image, Stamp::of);
+				}
+			}
+		}
+		
+		/**
+		 * @return the file's absolute path, or <code>null</code> if the path does not refer to a local file,
+		 *         e.g. for standard library includes like <code>&lt;C4/C4_Container&gt;</code>
+		 */
+		private Path resolve(Path directory, String pathArgument) {
+			String path = stripQuotes(pathArgument);
+			if (path.isEmpty() || path.startsWith("<")) {
+				// the standard library is part of PlantUML
+				return null;
+			}
+			
+			if (path.startsWith(DIRPATH) && directory != null) {
+				path = directory + path.substring(DIRPATH.length());
+			}
+			if (path.contains("://") || path.contains("%") || path.contains("$")) {
+				// URLs and paths built from variables may change without us noticing
+				trackable = false;
+				return null;
+			}
+			
+			try {
+				Path file = directory != null ? directory.resolve(path) : Path.of(path);
+				return file.toAbsolutePath().normalize();
+			} catch (InvalidPathException e) {
+				return null;
+			}
+		}
+		
+		String describe() {
+			StringBuilder description = new StringBuilder();
+			for (Map.Entry<Path, Stamp> stamp : stamps.entrySet()) {
+				description.append(stamp.getKey()).append('=').append(stamp.getValue()).append('\n');
+			}
+			return description.toString();
+		}
+	}
+	
+	private final Map<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+	
+	private PumlFileCache() {
+	}
+	
+	/**
+	 * @param configuration the renderer's configuration that influences its output
+	 * @return the SVG rendered from the given file, or <code>null</code> if there is none, if the file or
+	 *         any of its dependencies changed since rendering, or if it was rendered with another configuration
+	 */
+	public String get(File pumlFile, String configuration) {
+		if (configuration == null) {
+			throw new IllegalArgumentException();
+		}
+		Path file = normalize(pumlFile);
+		
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(file);
+		}
+		if (entry == null) {
+			return null;
+		}
+		
+		if (!entry.configuration.equals(configuration) || !entry.isUpToDate()) {
+			synchronized (entries) {
+				entries.remove(file, entry);
+			}
+			return null;
+		}
+		return entry.svg;
+	}
+	
+	/**
+	 * Caches the SVG rendered from a file, unless the file depends on something that cannot be tracked.
+	 *
+	 * @param source the file the SVG was rendered from, see {@link #read(File)}
+	 * @param configuration the renderer's configuration the SVG was rendered with
+	 * @param svg the rendered SVG, must not be empty
+	 */
+	public void put(Source source, String configuration, String svg) {
+		if (source == null || configuration == null || svg == null || svg.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+		if (!source.trackable) {
+			return;
+		}
+		
+		synchronized (entries) {
+			entries.put(source.file, new Entry(source.stamps, configuration, svg));
+		}
+	}
+	
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+	
+	/**
+	 * Describes the current state of a PlantUML file and of all files it depends on. Unless the file is
+	 * cached with up-to-date stamps, the file and its includes are read.
+	 *
+	 * @return a text that changes whenever the file or one of its dependencies changes, or <code>null</code>
+	 *         if the file depends on something that cannot be tracked
+	 */
+	public String describeDependencies(File pumlFile) {
+		Path file = normalize(pumlFile);
+		
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(file);
+		}
+		
+		Dependencies dependencies = new Dependencies();
+		if (entry != null && entry.isUpToDate()) {
+			dependencies.stamps.putAll(entry.stamps);
+		} else {
+			Source source = read(pumlFile);
+			if (source == null) {
+				dependencies.stamps.put(file, Stamp.of(file));
+			} else if (!source.trackable) {
+				return null;
+			} else {
+				dependencies.stamps.putAll(source.stamps);
+			}
+		}
+		return dependencies.describe();
+	}
+	
+	/**
+	 * Describes the current state of all files the given PlantUML code depends on, e.g. for computing a
+	 * cache key for the code's rendering.
+	 *
+	 * @param directory the directory relative paths in the code are resolved against
+	 * @return a text that changes whenever one of the files changes, an empty text if the code does not
+	 *         depend on any files, or <code>null</code> if the code depends on something that cannot be
+	 *         tracked
+	 */
+	static String describeDependencies(Path directory, String code) {
+		if (directory == null || code == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Dependencies dependencies = new Dependencies();
+		dependencies.addDependenciesOf(directory.toAbsolutePath().normalize(), code);
+		return dependencies.trackable ? dependencies.describe() : null;
+	}
+	
+	/**
+	 * Reads a PlantUML file and collects the stamps of the files it depends on. Relative paths are
+	 * resolved like PlantUML does when rendering the file: relative to the file containing the path.
+	 *
+	 * @return the file's dependencies or <code>null</code> if the file does not exist
+	 */
+	static Source read(File pumlFile) {
+		Path file = normalize(pumlFile);
+		
+		// take the stamp before reading, so that a concurrent change invalidates the entry
+		Stamp stamp = Stamp.of(file);
+		String code = Files.isRegularFile(file) ? readQuietly(file) : null;
+		if (code == null) {
+			return null;
+		}
+		
+		Dependencies dependencies = new Dependencies();
+		dependencies.stamps.put(file, stamp);
+		dependencies.addDependenciesOf(file.getParent(), code);
+		
+		return new Source(file, code, dependencies.stamps, dependencies.trackable);
+	}
+	
+	private static String readQuietly(Path file) {
+		try {
+			return FileUtils.readTextFromFile(file.toFile());
+		} catch (RuntimeException e) {
+			// PlantUML will report the problem when rendering
+			return null;
+		}
+	}
+	
+	// "file.puml!2" and "file.puml!PART" refer to a diagram or a sub-part in the file
+	private static String getIncludePath(String includeArgument) {
+		int suffixStart = includeArgument.indexOf('!');
+		return suffixStart >= 0 ? includeArgument.substring(0, suffixStart) : includeArgument;
+	}
+	
+	private static String stripQuotes(String path) {
+		String trimmedPath = path.trim();
+		boolean quoted = trimmedPath.length() >= 2 && trimmedPath.startsWith("\"") && trimmedPath.endsWith("\"");
+		return quoted ? trimmedPath.substring(1, trimmedPath.length() - 1) : trimmedPath;
+	}
+	
+	private static Path normalize(File file) {
+		if (file == null) {
+			throw new IllegalArgumentException();
+		}
+		return file.toPath().toAbsolutePath().normalize();
+	}
+	
+}
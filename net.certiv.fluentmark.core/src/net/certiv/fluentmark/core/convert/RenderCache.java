@@ -0,0 +1,249 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.convert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+
+import net.certiv.fluentmark.core.FluentCore;
+
+/**
+ * Cache for rendered diagrams (e.g. SVG created by dot or PlantUML), shared by all converters.
+ *
+ * <p>Entries are addressed by a SHA-256 hash of the renderer name, the renderer version, the renderer
+ * configuration, and the diagram source, so that a changed renderer or configuration never returns
+ * stale output. The cache has two tiers: a bounded in-memory tier, and an on-disk tier in the plug-in's
+ * state location that keeps rendered diagrams across restarts. If both tiers are full, the least recently
+ * used entries are dropped.</p>
+ */
+public class RenderCache {
+	
+	private static final String CACHE_FOLDER_NAME = "render-cache";
+	private static final String CACHE_FILE_EXTENSION = ".svg";
+	
+	private static final long MAX_MEMORY_CHARS = 8L * 1024 * 1024;
+	private static final long MAX_DISK_BYTES = 64L * 1024 * 1024;
+	
+	private static RenderCache INSTANCE = null;
+	
+	public static synchronized RenderCache getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new RenderCache();
+		}
+		return INSTANCE;
+	}
+	
+	private final Map<String, String> memoryCache = new LinkedHashMap<>(16, 0.75f, true);
+	private long memoryChars = 0;
+	
+	private final Object diskLock = new Object();
+	private long diskBytes = -1;
+	
+	private RenderCache() {
+	}
+	
+	/**
+	 * Computes the cache key for a diagram.
+	 *
+	 * @param renderer the renderer's name, e.g. "dot"
+	 * @param rendererVersion the renderer's version, or anything else that changes if the renderer's output changes
+	 * @param configuration the renderer's configuration that influences its output, e.g. command line options
+	 * @param source the diagram source code
+	 * @return a key that is (practically) unique for the given arguments
+	 */
+	public static String computeKey(String renderer, String rendererVersion, String configuration, String source) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+		}
+		
+		for (String part : new String[] { renderer, rendererVersion, configuration, source }) {
+			byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+			
+			// prefix each part with its length, so that moving characters between parts changes the key
+			digest.update(new byte[] { (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+					(byte) (bytes.length >>> 8), (byte) bytes.length });
+			digest.update(bytes);
+		}
+		
+		return HexFormat.of().formatHex(digest.digest());
+	}
+	
+	/**
+	 * @param key a key computed with {@link #computeKey(String, String, String, String)}
+	 * @return the cached rendering or <code>null</code> if there is none
+	 */
+	public String get(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		synchronized (memoryCache) {
+			String value = memoryCache.get(key);
+			if (value != null) {
+				return value;
+			}
+		}
+		
+		String value = readFromDisk(key);
+		if (value != null) {
+			putIntoMemory(key, value);
+		}
+		return value;
+	}
+	
+	/**
+	 * @param key a key computed with {@link #computeKey(String, String, String, String)}
+	 * @param value the rendering to cache, must not be empty
+	 */
+	public void put(String key, String value) {
+		if (key == null || value == null || value.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+		
+		putIntoMemory(key, value);
+		writeToDisk(key, value);
+	}
+	
+	private void putIntoMemory(String key, String value) {
+		if (value.length() > MAX_MEMORY_CHARS) {
+			return;
+		}
+		
+		synchronized (memoryCache) {
+			String oldValue = memoryCache.put(key, value);
+			if (oldValue != null) {
+				memoryChars -= oldValue.length();
+			}
+			memoryChars += value.length();
+			
+			Iterator<String> leastRecentlyUsed = memoryCache.values().iterator();
+			while (memoryChars > MAX_MEMORY_CHARS && leastRecentlyUsed.hasNext()) {
+				memoryChars -= leastRecentlyUsed.next().length();
+				leastRecentlyUsed.remove();
+			}
+		}
+	}
+	
+	private File getCacheFolder() {
+		IPath stateLocation = FluentCore.getStateLocation();
+		if (stateLocation == null) {
+			return null;
+		}
+		return stateLocation.append(CACHE_FOLDER_NAME).toFile();
+	}
+	
+	private File getCacheFile(String key) {
+		File cacheFolder = getCacheFolder();
+		if (cacheFolder == null) {
+			return null;
+		}
+		return new File(cacheFolder, key + CACHE_FILE_EXTENSION);
+	}
+	
+	private File[] listCacheFiles() {
+		File cacheFolder = getCacheFolder();
+		File[] files = cacheFolder != null ? cacheFolder.listFiles((dir, name) -> name.endsWith(CACHE_FILE_EXTENSION)) : null;
+		return files != null ? files : new File[0];
+	}
+	
+	private String readFromDisk(String key) {
+		File cacheFile = getCacheFile(key);
+		if (cacheFile == null || !cacheFile.isFile()) {
+			return null;
+		}
+		
+		try {
+			String value = Files.readString(cacheFile.toPath(), StandardCharsets.UTF_8);
+			
+			// remember the access, the least recently used files are deleted first
+			cacheFile.setLastModified(System.currentTimeMillis());
+			
+			return value.isEmpty() ? null : value;
+		} catch (IOException e) {
+			// the file may have been deleted concurrently, just render the diagram again
+			return null;
+		}
+	}
+	
+	private void writeToDisk(String key, String value) {
+		File cacheFile = getCacheFile(key);
+		if (cacheFile == null || cacheFile.isFile()) {
+			return;
+		}
+		
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		
+		try {
+			Files.createDirectories(cacheFile.getParentFile().toPath());
+			
+			// write to a temporary file first, so that readers never see a partially written file
+			File tempFile = File.createTempFile(key, ".tmp", cacheFile.getParentFile());
+			try {
+				Files.write(tempFile.toPath(), bytes);
+				try {
+					Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				tempFile.delete();
+			}
+		} catch (IOException e) {
+			FluentCore.log(IStatus.WARNING, "Could not write rendered diagram to cache file " + cacheFile, e);
+			return;
+		}
+		
+		synchronized (diskLock) {
+			if (diskBytes < 0) {
+				diskBytes = Arrays.stream(listCacheFiles()).mapToLong(File::length).sum();
+			} else {
+				diskBytes += bytes.length;
+			}
+			
+			if (diskBytes > MAX_DISK_BYTES) {
+				pruneDiskCache();
+			}
+		}
+	}
+	
+	private void pruneDiskCache() {
+		File[] files = listCacheFiles();
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		
+		// delete the least recently used files until the cache is down to three quarters of its maximum size
+		long bytes = Arrays.stream(files).mapToLong(File::length).sum();
+		for (int i = 0; i < files.length && bytes > MAX_DISK_BYTES / 4 * 3; i++) {
+			long length = files[i].length();
+			if (files[i].delete()) {
+				bytes -= length;
+			}
+		}
+		diskBytes = bytes;
+	}
+
+}
@@ -6,7 +6,11 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.convert;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.eclipse.core.resources.IContainer;
@@ -14,28 +18,98 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
 import com.advantest.plantuml.PlantUmlToSvgRenderer;
 
 import net.certiv.fluentmark.core.util.Strings;
+import net.sourceforge.plantuml.FileFormat;
+import net.sourceforge.plantuml.FileFormatOption;
+import net.sourceforge.plantuml.SourceStringReader;
+import net.sourceforge.plantuml.preproc.Defines;
+import net.sourceforge.plantuml.security.SFile;
+import net.sourceforge.plantuml.version.Version;
 
+/**
+ * Renders PlantUML diagrams to SVG. Instances may be used by several threads concurrently (see
+ * {@link Converter}): each thread renders with its own {@link PlantUmlToSvgRenderer}, since the renderer
+ * is not meant to be shared between threads.
+ */
 public class UmlGen {
 
-	private PlantUmlToSvgRenderer renderer;
+	// system properties and environment variables read by PlantUML that influence the generated diagrams
+	private static final String[] PLANTUML_SETTINGS = { "PLANTUML_LIMIT_SIZE", "GRAPHVIZ_DOT", "PLANTUML_SECURITY_PROFILE" };
+	
+	private volatile ThreadLocal<PlantUmlToSvgRenderer> renderers = createRenderers(null);
 
 	public UmlGen(IConfigurationProvider configProvider) {
-		this.renderer = new PlantUmlToSvgRenderer();
 	}
 	
+	private static ThreadLocal<PlantUmlToSvgRenderer> createRenderers(String dotExecutable) {
+		return ThreadLocal.withInitial(() -> {
+			PlantUmlToSvgRenderer renderer = new PlantUmlToSvgRenderer();
+			if (dotExecutable != null) {
+				renderer.setDotExecutable(dotExecutable);
+			}
+			return renderer;
+		});
+	}
+	
+	void setDotExecutable(String dotExecutable) {
+		// the renderers of other threads cannot be changed here, thus all threads get new renderers
+		this.renderers = createRenderers(dotExecutable);
+	}
+	
+	/**
+	 * @return the current thread's renderer
+	 */
 	PlantUmlToSvgRenderer getRenderer() {
-		return this.renderer;
+		return renderers.get();
 	}
 
 	public String uml2svg(List<String> lines) {
 		return uml2svg(String.join(Strings.EOL, lines));
 	}
 
+	/**
+	 * Renders the given PlantUML code. The result is cached until the code, the renderer, or any file
+	 * the code includes changes. Code including files that cannot be tracked (e.g. URLs) is not cached.
+	 */
 	public String uml2svg(String plantUmlCode) {
-		return renderer.plantUmlToSvg(plantUmlCode);
+		// PlantUML resolves relative paths in code that is not read from a file against the working directory
+		String dependencies = PumlFileCache.describeDependencies(Path.of("").toAbsolutePath(), plantUmlCode);
+		if (dependencies == null) {
+			return getRenderer().plantUmlToSvg(plantUmlCode);
+		}
+		
+		String key = RenderCache.computeKey("plantuml", getRendererVersion(), getRendererConfiguration() + dependencies, plantUmlCode);
+		String svg = RenderCache.getInstance().get(key);
+		if (svg != null) {
+			return svg;
+		}
+		
+		svg = getRenderer().plantUmlToSvg(plantUmlCode);
+		if (svg != null && !svg.isBlank()) {
+			RenderCache.getInstance().put(key, svg);
+		}
+		return svg;
+	}
+	
+	private String getRendererVersion() {
+		// our renderer is part of this bundle, thus a new bundle version may render differently, too
+		Bundle bundle = FrameworkUtil.getBundle(PlantUmlToSvgRenderer.class);
+		String bundleVersion = bundle != null ? bundle.getVersion().toString() : "";
+		return Version.versionString() + "/" + bundleVersion;
+	}
+	
+	private String getRendererConfiguration() {
+		StringBuilder configuration = new StringBuilder();
+		for (String setting : PLANTUML_SETTINGS) {
+			configuration.append(setting).append('=');
+			configuration.append(System.getProperty(setting, System.getenv(setting))).append(';');
+		}
+		return configuration.toString();
 	}
 	
 	public IFile uml2svg(IFile pumlSourceFile) {
@@ -60,13 +134,61 @@ public class UmlGen {
 		return null;
 	}
 	
+	/**
+	 * Renders a PlantUML file in memory, without writing any files. PlantUML gets the file's folder as its
+	 * current directory and the file's name, so that it resolves relative paths (e.g. in <code>!include</code>,
+	 * <code>!import</code>, or <code>&lt;img:...&gt;</code>) relative to the file, like when rendering the file
+	 * itself. The result is cached until the file or any file it depends on changes.
+	 *
+	 * @return the SVG or <code>null</code> if the file does not exist
+	 */
+	public String pumlFile2svg(File pumlSourceFile) {
+		PumlFileCache cache = PumlFileCache.getInstance();
+		String configuration = getRendererConfiguration();
+		
+		String svg = cache.get(pumlSourceFile, configuration);
+		if (svg != null) {
+			return svg;
+		}
+		
+		// collect the dependencies before rendering, so that a concurrent change invalidates the entry
+		PumlFileCache.Source source = PumlFileCache.read(pumlSourceFile);
+		if (source == null) {
+			return null;
+		}
+		
+		svg = renderToString(source);
+		if (svg != null && !svg.isBlank()) {
+			cache.put(source, configuration, svg);
+		}
+		return svg;
+	}
+	
+	private String renderToString(PumlFileCache.Source source) {
+		File pumlFile = source.file.toFile();
+		
+		// the current thread's renderer configures PlantUML, e.g. the DOT executable to use
+		getRenderer();
+		
+		try (ByteArrayOutputStream svg = new ByteArrayOutputStream()) {
+			SourceStringReader reader = new SourceStringReader(Defines.createWithFileName(pumlFile), source.code,
+					StandardCharsets.UTF_8, List.of(), SFile.fromFile(pumlFile.getParentFile()));
+			if (reader.outputImage(svg, new FileFormatOption(FileFormat.SVG)) == null) {
+				return null;
+			}
+			return svg.toString(StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new RuntimeException(String.format("Could not render PlantUML file %s", pumlFile), e);
+		}
+	}
+	
 	public File uml2svg(File pumlSourceFile) {
 		return uml2svg(pumlSourceFile, null);
 	}
 
 
 	public File uml2svg(File pumlSourceFile, File targetDirectory) {
-		return renderer.plantUmlToSvg(pumlSourceFile, targetDirectory);
+		return getRenderer().plantUmlToSvg(pumlSourceFile, targetDirectory);
 	}
 	
 }
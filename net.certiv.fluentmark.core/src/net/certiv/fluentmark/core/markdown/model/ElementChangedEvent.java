@@ -7,7 +7,9 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.markdown.model;
 
+import java.util.Collections;
 import java.util.EventObject;
+import java.util.List;
 
 /**
  * An element changed event describes a change to the structure or contents of a tree of elements.
@@ -38,12 +40,37 @@ public class ElementChangedEvent extends EventObject {
 	/* Event type indicating the nature of this event. */
 	private int type;
 
+	private boolean incremental;
+	private List<IElement> added = Collections.emptyList();
+	private List<IElement> removed = Collections.emptyList();
+	private List<IElement> changed = Collections.emptyList();
+
+	/**
+	 * Creates an event for a change of the whole element tree.
+	 */
 	public ElementChangedEvent(IElement delta, IElement part, int type) {
 		super(delta);
 		this.part = part;
 		this.type = type;
 	}
 
+	/**
+	 * Creates an event for an incremental change of the element tree. Elements that were only moved
+	 * (e.g. by text inserted in front of them) are not reported.
+	 *
+	 * @param added the elements added to the tree
+	 * @param removed the elements removed from the tree
+	 * @param changed the elements that remained in the tree but have a changed content, kind, or parent
+	 */
+	public ElementChangedEvent(IElement delta, IElement part, int type, List<? extends IElement> added,
+			List<? extends IElement> removed, List<? extends IElement> changed) {
+		this(delta, part, type);
+		this.incremental = true;
+		this.added = Collections.unmodifiableList(added);
+		this.removed = Collections.unmodifiableList(removed);
+		this.changed = Collections.unmodifiableList(changed);
+	}
+
 	/**
 	 * Returns the delta describing the change.
 	 */
@@ -63,4 +90,24 @@ public class ElementChangedEvent extends EventObject {
 	public int getType() {
 		return type;
 	}
+
+	/**
+	 * Returns whether this event describes an incremental change. If not, the whole element tree may
+	 * have been replaced, and the added, removed, and changed elements are not reported.
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public List<IElement> getAddedElements() {
+		return added;
+	}
+
+	public List<IElement> getRemovedElements() {
+		return removed;
+	}
+
+	public List<IElement> getChangedElements() {
+		return changed;
+	}
 }
@@ -7,10 +7,13 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.markdown.model;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.Stack;
 
-import net.certiv.fluentmark.core.markdown.model.Lines.Line;
-
 
 public class Headers {
 
@@ -18,16 +21,16 @@ public class Headers {
 
 		IParent element;
 		int level;
-		Line line;
+		String text;
 
 		public Header(IParent element) {
 			this.element = element; // for header 0, text is null
 		}
 
-		public Header(IParent element, Line line) {
+		public Header(IParent element, String text) {
 			this(element);
-			this.line = line;
-			this.level = computeLevel(line.text);
+			this.text = text;
+			this.level = computeLevel(text);
 		}
 
 		@Override
@@ -37,6 +40,7 @@ public class Headers {
 	}
 
 	private Stack<Header> headers = new Stack<>();
+	private Set<IParent> elements = Collections.newSetFromMap(new IdentityHashMap<>()); // all header elements
 	private PageRoot root;
 
 	public Headers(PageRoot root) {
@@ -44,8 +48,46 @@ public class Headers {
 		headers.push(new Header(root)); // header 0 is the PageRoot
 	}
 
-	public void putHeader(IParent current, Line line) {
-		headers.push(new Header(current, line));
+	public void putHeader(IParent current, String text) {
+		headers.push(new Header(current, text));
+		elements.add(current);
+	}
+
+	/** Returns whether the given element has been put as a header */
+	public boolean isHeader(IParent element) {
+		return elements.contains(element);
+	}
+
+	public void removeHeader(IParent element) {
+		elements.remove(element);
+	}
+
+	/**
+	 * Restores the header stack as it was right after putting the given header element, i.e. the stack
+	 * holds the given element and its enclosing header elements. The page root restores an empty stack.
+	 */
+	public void restore(IParent current) {
+		Deque<IParent> enclosing = new ArrayDeque<>();
+		for (IParent element = current; element != null && element != root; element = element.getParent()) {
+			enclosing.push(element);
+		}
+
+		headers.clear();
+		headers.push(new Header(root));
+		for (IParent element : enclosing) {
+			Header header = new Header(element);
+			header.level = element.getLevel();
+			headers.push(header);
+		}
+	}
+
+	/** Returns the header elements of the stack, beginning with the page root */
+	public IParent[] getStack() {
+		IParent[] stack = new IParent[headers.size()];
+		for (int idx = 0; idx < stack.length; idx++) {
+			stack[idx] = headers.get(idx).element;
+		}
+		return stack;
 	}
 
 	public IParent getCurrentParent() {
@@ -73,9 +115,11 @@ public class Headers {
 	public void clear() {
 		headers.clear();
 		headers.push(new Header(root));
+		elements.clear();
 	}
 
 	public void dispose() {
 		headers.clear();
+		elements.clear();
 	}
 }
@@ -7,15 +7,16 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.markdown.model;
 
-import net.certiv.fluentmark.core.markdown.model.Lines.Line;
-
 /**
  * A source range defines an element's source coordinates
  */
 public interface ISourceRange {
 
-	/** Add the given line to this range */
-	void addLine(Line line);
+	/** Add a line of the given length (including its delimiter) to this range */
+	void addLine(int lineLength);
+
+	/** Move this range by the given number of characters and lines */
+	void move(int offsetDelta, int lineDelta);
 
 	/**
 	 * Returns the number of characters of the source code for this element.
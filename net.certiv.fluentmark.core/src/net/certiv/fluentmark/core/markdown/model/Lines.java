@@ -7,149 +7,291 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.markdown.model;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.certiv.fluentmark.core.plantuml.parsing.PlantUmlConstants;
-import net.certiv.fluentmark.core.util.FloorKeyMap;
 import net.certiv.fluentmark.core.util.Indent;
 
+/**
+ * Line table of a Markdown document. The offsets, lengths, kinds, and page parts of all lines are kept
+ * in parallel primitive arrays, while the text of a line is read from the document content on demand.
+ * The table can be updated in place for an edited range of the content.
+ */
 public class Lines {
 	
 	public static final String PATTERN_PLANTUML_INCLUDE = "!\\[.*\\]\\(.*\\.puml\\)";
-
-	protected static class Line {
-
-		String text = "";
-		int offset = 0;
-		int length = 0;
-		int idx = -1;
-		Type kind = Type.UNDEFINED;	// effective
-		Type nKind = kind; 			// natural/original
-		PagePart part;
-
-		private boolean blankPrior;
-		private boolean blankNext;
-
-		public Line() {
-			blankPrior = true;
-			blankNext = true;
-		}
-
-		public Line(int delimLen, Line prior, String line) {
-			this();
-			this.text = line;
-			this.offset = prior.offset + prior.length;
-			this.length = line.length() + delimLen;
-			this.idx = prior.idx + 1;
-
-			blankPrior = prior.isBlank();
-			prior.blankNext = isBlank();
-		}
-
-		@Override
-		public String toString() {
-			return String.format("%4d %-6.6s/%-6.6s [%5d:%3d] %s", //
-					idx, kind.toString(), nKind.toString(), offset, length, text);
+	
+	private static final Type[] TYPES = Type.values();
+	private static final byte UNDEFINED = (byte) Type.UNDEFINED.ordinal();
+	private static final int NO_PART = -1;
+	
+	private final String lineDelim;
+	private final int delimLen;
+	private String content;
+	
+	private int count = 0;
+	private int[] offsets = new int[0];
+	private int[] lengths = new int[0];		// including the line delimiter
+	private byte[] kinds = new byte[0];		// effective
+	private byte[] nKinds = new byte[0];	// natural/original
+	private int[] partIdxs = new int[0];
+	
+	private final List<PagePart> parts = new ArrayList<>();
+	private final Map<PagePart, Integer> partIndex = new IdentityHashMap<>();
+	
+	public Lines(String content, String lineDelim) {
+		this.lineDelim = lineDelim;
+		this.delimLen = lineDelim != null ? lineDelim.length() : 0;
+		load(content);
+	}
+	
+	private void load(String content) {
+		this.content = content;
+		clear();
+		
+		int[] starts = readLineStarts(0, content.length(), true);
+		ensureCapacity(starts.length);
+		count = starts.length;
+		setLines(0, starts);
+	}
+	
+	/**
+	 * Updates the line table for a change of the content, re-reading only the changed lines. The kinds
+	 * and page parts of the re-read lines are reset, those of all other lines are kept.
+	 *
+	 * @param offset the offset of the changed range in the current content
+	 * @param length the length of the changed range in the current content
+	 * @param text the text replacing the changed range
+	 * @return the index of the first re-read line
+	 */
+	public int replace(int offset, int length, String text) {
+		if (offset < 0 || length < 0 || offset + length > content.length() || text == null) {
+			throw new IllegalArgumentException();
 		}
-
-		/** Just ws. */
-		public boolean isBlank() {
-			return text.trim().isEmpty();
+		
+		int delta = text.length() - length;
+		int first = lineAtOffset(offset);
+		int last = lineAtOffset(offset + length);
+		
+		content = content.substring(0, offset) + text + content.substring(offset + length);
+		
+		// the lines following the changed lines are kept, if they still start after a line delimiter
+		int end = content.length();
+		while (last + 1 < count) {
+			end = offsets[last + 1] + delta;
+			if (delimLen > 0 && content.startsWith(lineDelim, end - delimLen)) {
+				break;
+			}
+			end = content.length();
+			last++;
 		}
-
-		public boolean isBlankPrior() {
-			return blankPrior;
+		
+		int removed = last - first + 1;
+		int tail = count - last - 1;
+		int[] starts = readLineStarts(offsets[first], end, tail == 0);
+		
+		ensureCapacity(count - removed + starts.length);
+		int dest = first + starts.length;
+		System.arraycopy(offsets, last + 1, offsets, dest, tail);
+		System.arraycopy(lengths, last + 1, lengths, dest, tail);
+		System.arraycopy(kinds, last + 1, kinds, dest, tail);
+		System.arraycopy(nKinds, last + 1, nKinds, dest, tail);
+		System.arraycopy(partIdxs, last + 1, partIdxs, dest, tail);
+		for (int idx = dest; idx < dest + tail; idx++) {
+			offsets[idx] += delta;
 		}
-
-		public boolean isBlankNext() {
-			return blankNext;
+		
+		count = count - removed + starts.length;
+		setLines(first, starts);
+		return first;
+	}
+	
+	/**
+	 * Returns the start offsets of the lines in the given range of the content. The range has to start at
+	 * a line start and to end at a line start, or at the end of the content if <code>toEnd</code> is set.
+	 */
+	private int[] readLineStarts(int start, int end, boolean toEnd) {
+		int[] starts = new int[16];
+		int size = 0;
+		int lineStart = start;
+		while (true) {
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+			}
+			
+			int delim = delimLen > 0 ? content.indexOf(lineDelim, lineStart) : -1;
+			if (delim >= 0 && delim + delimLen <= end) {
+				starts[size++] = lineStart;
+				lineStart = delim + delimLen;
+			} else {
+				// the last line of the content has no delimiter, but it is a line anyway (even if empty)
+				if (toEnd) {
+					starts[size++] = lineStart;
+				}
+				return Arrays.copyOf(starts, size);
+			}
 		}
 	}
-
-	private Map<Integer, Line> lineList = new LinkedHashMap<>();
-	private FloorKeyMap lineMap;
-	private String lineDelim;
-
-	public Lines(String content, String lineDelim) {
-		this.lineDelim = lineDelim;
-		load(content);
+	
+	// sets the given lines beginning at the given index, which have to be followed by the remaining lines
+	private void setLines(int first, int[] starts) {
+		for (int n = 0; n < starts.length; n++) {
+			int idx = first + n;
+			int next;
+			if (n + 1 < starts.length) {
+				next = starts[n + 1];
+			} else if (idx + 1 < count) {
+				next = offsets[idx + 1];
+			} else {
+				next = content.length() + delimLen; // like all other lines, the last line counts a delimiter
+			}
+			
+			offsets[idx] = starts[n];
+			lengths[idx] = next - starts[n];
+			kinds[idx] = UNDEFINED;
+			nKinds[idx] = UNDEFINED;
+			partIdxs[idx] = NO_PART;
+		}
 	}
-
-	private void load(String content) {
-		String[] lines = content.split(lineDelim, -1); // do not skip blank lines
-		int delimLen = lineDelim != null ? lineDelim.length() : 0;
-		if (lineMap != null) lineMap.clear();
-		lineMap = new FloorKeyMap(lines.length);
-		Line prior = new Line();
-		for (int idx = 0; idx < lines.length; idx++) {
-			Line line = new Line(delimLen, prior, lines[idx]);
-			lineList.put(idx, line);
-			lineMap.put(line.offset, idx);
-			prior = line;
+	
+	private void ensureCapacity(int capacity) {
+		if (capacity <= offsets.length) {
+			return;
 		}
+		
+		int newCapacity = Math.max(capacity, offsets.length + (offsets.length >> 1));
+		offsets = Arrays.copyOf(offsets, newCapacity);
+		lengths = Arrays.copyOf(lengths, newCapacity);
+		kinds = Arrays.copyOf(kinds, newCapacity);
+		nKinds = Arrays.copyOf(nKinds, newCapacity);
+		partIdxs = Arrays.copyOf(partIdxs, newCapacity);
 	}
-
+	
 	/** Number of lines in content */
 	public int length() {
-		return lineList.size();
+		return count;
 	}
-
-	public FloorKeyMap getOffsetMap() {
-		return lineMap;
-	}
-
-	public Line getLine(int idx) {
-		return lineList.get(idx);
+	
+	/** Return the index of the line at the given content offset */
+	public int lineAtOffset(int offset) {
+		int idx = Arrays.binarySearch(offsets, 0, count, offset);
+		if (idx < 0) idx = -idx - 2;
+		return Math.max(idx, 0);
 	}
-
+	
 	public int getOffset(int idx) {
-		return getLine(idx).offset;
+		checkIndex(idx);
+		return offsets[idx];
 	}
-
+	
 	public String getText(int idx) {
-		return getLine(idx).text;
+		checkIndex(idx);
+		return content.substring(offsets[idx], offsets[idx] + lengths[idx] - delimLen);
 	}
-
+	
+	/** Length of the line including its delimiter */
 	public int getTextLength(int idx) {
-		return getLine(idx).length;
+		checkIndex(idx);
+		return lengths[idx];
 	}
-
+	
+	/** Just ws. */
+	public boolean isBlank(int idx) {
+		checkIndex(idx);
+		int end = offsets[idx] + lengths[idx] - delimLen;
+		for (int pos = offsets[idx]; pos < end; pos++) {
+			if (content.charAt(pos) > ' ') return false;
+		}
+		return true;
+	}
+	
 	public Type getKind(int idx) {
-		return getLine(idx).kind;
+		checkIndex(idx);
+		return TYPES[kinds[idx]];
 	}
-
+	
 	public Type getOriginalKind(int idx) {
-		return getLine(idx).nKind;
+		checkIndex(idx);
+		return TYPES[nKinds[idx]];
 	}
-
+	
 	public void setKind(int idx, Type kind) {
-		Line line = getLine(idx);
-		line.kind = kind;
-		if (line.nKind == Type.UNDEFINED) {
-			line.nKind = kind; // preserve the original kind
+		checkIndex(idx);
+		kinds[idx] = (byte) kind.ordinal();
+		if (nKinds[idx] == UNDEFINED) {
+			nKinds[idx] = kinds[idx]; // preserve the original kind
 		}
 	}
-
+	
 	public PagePart getPagePart(int idx) {
-		return getLine(idx).part;
+		checkIndex(idx);
+		return partIdxs[idx] == NO_PART ? null : parts.get(partIdxs[idx]);
 	}
-
+	
 	public void setPagePart(int idx, PagePart part) {
-		getLine(idx).part = part;
+		checkIndex(idx);
+		if (part == null) {
+			partIdxs[idx] = NO_PART;
+			return;
+		}
+		
+		Integer partIdx = partIndex.get(part);
+		if (partIdx == null) {
+			partIdx = parts.size();
+			parts.add(part);
+			partIndex.put(part, partIdx);
+		}
+		partIdxs[idx] = partIdx;
 	}
-
+	
+	/** Number of page parts known to the line table, including parts no longer set for any line */
+	public int getPartCount() {
+		return parts.size();
+	}
+	
+	/** Forgets the page parts that are no longer set for any line */
+	public void compactParts() {
+		int[] newIdxs = new int[parts.size()];
+		Arrays.fill(newIdxs, NO_PART);
+		List<PagePart> retained = new ArrayList<>();
+		for (int idx = 0; idx < count; idx++) {
+			int partIdx = partIdxs[idx];
+			if (partIdx == NO_PART) continue;
+			if (newIdxs[partIdx] == NO_PART) {
+				newIdxs[partIdx] = retained.size();
+				retained.add(parts.get(partIdx));
+			}
+			partIdxs[idx] = newIdxs[partIdx];
+		}
+		
+		parts.clear();
+		partIndex.clear();
+		for (PagePart part : retained) {
+			partIndex.put(part, parts.size());
+			parts.add(part);
+		}
+	}
+	
+	private void checkIndex(int idx) {
+		if (idx < 0 || idx >= count) {
+			throw new IndexOutOfBoundsException(idx);
+		}
+	}
+	
 	public Type identifyKind(int idx) {
-		Line curr = getLine(idx);
-		Line next = lineList.size() > idx + 1 ? getLine(idx + 1) : null;
+		boolean hasNext = count > idx + 1;
 
-		String curTxt = curr.text;
-		String nxtTxt = next != null ? next.text : "";
+		String curTxt = getText(idx);
+		String nxtTxt = hasNext ? getText(idx + 1) : "";
 
-		boolean priorblank = curr.isBlankPrior();
-		boolean curblank = curr.isBlank();
-		boolean nxtblank = next != null ? next.isBlank() : true;
-		boolean nxtnxtblank = next != null ? next.isBlankNext() : true;
+		boolean priorblank = idx == 0 || isBlank(idx - 1);
+		boolean curblank = isBlank(idx);
+		boolean nxtblank = hasNext ? isBlank(idx + 1) : true;
+		boolean nxtnxtblank = count > idx + 2 ? isBlank(idx + 2) : true;
 
 		if (curblank) return Type.BLANK;
 
@@ -207,7 +349,7 @@ public class Lines {
 	public int nextMatching(int mark, Type kind, String exact) {
 		for (int idx = mark + 1; idx < length(); idx++) {
 			boolean ok = kind != null ? kind == identifyKind(idx) : true;
-			ok = ok && (exact != null) ? getLine(idx).text.startsWith(exact) : ok;
+			ok = ok && (exact != null) ? content.startsWith(exact, offsets[idx]) && exact.length() <= getTextLength(idx) - delimLen : ok;
 			if (ok) return idx;
 		}
 		return length() - 1;
@@ -216,7 +358,7 @@ public class Lines {
 	public int nextContaining(int mark, String containedText) {
 		for (int idx = mark; idx < length(); idx++) {
 			boolean found = (containedText != null)
-					&& getLine(idx).text.contains(containedText); 
+					&& getText(idx).contains(containedText); 
 			if (found) {
 				return idx;
 			}
@@ -225,7 +367,9 @@ public class Lines {
 	}
 
 	public void clear() {
-		lineList.clear();
+		count = 0;
+		partIndex.clear();
+		parts.clear();
 	}
 
 	public void dispose() {
@@ -239,8 +383,9 @@ public class Lines {
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
-		for (Line line : lineList.values()) {
-			sb.append(line.toString());
+		for (int idx = 0; idx < count; idx++) {
+			sb.append(String.format("%4d %-6.6s/%-6.6s [%5d:%3d] %s", //
+					idx, getKind(idx).toString(), getOriginalKind(idx).toString(), offsets[idx], lengths[idx], getText(idx)));
 		}
 		return sb.toString();
 	}
@@ -7,11 +7,8 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.markdown.model;
 
-import java.util.Set;
-
-import net.certiv.fluentmark.core.markdown.model.Lines.Line;
 import net.certiv.fluentmark.core.plantuml.parsing.PlantUmlConstants;
-import net.certiv.fluentmark.core.util.FloorKeyMap;
+import net.certiv.fluentmark.core.util.FloorIndex;
 import net.certiv.fluentmark.core.util.Strings;
 
 public class PagePart extends Parent {
@@ -21,7 +18,7 @@ public class PagePart extends Parent {
 	private int partIdx;
 
 	// key=line idx, value=n/a
-	private FloorKeyMap listMarkedLines;
+	private FloorIndex listMarkedLines;
 	private PagePart separator;
 
 	public PagePart(PageRoot root, IParent parent, Type kind, int offset, int length) {
@@ -32,19 +29,28 @@ public class PagePart extends Parent {
 		super(parent, kind, new SourceRange(offset, length, begLine, endLine));
 		this.root = root;
 		this.partIdx = root.getPageParts().size();
-		listMarkedLines = new FloorKeyMap();
+		listMarkedLines = new FloorIndex();
 	}
 
-	public void addLine(Line line) {
-		line.part = this;
-		getSourceRange().addLine(line);
-		appendContent(line.text + getLineDelim());
+	public void addLine(String text, int lineLength) {
+		getSourceRange().addLine(lineLength);
+		appendContent(text + getLineDelim());
 	}
 
 	public int getPartIdx() {
 		return partIdx;
 	}
 
+	void setPartIdx(int partIdx) {
+		this.partIdx = partIdx;
+	}
+
+	/** Moves this part by the given number of characters and lines, e.g. for text inserted in front of it */
+	void move(int offsetDelta, int lineDelta) {
+		getSourceRange().move(offsetDelta, lineDelta);
+		listMarkedLines.shiftKeys(lineDelta);
+	}
+
 	public PagePart getSeparator() {
 		return separator;
 	}
@@ -174,8 +180,8 @@ public class PagePart extends Parent {
 		listMarkedLines.add(idx);
 	}
 
-	public Set<Integer> getListMarkedLines() {
-		return listMarkedLines.keySet();
+	public int[] getListMarkedLines() {
+		return listMarkedLines.keys();
 	}
 
 	/**
@@ -186,8 +192,7 @@ public class PagePart extends Parent {
 	 * @return
 	 */
 	public int getPriorListMarkedLine(int idx) {
-		if (listMarkedLines.isEmpty()) return -1;
-		return listMarkedLines.find(idx);
+		return listMarkedLines.floorKey(idx);
 	}
 
 	/**
@@ -198,11 +203,7 @@ public class PagePart extends Parent {
 	 * @return
 	 */
 	public int getNextListMarkedLine(int idx) {
-		int mark = getPriorListMarkedLine(idx);
-		for (int key : listMarkedLines.keySet()) {
-			if (key > mark) return key;
-		}
-		return -1;
+		return listMarkedLines.higherKey(getPriorListMarkedLine(idx));
 	}
 
 	public String getSublistContent(int idx) {
@@ -21,14 +21,17 @@ import org.eclipse.core.runtime.Status;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import net.certiv.fluentmark.core.FluentCore;
-import net.certiv.fluentmark.core.markdown.model.Lines.Line;
-import net.certiv.fluentmark.core.util.FloorKeyMap;
 
 public class PageRoot extends Parent {
 
@@ -45,7 +48,6 @@ public class PageRoot extends Parent {
 	private List<PagePart> parts;	// all page parts
 	private Headers headers;		// all header page parts
 	private Lines lines;			// all lines
-	private FloorKeyMap lineMap;
 	private final int tabWidth;
 
 	public PageRoot(IOffsetProvider offsetProvider, String lineDelimiter, int tabWidth) {
@@ -61,14 +63,15 @@ public class PageRoot extends Parent {
 	}
 
 	protected void fire() throws CoreException {
+		fire(new ElementChangedEvent(this, partAtCursor(), ElementChangedEvent.POST_CHANGE));
+	}
+
+	protected void fire(final ElementChangedEvent event) throws CoreException {
 		IElementChangedListener[] listeners;
 		synchronized (elementChangedListeners) {
 			listeners = new IElementChangedListener[elementChangedListeners.size()];
 			elementChangedListeners.toArray(listeners);
 		}
-		int offset = offsetProvider.getCursorOffset();
-		IElement part = partAtOffset(offset);
-		final ElementChangedEvent event = new ElementChangedEvent(this, part, ElementChangedEvent.POST_CHANGE);
 		List<Throwable> exceptions = new ArrayList<>();
 		for (IElementChangedListener listener : listeners) {
 			SafeRunner.run(new ISafeRunnable() {
@@ -121,20 +124,252 @@ public class PageRoot extends Parent {
 //		long begTime = System.nanoTime();
 		
 		if (this.content != null && text != null
-				&& this.content.hashCode() == text.hashCode()) {
+				&& this.content.equals(text)) {
 			// nothing changed, just return
 			return;
 		}
 		
-		clearModel();
-		set(resource, text);
-		parse();
+		ElementChangedEvent event = null;
+		if (this.content != null && text != null && lines != null && !text.trim().isEmpty()) {
+			event = updateChanged(resource, text);
+		}
+		
+		if (event == null) {
+			clearModel();
+			set(resource, text);
+			parse();
+			event = new ElementChangedEvent(this, partAtCursor(), ElementChangedEvent.POST_CHANGE);
+		}
 //		long elapsed = System.nanoTime() - begTime;
 //		String value = BigDecimal.valueOf(elapsed, 6).setScale(2, RoundingMode.HALF_UP).toString();
 //		if (value.indexOf('.') > 2) {
 //			Log.info("Model updated (ms): " + value);
 //		}
-		fire();
+		fire(event);
+	}
+
+	/**
+	 * Updates the model for the changed range of the text. The lines are re-parsed from the part
+	 * boundary in front of the changed range up to the first part boundary behind it where the parse
+	 * state is the same as before; from there on, the old parts are moved and reused.
+	 *
+	 * @return the change event, or <code>null</code> if the whole model has to be updated
+	 */
+	private ElementChangedEvent updateChanged(IResource resource, String text) {
+		String old = getContent();
+		int oldLength = old.length();
+		int newLength = text.length();
+		
+		// the changed range, found by comparing from both ends, covers all document changes since the last update
+		int prefix = 0;
+		int max = Math.min(oldLength, newLength);
+		while (prefix < max && old.charAt(prefix) == text.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		max -= prefix;
+		while (suffix < max && old.charAt(oldLength - suffix - 1) == text.charAt(newLength - suffix - 1)) {
+			suffix++;
+		}
+		
+		int oldCount = lines.length();
+		int first = lines.replace(prefix, oldLength - prefix - suffix, text.substring(prefix, newLength - suffix));
+		int last = lines.lineAtOffset(newLength - suffix);
+		set(resource, text);
+		
+		// the kinds of the lines in front of the changed lines depend on up to two following lines
+		int begin = Math.max(first - 2, 0);
+		while (begin > 0 && !isPartStart(begin)) {
+			begin--;
+		}
+		if (begin == 0) return null;
+		
+		int partIdx = lines.getPagePart(begin).getPartIdx();
+		if (partIdx >= parts.size() || parts.get(partIdx) != lines.getPagePart(begin)) return null;
+		
+		PartsUpdate update = new PartsUpdate(partIdx, last, lines.length() - oldCount, newLength - oldLength);
+		
+		parseLines(begin, update);
+		
+		return update.finish();
+	}
+
+	private boolean isPartStart(int idx) {
+		PagePart part = lines.getPagePart(idx);
+		return part != null && part.getBeginLine() == idx;
+	}
+
+	/**
+	 * State of an incremental model update: the old parts from the re-parsed lines on, and the decision
+	 * where to stop re-parsing and to reuse the remaining old parts.
+	 */
+	private class PartsUpdate {
+
+		private final int partIdx;			// index of the first re-parsed part
+		private final int lineDelta;
+		private final int offsetDelta;
+
+		private final List<PagePart> oldParts;
+		private final Set<IParent> oldPartSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		private final int firstCandidate;	// first old part that may be reused
+		private final Type[] priorKinds;	// old kinds of the lines in front of the reusable parts
+		private int next;					// next old part to check for reuse
+		private int reused = -1;			// first reused old part
+
+		private final PagePart lastKept;
+		private final int lastKeptLength;
+		private final Type lastKeptKind;
+		private final List<IElement> changed = new ArrayList<>();
+
+		PartsUpdate(int partIdx, int lastChangedLine, int lineDelta, int offsetDelta) {
+			this.partIdx = partIdx;
+			this.lineDelta = lineDelta;
+			this.offsetDelta = offsetDelta;
+
+			List<PagePart> tail = parts.subList(partIdx, parts.size());
+			oldParts = new ArrayList<>(tail);
+			oldPartSet.addAll(oldParts);
+			tail.clear();
+
+			// old parts are reusable if their first and prior lines are unchanged lines
+			int idx = 0;
+			while (idx < oldParts.size() && oldParts.get(idx).getBeginLine() + lineDelta < lastChangedLine + 2) {
+				idx++;
+			}
+			firstCandidate = idx;
+			priorKinds = new Type[oldParts.size() - firstCandidate];
+			for (int cand = firstCandidate; cand < oldParts.size(); cand++) {
+				priorKinds[cand - firstCandidate] = lines.getKind(oldParts.get(cand).getBeginLine() + lineDelta - 1);
+			}
+			next = firstCandidate;
+
+			// detach the old parts, the reused ones are attached again in order
+			Set<IParent> oldParents = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (PagePart part : oldParts) {
+				oldParents.add(part.getParent());
+			}
+			for (IParent parent : oldParents) {
+				((Parent) parent).removeChildren(oldPartSet);
+			}
+
+			lastKept = parts.isEmpty() ? null : parts.get(parts.size() - 1);
+			lastKeptLength = lastKept != null ? lastKept.getSourceRange().getLength() : 0;
+			lastKeptKind = lastKept != null ? lastKept.getKind() : null;
+			if (lastKept != null && lastKept.getSeparator() != null && oldPartSet.contains(lastKept.getSeparator())) {
+				lastKept.setSeparator(null);
+			}
+			headers.restore(lastKept == null ? PageRoot.this : getCurrentHeader(lastKept));
+		}
+
+		/**
+		 * Checks whether parsing can stop at the given line, and if so, moves the remaining old parts into
+		 * the model.
+		 *
+		 * @return <code>true</code> if parsing has to stop
+		 */
+		boolean resume(int idx) {
+			while (next < oldParts.size() && oldParts.get(next).getBeginLine() + lineDelta < idx) {
+				next++;
+			}
+			if (next >= oldParts.size() || oldParts.get(next).getBeginLine() + lineDelta != idx) return false;
+
+			// the old part has been created in the same parse state, unless it changed its prior part
+			if (lines.getKind(idx - 1) != priorKinds[next - firstCandidate]) return false;
+			Type kind = lines.getOriginalKind(idx);
+			if (kind == Type.TABLE || kind == Type.DEFINITION) return false;
+
+			IParent[] oldStack = getHeaderStack(getCurrentHeader(oldParts.get(next - 1)));
+			IParent[] newStack = headers.getStack();
+			if (oldStack.length != newStack.length) return false;
+			Map<IParent, IParent> moved = new IdentityHashMap<>();
+			for (int level = 0; level < oldStack.length; level++) {
+				if (oldStack[level].getLevel() != newStack[level].getLevel()) return false;
+				if (oldStack[level] != newStack[level]) {
+					moved.put(oldStack[level], newStack[level]);
+				}
+			}
+
+			reuse(next, moved);
+			return true;
+		}
+
+		private void reuse(int first, Map<IParent, IParent> moved) {
+			List<PagePart> reusedParts = oldParts.subList(first, oldParts.size());
+			if (reusedParts.get(0).getKind() == Type.BLANK && !parts.isEmpty()) {
+				parts.get(parts.size() - 1).setSeparator(reusedParts.get(0));
+			}
+
+			for (PagePart part : reusedParts) {
+				part.move(offsetDelta, lineDelta);
+				part.setPartIdx(parts.size());
+				parts.add(part);
+
+				IParent parent = moved.get(part.getParent());
+				if (parent != null) {
+					part.setParent(parent);
+					changed.add(part);
+				} else {
+					parent = part.getParent();
+				}
+				parent.addChild(part);
+			}
+			reused = first;
+		}
+
+		/**
+		 * @return the change event, or <code>null</code> if the model is inconsistent and has to be
+		 *         updated completely
+		 */
+		ElementChangedEvent finish() {
+			List<PagePart> removed = reused < 0 ? oldParts : oldParts.subList(0, reused);
+			Set<IParent> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+			removedSet.addAll(removed);
+			for (PagePart part : removed) {
+				headers.removeHeader(part);
+			}
+
+			List<PagePart> added = new ArrayList<>();
+			for (int idx = partIdx; idx < parts.size(); idx++) {
+				PagePart part = parts.get(idx);
+				if (oldPartSet.contains(part)) {
+					if (removedSet.contains(part.getParent())) return null; // not moved to the new header
+				} else {
+					added.add(part);
+				}
+			}
+
+			if (lastKept != null && (lastKept.getSourceRange().getLength() != lastKeptLength
+					|| lastKept.getKind() != lastKeptKind)) {
+				changed.add(0, lastKept);
+			}
+
+			if (lines.getPartCount() > 2 * parts.size() + 16) {
+				lines.compactParts();
+			}
+
+			return new ElementChangedEvent(PageRoot.this, partAtCursor(), ElementChangedEvent.POST_CHANGE,
+					added, removed, changed);
+		}
+	}
+
+	/** Returns the header that is current right after the given part has been added */
+	private IParent getCurrentHeader(PagePart part) {
+		return headers.isHeader(part) ? part : part.getParent();
+	}
+
+	// the given header and its enclosing headers, beginning with the page root
+	private IParent[] getHeaderStack(IParent header) {
+		Deque<IParent> stack = new ArrayDeque<>();
+		for (IParent element = header; element != null; element = element.getParent()) {
+			stack.push(element);
+			if (element == this) break;
+		}
+		return stack.toArray(new IParent[stack.size()]);
+	}
+
+	private IElement partAtCursor() {
+		int offset = offsetProvider.getCursorOffset();
+		return partAtOffset(offset);
 	}
 
 	public ISourceRange regionAtOffset(int offset) {
@@ -149,10 +384,8 @@ public class PageRoot extends Parent {
 
 	/** Return the index of the line at the given doc offset */
 	public int lineAtOffset(int offset) {
-		if (lineMap == null) return 0;
-		Integer idx = lineMap.get(offset);
-		if (idx == null) return 0;
-		return idx;
+		if (lines == null) return 0;
+		return lines.lineAtOffset(offset);
 	}
 
 	/** Return the offset of the given line index */
@@ -214,7 +447,6 @@ public class PageRoot extends Parent {
 	public void dispose() {
 		if (headers != null) headers.dispose();
 		if (lines != null) lines.dispose();
-		if (lineMap != null) lineMap.clear();
 		super.dispose();
 	}
 
@@ -228,21 +460,28 @@ public class PageRoot extends Parent {
 	private void parse() {
 		parts = new ArrayList<>();
 		lines = new Lines(getContent(), getLineDelim());
-		lineMap = lines.getOffsetMap();
+
+		if (getContent().trim().isEmpty()) return;
+
+		parseLines(0, null);
+	}
+
+	// parses the lines from the given index on, until the update (if any) can reuse the remaining parts
+	private void parseLines(int begin, PartsUpdate update) {
 		int end;
 		int offset;
 		int len;
 		IParent current;
 
-		if (getContent().trim().isEmpty()) return;
+		for (int idx = begin; idx < lines.length(); idx++) {
+			if (update != null && update.resume(idx)) return;
 
-		for (int idx = 0; idx < lines.length(); idx++) {
 			Type kind = lines.identifyKind(idx);
 			switch (kind) {
 
 				case HEADER:
 					lines.setKind(idx, kind);
-					addPageHeader(lines.getLine(idx));
+					addPageHeader(idx);
 					break;
 				
 				case SETEXT:
@@ -466,7 +705,8 @@ public class PageRoot extends Parent {
 					if (idx > 0 && lines.getKind(idx - 1) == Type.TEXT) {
 						current = headers.getCurrentParent();
 						PagePart lastPart = (PagePart) current.getLastChild();
-						lastPart.addLine(lines.getLine(idx));
+						lines.setPagePart(idx, lastPart);
+						lastPart.addLine(lines.getText(idx), lines.getTextLength(idx));
 						lastPart.setKind(kind);
 					} else {
 						addPageElement(current, kind, offset, len, idx, end);
@@ -479,18 +719,19 @@ public class PageRoot extends Parent {
 		}
 	}
 
-	private PagePart addPageHeader(Line line) {
-		int level = Headers.computeLevel(line.text);
+	private PagePart addPageHeader(int idx) {
+		String text = lines.getText(idx);
+		int level = Headers.computeLevel(text);
 		IParent parent = headers.getEnclosingParent(level);
-		PagePart part = addPageElement(parent, line);
+		PagePart part = addPageElement(parent, idx);
 		part.setLevel(level);
-		headers.putHeader(part, line);
+		headers.putHeader(part, text);
 		return part;
 	}
 
 	// single line element
-	private PagePart addPageElement(IParent parent, Line line) {
-		return addPageElement(parent, line.kind, line.offset, line.length, line.idx, line.idx);
+	private PagePart addPageElement(IParent parent, int idx) {
+		return addPageElement(parent, lines.getKind(idx), lines.getOffset(idx), lines.getTextLength(idx), idx, idx);
 	}
 
 	// multiline element
@@ -510,18 +751,18 @@ public class PageRoot extends Parent {
 
 	// add line to parent, returning the parent part
 	private PagePart addToParent(int idx) {
-		Line line = lines.getLine(idx);
-		if (line == null) return null;
+		if (idx < 0 || idx >= lines.length()) return null;
 
 		IParent header = headers.getCurrentParent();
 		IParent prior = header.getLastChild();
 		if (prior instanceof PagePart) {
 			PagePart parent = (PagePart) prior;
-			parent.addLine(line);
+			lines.setPagePart(idx, parent);
+			parent.addLine(lines.getText(idx), lines.getTextLength(idx));
 			return parent;
 		}
 
-		return addPageElement(header, line);
+		return addPageElement(header, idx);
 	}
 
 	// set the length of the blank line separator
@@ -12,6 +12,7 @@ import org.eclipse.core.runtime.CoreException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 public abstract class Parent extends Element implements IParent {
 
@@ -36,6 +37,11 @@ public abstract class Parent extends Element implements IParent {
 		return parent;
 	}
 
+	/** Moves this element to the given parent; does not change the children of either parent. */
+	void setParent(IParent parent) {
+		this.parent = parent;
+	}
+
 	/** Adds a child to the current element. */
 	@Override
 	public void addChild(IParent member) {
@@ -61,6 +67,13 @@ public abstract class Parent extends Element implements IParent {
 		children.clear();
 	}
 
+	/** Removes the given children, which are identified by identity rather than by equality. */
+	void removeChildren(Set<IParent> members) {
+		synchronized (children) {
+			children.removeIf(members::contains);
+		}
+	}
+
 	/** Gets the children of this element. */
 	@Override
 	public IParent[] getChildren() {
@@ -10,8 +10,6 @@ package net.certiv.fluentmark.core.markdown.model;
 import java.util.Arrays;
 import java.util.Comparator;
 
-import net.certiv.fluentmark.core.markdown.model.Lines.Line;
-
 
 public class SourceRange implements ISourceRange {
 
@@ -62,11 +60,18 @@ public class SourceRange implements ISourceRange {
 	}
 
 	@Override
-	public void addLine(Line line) {
-		this.length += line.length;
+	public void addLine(int lineLength) {
+		this.length += lineLength;
 		this.endLine++;
 	}
 
+	@Override
+	public void move(int offsetDelta, int lineDelta) {
+		this.offset += offsetDelta;
+		this.begLine += lineDelta;
+		this.endLine += lineDelta;
+	}
+
 	public boolean covers(SourceRange range) {
 		return getStartPos() <= range.getStartPos() && getEndInclusive() >= range.getEndInclusive();
 	}
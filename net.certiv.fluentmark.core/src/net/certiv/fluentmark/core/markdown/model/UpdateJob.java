@@ -21,7 +21,8 @@ import java.util.List;
 
 public class UpdateJob extends Job {
 
-	private static final long DELAY = 1000L;
+	// model updates only re-parse the changed lines, so they need not wait for the user to pause long
+	private static final long DELAY = 250L;
 	private final List<Task> queue = new ArrayList<>();
 
 	public UpdateJob(String name) {
@@ -0,0 +1,347 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.parsing;
+
+/**
+ * Finds links, images, link reference definitions, reference links, and heading anchors in Markdown code
+ * in a single walk over the code.
+ *
+ * <p>The tokenizer finds exactly the statements that the regular expressions in the comments of its match
+ * methods describe, including overlapping statements of different types (e.g. a shortcut reference link within an
+ * inline link's target). For each statement type, the search continues after the end of the type's last
+ * statement, as if each type was searched with its own regular expression. The tokenizer does not create
+ * any objects, it reports the found statements' positions to a {@link ITokenHandler}.</p>
+ */
+public class MarkdownLinkTokenizer {
+	
+	public enum TokenType {
+		/** <code>[label](target)</code> */
+		INLINE_LINK,
+		/** <code>![label](target)</code> */
+		IMAGE,
+		/** <code>[label]: target</code>, but not <code>[^label]: text</code> */
+		LINK_REFERENCE_DEFINITION,
+		/** <code>[label][target]</code> or <code>[label][]</code> */
+		FULL_OR_COLLAPSED_REFERENCE_LINK,
+		/** <code>[target]</code> */
+		SHORTCUT_REFERENCE_LINK,
+		/** <code># Heading {#target}</code> */
+		HEADING_ANCHOR
+	}
+	
+	/**
+	 * Receives the found statements in the order of their start positions.
+	 */
+	public interface ITokenHandler {
+		
+		/**
+		 * @param type the statement type
+		 * @param start the statement's start index
+		 * @param end the statement's end index (exclusive)
+		 * @param labelStart the label's start index or <code>-1</code> if the statement type has no label
+		 * @param labelEnd the label's end index (exclusive) or <code>-1</code> if the statement type has no label
+		 * @param targetStart the target's (or anchor's) start index
+		 * @param targetEnd the target's (or anchor's) end index (exclusive)
+		 */
+		void handleToken(TokenType type, int start, int end, int labelStart, int labelEnd, int targetStart, int targetEnd);
+	}
+	
+	private final CharSequence text;
+	private final int length;
+	private final ITokenHandler handler;
+	
+	// positions of the current statement's parts, set by the match methods
+	private int labelStart;
+	private int labelEnd;
+	private int targetStart;
+	private int targetEnd;
+	
+	private MarkdownLinkTokenizer(CharSequence text, ITokenHandler handler) {
+		this.text = text;
+		this.length = text.length();
+		this.handler = handler;
+	}
+	
+	public static void tokenize(CharSequence markdownCode, ITokenHandler handler) {
+		if (markdownCode == null || handler == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		new MarkdownLinkTokenizer(markdownCode, handler).tokenize();
+	}
+	
+	private void tokenize() {
+		// for each statement type, the index where searching the next statement continues
+		int nextLink = 0;
+		int nextDefinition = 0;
+		int nextFullReference = 0;
+		int nextShortcutReference = 0;
+		int nextHeading = 0;
+		
+		for (int pos = 0; pos < length; pos++) {
+			char c = text.charAt(pos);
+			int end;
+			
+			if (pos >= nextDefinition && (c == '[' || c == ' ') && isLineStart(pos)
+					&& (end = matchLinkReferenceDefinition(pos)) >= 0) {
+				handler.handleToken(TokenType.LINK_REFERENCE_DEFINITION, pos, end, labelStart, labelEnd, targetStart, targetEnd);
+				nextDefinition = end;
+			}
+			
+			if (c == '!' || c == '[') {
+				if (pos >= nextLink && (end = matchInlineLink(pos)) >= 0) {
+					handler.handleToken(c == '!' ? TokenType.IMAGE : TokenType.INLINE_LINK, pos, end, labelStart, labelEnd, targetStart, targetEnd);
+					nextLink = end;
+				}
+				if (pos >= nextFullReference && (end = matchFullOrCollapsedReferenceLink(pos)) >= 0) {
+					handler.handleToken(TokenType.FULL_OR_COLLAPSED_REFERENCE_LINK, pos, end, labelStart, labelEnd, targetStart, targetEnd);
+					nextFullReference = end;
+				}
+				if (pos >= nextShortcutReference && (end = matchShortcutReferenceLink(pos)) >= 0) {
+					handler.handleToken(TokenType.SHORTCUT_REFERENCE_LINK, pos, end, -1, -1, targetStart, targetEnd);
+					nextShortcutReference = end;
+				}
+			} else if (c == '#' && pos >= nextHeading && (end = matchHeadingAnchor(pos)) >= 0) {
+				handler.handleToken(TokenType.HEADING_ANCHOR, pos, end, -1, -1, targetStart, targetEnd);
+				nextHeading = end;
+			}
+		}
+	}
+	
+	/**
+	 * Like <code>^</code> in multi-line mode: the start of the text or a position after a line terminator
+	 * (but not between <code>\r</code> and <code>\n</code>).
+	 */
+	private boolean isLineStart(int pos) {
+		if (pos == 0) {
+			return true;
+		}
+		char previous = text.charAt(pos - 1);
+		if (previous == '\r') {
+			return text.charAt(pos) != '\n';
+		}
+		return previous == '\n' || previous == '\u0085' || previous == '\u2028' || previous == '\u2029';
+	}
+	
+	private boolean isEscaped(int pos) {
+		return pos > 0 && text.charAt(pos - 1) == '\\';
+	}
+	
+	private boolean isBracket(char c) {
+		return c == '[' || c == ']';
+	}
+	
+	private boolean isParenthesis(char c) {
+		return c == '(' || c == ')';
+	}
+	
+	/**
+	 * Finds the end of a label or target that ends with an unescaped <code>closingChar</code>. The label or
+	 * target must not contain line feeds, <code>forbiddenChar</code>, and unescaped brackets (or parentheses if
+	 * <code>closingChar</code> is a parenthesis).
+	 *
+	 * @return the index of the closing char, or <code>-1</code> if there is none
+	 */
+	private int findClosingChar(int start, char closingChar, char forbiddenChar) {
+		boolean parentheses = closingChar == ')';
+		for (int pos = start; pos < length; pos++) {
+			char c = text.charAt(pos);
+			if (c == '\n' || c == forbiddenChar) {
+				return -1;
+			}
+			if (parentheses ? isParenthesis(c) : isBracket(c)) {
+				if (!isEscaped(pos)) {
+					return c == closingChar ? pos : -1;
+				}
+			}
+		}
+		return -1;
+	}
+	
+	// (!){0,1}(?<!\\)\[(?<label>([^\n](?<![^\\](\]|\[)))*?)?(?<!\\)\]\((?<target>([^\n](?<![^\\](\)|\()))*?)?(?<!\\)\)
+	private int matchInlineLink(int pos) {
+		int open = pos;
+		if (text.charAt(pos) == '!') {
+			open++;
+			if (open >= length || text.charAt(open) != '[') {
+				return -1;
+			}
+		} else if (isEscaped(pos)) {
+			return -1;
+		}
+		
+		int close = findClosingChar(open + 1, ']', '\n');
+		if (close < 0 || close + 1 >= length || text.charAt(close + 1) != '(') {
+			return -1;
+		}
+		
+		int closeTarget = findClosingChar(close + 2, ')', '\n');
+		if (closeTarget < 0) {
+			return -1;
+		}
+		
+		labelStart = open + 1;
+		labelEnd = close;
+		targetStart = close + 2;
+		targetEnd = closeTarget;
+		return closeTarget + 1;
+	}
+	
+	// ^ {0,3}\[(?<label>([^^\n](?<![^\\](\]|\[)))*?)(?<!\\)\]:([ \t]*\n?[ \t]*(?=[^ \n\r\t\f\v\]\[]))?(?<target>[^ \n\r\t\f\v\]\[]*)
+	private int matchLinkReferenceDefinition(int pos) {
+		int open = pos;
+		while (open < length && open - pos < 3 && text.charAt(open) == ' ') {
+			open++;
+		}
+		if (open >= length || text.charAt(open) != '[') {
+			return -1;
+		}
+		
+		// footnote definitions like [^label]: text are no link reference definitions
+		int close = findClosingChar(open + 1, ']', '^');
+		if (close < 0 || close + 1 >= length || text.charAt(close + 1) != ':') {
+			return -1;
+		}
+		
+		// the target may be on the next line
+		int afterColon = close + 2;
+		int start = skipSpacesAndTabs(afterColon);
+		if (start < length && text.charAt(start) == '\n') {
+			start = skipSpacesAndTabs(start + 1);
+		}
+		if (start >= length || !isLinkReferenceDefinitionTargetChar(text.charAt(start))) {
+			start = afterColon;
+		}
+		
+		int end = start;
+		while (end < length && isLinkReferenceDefinitionTargetChar(text.charAt(end))) {
+			end++;
+		}
+		
+		labelStart = open + 1;
+		labelEnd = close;
+		targetStart = start;
+		targetEnd = end;
+		return end;
+	}
+	
+	private int skipSpacesAndTabs(int pos) {
+		while (pos < length && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+			pos++;
+		}
+		return pos;
+	}
+	
+	// [^ \n\r\t\f\v\]\[]
+	private boolean isLinkReferenceDefinitionTargetChar(char c) {
+		switch (c) {
+			case ' ', '\n', '\r', '\t', '\f', '\u000B', '\u0085', '\u2028', '\u2029', '[', ']':
+				return false;
+			default:
+				return true;
+		}
+	}
+	
+	// (?<!\\)\[(?<label>([^\n](?<![^\\](\]|\[)))*?)(?<!\\)\]\[(?<target>([^\n](?<![^\\](\]|\[)))*?)(?<!\\)\]
+	private int matchFullOrCollapsedReferenceLink(int pos) {
+		if (text.charAt(pos) != '[' || isEscaped(pos)) {
+			return -1;
+		}
+		
+		int close = findClosingChar(pos + 1, ']', '\n');
+		if (close < 0 || close + 1 >= length || text.charAt(close + 1) != '[') {
+			return -1;
+		}
+		
+		int closeTarget = findClosingChar(close + 2, ']', '\n');
+		if (closeTarget < 0) {
+			return -1;
+		}
+		
+		labelStart = pos + 1;
+		labelEnd = close;
+		targetStart = close + 2;
+		targetEnd = closeTarget;
+		return closeTarget + 1;
+	}
+	
+	// (?<!\]|\\)(\[(?<target>([^\n](?<![^\\](\]|\[)))*?)(?<!\\)\])(?!(\[|\(|:))
+	private int matchShortcutReferenceLink(int pos) {
+		if (text.charAt(pos) != '[' || (pos > 0 && (text.charAt(pos - 1) == ']' || text.charAt(pos - 1) == '\\'))) {
+			return -1;
+		}
+		
+		int close = findClosingChar(pos + 1, ']', '\n');
+		if (close < 0) {
+			return -1;
+		}
+		
+		if (close + 1 < length) {
+			char next = text.charAt(close + 1);
+			if (next == '[' || next == '(' || next == ':') {
+				return -1;
+			}
+		}
+		
+		targetStart = pos + 1;
+		targetEnd = close;
+		return close + 1;
+	}
+	
+	// #+\s.*\{#(?<anchor>.*)\}\s*
+	private int matchHeadingAnchor(int pos) {
+		int afterHashes = pos;
+		while (afterHashes < length && text.charAt(afterHashes) == '#') {
+			afterHashes++;
+		}
+		if (afterHashes >= length || !isWhitespace(text.charAt(afterHashes))) {
+			return -1;
+		}
+		
+		int lineStart = afterHashes + 1;
+		int lineEnd = lineStart;
+		while (lineEnd < length && !isLineTerminator(text.charAt(lineEnd))) {
+			lineEnd++;
+		}
+		
+		// the anchor is enclosed by the line's last "{#" that is followed by a '}', and the line's last '}'
+		int closingBrace = lineEnd - 1;
+		while (closingBrace >= lineStart && text.charAt(closingBrace) != '}') {
+			closingBrace--;
+		}
+		int openingBrace = closingBrace - 2;
+		while (openingBrace >= lineStart && !(text.charAt(openingBrace) == '{' && text.charAt(openingBrace + 1) == '#')) {
+			openingBrace--;
+		}
+		if (openingBrace < lineStart) {
+			return -1;
+		}
+		
+		int end = closingBrace + 1;
+		while (end < length && isWhitespace(text.charAt(end))) {
+			end++;
+		}
+		
+		targetStart = openingBrace + 2;
+		targetEnd = closingBrace;
+		return end;
+	}
+	
+	// \s
+	private boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+	
+	// line terminators not matched by .
+	private boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.parsing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IRegion;
+
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokenizer.TokenType;
+
+/**
+ * The links, images, link reference definitions, reference links, and heading anchors found by a
+ * {@link MarkdownLinkTokenizer} in some Markdown code, in the order of their start indexes.
+ *
+ * <p>The tokens' positions are kept in a primitive array, {@link RegexMatch} objects are only created on
+ * request. The tokens of a document region are cached until the document changes, so that all validators
+ * of a region share one tokenizer run.</p>
+ */
+public class MarkdownLinkTokens {
+	
+	// start, end, label start, label end, target start, target end
+	private static final int INTS_PER_TOKEN = 6;
+	
+	private static final Map<IDocument, DocumentTokens> DOCUMENT_TOKENS = new WeakHashMap<>();
+	
+	private static final class DocumentTokens {
+		
+		private final long modificationStamp;
+		private final Map<Long, MarkdownLinkTokens> tokensPerRegion = new HashMap<>();
+		
+		DocumentTokens(long modificationStamp) {
+			this.modificationStamp = modificationStamp;
+		}
+	}
+	
+	private final String text;
+	private TokenType[] types = new TokenType[16];
+	private int[] positions = new int[16 * INTS_PER_TOKEN];
+	private int size = 0;
+	
+	private MarkdownLinkTokens(String text) {
+		this.text = text;
+	}
+	
+	public static MarkdownLinkTokens tokenize(String markdownCode) {
+		if (markdownCode == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		MarkdownLinkTokens tokens = new MarkdownLinkTokens(markdownCode);
+		MarkdownLinkTokenizer.tokenize(markdownCode, tokens::add);
+		return tokens;
+	}
+	
+	/**
+	 * Returns the tokens of the given document region, re-using the tokens found for the same region and
+	 * document version before.
+	 */
+	public static MarkdownLinkTokens tokenize(IDocument document, IRegion region) throws BadLocationException {
+		if (document == null || region == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		long modificationStamp = getModificationStamp(document);
+		if (modificationStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			return tokenize(document.get(region.getOffset(), region.getLength()));
+		}
+		
+		Long regionKey = ((long) region.getOffset() << 32) | region.getLength();
+		synchronized (DOCUMENT_TOKENS) {
+			DocumentTokens documentTokens = DOCUMENT_TOKENS.get(document);
+			if (documentTokens != null && documentTokens.modificationStamp == modificationStamp) {
+				MarkdownLinkTokens tokens = documentTokens.tokensPerRegion.get(regionKey);
+				if (tokens != null) {
+					return tokens;
+				}
+			}
+		}
+		
+		String regionContent = document.get(region.getOffset(), region.getLength());
+		if (modificationStamp != getModificationStamp(document)) {
+			// the document changed while reading it, do not cache tokens of an outdated document version
+			return tokenize(regionContent);
+		}
+		
+		MarkdownLinkTokens tokens = tokenize(regionContent);
+		
+		synchronized (DOCUMENT_TOKENS) {
+			DocumentTokens documentTokens = DOCUMENT_TOKENS.get(document);
+			if (documentTokens == null || documentTokens.modificationStamp != modificationStamp) {
+				documentTokens = new DocumentTokens(modificationStamp);
+				DOCUMENT_TOKENS.put(document, documentTokens);
+			}
+			documentTokens.tokensPerRegion.put(regionKey, tokens);
+		}
+		return tokens;
+	}
+	
+	private static long getModificationStamp(IDocument document) {
+		if (document instanceof IDocumentExtension4 extension) {
+			return extension.getModificationStamp();
+		}
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+	
+	private void add(TokenType type, int start, int end, int labelStart, int labelEnd, int targetStart, int targetEnd) {
+		if (size == types.length) {
+			types = Arrays.copyOf(types, size * 2);
+			positions = Arrays.copyOf(positions, size * 2 * INTS_PER_TOKEN);
+		}
+		
+		types[size] = type;
+		int pos = size * INTS_PER_TOKEN;
+		positions[pos] = start;
+		positions[pos + 1] = end;
+		positions[pos + 2] = labelStart;
+		positions[pos + 3] = labelEnd;
+		positions[pos + 4] = targetStart;
+		positions[pos + 5] = targetEnd;
+		size++;
+	}
+	
+	/**
+	 * @return the tokenized Markdown code
+	 */
+	public String getText() {
+		return text;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public TokenType getType(int index) {
+		checkIndex(index);
+		return types[index];
+	}
+	
+	public int getStart(int index) {
+		return getPosition(index, 0);
+	}
+	
+	public int getEnd(int index) {
+		return getPosition(index, 1);
+	}
+	
+	/**
+	 * @return the label's start index or <code>-1</code> if the token has no label
+	 */
+	public int getLabelStart(int index) {
+		return getPosition(index, 2);
+	}
+	
+	/**
+	 * @return the label's end index or <code>-1</code> if the token has no label
+	 */
+	public int getLabelEnd(int index) {
+		return getPosition(index, 3);
+	}
+	
+	/**
+	 * @return the start index of the target, or of the anchor for {@link TokenType#HEADING_ANCHOR} tokens
+	 */
+	public int getTargetStart(int index) {
+		return getPosition(index, 4);
+	}
+	
+	/**
+	 * @return the end index of the target, or of the anchor for {@link TokenType#HEADING_ANCHOR} tokens
+	 */
+	public int getTargetEnd(int index) {
+		return getPosition(index, 5);
+	}
+	
+	private int getPosition(int index, int offset) {
+		checkIndex(index);
+		return positions[index * INTS_PER_TOKEN + offset];
+	}
+	
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+	}
+	
+	/**
+	 * Creates a match for the given token with sub-matches named like the capturing groups in
+	 * {@link MarkdownParsingTools}, i.e. {@link MarkdownParsingTools#CAPTURING_GROUP_LABEL} and
+	 * {@link MarkdownParsingTools#CAPTURING_GROUP_TARGET}, or {@link MarkdownParsingTools#CAPTURING_GROUP_ANCHOR}
+	 * for heading anchors.
+	 */
+	public RegexMatch toRegexMatch(int index) {
+		RegexMatch match = createMatch(getStart(index), getEnd(index));
+		
+		if (getType(index) == TokenType.HEADING_ANCHOR) {
+			match.addSubMatch(MarkdownParsingTools.CAPTURING_GROUP_ANCHOR, createMatch(getTargetStart(index), getTargetEnd(index)));
+		} else {
+			if (getLabelStart(index) >= 0) {
+				match.addSubMatch(MarkdownParsingTools.CAPTURING_GROUP_LABEL, createMatch(getLabelStart(index), getLabelEnd(index)));
+			}
+			match.addSubMatch(MarkdownParsingTools.CAPTURING_GROUP_TARGET, createMatch(getTargetStart(index), getTargetEnd(index)));
+		}
+		
+		return match;
+	}
+	
+	private RegexMatch createMatch(int start, int end) {
+		return new RegexMatch(text.substring(start, end), start, end);
+	}
+	
+	/**
+	 * @return matches (see {@link #toRegexMatch(int)}) for all tokens of the given types
+	 */
+	public Stream<RegexMatch> matches(TokenType... tokenTypes) {
+		return IntStream.range(0, size)
+				.filter(index -> isOneOf(types[index], tokenTypes))
+				.mapToObj(this::toRegexMatch);
+	}
+	
+	private static boolean isOneOf(TokenType type, TokenType[] tokenTypes) {
+		for (TokenType tokenType : tokenTypes) {
+			if (tokenType == type) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
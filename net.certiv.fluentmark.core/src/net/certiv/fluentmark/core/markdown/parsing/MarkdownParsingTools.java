@@ -9,13 +9,10 @@
  */
 package net.certiv.fluentmark.core.markdown.parsing;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -23,6 +20,8 @@ import com.vladsch.flexmark.ext.plantuml.PlantUmlBlockNode;
 import com.vladsch.flexmark.ext.plantuml.PlantUmlFencedCodeBlockNode;
 import com.vladsch.flexmark.util.ast.Block;
 
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokenizer.TokenType;
+
 
 public class MarkdownParsingTools {
 	
@@ -34,51 +33,14 @@ public class MarkdownParsingTools {
 	public static final String CAPTURING_GROUP_TARGET = "target";
 	public static final String CAPTURING_GROUP_ANCHOR = "anchor";
 	
-	// pattern for images and links, e.g. ![](../image.png) or [some text](https://www.advantext.com)
-	// search non-greedy (e.g. ".*?" or "[^\n]*?") for label and target capturing groups, otherwise we match the last ")" in the following example
-	// (link to [Topic Y](#topic-y))
-	// "(?<!\\)" is a negative look-behind disallowing preceding "\" chars,
-	// the look-behind is placed before \] and \[ and before \) (before "(" we explicitly require "]")
-	
-	// (!){0,1}(?<!\\)\[(?<label>([^\n](?<![^\\](\]|\[)))*?)?(?<!\\)\]\((?<target>([^\n](?<![^\\](\)|\()))*?)?(?<!\\)\)
-	private static final String REGEX_LINK = "(!){0,1}(?<!\\\\)\\[(?<" + CAPTURING_GROUP_LABEL
-			+ ">([^\\n](?<![^\\\\](\\]|\\[)))*?)?(?<!\\\\)\\]\\((?<" + CAPTURING_GROUP_TARGET
-			+ ">([^\\n](?<![^\\\\](\\)|\\()))*?)?(?<!\\\\)\\)";
-	
-	// pattern for link reference definitions, like [label]: https://www.plantuml.com "title",
-	// but excludes footnote definitions like [^label]: Some text
-	
-	// ^ {0,3}\[(?<label>([^^\n](?<![^\\](\]|\[)))*?)(?<!\\)\]:([ \t]*\n?[ \t]*(?=[^ \n\r\t\f\v\]\[]))?(?<target>[^ \n\r\t\f\v\]\[]*)
-	private static final String REGEX_LINK_REF_DEFINITION = "^ {0,3}\\[(?<" + CAPTURING_GROUP_LABEL
-			+ ">([^^\\n](?<![^\\\\](\\]|\\[)))*?)(?<!\\\\)\\]:([ \\t]*\\n?[ \\t]*(?=[^ \\n\\r\\t\\f\\v\\]\\[]))?(?<"
-			+ CAPTURING_GROUP_TARGET + ">[^ \\n\\r\\t\\f\\v\\]\\[]*)";
-	
-	// patterns for reference links like the following three variants specified in CommonMark: https://spec.commonmark.org/0.31.2/#reference-link
-	// * full reference link:      [Markdown specification][CommonMark]
-	// * collapsed reference link: [CommonMark][]
-	// * shortcut reference link:  [CommonMark]
+	// The link, reference, and heading anchor statements are detected by the MarkdownLinkTokenizer in a single pass,
+	// see the tokenizer's match methods for the regular expressions describing the detected statements.
 	
-	// (?<!\\)\[(?<label>([^\n](?<![^\\](\]|\[)))*?)(?<!\\)\]\[(?<target>([^\n](?<![^\\](\]|\[)))*?)(?<!\\)\]
-	private static final String REGEX_REF_LINK_FULL_OR_COLLAPSED = "(?<!\\\\)\\[(?<"
-			+ CAPTURING_GROUP_LABEL + ">([^\\n](?<![^\\\\](\\]|\\[)))*?)(?<!\\\\)\\]\\[(?<"
-			+ CAPTURING_GROUP_TARGET + ">([^\\n](?<![^\\\\](\\]|\\[)))*?)(?<!\\\\)\\]";
-	
-	// (?<!\]|\\)(\[(?<target>([^\n](?<![^\\](\]|\[)))*?)(?<!\\)\])(?!(\[|\(|:))
-	private static final String REGEX_REF_LINK_SHORTCUT = "(?<!\\]|\\\\)(\\[(?<"
-			+ CAPTURING_GROUP_TARGET + ">([^\\n](?<![^\\\\](\\]|\\[)))*?)(?<!\\\\)\\])(?!(\\[|\\(|:))";
-
 	// the following regex contains a named capturing group, name is "anchor", syntax: (?<name>expressionToMatch)
 	private static final String REGEX_HEADING_WITH_ANCHOR = "#+\\s.*\\{#(?<" + CAPTURING_GROUP_ANCHOR + ">.*)\\}\\s*";
 	private static final String REGEX_VALID_LINK_REF_DEF_LABEL = "[A-Za-z0-9-_:\\. /]+";
 	private static final String REGEX_VALID_ANCHOR_ID = "[A-Za-z][A-Za-z0-9-_:\\.]*";
 	
-	private static final Pattern LINK_PATTERN = Pattern.compile(REGEX_LINK);
-	private static final Pattern LINK_REF_DEF_PATTERN = Pattern.compile(REGEX_LINK_REF_DEFINITION, Pattern.MULTILINE);
-	private static final Pattern REF_LINK_FULL_PATTERN = Pattern.compile(REGEX_REF_LINK_FULL_OR_COLLAPSED);
-	private static final Pattern REF_LINK_SHORT_PATTERN = Pattern.compile(REGEX_REF_LINK_SHORTCUT);
-	
-	private static final Pattern HEADING_PATTERN = Pattern.compile(MarkdownParsingTools.REGEX_HEADING_WITH_ANCHOR);
-	
 	public static boolean isValidLinkReferenceDefinitionIdentifier(String identifier) {
 		return identifier != null && !identifier.isBlank() && identifier.matches(REGEX_VALID_LINK_REF_DEF_LABEL);
 	}
@@ -117,7 +79,7 @@ public class MarkdownParsingTools {
 	 * @see {@link #findShortcutReferenceLinks(String)}
 	 */
 	public static Stream<RegexMatch> findLinksAndImages(String markdownCode) {
-		return findMatches(markdownCode, LINK_PATTERN, CAPTURING_GROUP_LABEL, CAPTURING_GROUP_TARGET);
+		return MarkdownLinkTokens.tokenize(markdownCode).matches(TokenType.INLINE_LINK, TokenType.IMAGE);
 	}
 	
 	/**
@@ -138,8 +100,7 @@ public class MarkdownParsingTools {
 	 * @see {@link #findLinksAndImages(String)}
 	 */
 	public static Stream<RegexMatch> findInlineLinks(String markdownCode) {
-		return findLinksAndImages(markdownCode)
-				.filter(match -> !match.matchedText.startsWith("!"));
+		return MarkdownLinkTokens.tokenize(markdownCode).matches(TokenType.INLINE_LINK);
 	}
 	
 	/**
@@ -156,7 +117,7 @@ public class MarkdownParsingTools {
 	 * @see {@link #CAPTURING_GROUP_TARGET}
 	 */
 	public static Stream<RegexMatch> findLinkReferenceDefinitions(String markdownCode) {
-		return findMatches(markdownCode, LINK_REF_DEF_PATTERN, CAPTURING_GROUP_LABEL, CAPTURING_GROUP_TARGET);
+		return MarkdownLinkTokens.tokenize(markdownCode).matches(TokenType.LINK_REFERENCE_DEFINITION);
 	}
 	
 	/**
@@ -233,7 +194,7 @@ public class MarkdownParsingTools {
 	 * @see {@link #findShortcutReferenceLinks(String)}
 	 */
 	public static Stream<RegexMatch> findFullAndCollapsedReferenceLinks(String markdownCode) {
-		return findMatches(markdownCode, REF_LINK_FULL_PATTERN, CAPTURING_GROUP_LABEL, CAPTURING_GROUP_TARGET);
+		return MarkdownLinkTokens.tokenize(markdownCode).matches(TokenType.FULL_OR_COLLAPSED_REFERENCE_LINK);
 	}
 	
 	/**
@@ -250,48 +211,14 @@ public class MarkdownParsingTools {
 	 * @see {@link #findFullAndCollapsedReferenceLinks(String)}
 	 */
 	public static Stream<RegexMatch> findShortcutReferenceLinks(String markdownCode) {
-		return findMatches(markdownCode, REF_LINK_SHORT_PATTERN, CAPTURING_GROUP_TARGET);
+		return MarkdownLinkTokens.tokenize(markdownCode).matches(TokenType.SHORTCUT_REFERENCE_LINK);
 	}
 	
 	public static Stream<RegexMatch> findHeadingAnchorIds(String markdownCode) {
-		return findMatches(markdownCode, HEADING_PATTERN, CAPTURING_GROUP_ANCHOR)
+		return MarkdownLinkTokens.tokenize(markdownCode).matches(TokenType.HEADING_ANCHOR)
 				.map(match -> match.subMatches.get(CAPTURING_GROUP_ANCHOR));
 	}
 	
-	private static Stream<RegexMatch> findMatches(String textToCheck, Pattern patternToFind, String... capturingGroupNames) {
-		if (textToCheck == null) {
-			throw new IllegalArgumentException();
-		}
-		
-		List<RegexMatch> matches = new ArrayList<>();
-		
-		Matcher textMatcher = patternToFind.matcher(textToCheck);
-		boolean found = textMatcher.find();
-		
-		while (found) {
-			String currentTextMatch = textMatcher.group();
-			int startIndex = textMatcher.start();
-			int endIndex = textMatcher.end();
-			
-			RegexMatch match = new RegexMatch(currentTextMatch, startIndex, endIndex);
-			
-			for (String capturingGroupName : capturingGroupNames) {
-				String subMatchText = textMatcher.group(capturingGroupName);
-				if (subMatchText != null) {
-					int subMatchStartIndex = textMatcher.start(capturingGroupName);
-					int subMatchEndIndex = textMatcher.end(capturingGroupName);
-					match.addSubMatch(capturingGroupName, new RegexMatch(subMatchText, subMatchStartIndex, subMatchEndIndex));
-				}
-			}
-			
-			matches.add(match);
-			
-			found = textMatcher.find();
-		}
-		
-		return matches.stream();
-	}
-	
 	public static String getPlantUmlCodeFromMarkdownCodeBlock(Block codeBlock) {
 		if (codeBlock instanceof PlantUmlFencedCodeBlockNode) {
 			PlantUmlFencedCodeBlockNode fencedCodeBlock = (PlantUmlFencedCodeBlockNode) codeBlock;
@@ -0,0 +1,141 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.parsing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.Region;
+
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokenizer.TokenType;
+
+/**
+ * The link reference definitions and section anchors of a Markdown document.
+ *
+ * <p>The symbol table of a document is built once per document version and shared by all look-ups, e.g.
+ * by validators checking reference links and section anchors, and by hyperlink detectors. Thus, look-ups
+ * do not need to search the whole document again.</p>
+ */
+public class MarkdownSymbolTable {
+	
+	private static final Map<IDocument, MarkdownSymbolTable> DOCUMENT_SYMBOLS = new WeakHashMap<>();
+	
+	private final String markdownCode;
+	private final long modificationStamp;
+	private final Map<String, RegexMatch> linkReferenceDefinitions;
+	private volatile Set<String> validSectionAnchors;
+	
+	private MarkdownSymbolTable(String markdownCode, MarkdownLinkTokens tokens, long modificationStamp) {
+		this.markdownCode = markdownCode;
+		this.modificationStamp = modificationStamp;
+		this.linkReferenceDefinitions = new HashMap<>();
+		
+		for (int index = 0; index < tokens.size(); index++) {
+			if (tokens.getType(index) == TokenType.LINK_REFERENCE_DEFINITION) {
+				String label = markdownCode.substring(tokens.getLabelStart(index), tokens.getLabelEnd(index));
+				
+				// like in the CommonMark specification, the first definition with a label wins
+				if (!linkReferenceDefinitions.containsKey(label)) {
+					linkReferenceDefinitions.put(label, tokens.toRegexMatch(index));
+				}
+			}
+		}
+	}
+	
+	public static MarkdownSymbolTable of(String markdownCode) {
+		if (markdownCode == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new MarkdownSymbolTable(markdownCode, MarkdownLinkTokens.tokenize(markdownCode),
+				IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
+	}
+	
+	/**
+	 * Returns the symbol table of the document's current version, re-using the symbol table built for the
+	 * same document version before.
+	 */
+	public static MarkdownSymbolTable of(IDocument document) {
+		if (document == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		long modificationStamp = document instanceof IDocumentExtension4 extension ?
+				extension.getModificationStamp() : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+		if (modificationStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			return of(document.get());
+		}
+		
+		synchronized (DOCUMENT_SYMBOLS) {
+			MarkdownSymbolTable symbols = DOCUMENT_SYMBOLS.get(document);
+			if (symbols != null && symbols.modificationStamp == modificationStamp) {
+				return symbols;
+			}
+		}
+		
+		MarkdownLinkTokens tokens;
+		try {
+			tokens = MarkdownLinkTokens.tokenize(document, new Region(0, document.getLength()));
+		} catch (BadLocationException e) {
+			// the document changed while reading it
+			return of(document.get());
+		}
+		
+		MarkdownSymbolTable symbols = new MarkdownSymbolTable(tokens.getText(), tokens, modificationStamp);
+		
+		// do not cache symbols of an outdated document version
+		if (((IDocumentExtension4) document).getModificationStamp() == modificationStamp) {
+			synchronized (DOCUMENT_SYMBOLS) {
+				DOCUMENT_SYMBOLS.put(document, symbols);
+			}
+		}
+		return symbols;
+	}
+	
+	/**
+	 * Finds the first link reference definition with the given link label.
+	 * The <em>label</em> and <em>target</em> matches are captured in sub-group matches with the capturing group names
+	 * {@link MarkdownParsingTools#CAPTURING_GROUP_LABEL} and {@link MarkdownParsingTools#CAPTURING_GROUP_TARGET}.
+	 * 
+	 * @param linkReferenceDefinitionName the link reference definition's link label, i.e. the part in square brackets
+	 * @return the match for the requested link reference definition if it can be found
+	 * 
+	 * @see MarkdownParsingTools#findLinkReferenceDefinition(String, String)
+	 */
+	public Optional<RegexMatch> findLinkReferenceDefinition(String linkReferenceDefinitionName) {
+		if (linkReferenceDefinitionName == null || linkReferenceDefinitionName.isBlank()) {
+			throw new IllegalArgumentException();
+		}
+		
+		return Optional.ofNullable(linkReferenceDefinitions.get(linkReferenceDefinitionName));
+	}
+	
+	/**
+	 * @return the valid section anchors declared in headings like <code># Heading {#anchor}</code>
+	 * 
+	 * @see MarkdownParsingTools#findValidSectionAnchorsInMarkdownCode(String)
+	 */
+	public Set<String> getValidSectionAnchors() {
+		Set<String> anchors = validSectionAnchors;
+		if (anchors == null) {
+			anchors = Collections.unmodifiableSet(MarkdownParsingTools.findValidSectionAnchorsInMarkdownCode(markdownCode));
+			validSectionAnchors = anchors;
+		}
+		return anchors;
+	}
+
+}
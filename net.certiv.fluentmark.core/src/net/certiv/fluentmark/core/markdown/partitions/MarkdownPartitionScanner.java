@@ -13,11 +13,10 @@ import java.util.List;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
-import org.eclipse.jface.text.rules.MultiLineRule;
-import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
 import org.eclipse.jface.text.rules.Token;
 
 import net.certiv.fluentmark.core.dot.DotConstants;
+import net.certiv.fluentmark.core.markdown.scanner.DispatchingPartitionScanner;
 import net.certiv.fluentmark.core.markdown.scanner.IScannerExt;
 import net.certiv.fluentmark.core.markdown.scanner.rules.CodeSpanRule;
 import net.certiv.fluentmark.core.markdown.scanner.rules.DotCodeRule;
@@ -25,10 +24,11 @@ import net.certiv.fluentmark.core.markdown.scanner.rules.FrontMatterRule;
 import net.certiv.fluentmark.core.markdown.scanner.rules.HtmlCodeRule;
 import net.certiv.fluentmark.core.markdown.scanner.rules.IndentedCodeRule;
 import net.certiv.fluentmark.core.markdown.scanner.rules.MatchRule;
+import net.certiv.fluentmark.core.markdown.scanner.rules.MultiLineSequenceRule;
 import net.certiv.fluentmark.core.markdown.scanner.rules.PumlFileInclusionRule;
 import net.certiv.fluentmark.core.plantuml.parsing.PlantUmlConstants;
 
-public class MarkdownPartitionScanner extends RuleBasedPartitionScanner implements IScannerExt {
+public class MarkdownPartitionScanner extends DispatchingPartitionScanner implements IScannerExt {
 
 	public MarkdownPartitionScanner() {
 		this(4);
@@ -67,24 +67,24 @@ public class MarkdownPartitionScanner extends RuleBasedPartitionScanner implemen
 		List<IPredicateRule> rules = new ArrayList<>();
 
 		rules.add(new FrontMatterRule("---", "---", matter, '\\'));
-		rules.add(new MultiLineRule("<!--", "-->", comment, '\\', false));
-		rules.add(new MultiLineRule("$$", "$$", mathblock, '\\', false));
+		rules.add(new MultiLineSequenceRule("<!--", "-->", comment, '\\', false));
+		rules.add(new MultiLineSequenceRule("$$", "$$", mathblock, '\\', false));
 		rules.add(new MatchRule("\\$\\S", "\\S\\$\\D", mathblock, '\\', true, true));
 		
 		rules.add(new PumlFileInclusionRule(plantUmlInclude));
 		
 		rules.add(new HtmlCodeRule(htmlblock));
 		rules.add(new DotCodeRule(dotblock));
-		rules.add(new MultiLineRule(DotConstants.DOT_START, DotConstants.DOT_END, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START, PlantUmlConstants.UML_END, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START_SALT, PlantUmlConstants.UML_END_SALT, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START_YAML, PlantUmlConstants.UML_END_YAML, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START_JSON, PlantUmlConstants.UML_END_JSON, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START_MINDMAP, PlantUmlConstants.UML_END_MINDMAP, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START_GANTT, PlantUmlConstants.UML_END_GANTT, umlblock, '\\', false));
-		rules.add(new MultiLineRule(PlantUmlConstants.UML_START_WBS, PlantUmlConstants.UML_END_WBS, umlblock, '\\', false));
-		rules.add(new MultiLineRule("~~~", "~~~", codeblock, '\\', false));
-		rules.add(new MultiLineRule("```", "```", codeblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(DotConstants.DOT_START, DotConstants.DOT_END, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START, PlantUmlConstants.UML_END, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START_SALT, PlantUmlConstants.UML_END_SALT, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START_YAML, PlantUmlConstants.UML_END_YAML, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START_JSON, PlantUmlConstants.UML_END_JSON, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START_MINDMAP, PlantUmlConstants.UML_END_MINDMAP, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START_GANTT, PlantUmlConstants.UML_END_GANTT, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule(PlantUmlConstants.UML_START_WBS, PlantUmlConstants.UML_END_WBS, umlblock, '\\', false));
+		rules.add(new MultiLineSequenceRule("~~~", "~~~", codeblock, '\\', false));
+		rules.add(new MultiLineSequenceRule("```", "```", codeblock, '\\', false));
 		rules.add(new CodeSpanRule(codespan));
 		rules.add(new IndentedCodeRule(codeblock, tabWidth));
 
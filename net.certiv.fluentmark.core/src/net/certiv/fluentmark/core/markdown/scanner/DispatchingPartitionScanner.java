@@ -0,0 +1,80 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner;
+
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.Token;
+
+/**
+ * Partition scanner that only evaluates the rules whose tokens may start with the character at the
+ * current offset (see {@link RuleDispatchTable}), instead of trying all rules at every offset.
+ *
+ * <p>Resuming a partition (when re-partitioning after a document change) still tries all rules for the
+ * partition's content type, like {@link RuleBasedPartitionScanner} does.</p>
+ */
+public class DispatchingPartitionScanner extends RuleBasedPartitionScanner {
+	
+	private RuleDispatchTable dispatchTable;
+	
+	@Override
+	public void setPredicateRules(IPredicateRule[] rules) {
+		super.setPredicateRules(rules);
+		dispatchTable = (rules != null ? new RuleDispatchTable(rules) : null);
+	}
+	
+	@Override
+	public IToken nextToken() {
+		if (fContentType != null || dispatchTable == null) {
+			return super.nextToken();
+		}
+		
+		fTokenOffset = fOffset;
+		fColumn = UNDEFINED;
+		
+		int c = read();
+		if (c == EOF) {
+			return Token.EOF;
+		}
+		unread();
+		
+		IPredicateRule[] rules = dispatchTable.getRules();
+		for (int idx : dispatchTable.getRuleIndices(c)) {
+			IToken token = rules[idx].evaluate(this);
+			if (!token.isUndefined()) {
+				return token;
+			}
+			if (fOffset != fTokenOffset) {
+				// the rule consumed characters without matching (e.g. a pattern rule's start sequence without
+				// end sequence), the following rules have to see the same offset as without dispatching
+				return evaluateRules(rules, idx + 1);
+			}
+		}
+		
+		read();
+		return fDefaultReturnToken;
+	}
+	
+	private IToken evaluateRules(IPredicateRule[] rules, int firstRule) {
+		for (int idx = firstRule; idx < rules.length; idx++) {
+			IToken token = rules[idx].evaluate(this);
+			if (!token.isUndefined()) {
+				return token;
+			}
+		}
+		
+		if (read() == EOF) {
+			return Token.EOF;
+		}
+		return fDefaultReturnToken;
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.text.rules.IPredicateRule;
+
+import net.certiv.fluentmark.core.markdown.scanner.rules.IFirstCharacterRule;
+
+/**
+ * First-character dispatch table for predicate rules: for each character, the indices of the rules (in
+ * their original order) whose tokens may start with that character. Rules that do not implement
+ * {@link IFirstCharacterRule}, or that do not know their first characters, are evaluated for all
+ * characters.
+ */
+public class RuleDispatchTable {
+	
+	// characters with their own entry, all others share one entry
+	private static final int TABLE_SIZE = 128;
+	
+	private final IPredicateRule[] rules;
+	private final int[][] ruleIndicesByCharacter = new int[TABLE_SIZE][];
+	private final int[] otherCharacterRuleIndices;
+	
+	public RuleDispatchTable(IPredicateRule[] rules) {
+		if (rules == null) {
+			throw new IllegalArgumentException();
+		}
+		this.rules = rules.clone();
+		
+		char[][] firstCharacters = new char[rules.length][];
+		for (int idx = 0; idx < rules.length; idx++) {
+			if (rules[idx] instanceof IFirstCharacterRule rule) {
+				firstCharacters[idx] = rule.getFirstCharacters();
+			}
+		}
+		
+		int[] matchingRules = new int[rules.length];
+		int[] previousEntry = null;
+		for (int c = 0; c < TABLE_SIZE; c++) {
+			int count = 0;
+			for (int idx = 0; idx < rules.length; idx++) {
+				if (mayStartWith(firstCharacters[idx], c)) {
+					matchingRules[count++] = idx;
+				}
+			}
+			
+			// most characters share the same entry
+			int[] entry = Arrays.copyOf(matchingRules, count);
+			if (previousEntry != null && Arrays.equals(entry, previousEntry)) {
+				entry = previousEntry;
+			}
+			ruleIndicesByCharacter[c] = entry;
+			previousEntry = entry;
+		}
+		
+		int count = 0;
+		for (int idx = 0; idx < rules.length; idx++) {
+			if (firstCharacters[idx] == null || containsOtherCharacter(firstCharacters[idx])) {
+				matchingRules[count++] = idx;
+			}
+		}
+		otherCharacterRuleIndices = Arrays.copyOf(matchingRules, count);
+	}
+	
+	/**
+	 * @return all rules in their original order
+	 */
+	public IPredicateRule[] getRules() {
+		return rules;
+	}
+	
+	/**
+	 * @param c the character at the scanner's offset (must not be EOF)
+	 * @return the indices of the rules that may match at the scanner's offset, in ascending order
+	 */
+	public int[] getRuleIndices(int c) {
+		if (c >= 0 && c < TABLE_SIZE) {
+			return ruleIndicesByCharacter[c];
+		}
+		return otherCharacterRuleIndices;
+	}
+	
+	private static boolean mayStartWith(char[] firstCharacters, int c) {
+		if (firstCharacters == null) {
+			return true;
+		}
+		for (char firstCharacter : firstCharacters) {
+			if (firstCharacter == c) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean containsOtherCharacter(char[] firstCharacters) {
+		for (char firstCharacter : firstCharacters) {
+			if (firstCharacter >= TABLE_SIZE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
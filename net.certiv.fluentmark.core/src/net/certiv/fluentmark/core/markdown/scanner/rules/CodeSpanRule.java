@@ -11,11 +11,10 @@ package net.certiv.fluentmark.core.markdown.scanner.rules;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.text.rules.ICharacterScanner;
-import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 
-public class CodeSpanRule implements IPredicateRule {
+public class CodeSpanRule implements IFirstCharacterRule {
 	
 	private static char[][] fDelimiters = null;
 	
@@ -29,6 +28,11 @@ public class CodeSpanRule implements IPredicateRule {
 	public IToken getSuccessToken() {
 		return successToken;
 	}
+
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { '`' };
+	}
 	
 	private boolean nextCharIs(char expectedSymbol, ICharacterScanner scanner) {
 		int nextChar = scanner.read();
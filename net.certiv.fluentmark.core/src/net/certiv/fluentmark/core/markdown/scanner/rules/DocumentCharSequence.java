@@ -0,0 +1,76 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner.rules;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Read-only view of a document range, e.g. to match a regular expression or to scan the characters
+ * without copying the range to a string.
+ */
+class DocumentCharSequence implements CharSequence {
+	
+	private final IDocument document;
+	private final int offset;
+	private final int length;
+	
+	/**
+	 * @throws BadLocationException if the range is not inside the document
+	 */
+	DocumentCharSequence(IDocument document, int offset, int length) throws BadLocationException {
+		if (offset < 0 || length < 0 || offset + length > document.getLength()) {
+			throw new BadLocationException();
+		}
+		this.document = document;
+		this.offset = offset;
+		this.length = length;
+	}
+	
+	@Override
+	public int length() {
+		return length;
+	}
+	
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		try {
+			return document.getChar(offset + index);
+		} catch (BadLocationException e) {
+			// the document was changed while reading it
+			throw new IndexOutOfBoundsException(index);
+		}
+	}
+	
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException();
+		}
+		try {
+			return new DocumentCharSequence(document, offset + start, end - start);
+		} catch (BadLocationException e) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		try {
+			return document.get(offset, length);
+		} catch (BadLocationException e) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+}
@@ -7,19 +7,22 @@
  ******************************************************************************/
 package net.certiv.fluentmark.core.markdown.scanner.rules;
 
+import java.util.regex.Pattern;
+
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.rules.ICharacterScanner;
-import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 
 import net.certiv.fluentmark.core.FluentCore;
 import net.certiv.fluentmark.core.markdown.scanner.IScannerExt;
 
-public class DotCodeRule implements IPredicateRule {
+public class DotCodeRule implements IFirstCharacterRule {
+
+	private static final Pattern DOT_START = Pattern.compile("(```+|~~~+)\\s+dot(\\s.*)?");
 
 	private IToken token;
 
@@ -55,15 +58,18 @@ public class DotCodeRule implements IPredicateRule {
 		return token;
 	}
 
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { '`', '~' };
+	}
+
 	private boolean dotStarts(ICharacterScanner scanner, int c) throws BadLocationException {
 		if (c != '`' && c != '~') return false;
 
 		IScannerExt scan = (IScannerExt) scanner;
 		IDocument doc = scan.getDocument();
 		IRegion info = doc.getLineInformationOfOffset(scan.getOffset());
-		String text = doc.get(info.getOffset(), info.getLength());
-		if (text.matches("(```+|~~~+)\\s+dot(\\s.*)?")) return true;
-		return false;
+		return DOT_START.matcher(new DocumentCharSequence(doc, info.getOffset(), info.getLength())).matches();
 	}
 
 	private void gotoEOB(ICharacterScanner scanner, int c) {
@@ -13,7 +13,7 @@ import org.eclipse.jface.text.rules.PatternRule;
 import org.eclipse.jface.text.rules.RuleBasedScanner;
 import org.eclipse.jface.text.rules.Token;
 
-public class FrontMatterRule extends PatternRule {
+public class FrontMatterRule extends PatternRule implements IFirstCharacterRule {
 
 	public FrontMatterRule(String startSequence, String endSequence, IToken token, char escapeCharacter) {
 		super(startSequence, endSequence, token, escapeCharacter, false, true);
@@ -33,4 +33,9 @@ public class FrontMatterRule extends PatternRule {
 		}
 		return Token.UNDEFINED;
 	}
+
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { fStartSequence[0] };
+	}
 }
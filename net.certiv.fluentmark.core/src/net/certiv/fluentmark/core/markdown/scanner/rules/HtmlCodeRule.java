@@ -11,14 +11,13 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.ICharacterScanner;
-import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 
 import net.certiv.fluentmark.core.FluentCore;
 import net.certiv.fluentmark.core.markdown.scanner.IScannerExt;
 
-public class HtmlCodeRule implements IPredicateRule {
+public class HtmlCodeRule implements IFirstCharacterRule {
 
 	private IToken token;
 
@@ -44,7 +43,7 @@ public class HtmlCodeRule implements IPredicateRule {
 
 		try {
 			if (col == 0) {
-				String text = getScanText(scanner);
+				CharSequence text = getScanText(scanner);
 				if (tagStarts(text)) {
 					gotoEOB(scanner);
 					return getSuccessToken();
@@ -61,17 +60,22 @@ public class HtmlCodeRule implements IPredicateRule {
 		return token;
 	}
 
-	private String getScanText(ICharacterScanner scanner) throws BadLocationException {
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { '<' };
+	}
+
+	private CharSequence getScanText(ICharacterScanner scanner) throws BadLocationException {
 		IScannerExt scan = ((IScannerExt) scanner);
 		IDocument doc = scan.getDocument();
 		int beg = scan.getOffset();
 		int end = scan.getRangeEnd();
 		int len = end - beg;
-		return doc.get(beg, Math.min(256, len));
+		return new DocumentCharSequence(doc, beg, Math.min(256, len));
 	}
 
-	private boolean tagStarts(String text) {
-		if (text.isEmpty()) return false;
+	private boolean tagStarts(CharSequence text) {
+		if (text.length() == 0) return false;
 		if (text.charAt(0) != '<') return false;
 
 		int beg = 1;
@@ -88,7 +92,7 @@ public class HtmlCodeRule implements IPredicateRule {
 					if (idx == -1) return false;
 					continue;
 				case '/':
-					if (text.charAt(idx + 1) != '>') continue;
+					if (idx + 1 == end || text.charAt(idx + 1) != '>') continue;
 				case '>':
 					return true;
 			}
@@ -96,7 +100,7 @@ public class HtmlCodeRule implements IPredicateRule {
 		return false;
 	}
 
-	private int stringEnd(String text, int beg) {
+	private int stringEnd(CharSequence text, int beg) {
 		char sType = text.charAt(beg);
 		for (int idx = beg + 1; idx < text.length(); idx++) {
 			char c = text.charAt(idx);
@@ -0,0 +1,28 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner.rules;
+
+import org.eclipse.jface.text.rules.IPredicateRule;
+
+/**
+ * A rule whose tokens always start with one of a few known characters. Partition scanners use these
+ * characters to only evaluate the rules that may match at the current offset.
+ *
+ * @see net.certiv.fluentmark.core.markdown.scanner.RuleDispatchTable
+ */
+public interface IFirstCharacterRule extends IPredicateRule {
+	
+	/**
+	 * @return the characters the rule's tokens may start with, or <code>null</code> if they may start with
+	 *         any character
+	 */
+	char[] getFirstCharacters();
+
+}
@@ -9,13 +9,12 @@ package net.certiv.fluentmark.core.markdown.scanner.rules;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.rules.ICharacterScanner;
-import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 
 import net.certiv.fluentmark.core.markdown.scanner.IScannerExt;
 
-public class IndentedCodeRule implements IPredicateRule {
+public class IndentedCodeRule implements IFirstCharacterRule {
 
 	private IToken token;
 	private boolean found;
@@ -72,6 +71,11 @@ public class IndentedCodeRule implements IPredicateRule {
 	public IToken getSuccessToken() {
 		return token;
 	}
+
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { ' ', '\t' };
+	}
 	
 	private int getDocumentOffset(ICharacterScanner scanner) {
 		return ((IScannerExt) scanner).getOffset();
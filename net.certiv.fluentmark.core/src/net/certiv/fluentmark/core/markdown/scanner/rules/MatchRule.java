@@ -13,16 +13,24 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.ICharacterScanner;
-import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 
 import net.certiv.fluentmark.core.markdown.scanner.IScannerExt;
 
-public class MatchRule implements IPredicateRule {
+/**
+ * Rule for tokens that start and end with sequences given as (simple) regular expressions. The
+ * expressions are compiled once, and matched on a few characters around the scanner's offset without
+ * creating strings.
+ */
+public class MatchRule implements IFirstCharacterRule {
+
+	// number of characters around the scanner's offset that the start and end sequences are matched on
+	private static final int SCAN_TEXT_LENGTH = 6;
 
 	private char[][] fLineDelimiters;
 	private char[][] fSortedLineDelimiters;
+	private SequencePattern[] fSortedLineDelimiterPatterns;
 	private static final Comparator<char[]> fLineDelimiterComparator = new Comparator<char[]>() {
 
 		@Override
@@ -51,6 +59,10 @@ public class MatchRule implements IPredicateRule {
 	/** Indicates whether end of file terminates the pattern */
 	protected boolean fBreaksOnEOF;
 
+	private final SequencePattern fStartPattern;
+	private final SequencePattern fEndPattern;
+	private final char[] fScanText = new char[SCAN_TEXT_LENGTH];
+
 	/**
 	 * Creates a rule for the given starting and ending sequence. When these sequences are detected the
 	 * rule will return the specified token. Alternatively, the sequence can also be ended by the end of
@@ -73,6 +85,9 @@ public class MatchRule implements IPredicateRule {
 		fToken = token;
 		fEscapeCharacter = escapeCharacter;
 		fBreaksOnEOL = breaksOnEOL;
+
+		fStartPattern = SequencePattern.compile(startSequence);
+		fEndPattern = SequencePattern.compile(String.valueOf(fEndSequence));
 	}
 
 	/**
@@ -152,7 +167,13 @@ public class MatchRule implements IPredicateRule {
 	 * @return <code>true</code> if the given sequence has been detected
 	 */
 	protected boolean sequenceDetected(ICharacterScanner scanner, char[] sequence, boolean eofAllowed) {
-		return sequenceDetected(scanner, sequence, true, eofAllowed);
+		return sequenceDetected(scanner, getPattern(sequence), true, eofAllowed);
+	}
+
+	private SequencePattern getPattern(char[] sequence) {
+		if (sequence == fStartSequence) return fStartPattern;
+		if (sequence == fEndSequence) return fEndPattern;
+		return SequencePattern.compile(String.valueOf(sequence));
 	}
 
 	/**
@@ -177,6 +198,11 @@ public class MatchRule implements IPredicateRule {
 			fLineDelimiters = originalDelimiters;
 			System.arraycopy(fLineDelimiters, 0, fSortedLineDelimiters, 0, fLineDelimiters.length);
 			Arrays.sort(fSortedLineDelimiters, fLineDelimiterComparator);
+
+			fSortedLineDelimiterPatterns = new SequencePattern[fSortedLineDelimiters.length];
+			for (int idx = 0; idx < fSortedLineDelimiters.length; idx++) {
+				fSortedLineDelimiterPatterns[idx] = SequencePattern.compile(String.valueOf(fSortedLineDelimiters[idx]));
+			}
 		}
 
 		int readCount = 1;
@@ -186,9 +212,9 @@ public class MatchRule implements IPredicateRule {
 				// Skip escaped character(s)
 				if (fEscapeContinuesLine) {
 					c = scanner.read();
-					for (char[] fSortedLineDelimiter : fSortedLineDelimiters) {
-						if (c == fSortedLineDelimiter[0]
-								&& sequenceDetected(scanner, fSortedLineDelimiter, fBreaksOnEOF)) {
+					for (int idx = 0; idx < fSortedLineDelimiters.length; idx++) {
+						if (c == fSortedLineDelimiters[idx][0]
+								&& sequenceDetected(scanner, fSortedLineDelimiterPatterns[idx], true, fBreaksOnEOF)) {
 							break;
 						}
 					}
@@ -197,13 +223,13 @@ public class MatchRule implements IPredicateRule {
 				}
 
 				// Check if the specified end sequence has been found.
-			} else if (sequenceDetected(scanner, fEndSequence, false, fBreaksOnEOF)) {
+			} else if (sequenceDetected(scanner, fEndPattern, false, fBreaksOnEOF)) {
 				return true;
 			} else if (fBreaksOnEOL) {
 				// Check for end of line since it can be used to terminate the pattern.
-				for (char[] fSortedLineDelimiter : fSortedLineDelimiters) {
-					if (c == fSortedLineDelimiter[0]
-							&& sequenceDetected(scanner, fSortedLineDelimiter, true, fBreaksOnEOF))
+				for (int idx = 0; idx < fSortedLineDelimiters.length; idx++) {
+					if (c == fSortedLineDelimiters[idx][0]
+							&& sequenceDetected(scanner, fSortedLineDelimiterPatterns[idx], true, fBreaksOnEOF))
 						return true;
 				}
 			}
@@ -218,7 +244,7 @@ public class MatchRule implements IPredicateRule {
 		return false;
 	}
 
-	private boolean sequenceDetected(ICharacterScanner scanner, char[] sequence, boolean forward, boolean eofAllowed) {
+	private boolean sequenceDetected(ICharacterScanner scanner, SequencePattern pattern, boolean forward, boolean eofAllowed) {
 		int c = scanner.read();
 		if (c == ICharacterScanner.EOF) {
 			if (forward) return false;
@@ -227,19 +253,19 @@ public class MatchRule implements IPredicateRule {
 		scanner.unread();
 
 		try {
-			String txt = getScanText(scanner, 6, forward);
-			String regex = String.valueOf(sequence);
-			if (forward && txt.matches(regex + ".*")) {
+			int len = readScanText(scanner, forward);
+			if (forward && pattern.matchesPrefix(fScanText, len)) {
 				return true;
 			}
-			if (!forward && txt.matches(".*" + regex)) {
+			if (!forward && pattern.matchesSuffix(fScanText, len)) {
 				return true;
 			}
 		} catch (BadLocationException e) {}
 		return false;
 	}
 
-	private String getScanText(ICharacterScanner scanner, int max, boolean forward) throws BadLocationException {
+	// reads the text the sequences are matched on into fScanText, returns the text's length
+	private int readScanText(ICharacterScanner scanner, boolean forward) throws BadLocationException {
 		IScannerExt scan = ((IScannerExt) scanner);
 		IDocument doc = scan.getDocument();
 		int beg;
@@ -248,13 +274,18 @@ public class MatchRule implements IPredicateRule {
 		if (forward) {
 			beg = scan.getOffset();
 			end = scan.getRangeEnd();
-			len = Math.min(max, end - beg);
+			len = Math.min(SCAN_TEXT_LENGTH, end - beg);
 		} else {
 			end = scan.getOffset() + 1;
-			beg = Math.max(0, end - max);
+			beg = Math.max(0, end - SCAN_TEXT_LENGTH);
 			len = end - beg;
 		}
-		return doc.get(beg, len);
+		if (len < 0) throw new BadLocationException();
+
+		for (int idx = 0; idx < len; idx++) {
+			fScanText[idx] = doc.getChar(beg + idx);
+		}
+		return len;
 	}
 
 	@Override
@@ -272,4 +303,10 @@ public class MatchRule implements IPredicateRule {
 	public IToken getSuccessToken() {
 		return fToken;
 	}
+
+	@Override
+	public char[] getFirstCharacters() {
+		int c = fStartPattern.getFirstCharacter();
+		return c < 0 ? null : new char[] { (char) c };
+	}
 }
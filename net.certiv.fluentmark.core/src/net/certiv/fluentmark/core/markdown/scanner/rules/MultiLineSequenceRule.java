@@ -0,0 +1,31 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner.rules;
+
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.MultiLineRule;
+
+/**
+ * {@link MultiLineRule} that tells the first character of its start sequence, so that partition scanners
+ * only evaluate it at offsets where the start sequence may begin.
+ */
+public class MultiLineSequenceRule extends MultiLineRule implements IFirstCharacterRule {
+	
+	public MultiLineSequenceRule(String startSequence, String endSequence, IToken token, char escapeCharacter,
+			boolean breaksOnEOF) {
+		super(startSequence, endSequence, token, escapeCharacter, breaksOnEOF);
+	}
+	
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { fStartSequence[0] };
+	}
+
+}
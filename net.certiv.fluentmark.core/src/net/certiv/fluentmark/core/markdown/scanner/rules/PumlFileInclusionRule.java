@@ -17,11 +17,10 @@ import static net.certiv.fluentmark.core.markdown.scanner.rules.RuleTools.unread
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.text.rules.ICharacterScanner;
-import org.eclipse.jface.text.rules.IPredicateRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 
-public class PumlFileInclusionRule implements IPredicateRule {
+public class PumlFileInclusionRule implements IFirstCharacterRule {
 	
 	protected IToken successToken;
 	
@@ -34,6 +33,11 @@ public class PumlFileInclusionRule implements IPredicateRule {
 	public IToken getSuccessToken() {
 		return successToken;
 	}
+
+	@Override
+	public char[] getFirstCharacters() {
+		return new char[] { '!' };
+	}
 	
 	@Override
 	public IToken evaluate(ICharacterScanner scanner, boolean resume) {
@@ -0,0 +1,265 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.markdown.scanner.rules;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-compiled regular expression for matching the short text windows that {@link MatchRule} reads
+ * around the scanner's offset, without creating any strings.
+ *
+ * <p>Simple expressions, i.e. sequences of literal characters, escaped characters, <code>.</code>, and
+ * the classes <code>\s \S \d \D \w \W</code>, are compiled to an array of single code point matchers
+ * and matched directly on the given characters. Other expressions fall back to a compiled
+ * {@link Pattern}, whose {@link Matcher} is re-used.</p>
+ */
+class SequencePattern {
+	
+	// code point classes, all other (non-negative) atoms are literal code points
+	private static final int ANY = -1;
+	private static final int SPACE = -2;
+	private static final int NOT_SPACE = -3;
+	private static final int DIGIT = -4;
+	private static final int NOT_DIGIT = -5;
+	private static final int WORD = -6;
+	private static final int NOT_WORD = -7;
+	
+	private final String regex;
+	private final int[] atoms;
+	
+	private final Matcher prefixMatcher;
+	private final Matcher suffixMatcher;
+	private final CharWindow window;
+	
+	private SequencePattern(String regex, int[] atoms) {
+		this.regex = regex;
+		this.atoms = atoms;
+		
+		if (atoms == null) {
+			window = new CharWindow();
+			prefixMatcher = Pattern.compile(regex + ".*").matcher(window);
+			suffixMatcher = Pattern.compile(".*" + regex).matcher(window);
+		} else {
+			window = null;
+			prefixMatcher = null;
+			suffixMatcher = null;
+		}
+	}
+	
+	static SequencePattern compile(String regex) {
+		if (regex == null) {
+			throw new IllegalArgumentException();
+		}
+		return new SequencePattern(regex, parseAtoms(regex));
+	}
+	
+	/**
+	 * @return the character that all matched sequences start with, or <code>-1</code> if there is no such
+	 *         character
+	 */
+	int getFirstCharacter() {
+		if (atoms != null && atoms.length > 0 && atoms[0] >= 0 && Character.isBmpCodePoint(atoms[0])) {
+			return atoms[0];
+		}
+		return -1;
+	}
+	
+	/**
+	 * Same as <code>new String(text, 0, length).matches(regex + ".*")</code>
+	 */
+	boolean matchesPrefix(char[] text, int length) {
+		if (atoms == null) {
+			window.set(text, length);
+			return prefixMatcher.reset().matches();
+		}
+		
+		int index = 0;
+		for (int atom : atoms) {
+			if (index >= length) {
+				return false;
+			}
+			int codePoint = Character.codePointAt(text, index, length);
+			if (!matches(atom, codePoint)) {
+				return false;
+			}
+			index += Character.charCount(codePoint);
+		}
+		return !containsLineTerminator(text, index, length);
+	}
+	
+	/**
+	 * Same as <code>new String(text, 0, length).matches(".*" + regex)</code>
+	 */
+	boolean matchesSuffix(char[] text, int length) {
+		if (atoms == null) {
+			window.set(text, length);
+			return suffixMatcher.reset().matches();
+		}
+		
+		int index = length;
+		for (int pos = atoms.length - 1; pos >= 0; pos--) {
+			if (index <= 0) {
+				return false;
+			}
+			int codePoint = Character.codePointBefore(text, index, 0);
+			if (!matches(atoms[pos], codePoint)) {
+				return false;
+			}
+			index -= Character.charCount(codePoint);
+		}
+		return !containsLineTerminator(text, 0, index);
+	}
+	
+	private static boolean matches(int atom, int codePoint) {
+		switch (atom) {
+			case ANY:
+				return !isLineTerminator(codePoint);
+			case SPACE:
+				return isSpace(codePoint);
+			case NOT_SPACE:
+				return !isSpace(codePoint);
+			case DIGIT:
+				return isDigit(codePoint);
+			case NOT_DIGIT:
+				return !isDigit(codePoint);
+			case WORD:
+				return isWord(codePoint);
+			case NOT_WORD:
+				return !isWord(codePoint);
+			default:
+				return atom == codePoint;
+		}
+	}
+	
+	// the characters not matched by "." (without DOTALL and UNIX_LINES flags)
+	private static boolean isLineTerminator(int c) {
+		return c == '\n' || c == '\r' || c == 0x0085 || c == 0x2028 || c == 0x2029;
+	}
+	
+	private static boolean containsLineTerminator(char[] text, int start, int end) {
+		for (int index = start; index < end; index++) {
+			if (isLineTerminator(text[index])) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean isSpace(int c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+	}
+	
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+	
+	private static boolean isWord(int c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+	}
+	
+	/**
+	 * @return the expression's atoms, or <code>null</code> if the expression is not a simple sequence
+	 */
+	private static int[] parseAtoms(String regex) {
+		int[] atoms = new int[regex.length()];
+		int count = 0;
+		
+		int index = 0;
+		while (index < regex.length()) {
+			int c = regex.codePointAt(index);
+			index += Character.charCount(c);
+			
+			if (c == '.') {
+				atoms[count++] = ANY;
+			} else if (c == '\\') {
+				if (index >= regex.length()) {
+					return null;
+				}
+				int escaped = regex.codePointAt(index);
+				index += Character.charCount(escaped);
+				
+				int atom = parseEscapedAtom(escaped);
+				if (atom == Integer.MIN_VALUE) {
+					return null;
+				}
+				atoms[count++] = atom;
+			} else if ("[](){}*+?^$|".indexOf(c) >= 0) {
+				return null;
+			} else {
+				atoms[count++] = c;
+			}
+		}
+		
+		return Arrays.copyOf(atoms, count);
+	}
+	
+	private static int parseEscapedAtom(int c) {
+		switch (c) {
+			case 's': return SPACE;
+			case 'S': return NOT_SPACE;
+			case 'd': return DIGIT;
+			case 'D': return NOT_DIGIT;
+			case 'w': return WORD;
+			case 'W': return NOT_WORD;
+			case 't': return '\t';
+			case 'n': return '\n';
+			case 'r': return '\r';
+			case 'f': return '\f';
+			default:
+				// escaped letters and digits have special meanings, all other escaped characters are literals
+				return Character.isLetterOrDigit(c) ? Integer.MIN_VALUE : c;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return regex;
+	}
+	
+	/**
+	 * Re-usable view of the first characters of an array.
+	 */
+	private static final class CharWindow implements CharSequence {
+		
+		private char[] chars = new char[0];
+		private int length = 0;
+		
+		void set(char[] chars, int length) {
+			this.chars = chars;
+			this.length = length;
+		}
+		
+		@Override
+		public int length() {
+			return length;
+		}
+		
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return chars[index];
+		}
+		
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString().substring(start, end);
+		}
+		
+		@Override
+		public String toString() {
+			return new String(chars, 0, length);
+		}
+	}
+
+}
@@ -20,6 +20,8 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITypedRegion;
 
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokenizer.TokenType;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokens;
 import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
 import net.certiv.fluentmark.core.markdown.parsing.RegexMatch;
 import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitioner;
@@ -55,24 +57,21 @@ public class MarkdownAnchorValidator implements ITypedRegionValidator {
 
 	@Override
 	public void validateRegion(ITypedRegion region, IDocument document, IFile file) {
-		String regionContent;
+		MarkdownLinkTokens tokens;
 		try {
-			regionContent = document.get(region.getOffset(), region.getLength());
+			tokens = MarkdownLinkTokens.tokenize(document, region);
 		} catch (BadLocationException e) {
 			return;
 		}
 		
 		// collect all anchor declarations per anchor id
 		Map<String,List<RegexMatch>> anchors = new HashMap<>();
-		MarkdownParsingTools.findHeadingAnchorIds(regionContent)
-			.forEach(match -> {
-				List<RegexMatch> matches = anchors.get(match.matchedText);
-				if (matches == null) {
-					matches = new ArrayList<>(2);
-					anchors.put(match.matchedText, matches);
-				}
-				matches.add(match);
-			});
+		for (int index = 0; index < tokens.size(); index++) {
+			if (tokens.getType(index) == TokenType.HEADING_ANCHOR) {
+				RegexMatch match = tokens.toRegexMatch(index).subMatches.get(MarkdownParsingTools.CAPTURING_GROUP_ANCHOR);
+				anchors.computeIfAbsent(match.matchedText, anchor -> new ArrayList<>(2)).add(match);
+			}
+		}
 		
 		// go through all anchor declarations and check they use only allowed characters
 		anchors.values().stream()
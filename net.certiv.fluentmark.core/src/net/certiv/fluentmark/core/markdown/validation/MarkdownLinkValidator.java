@@ -14,7 +14,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -26,7 +25,10 @@ import org.eclipse.jface.text.ITypedRegion;
 
 import net.certiv.fluentmark.core.FluentCore;
 import net.certiv.fluentmark.core.extensionpoints.AnchorResolversManager;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokenizer.TokenType;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownLinkTokens;
 import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownSymbolTable;
 import net.certiv.fluentmark.core.markdown.parsing.RegexMatch;
 import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitioner;
 import net.certiv.fluentmark.core.util.DocumentUtils;
@@ -75,46 +77,43 @@ public class MarkdownLinkValidator implements ITypedRegionValidator {
 
 	@Override
 	public void validateRegion(ITypedRegion region, IDocument document, IFile file) {
-		String regionContent;
+		MarkdownLinkTokens tokens;
 		try {
-			regionContent = document.get(region.getOffset(), region.getLength());
+			tokens = MarkdownLinkTokens.tokenize(document, region);
 		} catch (BadLocationException e) {
 			return;
 		}
-
-		MarkdownParsingTools.findLinksAndImages(regionContent)
-			.forEach(match -> {
-				try {
-					validateLinkStatement(region, document, file, match, regionContent);
-				} catch (Exception e) {
-					FluentCore.log(IStatus.WARNING, String.format("Could not validate statement \"%s\".", match.matchedText), e);
-				}
-		});
+		String regionContent = tokens.getText();
 		
+		// link reference definition identifiers, to check they are unique
+		Map<String,List<RegexMatch>> linkRefDefIds = new HashMap<>();
 		
-		// check link reference definition targets and identifier rules
-		MarkdownParsingTools.findLinkReferenceDefinitions(regionContent)
-			.forEach(match -> {
-				try {
-					validateLinkReferenceDefinitionStatement(region, document, file, match);
-				} catch (Exception e) {
-					FluentCore.log(IStatus.WARNING, String.format("Could not validate statement \"%s\".", match.matchedText), e);
+		for (int index = 0; index < tokens.size(); index++) {
+			TokenType type = tokens.getType(index);
+			if (type == TokenType.HEADING_ANCHOR) {
+				continue;
+			}
+			
+			RegexMatch match = tokens.toRegexMatch(index);
+			try {
+				switch (type) {
+					case INLINE_LINK, IMAGE -> validateLinkStatement(region, document, file, match, regionContent);
+					case LINK_REFERENCE_DEFINITION -> {
+						RegexMatch idMatch = match.subMatches.get(MarkdownParsingTools.CAPTURING_GROUP_LABEL);
+						linkRefDefIds.computeIfAbsent(idMatch.matchedText, id -> new ArrayList<>(2)).add(idMatch);
+						
+						// check link reference definition targets and identifier rules
+						validateLinkReferenceDefinitionStatement(region, document, file, match);
+					}
+					case FULL_OR_COLLAPSED_REFERENCE_LINK, SHORTCUT_REFERENCE_LINK -> validateReferenceLinkLabel(region, document, file, match);
+					default -> {}
 				}
-		});
+			} catch (Exception e) {
+				FluentCore.log(IStatus.WARNING, String.format("Could not validate statement \"%s\".", match.matchedText), e);
+			}
+		}
 		
 		// check link reference definition identifiers are unique
-		Map<String,List<RegexMatch>> linkRefDefIds = new HashMap<>();
-		MarkdownParsingTools.findLinkReferenceDefinitions(regionContent)
-			.map(linkRefDefMatch -> linkRefDefMatch.subMatches.get(MarkdownParsingTools.CAPTURING_GROUP_LABEL))
-			.forEach(idMatch -> {
-				List<RegexMatch> matches = linkRefDefIds.get(idMatch.matchedText);
-				if (matches == null) {
-					matches = new ArrayList<>(2);
-					linkRefDefIds.put(idMatch.matchedText, matches);
-				}
-				matches.add(idMatch);
-			});
-		
 		linkRefDefIds.keySet().stream()
 			.filter(id -> linkRefDefIds.get(id).size() > 1)
 			.forEach(id -> {
@@ -139,18 +138,6 @@ public class MarkdownLinkValidator implements ITypedRegionValidator {
 									endOffset);
 				}
 			});
-		
-		Stream.concat(
-				MarkdownParsingTools.findFullAndCollapsedReferenceLinks(regionContent),
-				MarkdownParsingTools.findShortcutReferenceLinks(regionContent))
-			.forEach(match -> {
-				try {
-					validateReferenceLinkLabel(region, document, file, match);
-				} catch (Exception e) {
-					FluentCore.log(IStatus.WARNING, String.format("Could not validate statement \"%s\".", match.matchedText), e);
-				}
-		});
-		
 	}
 	
 	protected void validateLinkStatement(ITypedRegion region, IDocument document, IFile file,
@@ -255,9 +242,7 @@ public class MarkdownLinkValidator implements ITypedRegionValidator {
 			return;
 		}
 		
-		String documentContent = document.get();
-		
-		Optional<RegexMatch> match = MarkdownParsingTools.findLinkReferenceDefinition(documentContent, linkLabel);
+		Optional<RegexMatch> match = MarkdownSymbolTable.of(document).findLinkReferenceDefinition(linkLabel);
 		if (match.isEmpty()) {
 			if (collapsedReferenceLink) {
 				// An empty full reference link looks like a collapsed reference link.
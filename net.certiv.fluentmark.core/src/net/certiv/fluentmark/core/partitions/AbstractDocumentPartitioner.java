@@ -16,22 +16,21 @@ import org.eclipse.jface.text.rules.FastPartitioner;
 import org.eclipse.jface.text.rules.IPartitionTokenScanner;
 
 
+/**
+ * Sets up documents with {@link FastPartitioner}s for one partitioning.
+ *
+ * <p>Partition scanners are stateful, thus each document partitioner gets its own scanner. Instances of
+ * this class are shared, they may set up and partition different documents in parallel.</p>
+ */
 public abstract class AbstractDocumentPartitioner implements IFluentDocumentPartitioner {
 	
-	private IPartitionTokenScanner partitionScanner;
-	
-	protected final IPartitionTokenScanner getPartitionScanner() {
-		if (partitionScanner == null) {
-			partitionScanner = createPartitionScanner();
-		}
-		return partitionScanner;
-	}
-	
 	protected final IDocumentPartitioner createDocumentPartitioner() {
-		IPartitionTokenScanner scanner = getPartitionScanner();
-		return new FastPartitioner(scanner, getLegalContentTypes());
+		return new FastPartitioner(createPartitionScanner(), getLegalContentTypes());
 	}
 	
+	/**
+	 * @return a new scanner, that is used by one document partitioner only
+	 */
 	protected abstract IPartitionTokenScanner createPartitionScanner();
 	
 	public abstract String[] getLegalContentTypes();
@@ -42,11 +41,14 @@ public abstract class AbstractDocumentPartitioner implements IFluentDocumentPart
 			throw new IllegalArgumentException();
 		}
 		
-		IDocumentPartitioner partitioner = FluentPartitioningTools.getDocumentPartitioner(document, getSupportedPartitioning());
-		
-		if (partitioner == null) {
-			partitioner = createDocumentPartitioner();
-			FluentPartitioningTools.setupDocumentPartitioner(document, partitioner, getSupportedPartitioning());
+		// don't let two threads set up (and connect) two partitioners for the same document
+		synchronized (document) {
+			IDocumentPartitioner partitioner = FluentPartitioningTools.getDocumentPartitioner(document, getSupportedPartitioning());
+			
+			if (partitioner == null) {
+				partitioner = createDocumentPartitioner();
+				FluentPartitioningTools.setupDocumentPartitioner(document, partitioner, getSupportedPartitioning());
+			}
 		}
 	}
 
@@ -9,12 +9,9 @@ package net.certiv.fluentmark.core.util;
 import java.util.ArrayList;
 import java.util.List;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import net.certiv.fluentmark.core.util.ProcessExecutor.InputWriter;
 
 public class Cmd {
 	
@@ -27,7 +24,7 @@ public class Cmd {
 	 * @param text
 	 * @return output data
 	 */
-	public static synchronized CmdResult process(String[] cmd, String base, String data) {
+	public static CmdResult process(String[] cmd, String base, String data) {
 		return process(cmd, base, data, Strings.EOL);
 	}
 
@@ -41,50 +38,38 @@ public class Cmd {
 	 * @param preferredLineEnding the preferred line ending, usually OS-dependant.
 	 * @return output data
 	 */
-	public static synchronized CmdResult process(String[] cmd, String base, String data, String preferredLineEnding) {
-		if (!preferredLineEnding.equals("\n") && !preferredLineEnding.equals("\r\n")) {
-			throw new IllegalStateException("Illegal line ending! Expected \\\\n or \\r\\n.");
-		}
-		
-		final StringBuilder sb = new StringBuilder();
-		final StringBuilder errSb = new StringBuilder();
-		final ProcessBuilder pb = new ProcessBuilder(cmd);
-		try {
-			if (base != null) {
-				pb.directory(new File(base));
-			}
-			pb.redirectErrorStream(false);
-			Process process = pb.start();
-
-			// prep for ouput from the process
-			InputStreamReader in = new InputStreamReader(process.getInputStream());
-			BufferedReader br = new BufferedReader(in);
-			
-			InputStreamReader errIn = new InputStreamReader(process.getErrorStream());
-			BufferedReader errBr = new BufferedReader(errIn);
-
-			// prep and feed input to the processs
-			if (data != null) {
-				OutputStreamWriter out = new OutputStreamWriter(process.getOutputStream());
-				BufferedWriter bw = new BufferedWriter(out);
-				bw.write(data);
-				bw.close();
-			}
-
-			// read output from the process
-			String line;
-			while ((line = br.readLine()) != null) {
-				sb.append(line + preferredLineEnding);
-			}
-			
-			while((line = errBr.readLine()) != null) {
-				errSb.append(line + preferredLineEnding);
-			}
-			
-			return new CmdResult(sb.toString(), errSb.toString());
-		} catch (IOException e) {
-			throw new RuntimeException("Cmd execution error: " + e.getMessage(), e);
-		}
+	public static CmdResult process(String[] cmd, String base, String data, String preferredLineEnding) {
+		return process(cmd, base, data, preferredLineEnding, null);
+	}
+	
+	/**
+	 * Execute a command in a subprocess. Several commands may run concurrently,
+	 * see {@link ProcessExecutor}.
+	 * 
+	 * @param cmd command line argument array defining the command and options. The command must execute
+	 *            as a standard filter: stdIn to stdOut.
+	 * @param data input data
+	 * @param preferredLineEnding the preferred line ending, usually OS-dependant.
+	 * @param monitor progress monitor, canceling it kills the subprocess; may be <code>null</code>
+	 * @return output data
+	 */
+	public static CmdResult process(String[] cmd, String base, String data, String preferredLineEnding, IProgressMonitor monitor) {
+		return ProcessExecutor.getDefault().execute(cmd, base, data, preferredLineEnding, null, monitor);
+	}
+	
+	/**
+	 * Execute a command in a subprocess, writing its input while the subprocess is already running, see
+	 * {@link ProcessExecutor}.
+	 * 
+	 * @param cmd command line argument array defining the command and options. The command must execute
+	 *            as a standard filter: stdIn to stdOut.
+	 * @param input writes the input data, e.g. part by part without joining the parts first
+	 * @param expectedOutputLength the expected output length for sizing the output buffer; 0 if unknown
+	 * @param preferredLineEnding the preferred line ending, usually OS-dependant.
+	 * @return output data
+	 */
+	public static CmdResult process(String[] cmd, String base, InputWriter input, int expectedOutputLength, String preferredLineEnding) {
+		return ProcessExecutor.getDefault().execute(cmd, base, input, expectedOutputLength, preferredLineEnding, null, null);
 	}
 	
 	public static final class CmdResult {
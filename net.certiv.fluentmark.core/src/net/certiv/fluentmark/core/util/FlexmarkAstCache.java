@@ -0,0 +1,152 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.util;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+
+import com.vladsch.flexmark.util.ast.Document;
+
+/**
+ * Cache for flexmark's ASTs of Markdown documents, shared by all consumers (e.g. refactorings,
+ * property testers), so that each document version is parsed only once.
+ *
+ * <p>ASTs of open documents are addressed by the {@link IDocument} and its modification stamp, ASTs of
+ * closed files by the {@link IFile} and its modification and local time stamps. Documents are referenced
+ * weakly and ASTs softly, so that the cache never keeps closed documents alive and gives way to memory
+ * pressure.</p>
+ *
+ * <p>Cached ASTs are shared, callers must not modify their nodes.</p>
+ */
+public class FlexmarkAstCache {
+	
+	private static final int MAX_FILE_ENTRIES = 64;
+	
+	private static FlexmarkAstCache INSTANCE = null;
+	
+	public static synchronized FlexmarkAstCache getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new FlexmarkAstCache();
+		}
+		return INSTANCE;
+	}
+	
+	private static class Entry {
+		
+		final long modificationStamp;
+		final long localTimeStamp;
+		final SoftReference<Document> markdownAst;
+		
+		Entry(long modificationStamp, long localTimeStamp, Document markdownAst) {
+			this.modificationStamp = modificationStamp;
+			this.localTimeStamp = localTimeStamp;
+			this.markdownAst = new SoftReference<>(markdownAst);
+		}
+		
+		Document get(long modificationStamp, long localTimeStamp) {
+			if (this.modificationStamp != modificationStamp || this.localTimeStamp != localTimeStamp) {
+				return null;
+			}
+			return markdownAst.get();
+		}
+	}
+	
+	private final Map<IDocument, Entry> documentAsts = new WeakHashMap<>();
+	private final Map<IFile, Entry> fileAsts = new LinkedHashMap<>(16, 0.75f, true);
+	
+	private FlexmarkAstCache() {
+	}
+	
+	/**
+	 * Returns the AST of the document's current version, parsing the document only if there is no AST
+	 * of that version yet.
+	 */
+	public Document get(IDocument document) {
+		if (document == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		long modificationStamp = getModificationStamp(document);
+		if (modificationStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			return FlexmarkUtil.parseMarkdown(document.get());
+		}
+		
+		synchronized (documentAsts) {
+			Entry entry = documentAsts.get(document);
+			Document markdownAst = entry != null ? entry.get(modificationStamp, 0) : null;
+			if (markdownAst != null) {
+				return markdownAst;
+			}
+		}
+		
+		Document markdownAst = FlexmarkUtil.parseMarkdown(document.get());
+		
+		// do not cache the AST of an outdated document version
+		if (getModificationStamp(document) == modificationStamp) {
+			synchronized (documentAsts) {
+				documentAsts.put(document, new Entry(modificationStamp, 0, markdownAst));
+			}
+		}
+		return markdownAst;
+	}
+	
+	/**
+	 * Returns the AST of the file's current contents on disk, reading and parsing the file only if it was
+	 * modified since it was parsed last time. Use {@link #get(IDocument)} for files opened in an editor.
+	 */
+	public Document get(IFile file) {
+		if (file == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		long modificationStamp = file.getModificationStamp();
+		long localTimeStamp = file.getLocalTimeStamp();
+		if (modificationStamp == IResource.NULL_STAMP || localTimeStamp == IResource.NULL_STAMP) {
+			return FlexmarkUtil.parseMarkdown(FileUtils.readFileContents(file));
+		}
+		
+		synchronized (fileAsts) {
+			Entry entry = fileAsts.get(file);
+			Document markdownAst = entry != null ? entry.get(modificationStamp, localTimeStamp) : null;
+			if (markdownAst != null) {
+				return markdownAst;
+			}
+		}
+		
+		Document markdownAst = FlexmarkUtil.parseMarkdown(FileUtils.readFileContents(file));
+		
+		// do not cache the AST if the file was modified while reading it
+		if (file.getModificationStamp() == modificationStamp && file.getLocalTimeStamp() == localTimeStamp) {
+			synchronized (fileAsts) {
+				fileAsts.put(file, new Entry(modificationStamp, localTimeStamp, markdownAst));
+				fileAsts.values().removeIf(entry -> entry.markdownAst.get() == null);
+				while (fileAsts.size() > MAX_FILE_ENTRIES) {
+					fileAsts.remove(fileAsts.keySet().iterator().next());
+				}
+			}
+		}
+		return markdownAst;
+	}
+	
+	private static long getModificationStamp(IDocument document) {
+		if (document instanceof IDocumentExtension4 extension) {
+			return extension.getModificationStamp();
+		}
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Sorted map from <code>int</code> keys to <code>int</code> values that finds the entry with the largest
+ * key less than or equal to a given key (the floor entry), e.g. the line containing a document offset.
+ *
+ * <p>Keys and values are kept in sorted primitive arrays, so lookups are binary searches that do not
+ * allocate any objects. Adding keys in ascending order (as when reading lines one after another) is
+ * amortized constant time.</p>
+ */
+public class FloorIndex {
+	
+	public static final int NOT_FOUND = -1;
+	
+	private int[] keys;
+	private int[] values;
+	private int size = 0;
+	
+	public FloorIndex() {
+		this(16);
+	}
+	
+	public FloorIndex(int capacity) {
+		keys = new int[Math.max(capacity, 1)];
+		values = new int[keys.length];
+	}
+	
+	/**
+	 * Adds the given entry, replacing the value of an existing entry with the same key.
+	 */
+	public void put(int key, int value) {
+		if (size > 0 && key <= keys[size - 1]) {
+			int pos = Arrays.binarySearch(keys, 0, size, key);
+			if (pos >= 0) {
+				values[pos] = value;
+				return;
+			}
+			insert(-pos - 1, key, value);
+		} else {
+			insert(size, key, value);
+		}
+	}
+	
+	/** For when used just as a floor key set */
+	public void add(int key) {
+		put(key, 0);
+	}
+	
+	/**
+	 * Returns the largest key, currently existing in the index, that is less than or equal to the given
+	 * key, or {@link #NOT_FOUND} if there is no such key.
+	 */
+	public int floorKey(int key) {
+		int pos = floorPosition(key);
+		return pos >= 0 ? keys[pos] : NOT_FOUND;
+	}
+	
+	/**
+	 * Returns the value of the largest key, currently existing in the index, that is less than or equal
+	 * to the given key, or the given default value if there is no such key.
+	 */
+	public int floorValue(int key, int defaultValue) {
+		int pos = floorPosition(key);
+		return pos >= 0 ? values[pos] : defaultValue;
+	}
+	
+	/**
+	 * Returns the smallest key, currently existing in the index, that is greater than the given key, or
+	 * {@link #NOT_FOUND} if there is no such key.
+	 */
+	public int higherKey(int key) {
+		int pos = floorPosition(key) + 1;
+		return pos < size ? keys[pos] : NOT_FOUND;
+	}
+	
+	/**
+	 * Returns a copy of all keys in ascending order.
+	 */
+	public int[] keys() {
+		return Arrays.copyOf(keys, size);
+	}
+	
+	/**
+	 * Adds the given delta to all keys, keeping their order.
+	 */
+	public void shiftKeys(int delta) {
+		for (int pos = 0; pos < size; pos++) {
+			keys[pos] += delta;
+		}
+	}
+	
+	public boolean containsKey(int key) {
+		return Arrays.binarySearch(keys, 0, size, key) >= 0;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public void clear() {
+		size = 0;
+	}
+	
+	// position of the floor entry, or -1 if all keys are greater than the given key
+	private int floorPosition(int key) {
+		int pos = Arrays.binarySearch(keys, 0, size, key);
+		return pos >= 0 ? pos : -pos - 2;
+	}
+	
+	private void insert(int pos, int key, int value) {
+		if (size == keys.length) {
+			int capacity = keys.length * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+		System.arraycopy(values, pos, values, pos + 1, size - pos);
+		keys[pos] = key;
+		values[pos] = value;
+		size++;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int pos = 0; pos < size; pos++) {
+			if (pos > 0) sb.append(", ");
+			sb.append(keys[pos]).append('=').append(values[pos]);
+		}
+		return sb.append('}').toString();
+	}
+
+}
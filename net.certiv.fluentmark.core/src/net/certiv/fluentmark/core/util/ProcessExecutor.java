@@ -0,0 +1,378 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import net.certiv.fluentmark.core.util.Cmd.CmdResult;
+
+/**
+ * Runs external processes (like dot or pandoc) that act as standard filters: stdIn to stdOut.
+ *
+ * <p>Several processes may run at the same time, up to a configurable limit. The process input is
+ * written and the process' standard and error outputs are read in separate threads, so that a process
+ * never blocks on a full pipe. Processes are killed if they exceed their time limit, if the given
+ * progress monitor is canceled, or if the returned future is canceled.</p>
+ */
+public class ProcessExecutor {
+	
+	/**
+	 * System property to set the maximum number of concurrently running processes of the default executor.
+	 */
+	public static final String PROPERTY_MAX_PROCESSES = "net.certiv.fluentmark.core.maxProcesses";
+	
+	private static final long POLLING_INTERVAL_MILLIS = 50;
+	private static final int DRAIN_BUFFER_SIZE = 8192;
+	private static final long NO_DEADLINE = Long.MAX_VALUE;
+	
+	private static ProcessExecutor INSTANCE = null;
+	
+	public static synchronized ProcessExecutor getDefault() {
+		if (INSTANCE == null) {
+			INSTANCE = new ProcessExecutor(getDefaultMaxProcesses());
+		}
+		return INSTANCE;
+	}
+	
+	/**
+	 * Writes the input of a process, e.g. part by part as the parts become available, instead of passing
+	 * all of the input as one string.
+	 */
+	@FunctionalInterface
+	public interface InputWriter {
+		
+		void write(Writer processInput) throws IOException;
+	}
+	
+	private static int getDefaultMaxProcesses() {
+		int defaultMaxProcesses = Math.max(2, Runtime.getRuntime().availableProcessors());
+		try {
+			return Integer.getInteger(PROPERTY_MAX_PROCESSES, defaultMaxProcesses);
+		} catch (SecurityException e) {
+			return defaultMaxProcesses;
+		}
+	}
+	
+	private final ExecutorService threads;
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition processFinished = lock.newCondition();
+	private int maxProcesses;
+	private int runningProcesses = 0;
+	
+	public ProcessExecutor(int maxProcesses) {
+		setMaxProcesses(maxProcesses);
+		
+		AtomicInteger threadCount = new AtomicInteger();
+		this.threads = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "FluentMark process executor " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	public int getMaxProcesses() {
+		lock.lock();
+		try {
+			return maxProcesses;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Changes the maximum number of concurrently running processes. Running processes are not affected.
+	 */
+	public void setMaxProcesses(int maxProcesses) {
+		if (maxProcesses < 1) {
+			throw new IllegalArgumentException();
+		}
+		
+		lock.lock();
+		try {
+			this.maxProcesses = maxProcesses;
+			processFinished.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Execute a command in a subprocess and wait for its result.
+	 *
+	 * @param cmd command line argument array defining the command and options. The command must execute
+	 *            as a standard filter: stdIn to stdOut.
+	 * @param base the working directory or <code>null</code>
+	 * @param data input data or <code>null</code>
+	 * @param preferredLineEnding the preferred line ending, usually OS-dependant.
+	 * @param timeout maximum execution time or <code>null</code> for no limit
+	 * @param monitor progress monitor for cancellation or <code>null</code>
+	 * @return output data
+	 * @throws OperationCanceledException if the monitor was canceled
+	 * @throws RuntimeException if the process could not be executed or exceeded its time limit
+	 */
+	public CmdResult execute(String[] cmd, String base, String data, String preferredLineEnding,
+			Duration timeout, IProgressMonitor monitor) {
+		return execute(cmd, base, toInputWriter(data), 0, preferredLineEnding, timeout, monitor);
+	}
+	
+	/**
+	 * Execute a command in a subprocess and wait for its result. The input is written while the process
+	 * is running and its output is read concurrently, so that neither needs to be copied into an
+	 * intermediate buffer.
+	 *
+	 * @param cmd command line argument array defining the command and options. The command must execute
+	 *            as a standard filter: stdIn to stdOut.
+	 * @param base the working directory or <code>null</code>
+	 * @param input writes the input data, or <code>null</code> for no input
+	 * @param expectedOutputLength the expected number of characters written to stdOut, used for sizing the
+	 *            output buffer; 0 if unknown
+	 * @param preferredLineEnding the preferred line ending, usually OS-dependant.
+	 * @param timeout maximum execution time or <code>null</code> for no limit
+	 * @param monitor progress monitor for cancellation or <code>null</code>
+	 * @return output data
+	 * @throws OperationCanceledException if the monitor was canceled
+	 * @throws RuntimeException if the process could not be executed or exceeded its time limit
+	 */
+	public CmdResult execute(String[] cmd, String base, InputWriter input, int expectedOutputLength,
+			String preferredLineEnding, Duration timeout, IProgressMonitor monitor) {
+		CompletableFuture<CmdResult> result = submit(cmd, base, input, expectedOutputLength, preferredLineEnding, timeout, monitor);
+		
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (CancellationException e) {
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof OperationCanceledException) {
+				throw (OperationCanceledException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException("Cmd execution error: " + cause.getMessage(), cause);
+		}
+	}
+	
+	/**
+	 * Execute a command in a subprocess without waiting for its result.
+	 *
+	 * @param cmd command line argument array defining the command and options. The command must execute
+	 *            as a standard filter: stdIn to stdOut.
+	 * @param base the working directory or <code>null</code>
+	 * @param data input data or <code>null</code>
+	 * @param preferredLineEnding the preferred line ending, usually OS-dependant.
+	 * @param timeout maximum execution time or <code>null</code> for no limit
+	 * @param monitor progress monitor for cancellation or <code>null</code>
+	 * @return the future output data; canceling the future kills the process
+	 */
+	public CompletableFuture<CmdResult> submit(String[] cmd, String base, String data, String preferredLineEnding,
+			Duration timeout, IProgressMonitor monitor) {
+		return submit(cmd, base, toInputWriter(data), 0, preferredLineEnding, timeout, monitor);
+	}
+	
+	/**
+	 * Execute a command in a subprocess without waiting for its result.
+	 *
+	 * @param input writes the input data, or <code>null</code> for no input
+	 * @param expectedOutputLength the expected number of characters written to stdOut; 0 if unknown
+	 * @return the future output data; canceling the future kills the process
+	 * @see #execute(String[], String, InputWriter, int, String, Duration, IProgressMonitor)
+	 */
+	public CompletableFuture<CmdResult> submit(String[] cmd, String base, InputWriter input, int expectedOutputLength,
+			String preferredLineEnding, Duration timeout, IProgressMonitor monitor) {
+		if (cmd == null || cmd.length == 0 || expectedOutputLength < 0) {
+			throw new IllegalArgumentException();
+		}
+		if (!"\n".equals(preferredLineEnding) && !"\r\n".equals(preferredLineEnding)) {
+			throw new IllegalStateException("Illegal line ending! Expected \\\\n or \\r\\n.");
+		}
+		
+		long deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : NO_DEADLINE;
+		
+		CompletableFuture<CmdResult> result = new CompletableFuture<>();
+		threads.execute(() -> {
+			try {
+				result.complete(run(cmd, base, input, expectedOutputLength, preferredLineEnding, deadline, monitor, result));
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+	
+	private static InputWriter toInputWriter(String data) {
+		return data != null ? processInput -> processInput.write(data) : null;
+	}
+	
+	private CmdResult run(String[] cmd, String base, InputWriter input, int expectedOutputLength,
+			String preferredLineEnding, long deadline, IProgressMonitor monitor, CompletableFuture<CmdResult> result) throws Exception {
+		
+		acquireProcessSlot(deadline, monitor, result);
+		try {
+			ProcessBuilder pb = new ProcessBuilder(cmd);
+			if (base != null) {
+				pb.directory(new File(base));
+			}
+			pb.redirectErrorStream(false);
+			
+			Process process;
+			try {
+				process = pb.start();
+			} catch (IOException e) {
+				throw new RuntimeException("Cmd execution error: " + e.getMessage(), e);
+			}
+			
+			try {
+				// drain both outputs concurrently, a process blocks as soon as one of its pipes is full
+				CompletableFuture<String> stdOutput = drain(process.getInputStream(), preferredLineEnding, expectedOutputLength);
+				CompletableFuture<String> errOutput = drain(process.getErrorStream(), preferredLineEnding, 0);
+				CompletableFuture<Void> inputWritten = feed(process, input);
+				
+				awaitTermination(process, deadline, monitor, result);
+				
+				inputWritten.join();
+				return new CmdResult(stdOutput.join(), errOutput.join());
+			} catch (CompletionException e) {
+				throw new RuntimeException("Cmd execution error: " + e.getCause().getMessage(), e.getCause());
+			} finally {
+				if (process.isAlive()) {
+					process.destroyForcibly();
+				}
+			}
+		} finally {
+			releaseProcessSlot();
+		}
+	}
+	
+	private void acquireProcessSlot(long deadline, IProgressMonitor monitor, CompletableFuture<CmdResult> result)
+			throws InterruptedException, TimeoutException {
+		lock.lock();
+		try {
+			while (runningProcesses >= maxProcesses) {
+				checkCanceledOrTimedOut(deadline, monitor, result);
+				processFinished.await(POLLING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+			}
+			runningProcesses++;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	private void releaseProcessSlot() {
+		lock.lock();
+		try {
+			runningProcesses--;
+			processFinished.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	private void awaitTermination(Process process, long deadline, IProgressMonitor monitor,
+			CompletableFuture<CmdResult> result) throws InterruptedException, TimeoutException {
+		while (!process.waitFor(POLLING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+			checkCanceledOrTimedOut(deadline, monitor, result);
+		}
+	}
+	
+	private void checkCanceledOrTimedOut(long deadline, IProgressMonitor monitor, CompletableFuture<CmdResult> result)
+			throws TimeoutException {
+		if (result.isCancelled() || (monitor != null && monitor.isCanceled())) {
+			throw new OperationCanceledException();
+		}
+		if (deadline != NO_DEADLINE && System.nanoTime() - deadline > 0) {
+			throw new TimeoutException("Cmd execution exceeded its time limit.");
+		}
+	}
+	
+	/**
+	 * Reads the stream into a buffer of the expected size, terminating each line (including the last one)
+	 * with the preferred line ending.
+	 */
+	private CompletableFuture<String> drain(InputStream stream, String preferredLineEnding, int expectedLength) {
+		return CompletableFuture.supplyAsync(() -> {
+			StringBuilder sb = new StringBuilder(Math.max(expectedLength, 16));
+			char[] buffer = new char[DRAIN_BUFFER_SIZE];
+			boolean afterCarriageReturn = false;
+			boolean inLine = false;
+			
+			try (Reader reader = new InputStreamReader(stream)) {
+				int count;
+				while ((count = reader.read(buffer)) >= 0) {
+					int lineStart = 0;
+					for (int index = 0; index < count; index++) {
+						char c = buffer[index];
+						if (c == '\n' || c == '\r') {
+							sb.append(buffer, lineStart, index - lineStart);
+							// "\r\n" is a single line ending
+							if (c == '\r' || !afterCarriageReturn) {
+								sb.append(preferredLineEnding);
+							}
+							afterCarriageReturn = c == '\r';
+							inLine = false;
+							lineStart = index + 1;
+						} else {
+							afterCarriageReturn = false;
+							inLine = true;
+						}
+					}
+					sb.append(buffer, lineStart, count - lineStart);
+				}
+				
+				if (inLine) {
+					sb.append(preferredLineEnding);
+				}
+			} catch (IOException e) {
+				// the stream is closed if the process was killed, return what we have read so far
+			}
+			return sb.toString();
+		}, threads);
+	}
+	
+	private CompletableFuture<Void> feed(Process process, InputWriter input) {
+		return CompletableFuture.runAsync(() -> {
+			try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()))) {
+				if (input != null) {
+					input.write(bw);
+				}
+			} catch (IOException e) {
+				// the process may exit without reading all of its input, e.g. "dot -V"
+			}
+		}, threads);
+	}
+
+}
@@ -24,7 +24,7 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.text.IDocument;
 
 import net.certiv.fluentmark.core.FluentCore;
-import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownSymbolTable;
 import net.certiv.fluentmark.core.util.DocumentUtils;
 import net.certiv.fluentmark.core.util.FileUtils;
 
@@ -57,6 +57,10 @@ public class FilePathValidator implements IValidationResultReporter {
 		
 		IPath resourceRelativePath = new Path(path);
 		
+		// remember the link, even if its target is missing, so that adding or changing the target re-validates this file
+		LinkIndex.getInstance().addLink(currentFile, FileUtils.toAbsolutePath(resourceRelativePath, currentFile),
+				fragment != null && !fragment.isBlank());
+		
 		boolean fileExists = checkFileExists(resourceRelativePath, currentFile, lineNumber, offset, endOffset);
 		
 		// check fragment if file exists
@@ -138,23 +142,23 @@ public class FilePathValidator implements IValidationResultReporter {
 	}
 	
 	private void checkSectionAnchorExists(String sectionAnchor, IDocument currentDocument, IFile currentFile, int lineNumber, int offset, int endOffset) throws CoreException {
-		String markdownFileContent = currentDocument.get();
+		Set<String> anchors = MarkdownSymbolTable.of(currentDocument).getValidSectionAnchors();
 		
-		checkSectionAnchorExists(sectionAnchor, markdownFileContent, currentFile, lineNumber, offset, endOffset);
+		checkSectionAnchorExists(sectionAnchor, anchors, currentFile, lineNumber, offset, endOffset);
 	}
 	
 	private void checkSectionAnchorExists(IPath targetFileWithAnchor, String sectionAnchor, IFile currentFile, int lineNumber, int offset, int endOffset) throws CoreException {
 		IPath absolutePath = FileUtils.toAbsolutePath(targetFileWithAnchor, currentFile);
-		File file = absolutePath.toFile();
-		String mdFileContent = readTextFromFile(file);
 		
-		if (mdFileContent != null) {
-			checkSectionAnchorExists(sectionAnchor, mdFileContent, currentFile, lineNumber, offset, endOffset);
+		// the index only re-reads the target file if it was modified since the last look-up
+		Set<String> anchors = LinkIndex.getInstance().getSectionAnchors(absolutePath);
+		
+		if (anchors != null) {
+			checkSectionAnchorExists(sectionAnchor, anchors, currentFile, lineNumber, offset, endOffset);
 		}
 	}
 	
-	private void checkSectionAnchorExists(String sectionAnchor, String markdownFileContent, IFile currentFile, int lineNumber, int offset, int endOffset) throws CoreException {
-		Set<String> anchors = MarkdownParsingTools.findValidSectionAnchorsInMarkdownCode(markdownFileContent);
+	private void checkSectionAnchorExists(String sectionAnchor, Set<String> anchors, IFile currentFile, int lineNumber, int offset, int endOffset) throws CoreException {
 		if (anchors.contains(sectionAnchor)) {
 			// we found the target, no need to report issues
 			return;
@@ -210,15 +214,6 @@ public class FilePathValidator implements IValidationResultReporter {
 		}
 	}
 	
-	private String readTextFromFile(File file) {
-		try {
-			return FileUtils.readTextFromFile(file);
-		} catch (Exception e) {
-			FluentCore.log(IStatus.WARNING, String.format("Could not read Markdown file '%s'", file.getAbsolutePath()), e);
-			return null;
-		}
-	}
-	
 	private String getWorkspacePathFromEnvVariable() {
 		if (this.workspacePath == null) {
 			try {
@@ -79,6 +79,20 @@ public class FileValidator {
 			return;
 		}
 		
+		validationResultConsumer.beginValidation(file);
+		boolean completed = false;
+		try {
+			validate(document, file, monitor);
+			completed = !monitor.isCanceled();
+		} finally {
+			validationResultConsumer.endValidation(file, completed);
+		}
+	}
+	
+	private void validate(IDocument document, IFile file, IProgressMonitor monitor) {
+		// The file validation re-collects the file's links
+		LinkIndex.getInstance().removeLinksOf(file);
+		
 		// The file could have been deleted / moved after scheduling the marker calculation
 		if (!file.exists()) {
 			return;
@@ -97,7 +111,7 @@ public class FileValidator {
 				return;
 			}
 			
-			IDocument newDocument = readFile(file);
+			IDocument newDocument = readDocument(file);
 			
 			if (newDocument == null) {
 				return;
@@ -151,7 +165,7 @@ public class FileValidator {
 		}
 	}
 	
-	private IDocument readFile(IFile file) {
+	public static IDocument readDocument(IFile file) {
 		try {
 			String fileContents = FileUtils.readFileContents(file);
 			return new Document(fileContents);
@@ -196,9 +210,13 @@ public class FileValidator {
 		
 		IFluentDocumentPartitioner partitioner = partitonerOpt.get();
 		
-		// TODO can we check if the partitioner we need is already set up?
-		partitioner.setupDocumentPartitioner(document);
-		return partitioner.computePartitioning(document);
+		// Each document gets its own partition scanner, thus different documents may be partitioned in parallel,
+		// but the same document (e.g. an editor's document validated by two jobs) must be partitioned by one thread at a time.
+		synchronized (document) {
+			// TODO can we check if the partitioner we need is already set up?
+			partitioner.setupDocumentPartitioner(document);
+			return partitioner.computePartitioning(document);
+		}
 	}
 
 }
@@ -9,11 +9,43 @@
  */
 package net.certiv.fluentmark.core.validation;
 
+import java.util.List;
+
 import org.eclipse.core.resources.IFile;
 
 public interface IValidationResultConsumer {
 	
 	void reportValidationResult(IFile file, String issueTypeId, int issueSeverity, String message,
 			Integer issueLineNumber, Integer issueStartOffset, Integer issueEndOffset);
+	
+	/**
+	 * Reports several results at once, e.g. results that were determined asynchronously after the
+	 * validation of their files ended. Consumers may override this method to handle the results more
+	 * efficiently than one by one.
+	 */
+	default void reportValidationResults(List<ValidationResult> results) {
+		for (ValidationResult result : results) {
+			reportValidationResult(result.file, result.issueTypeId, result.issueSeverity, result.message,
+					result.issueLineNumber, result.issueStartOffset, result.issueEndOffset);
+		}
+	}
+	
+	/**
+	 * Called before the given file is validated. Consumers may buffer the results reported for the file
+	 * until {@link #endValidation(IFile, boolean)} is called.
+	 */
+	default void beginValidation(IFile file) {
+		// Do nothing by default
+	}
+	
+	/**
+	 * Called after the given file was validated, even if the validation failed or was canceled.
+	 * 
+	 * @param completed <code>true</code> if all results of the file's validation were reported,
+	 *                  <code>false</code> if the validation was canceled or failed
+	 */
+	default void endValidation(IFile file, boolean completed) {
+		// Do nothing by default
+	}
 
 }
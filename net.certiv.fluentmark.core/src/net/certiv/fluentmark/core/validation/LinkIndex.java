@@ -0,0 +1,529 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+
+import net.certiv.fluentmark.core.FluentCore;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+import net.certiv.fluentmark.core.util.FileUtils;
+
+/**
+ * Workspace-wide index of the links between files and of the section anchors defined in Markdown files.
+ *
+ * <p>The links are recorded while validating files and tell incremental builds which files have to be
+ * re-validated when a link target is changed, added, or removed. The section anchors are read once per
+ * file modification, so that checking a link's fragment becomes a lookup instead of reading and parsing
+ * the target file.</p>
+ *
+ * <p>The index follows resource deltas and is saved to the plug-in's state location with each full
+ * workspace save, together with the projects that are indexed. Thus, it matches the saved states of the
+ * workspace and of its builders. After a restart, the index follows the resource deltas since it was saved
+ * and indexed projects are built incrementally. The saved index is deleted while loading it, so that it is
+ * discarded after a crash. Without a saved index, the first build of each project is a full build.</p>
+ */
+public class LinkIndex implements IResourceChangeListener, ISaveParticipant {
+	
+	private static final String INDEX_FILE_NAME = "link-index";
+	private static final int INDEX_FORMAT_VERSION = 3;
+	
+	private static LinkIndex INSTANCE = null;
+	
+	public static synchronized LinkIndex getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new LinkIndex();
+			try {
+				IWorkspace workspace = ResourcesPlugin.getWorkspace();
+				ISavedState savedState = workspace.addSaveParticipant(FluentCore.PLUGIN_ID, INSTANCE);
+				INSTANCE.load(savedState);
+				workspace.addResourceChangeListener(INSTANCE, IResourceChangeEvent.POST_CHANGE);
+				if (savedState != null) {
+					// follow the resource changes since the index was saved
+					savedState.processResourceChangeEvents(INSTANCE);
+				}
+			} catch (IllegalStateException e) {
+				// no workspace, e.g. when running benchmarks outside of Eclipse, there are no resource changes to follow
+			} catch (CoreException e) {
+				FluentCore.log(IStatus.WARNING, "Could not restore link index. It will be re-built with the next full build.", e);
+			}
+		}
+		return INSTANCE;
+	}
+	
+	/**
+	 * Stops following resource changes. The index was saved by the last full workspace save already.
+	 */
+	public static synchronized void shutdown() {
+		if (INSTANCE == null) {
+			return;
+		}
+		
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.removeResourceChangeListener(INSTANCE);
+		workspace.removeSaveParticipant(FluentCore.PLUGIN_ID);
+		INSTANCE = null;
+	}
+	
+	private static class SectionAnchors {
+		
+		final long lastModified;
+		final long length;
+		final Set<String> anchors;
+		
+		SectionAnchors(long lastModified, long length, Set<String> anchors) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.anchors = anchors;
+		}
+		
+		boolean isUpToDate(File file) {
+			return file.lastModified() == lastModified && file.length() == length;
+		}
+	}
+	
+	// for each link source file: the link targets and whether at least one of the links to that target has a fragment (anchor)
+	private final Map<IFile, Map<IPath, Boolean>> sourceToTargets = new HashMap<>();
+	private final Map<IPath, Set<IFile>> targetToSources = new HashMap<>();
+	private final Map<IPath, SectionAnchors> sectionAnchors = new HashMap<>();
+	private final Set<IPath> locationsWithChangedAnchors = new HashSet<>();
+	private final Set<String> indexedProjects = new HashSet<>();
+	
+	LinkIndex() {
+	}
+	
+	public synchronized void addLink(IFile sourceFile, IPath targetLocation, boolean withFragment) {
+		if (sourceFile == null || targetLocation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		IPath target = normalize(targetLocation);
+		
+		sourceToTargets.computeIfAbsent(sourceFile, file -> new LinkedHashMap<>())
+			.merge(target, withFragment, Boolean::logicalOr);
+		targetToSources.computeIfAbsent(target, path -> new LinkedHashSet<>()).add(sourceFile);
+	}
+	
+	public synchronized void removeLinksOf(IFile sourceFile) {
+		if (sourceFile == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Map<IPath, Boolean> targets = sourceToTargets.remove(sourceFile);
+		if (targets == null) {
+			return;
+		}
+		
+		for (IPath target : targets.keySet()) {
+			Set<IFile> sources = targetToSources.get(target);
+			if (sources != null) {
+				sources.remove(sourceFile);
+				if (sources.isEmpty()) {
+					targetToSources.remove(target);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return all files with at least one link to the given file or directory location
+	 */
+	public synchronized Set<IFile> getFilesLinkingTo(IPath targetLocation) {
+		if (targetLocation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Set<IFile> sources = targetToSources.get(normalize(targetLocation));
+		if (sources == null) {
+			return Collections.emptySet();
+		}
+		return new LinkedHashSet<>(sources);
+	}
+	
+	/**
+	 * @return all files with at least one link to an anchor in the given file location
+	 */
+	public synchronized Set<IFile> getFilesLinkingToAnchorsIn(IPath targetLocation) {
+		if (targetLocation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		IPath target = normalize(targetLocation);
+		Set<IFile> sources = targetToSources.get(target);
+		if (sources == null) {
+			return Collections.emptySet();
+		}
+		
+		Set<IFile> sourcesWithFragments = new LinkedHashSet<>();
+		for (IFile source : sources) {
+			if (sourceToTargets.get(source).get(target)) {
+				sourcesWithFragments.add(source);
+			}
+		}
+		return sourcesWithFragments;
+	}
+	
+	/**
+	 * Finds the files that have to be re-validated after the given changes, i.e. the changed files, all
+	 * files linking to added or removed files, and all files linking to anchors in changed files (unless
+	 * the anchors of a changed Markdown file are known to be unchanged).
+	 *
+	 * @param changedFiles files that were added or changed
+	 * @param addedOrRemovedLocations absolute paths of added or removed files and directories
+	 * @param changedLocations absolute paths of changed files
+	 */
+	public Set<IFile> getFilesToRevalidate(Collection<IFile> changedFiles, Collection<IPath> addedOrRemovedLocations,
+			Collection<IPath> changedLocations) {
+		if (changedFiles == null || addedOrRemovedLocations == null || changedLocations == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Set<IFile> filesToValidate = new LinkedHashSet<>(changedFiles);
+		for (IPath location : addedOrRemovedLocations) {
+			filesToValidate.addAll(getFilesLinkingTo(location));
+		}
+		
+		for (IPath location : changedLocations) {
+			if (FileUtils.FILE_EXTENSION_MARKDOWN.equalsIgnoreCase(location.getFileExtension())
+					&& !updateSectionAnchors(location)) {
+				continue;
+			}
+			filesToValidate.addAll(getFilesLinkingToAnchorsIn(location));
+		}
+		
+		return filesToValidate;
+	}
+	
+	/**
+	 * Looks up the valid section anchors defined in the given Markdown file.
+	 * The file is only read if it was modified since the anchors were looked up the last time.
+	 *
+	 * @param markdownFileLocation absolute path of a Markdown file
+	 * @return the file's valid section anchors or <code>null</code> if the file cannot be read
+	 */
+	public Set<String> getSectionAnchors(IPath markdownFileLocation) {
+		if (markdownFileLocation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		IPath location = normalize(markdownFileLocation);
+		File file = location.toFile();
+		
+		synchronized (this) {
+			SectionAnchors entry = sectionAnchors.get(location);
+			if (entry != null && entry.isUpToDate(file)) {
+				return entry.anchors;
+			}
+		}
+		
+		SectionAnchors entry = readSectionAnchors(file);
+		if (entry == null) {
+			return null;
+		}
+		
+		synchronized (this) {
+			SectionAnchors previousEntry = sectionAnchors.put(location, entry);
+			if (previousEntry == null || !previousEntry.anchors.equals(entry.anchors)) {
+				locationsWithChangedAnchors.add(location);
+			}
+		}
+		return entry.anchors;
+	}
+	
+	/**
+	 * Brings the section anchors of the given Markdown file up to date and tells whether they changed
+	 * since this method was called for the same file the last time.
+	 *
+	 * @param markdownFileLocation absolute path of a Markdown file
+	 * @return <code>true</code> if the file's anchors might have been changed, <code>false</code> if they are known to be unchanged
+	 */
+	public boolean updateSectionAnchors(IPath markdownFileLocation) {
+		if (markdownFileLocation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		IPath location = normalize(markdownFileLocation);
+		if (getSectionAnchors(location) == null) {
+			return true;
+		}
+		
+		synchronized (this) {
+			return locationsWithChangedAnchors.remove(location);
+		}
+	}
+	
+	public synchronized boolean isIndexed(IProject project) {
+		return indexedProjects.contains(project.getName());
+	}
+	
+	public synchronized void setIndexed(IProject project, boolean indexed) {
+		if (indexed) {
+			indexedProjects.add(project.getName());
+		} else {
+			indexedProjects.remove(project.getName());
+		}
+	}
+	
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		
+		try {
+			delta.accept(resourceDelta -> {
+				IResource resource = resourceDelta.getResource();
+				
+				if (resourceDelta.getKind() == IResourceDelta.REMOVED) {
+					if (resource instanceof IProject) {
+						setIndexed((IProject) resource, false);
+					}
+					if (resource instanceof IFile) {
+						removeLinksOf((IFile) resource);
+						removeSectionAnchors(resource.getLocation());
+					}
+					return true;
+				}
+				
+				if (resource instanceof IProject
+						&& (resourceDelta.getFlags() & IResourceDelta.OPEN) != 0
+						&& !resource.isAccessible()) {
+					// closed projects need a full build after re-opening them
+					setIndexed((IProject) resource, false);
+				}
+				
+				return true;
+			});
+		} catch (CoreException e) {
+			FluentCore.log(IStatus.WARNING, "Could not update link index.", e);
+		}
+	}
+	
+	private synchronized void removeSectionAnchors(IPath location) {
+		if (location != null) {
+			IPath normalizedLocation = normalize(location);
+			sectionAnchors.remove(normalizedLocation);
+			locationsWithChangedAnchors.remove(normalizedLocation);
+		}
+	}
+	
+	private SectionAnchors readSectionAnchors(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		
+		long lastModified = file.lastModified();
+		long length = file.length();
+		
+		try {
+			String markdownFileContent = FileUtils.readTextFromFile(file);
+			if (markdownFileContent == null) {
+				return null;
+			}
+			
+			Set<String> anchors = MarkdownParsingTools.findValidSectionAnchorsInMarkdownCode(markdownFileContent);
+			return new SectionAnchors(lastModified, length, Collections.unmodifiableSet(anchors));
+		} catch (Exception e) {
+			FluentCore.log(IStatus.WARNING, String.format("Could not read Markdown file '%s'", file.getAbsolutePath()), e);
+			return null;
+		}
+	}
+	
+	private IPath normalize(IPath location) {
+		// links to directories may or may not end with a slash, but both point to the same target
+		return location.removeTrailingSeparator();
+	}
+	
+	@Override
+	public void prepareToSave(ISaveContext context) throws CoreException {
+		// Nothing to prepare
+	}
+	
+	@Override
+	public void saving(ISaveContext context) throws CoreException {
+		// snapshots are not saved, thus the index is discarded after a crash
+		if (context.getKind() != ISaveContext.FULL_SAVE) {
+			return;
+		}
+		
+		File indexFile = getIndexFile(context.getSaveNumber());
+		if (indexFile != null && save(indexFile)) {
+			context.map(new Path(INDEX_FILE_NAME), new Path(indexFile.getName()));
+		} else {
+			context.map(new Path(INDEX_FILE_NAME), null);
+		}
+		context.needSaveNumber();
+		context.needDelta();
+	}
+	
+	@Override
+	public void doneSaving(ISaveContext context) {
+		if (context.getKind() == ISaveContext.FULL_SAVE) {
+			deleteIndexFile(context.getPreviousSaveNumber());
+		}
+	}
+	
+	@Override
+	public void rollback(ISaveContext context) {
+		if (context.getKind() == ISaveContext.FULL_SAVE) {
+			deleteIndexFile(context.getSaveNumber());
+		}
+	}
+	
+	private File getIndexFile(int saveNumber) {
+		IPath stateLocation = FluentCore.getStateLocation();
+		if (stateLocation == null) {
+			return null;
+		}
+		return stateLocation.append(INDEX_FILE_NAME + "-" + saveNumber + ".dat").toFile();
+	}
+	
+	private void deleteIndexFile(int saveNumber) {
+		File indexFile = getIndexFile(saveNumber);
+		if (indexFile != null) {
+			indexFile.delete();
+		}
+	}
+	
+	private void load(ISavedState savedState) {
+		IPath stateLocation = FluentCore.getStateLocation();
+		if (savedState == null || stateLocation == null) {
+			return;
+		}
+		
+		IPath indexFilePath = savedState.lookup(new Path(INDEX_FILE_NAME));
+		if (indexFilePath != null) {
+			load(stateLocation.append(indexFilePath).toFile());
+		}
+	}
+	
+	synchronized void load(File indexFile) {
+		if (!indexFile.isFile()) {
+			return;
+		}
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			if (in.readInt() != INDEX_FORMAT_VERSION) {
+				return;
+			}
+			
+			int numProjects = in.readInt();
+			for (int i = 0; i < numProjects; i++) {
+				indexedProjects.add(in.readUTF());
+			}
+			
+			int numSources = in.readInt();
+			IWorkspaceRoot root = numSources > 0 ? ResourcesPlugin.getWorkspace().getRoot() : null;
+			for (int i = 0; i < numSources; i++) {
+				IFile source = root.getFile(new Path(in.readUTF()));
+				int numTargets = in.readInt();
+				for (int j = 0; j < numTargets; j++) {
+					IPath target = Path.fromPortableString(in.readUTF());
+					addLink(source, target, in.readBoolean());
+				}
+			}
+			
+			int numAnchorFiles = in.readInt();
+			for (int i = 0; i < numAnchorFiles; i++) {
+				IPath location = Path.fromPortableString(in.readUTF());
+				long lastModified = in.readLong();
+				long length = in.readLong();
+				int numAnchors = in.readInt();
+				Set<String> anchors = new HashSet<>(numAnchors);
+				for (int j = 0; j < numAnchors; j++) {
+					anchors.add(in.readUTF());
+				}
+				sectionAnchors.put(location, new SectionAnchors(lastModified, length, Collections.unmodifiableSet(anchors)));
+			}
+		} catch (IOException e) {
+			FluentCore.log(IStatus.WARNING, "Could not load link index. It will be re-built with the next full build.", e);
+			indexedProjects.clear();
+			sourceToTargets.clear();
+			targetToSources.clear();
+			sectionAnchors.clear();
+		} finally {
+			// never re-use a saved index twice, it may be outdated after a crash
+			indexFile.delete();
+		}
+	}
+	
+	/**
+	 * @return <code>true</code> if the index was saved, <code>false</code> if it couldn't be saved
+	 */
+	synchronized boolean save(File indexFile) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+			out.writeInt(INDEX_FORMAT_VERSION);
+			
+			out.writeInt(indexedProjects.size());
+			for (String projectName : indexedProjects) {
+				out.writeUTF(projectName);
+			}
+			
+			out.writeInt(sourceToTargets.size());
+			for (Map.Entry<IFile, Map<IPath, Boolean>> source : sourceToTargets.entrySet()) {
+				out.writeUTF(source.getKey().getFullPath().toPortableString());
+				out.writeInt(source.getValue().size());
+				for (Map.Entry<IPath, Boolean> target : source.getValue().entrySet()) {
+					out.writeUTF(target.getKey().toPortableString());
+					out.writeBoolean(target.getValue());
+				}
+			}
+			
+			out.writeInt(sectionAnchors.size());
+			for (Map.Entry<IPath, SectionAnchors> entry : sectionAnchors.entrySet()) {
+				out.writeUTF(entry.getKey().toPortableString());
+				out.writeLong(entry.getValue().lastModified);
+				out.writeLong(entry.getValue().length);
+				out.writeInt(entry.getValue().anchors.size());
+				for (String anchor : entry.getValue().anchors) {
+					out.writeUTF(anchor);
+				}
+			}
+		} catch (IOException e) {
+			FluentCore.log(IStatus.WARNING, "Could not save link index.", e);
+			indexFile.delete();
+			return false;
+		}
+		return true;
+	}
+
+}
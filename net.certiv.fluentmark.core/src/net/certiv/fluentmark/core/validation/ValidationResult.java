@@ -0,0 +1,44 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * A single validation result, as reported with
+ * {@link IValidationResultConsumer#reportValidationResult(IFile, String, int, String, Integer, Integer, Integer)}.
+ * Used for reporting several results at once.
+ */
+public class ValidationResult {
+	
+	public final IFile file;
+	public final String issueTypeId;
+	public final int issueSeverity;
+	public final String message;
+	public final Integer issueLineNumber;
+	public final Integer issueStartOffset;
+	public final Integer issueEndOffset;
+	
+	public ValidationResult(IFile file, String issueTypeId, int issueSeverity, String message,
+			Integer issueLineNumber, Integer issueStartOffset, Integer issueEndOffset) {
+		if (file == null || issueTypeId == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.file = file;
+		this.issueTypeId = issueTypeId;
+		this.issueSeverity = issueSeverity;
+		this.message = message;
+		this.issueLineNumber = issueLineNumber;
+		this.issueStartOffset = issueStartOffset;
+		this.issueEndOffset = issueEndOffset;
+	}
+
+}
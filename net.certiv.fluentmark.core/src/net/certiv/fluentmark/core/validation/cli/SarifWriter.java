@@ -0,0 +1,206 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.IPath;
+
+import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
+import net.certiv.fluentmark.core.validation.IssueTypes;
+
+/**
+ * Writes validation results in the Static Analysis Results Interchange Format (SARIF) 2.1.0, that is
+ * understood by CI servers and code review tools.
+ *
+ * <p>Results are written as soon as they are reported, so that the whole log never has to be kept in
+ * memory. {@link #close()} completes the log.</p>
+ *
+ * <p>Problems get the level that corresponds to their severity. Tasks (e.g. TODO and FIXME comments) are
+ * reported with their priority instead of a severity, they are always written as notes.</p>
+ */
+public class SarifWriter implements IValidationResultConsumer, AutoCloseable {
+	
+	private static final String SOURCE_ROOT = "SRCROOT";
+	
+	// reported by the task finders of the UI plug-in, see net.certiv.fluentmark.ui.markers.TaskTypes
+	static final String MARKDOWN_TASK = "net.certiv.fluentmark.ui.validation.task.markdown";
+	static final String PLANTUML_TASK = "net.certiv.fluentmark.ui.validation.task.plantuml";
+	
+	private final Writer out;
+	private final IPath baseLocation;
+	
+	private boolean firstResult = true;
+	private int errors = 0;
+	private int warnings = 0;
+	private int notes = 0;
+	
+	/**
+	 * @param out the writer to write the SARIF log to, closed by {@link #close()}
+	 * @param baseLocation the folder whose files are validated, file paths are written relative to it
+	 */
+	public SarifWriter(Writer out, IPath baseLocation, String toolVersion) throws IOException {
+		if (out == null || baseLocation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.out = out;
+		this.baseLocation = baseLocation;
+		
+		out.write("{\n");
+		out.write("  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",\n");
+		out.write("  \"version\": \"2.1.0\",\n");
+		out.write("  \"runs\": [ {\n");
+		out.write("    \"tool\": { \"driver\": {\n");
+		out.write("      \"name\": \"FluentMark\",\n");
+		if (toolVersion != null) {
+			out.write("      \"version\": " + quote(toolVersion) + ",\n");
+		}
+		out.write("      \"rules\": [\n");
+		out.write("        { \"id\": " + quote(IssueTypes.MARKDOWN_ISSUE) + ", \"shortDescription\": { \"text\": \"Markdown issue\" } },\n");
+		out.write("        { \"id\": " + quote(IssueTypes.PLANTUML_ISSUE) + ", \"shortDescription\": { \"text\": \"PlantUML issue\" } },\n");
+		out.write("        { \"id\": " + quote(MARKDOWN_TASK) + ", \"shortDescription\": { \"text\": \"Markdown task\" } },\n");
+		out.write("        { \"id\": " + quote(PLANTUML_TASK) + ", \"shortDescription\": { \"text\": \"PlantUML task\" } }\n");
+		out.write("      ]\n");
+		out.write("    } },\n");
+		out.write("    \"originalUriBaseIds\": { \"" + SOURCE_ROOT + "\": { \"uri\": "
+				+ quote(baseLocation.toFile().toURI().toString()) + " } },\n");
+		out.write("    \"results\": [");
+		out.flush();
+	}
+	
+	@Override
+	public synchronized void reportValidationResult(IFile file, String issueTypeId, int issueSeverity, String message,
+			Integer issueLineNumber, Integer issueStartOffset, Integer issueEndOffset) {
+		
+		String level = toLevel(issueTypeId, issueSeverity);
+		
+		StringBuilder result = new StringBuilder();
+		result.append(firstResult ? "\n" : ",\n");
+		result.append("      { \"ruleId\": ").append(quote(issueTypeId));
+		result.append(", \"level\": ").append(quote(level));
+		result.append(", \"message\": { \"text\": ").append(quote(message)).append(" }");
+		
+		if (file != null && file.getLocation() != null) {
+			result.append(",\n        \"locations\": [ { \"physicalLocation\": { \"artifactLocation\": ")
+				.append(toArtifactLocation(file.getLocation()));
+			
+			StringBuilder region = new StringBuilder();
+			if (issueLineNumber != null && issueLineNumber > 0) {
+				region.append("\"startLine\": ").append(issueLineNumber);
+			}
+			if (issueStartOffset != null && issueEndOffset != null && issueStartOffset >= 0 && issueEndOffset >= issueStartOffset) {
+				region.append(region.isEmpty() ? "" : ", ")
+					.append("\"charOffset\": ").append(issueStartOffset)
+					.append(", \"charLength\": ").append(issueEndOffset - issueStartOffset);
+			}
+			if (!region.isEmpty()) {
+				result.append(", \"region\": { ").append(region).append(" }");
+			}
+			result.append(" } } ]");
+		}
+		result.append(" }");
+		
+		try {
+			out.write(result.toString());
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		firstResult = false;
+		switch (level) {
+			case "error" -> errors++;
+			case "warning" -> warnings++;
+			default -> notes++;
+		}
+	}
+	
+	public synchronized int getErrors() {
+		return errors;
+	}
+	
+	public synchronized int getWarnings() {
+		return warnings;
+	}
+	
+	public synchronized int getNotes() {
+		return notes;
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		out.write(firstResult ? "]\n" : "\n    ]\n");
+		out.write("  } ]\n");
+		out.write("}\n");
+		out.close();
+	}
+	
+	private static String toLevel(String issueTypeId, int issueSeverity) {
+		if (MARKDOWN_TASK.equals(issueTypeId) || PLANTUML_TASK.equals(issueTypeId)) {
+			// the "severity" of a task is its priority
+			return "note";
+		}
+		
+		return switch (issueSeverity) {
+			case IMarker.SEVERITY_ERROR -> "error";
+			case IMarker.SEVERITY_WARNING -> "warning";
+			default -> "note";
+		};
+	}
+	
+	private String toArtifactLocation(IPath location) {
+		if (baseLocation.isPrefixOf(location)) {
+			String path = location.makeRelativeTo(baseLocation).toPortableString();
+			try {
+				// escape spaces and other characters that are not allowed in URIs
+				path = new URI(null, null, path, null).toASCIIString();
+			} catch (URISyntaxException e) {
+				// keep the path as it is
+			}
+			return "{ \"uri\": " + quote(path) + ", \"uriBaseId\": \"" + SOURCE_ROOT + "\" }";
+		}
+		return "{ \"uri\": " + quote(location.toFile().toURI().toString()) + " }";
+	}
+	
+	static String quote(String text) {
+		if (text == null) {
+			return "null";
+		}
+		
+		StringBuilder quoted = new StringBuilder(text.length() + 2);
+		quoted.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '"' -> quoted.append("\\\"");
+				case '\\' -> quoted.append("\\\\");
+				case '\n' -> quoted.append("\\n");
+				case '\r' -> quoted.append("\\r");
+				case '\t' -> quoted.append("\\t");
+				default -> {
+					if (c < 0x20) {
+						quoted.append(String.format("\\u%04x", (int) c));
+					} else {
+						quoted.append(c);
+					}
+				}
+			}
+		}
+		return quoted.append('"').toString();
+	}
+
+}
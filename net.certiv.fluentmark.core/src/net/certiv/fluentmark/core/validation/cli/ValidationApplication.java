@@ -0,0 +1,295 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jface.text.IDocument;
+import org.osgi.framework.Bundle;
+
+import net.certiv.fluentmark.core.FluentCore;
+import net.certiv.fluentmark.core.extensionpoints.ResourcesValidationFiltersManager;
+import net.certiv.fluentmark.core.validation.FileValidator;
+import net.certiv.fluentmark.core.validation.uri.LinkValidator;
+import net.certiv.fluentmark.core.validation.visitor.IResourcesValidationFilter;
+
+/**
+ * Headless application that validates all Markdown and PlantUML files in a folder tree, e.g. on a build
+ * server, without starting a workbench and without running the project builders.
+ *
+ * <pre>
+ * eclipse -nosplash -consoleLog -data &lt;temporary workspace&gt; -application net.certiv.fluentmark.core.validate
+ *     [--offline] [--threads &lt;number&gt;|auto] [--output &lt;SARIF file&gt;] &lt;folder&gt;
+ * </pre>
+ *
+ * <p>The folder is linked into a temporary project of the given workspace, nothing is written to the
+ * folder itself. The files are validated in parallel (one thread per processor by default), the results
+ * are streamed as SARIF log to the output file or to the standard output. The exit code is
+ * {@value #EXIT_ISSUES} if there are errors, {@value #EXIT_USAGE} for invalid arguments, and
+ * <code>0</code> otherwise.</p>
+ */
+public class ValidationApplication implements IApplication {
+	
+	public static final int EXIT_ISSUES = 1;
+	public static final int EXIT_USAGE = 2;
+	
+	private static final String PROJECT_NAME = "FluentMark Validation";
+	private static final String LINKED_FOLDER_NAME = "files";
+	
+	private static final String USAGE = "Usage: -application " + FluentCore.PLUGIN_ID + ".validate"
+			+ " [--offline] [--threads <number>|auto] [--output <SARIF file>] <folder>";
+	
+	static class Arguments {
+		File folder;
+		File output;
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean offline = false;
+		
+		static Arguments parse(String[] args) {
+			Arguments arguments = new Arguments();
+			
+			for (int i = 0; args != null && i < args.length; i++) {
+				switch (args[i]) {
+					case "--offline" -> arguments.offline = true;
+					case "--threads" -> arguments.threads = parseThreads(valueOf(args, ++i, "--threads"));
+					case "--output" -> arguments.output = new File(valueOf(args, ++i, "--output"));
+					default -> {
+						if (args[i].startsWith("-")) {
+							throw new IllegalArgumentException("Unknown option " + args[i]);
+						}
+						if (arguments.folder != null) {
+							throw new IllegalArgumentException("Only one folder can be validated at once.");
+						}
+						arguments.folder = new File(args[i]).getAbsoluteFile();
+					}
+				}
+			}
+			
+			if (arguments.folder == null) {
+				throw new IllegalArgumentException("No folder to validate given.");
+			}
+			if (!arguments.folder.isDirectory()) {
+				throw new IllegalArgumentException("There is no folder " + arguments.folder);
+			}
+			return arguments;
+		}
+		
+		private static String valueOf(String[] args, int index, String option) {
+			if (index >= args.length) {
+				throw new IllegalArgumentException("Missing value for option " + option);
+			}
+			return args[index];
+		}
+		
+		private static int parseThreads(String value) {
+			if ("auto".equalsIgnoreCase(value)) {
+				return Runtime.getRuntime().availableProcessors();
+			}
+			try {
+				return Math.max(1, Integer.parseInt(value));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid number of threads " + value);
+			}
+		}
+	}
+	
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		Arguments arguments;
+		try {
+			arguments = Arguments.parse((String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			return EXIT_USAGE;
+		}
+		
+		if (arguments.offline) {
+			System.setProperty(LinkValidator.PROPERTY_OFFLINE, Boolean.TRUE.toString());
+		}
+		
+		long startTime = System.currentTimeMillis();
+		IProgressMonitor monitor = new NullProgressMonitor();
+		IProject project = createProject(arguments.folder, monitor);
+		try {
+			IPath baseLocation = Path.fromOSString(arguments.folder.getAbsolutePath());
+			
+			try (SarifWriter sarifWriter = new SarifWriter(createWriter(arguments.output), baseLocation, getVersion())) {
+				FileValidator fileValidator = FileValidator.create(sarifWriter);
+				
+				List<IFile> files = collectFiles(project.getFolder(LINKED_FOLDER_NAME), fileValidator);
+				validate(files, fileValidator, arguments.threads, monitor);
+				
+				// results of web address checks are reported asynchronously
+				LinkValidator.awaitPendingChecks();
+				
+				System.err.println(String.format("Validated %d files in %d ms: %d errors, %d warnings, %d notes.",
+						files.size(), System.currentTimeMillis() - startTime,
+						sarifWriter.getErrors(), sarifWriter.getWarnings(), sarifWriter.getNotes()));
+				
+				return sarifWriter.getErrors() > 0 ? EXIT_ISSUES : EXIT_OK;
+			}
+		} finally {
+			deleteProject(project, monitor);
+		}
+	}
+	
+	@Override
+	public void stop() {
+		// nothing to do, the validation cannot be interrupted
+	}
+	
+	private String getVersion() {
+		Bundle bundle = Platform.getBundle(FluentCore.PLUGIN_ID);
+		return bundle != null ? bundle.getVersion().toString() : null;
+	}
+	
+	private Writer createWriter(File output) throws IOException {
+		if (output == null) {
+			// do not close the standard output when closing the writer
+			return new OutputStreamWriter(System.out, StandardCharsets.UTF_8) {
+				@Override
+				public void close() throws IOException {
+					flush();
+				}
+			};
+		}
+		
+		File parentFolder = output.getAbsoluteFile().getParentFile();
+		if (parentFolder != null) {
+			Files.createDirectories(parentFolder.toPath());
+		}
+		return Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Creates a project in the workspace, that links to the given folder.
+	 */
+	private IProject createProject(File folder, IProgressMonitor monitor) throws CoreException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		
+		// we validate the files ourselves, there is no need to run any builders
+		IWorkspaceDescription description = workspace.getDescription();
+		if (description.isAutoBuilding()) {
+			description.setAutoBuilding(false);
+			workspace.setDescription(description);
+		}
+		
+		IProject project = workspace.getRoot().getProject(PROJECT_NAME);
+		if (project.exists()) {
+			// left over from a previous validation that was killed
+			deleteProject(project, monitor);
+		}
+		project.create(monitor);
+		project.open(monitor);
+		
+		// links (in contrast to a project located in the folder) do not create any files in the folder
+		IFolder linkedFolder = project.getFolder(LINKED_FOLDER_NAME);
+		linkedFolder.createLink(Path.fromOSString(folder.getAbsolutePath()), IResource.NONE, monitor);
+		linkedFolder.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+		
+		return project;
+	}
+	
+	private void deleteProject(IProject project, IProgressMonitor monitor) {
+		try {
+			// delete the link first, so that the linked files are never deleted
+			IFolder linkedFolder = project.getFolder(LINKED_FOLDER_NAME);
+			if (linkedFolder.exists()) {
+				linkedFolder.delete(IResource.NONE, monitor);
+			}
+			project.delete(true, true, monitor);
+		} catch (CoreException e) {
+			FluentCore.log(IStatus.WARNING, "Could not delete temporary project " + project.getName(), e);
+		}
+	}
+	
+	private List<IFile> collectFiles(IFolder folder, FileValidator fileValidator) throws CoreException {
+		List<IResourcesValidationFilter> filters = ResourcesValidationFiltersManager.getInstance().getResourceValidationFilters();
+		List<IFile> files = new ArrayList<>();
+		
+		folder.accept(resource -> {
+			if (resource instanceof IFolder subFolder) {
+				// skip hidden folders like .git
+				return subFolder.equals(folder)
+						|| (!subFolder.getName().startsWith(".") && filters.stream().noneMatch(filter -> filter.ignore(subFolder)));
+			}
+			
+			if (resource instanceof IFile file
+					&& fileValidator.hasApplicablePartitionValidatorsFor(file)
+					&& filters.stream().noneMatch(filter -> filter.ignore(file))) {
+				files.add(file);
+			}
+			return false;
+		});
+		
+		return files;
+	}
+	
+	private void validate(List<IFile> files, FileValidator fileValidator, int threads, IProgressMonitor monitor) throws InterruptedException {
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "FluentMark file validation " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		try {
+			List<Future<?>> validations = new ArrayList<>(files.size());
+			for (IFile file : files) {
+				validations.add(executor.submit(() -> {
+					IDocument document = FileValidator.readDocument(file);
+					if (document != null) {
+						fileValidator.performResourceValidation(document, file, monitor);
+					}
+				}));
+			}
+			
+			for (Future<?> validation : validations) {
+				try {
+					validation.get();
+				} catch (ExecutionException e) {
+					FluentCore.log(IStatus.ERROR, "File validation failed.", e);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -9,28 +9,18 @@
  */
 package net.certiv.fluentmark.core.validation.uri;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
-import java.net.http.HttpClient.Redirect;
-import java.net.http.HttpClient.Version;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandlers;
-import java.time.Duration;
 import java.util.Map;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalNotification;
-
 import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
 import net.certiv.fluentmark.core.validation.IssueTypes;
+import net.certiv.fluentmark.core.validation.ValidationResult;
 
 public class DefaultUriValidator implements IUriValidator {
 	
@@ -43,27 +33,8 @@ public class DefaultUriValidator implements IUriValidator {
 		return instance;
 	}
 	
-	private HttpClient httpClient;
-	
-	private final ConcurrentMap<String, HttpResponse<Void>> uriResponseCache = CacheBuilder.newBuilder()
-			.maximumSize(100000)
-			.removalListener(new RemovalListener<String, HttpResponse<Void>>() {
-				@Override
-				public void onRemoval(RemovalNotification<String, HttpResponse<Void>> notification) {
-					// Do nothing, the listener only constrains the builder's type variables
-				}
-			})
-			.build()
-			.asMap();
-	
 	HttpClient getHttpClient() {
-		if (this.httpClient == null) {
-			this.httpClient = HttpClient.newBuilder()
-					.version(Version.HTTP_2)
-					.followRedirects(Redirect.NORMAL)
-					.build();
-		}
-		return this.httpClient;
+		return HttpLinkChecker.getInstance().getHttpClient();
 	}
 	
 	@Override
@@ -78,27 +49,21 @@ public class DefaultUriValidator implements IUriValidator {
 		this.issueConsumer = issueConsumer;
 	}
 	
-	protected HttpRequest createHttpHeadRequest(String uriText) throws URISyntaxException {
-		URI uri = new URI(uriText);
-		
-		// we only need HTTP HEAD, no page content, just reachability
-		return HttpRequest.newBuilder()
-				.method("HEAD", HttpRequest.BodyPublishers.noBody())
-				.uri(uri)
-				// Some web sites / servers check the user agent header and expect certain common values, otherwise they answer with http status code 403.
-				// Hint: call curl -v https://your-domain.com to check, which user agent header is sent by curl (which is usually successful)
-				// and use the same use agent value here
-				.header("User-Agent", "curl/8.11.0")
-				.header("Accept", "*/*")
-				.timeout(Duration.ofMillis(200))
-				.build();
-	}
-	
-	protected void evaluateHttpResponse(String uriText, HttpResponse<Void> httpResponse, IFile file, Map<String, String> contextDetails, int lineNumber, int offset) {
-		int statusCode = httpResponse.statusCode();
+	protected ValidationResult evaluateCheckResult(String uriText, UriReachabilityCache.Entry checkResult, IFile file, Map<String, String> contextDetails, int lineNumber, int offset) {
+		if (checkResult.errorClass != null) {
+			String errorName = checkResult.errorClass.substring(checkResult.errorClass.lastIndexOf('.') + 1);
+			return new ValidationResult(file,
+					IssueTypes.MARKDOWN_ISSUE,
+					IMarker.SEVERITY_WARNING,
+					String.format("The referenced web address '%s' seems not to exist. (Error: %s)", uriText, errorName),
+					lineNumber,
+					offset,
+					offset + uriText.length());
+		}
 		
+		int statusCode = checkResult.statusCode;
 		if (statusCode >= 400) {
-			issueConsumer.reportValidationResult(file,
+			return new ValidationResult(file,
 					IssueTypes.MARKDOWN_ISSUE,
 					IMarker.SEVERITY_ERROR,
 					String.format("The referenced web address '%s' is not reachable (HTTP status code %s).", uriText, statusCode),
@@ -106,64 +71,80 @@ public class DefaultUriValidator implements IUriValidator {
 					offset,
 					offset + uriText.length());
 		}
+		
+		return null;
 	}
 	
 	@Override
 	public void checkUri(String uriText, IFile file, Map<String, String> contextDetails, int lineNumber, int offset,
 			HttpClient httpClient) {
 		
+		ValidationResult result = checkUriAsync(uriText, file, contextDetails, lineNumber, offset).join();
+		if (result != null) {
+			issueConsumer.reportValidationResult(result.file, result.issueTypeId, result.issueSeverity, result.message,
+					result.issueLineNumber, result.issueStartOffset, result.issueEndOffset);
+		}
+	}
+	
+	/**
+	 * Checks the given web address without blocking the calling thread. Addresses that are malformed or
+	 * that were checked before are evaluated immediately, i.e. the returned future is already completed.
+	 *
+	 * @return a future that is completed with the found issue or with <code>null</code> if there is none
+	 */
+	public CompletableFuture<ValidationResult> checkUriAsync(String uriText, IFile file, Map<String, String> contextDetails,
+			int lineNumber, int offset) {
+		
 		if (!uriText.toLowerCase().startsWith("http://")
 			&& !uriText.toLowerCase().startsWith("https://")) {
-			issueConsumer.reportValidationResult(file,
+			return CompletableFuture.completedFuture(new ValidationResult(file,
 					IssueTypes.MARKDOWN_ISSUE,
 					IMarker.SEVERITY_ERROR,
 					String.format("The referenced web address '%s' seems not to be a valid HTTP web address. It has to start with https:// or http://", uriText),
 					lineNumber,
 					offset,
-					offset + uriText.length());
-			return;
+					offset + uriText.length()));
 		}
 		
-		HttpResponse<Void> response = uriResponseCache.get(uriText);
-		if (response != null) {
-			evaluateHttpResponse(uriText, response, file, contextDetails, lineNumber, offset);
-			return;
+		UriReachabilityCache cache = UriReachabilityCache.getInstance();
+		UriReachabilityCache.Entry cachedResult = cache.get(uriText);
+		if (cachedResult != null) {
+			return CompletableFuture.completedFuture(evaluateCheckResult(uriText, cachedResult, file, contextDetails, lineNumber, offset));
 		}
 		
-		HttpRequest headRequest = null;
+		URI uri;
 		try {
-			headRequest = createHttpHeadRequest(uriText);
-		} catch (URISyntaxException | IllegalArgumentException e) {
-			issueConsumer.reportValidationResult(file,
+			uri = new URI(uriText);
+			if (uri.getHost() == null) {
+				throw new URISyntaxException(uriText, "The host name is missing.");
+			}
+		} catch (URISyntaxException e) {
+			return CompletableFuture.completedFuture(new ValidationResult(file,
 					IssueTypes.MARKDOWN_ISSUE,
 					IMarker.SEVERITY_ERROR,
 					String.format("The referenced web address '%s' seems not to be a valid HTTP web address. " + e.getMessage(), uriText),
 					lineNumber,
 					offset,
-					offset + uriText.length());
-			return;
+					offset + uriText.length()));
 		}
 		
-		try {
-			response = httpClient.send(headRequest, BodyHandlers.discarding());
-			uriResponseCache.put(uriText, response);
-		} catch (IOException | InterruptedException e) {
-			String errorMessage = e.getMessage();
-			if (errorMessage == null) {
-				errorMessage = e.getClass().getName();
+		return HttpLinkChecker.getInstance().check(uri).handle((checkResponse, error) -> {
+			if (error instanceof IllegalArgumentException) {
+				// not a reachability problem, thus not cached
+				return new ValidationResult(file,
+						IssueTypes.MARKDOWN_ISSUE,
+						IMarker.SEVERITY_ERROR,
+						String.format("The referenced web address '%s' seems not to be a valid HTTP web address. %s", uriText, error.getMessage()),
+						lineNumber,
+						offset,
+						offset + uriText.length());
 			}
 			
-			issueConsumer.reportValidationResult(file,
-					IssueTypes.MARKDOWN_ISSUE,
-					IMarker.SEVERITY_WARNING,
-					String.format("The referenced web address '%s' seems not to exist. (Error message: %s)", uriText, errorMessage),
-					lineNumber,
-					offset,
-					offset + uriText.length());
-			return;
-		}
-		
-		evaluateHttpResponse(uriText, response, file, contextDetails, lineNumber, offset);
+			UriReachabilityCache.Entry checkResult = error != null
+					? cache.putError(uriText, error)
+					: cache.putStatusCode(uriText, checkResponse.statusCode());
+			return evaluateCheckResult(uriText, checkResult, file, contextDetails, lineNumber, offset);
+		});
 	}
 
 }
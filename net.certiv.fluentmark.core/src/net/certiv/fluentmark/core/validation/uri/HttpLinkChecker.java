@@ -0,0 +1,258 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.uri;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Checks the reachability of HTTP(S) addresses without blocking the calling thread.
+ *
+ * <p>Requests are sent with {@link HttpClient#sendAsync(HttpRequest, java.net.http.HttpResponse.BodyHandler)}.
+ * Concurrent checks of the same address share a single request, and the number of concurrent requests per
+ * host is limited, so that checking thousands of links does not hammer the same servers. Requests that
+ * failed with an I/O error or with a status code indicating a temporary problem (e.g. 429 or 503) are
+ * retried with an exponential backoff. Servers that do not support HEAD requests are asked with a GET
+ * request, instead.</p>
+ */
+public class HttpLinkChecker {
+	
+	public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+	public static final int DEFAULT_MAX_RETRIES = 2;
+	public static final Duration DEFAULT_RETRY_DELAY = Duration.ofMillis(500);
+	public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofMillis(200);
+	
+	private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(10);
+	
+	private static HttpLinkChecker INSTANCE = null;
+	
+	public static synchronized HttpLinkChecker getInstance() {
+		if (INSTANCE == null) {
+			HttpClient httpClient = HttpClient.newBuilder()
+					.version(Version.HTTP_2)
+					.followRedirects(Redirect.NORMAL)
+					.build();
+			INSTANCE = new HttpLinkChecker(httpClient, DEFAULT_MAX_REQUESTS_PER_HOST, DEFAULT_MAX_RETRIES,
+					DEFAULT_RETRY_DELAY, DEFAULT_REQUEST_TIMEOUT);
+		}
+		return INSTANCE;
+	}
+	
+	private static final class HostQueue {
+		private int runningRequests = 0;
+		private final Queue<Runnable> waitingRequests = new ArrayDeque<>();
+	}
+	
+	private final HttpClient httpClient;
+	private final int maxRequestsPerHost;
+	private final int maxRetries;
+	private final Duration retryDelay;
+	private final Duration requestTimeout;
+	
+	private final Map<String, CompletableFuture<HttpResponse<Void>>> runningChecks = new ConcurrentHashMap<>();
+	private final Map<String, HostQueue> hostQueues = new HashMap<>();
+	
+	public HttpLinkChecker(HttpClient httpClient, int maxRequestsPerHost, int maxRetries, Duration retryDelay,
+			Duration requestTimeout) {
+		if (httpClient == null || maxRequestsPerHost < 1 || maxRetries < 0
+				|| retryDelay == null || retryDelay.isNegative()
+				|| requestTimeout == null || requestTimeout.isNegative() || requestTimeout.isZero()) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.httpClient = httpClient;
+		this.maxRequestsPerHost = maxRequestsPerHost;
+		this.maxRetries = maxRetries;
+		this.retryDelay = retryDelay;
+		this.requestTimeout = requestTimeout;
+	}
+	
+	public HttpClient getHttpClient() {
+		return httpClient;
+	}
+	
+	/**
+	 * Starts checking the given address, unless the same address is already being checked.
+	 *
+	 * @return the final response (after following redirects, retries, and falling back to GET), or a future
+	 *         that completes exceptionally with the last request's error (e.g. an {@link IOException})
+	 */
+	public CompletableFuture<HttpResponse<Void>> check(URI uri) {
+		if (uri == null || uri.getHost() == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		String key = uri.toString();
+		CompletableFuture<HttpResponse<Void>> newCheck = new CompletableFuture<>();
+		CompletableFuture<HttpResponse<Void>> runningCheck = runningChecks.putIfAbsent(key, newCheck);
+		if (runningCheck != null) {
+			return runningCheck;
+		}
+		
+		send(uri, "HEAD", 0).whenComplete((response, error) -> {
+			// complete first, so that dependent actions (e.g. caching the response) run before other threads
+			// can start a new check of the same address
+			if (error != null) {
+				newCheck.completeExceptionally(unwrap(error));
+			} else {
+				newCheck.complete(response);
+			}
+			runningChecks.remove(key, newCheck);
+		});
+		
+		return newCheck;
+	}
+	
+	private CompletableFuture<HttpResponse<Void>> send(URI uri, String method, int attempt) {
+		HttpRequest request;
+		try {
+			request = HttpRequest.newBuilder()
+					.method(method, HttpRequest.BodyPublishers.noBody())
+					.uri(uri)
+					// Some web sites / servers check the user agent header and expect certain common values, otherwise they answer with http status code 403.
+					// Hint: call curl -v https://your-domain.com to check, which user agent header is sent by curl (which is usually successful)
+					// and use the same use agent value here
+					.header("User-Agent", "curl/8.11.0")
+					.header("Accept", "*/*")
+					.timeout(requestTimeout)
+					.build();
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		
+		return limitPerHost(uri.getHost(), () -> httpClient.sendAsync(request, BodyHandlers.discarding()))
+				.handle((response, error) -> {
+					if (error != null) {
+						if (attempt < maxRetries && unwrap(error) instanceof IOException) {
+							return retry(uri, method, attempt, null);
+						}
+						return CompletableFuture.<HttpResponse<Void>>failedFuture(unwrap(error));
+					}
+					
+					int statusCode = response.statusCode();
+					if (method.equals("HEAD") && isHeadNotSupported(statusCode)) {
+						return send(uri, "GET", 0);
+					}
+					if (attempt < maxRetries && isTemporaryProblem(statusCode)) {
+						return retry(uri, method, attempt, response);
+					}
+					return CompletableFuture.completedFuture(response);
+				})
+				.thenCompose(future -> future);
+	}
+	
+	private CompletableFuture<HttpResponse<Void>> retry(URI uri, String method, int attempt, HttpResponse<Void> response) {
+		long delayMillis = retryDelay.toMillis() << attempt;
+		
+		// respect the server's wish, if it tells us when to try again
+		if (response != null) {
+			long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(-1);
+			if (retryAfterSeconds >= 0) {
+				delayMillis = TimeUnit.SECONDS.toMillis(retryAfterSeconds);
+			}
+		}
+		delayMillis = Math.min(delayMillis, MAX_RETRY_DELAY.toMillis());
+		
+		return CompletableFuture.supplyAsync(() -> send(uri, method, attempt + 1),
+						CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS))
+				.thenCompose(future -> future);
+	}
+	
+	/**
+	 * Runs the given request immediately, if there are less than the maximum number of requests running for
+	 * the given host, or as soon as one of the running requests completes.
+	 */
+	private <T> CompletableFuture<T> limitPerHost(String host, Supplier<CompletableFuture<T>> request) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		
+		Runnable startRequest = () -> {
+			CompletableFuture<T> requestFuture;
+			try {
+				requestFuture = request.get();
+			} catch (RuntimeException e) {
+				requestFuture = CompletableFuture.failedFuture(e);
+			}
+			
+			requestFuture.whenComplete((value, error) -> {
+				startNextRequest(host);
+				if (error != null) {
+					result.completeExceptionally(error);
+				} else {
+					result.complete(value);
+				}
+			});
+		};
+		
+		boolean startNow;
+		synchronized (hostQueues) {
+			HostQueue hostQueue = hostQueues.computeIfAbsent(host, h -> new HostQueue());
+			startNow = hostQueue.runningRequests < maxRequestsPerHost;
+			if (startNow) {
+				hostQueue.runningRequests++;
+			} else {
+				hostQueue.waitingRequests.add(startRequest);
+			}
+		}
+		
+		if (startNow) {
+			startRequest.run();
+		}
+		return result;
+	}
+	
+	private void startNextRequest(String host) {
+		Runnable nextRequest;
+		synchronized (hostQueues) {
+			HostQueue hostQueue = hostQueues.get(host);
+			nextRequest = hostQueue.waitingRequests.poll();
+			if (nextRequest == null) {
+				hostQueue.runningRequests--;
+				if (hostQueue.runningRequests == 0) {
+					hostQueues.remove(host);
+				}
+			}
+		}
+		
+		// the finished request's slot is handed over to the next request
+		if (nextRequest != null) {
+			nextRequest.run();
+		}
+	}
+	
+	private static boolean isHeadNotSupported(int statusCode) {
+		// some servers reject HEAD requests although GET requests for the same address would succeed
+		return statusCode == 400 || statusCode == 403 || statusCode == 405 || statusCode == 501;
+	}
+	
+	private static boolean isTemporaryProblem(int statusCode) {
+		return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+	}
+	
+	private static Throwable unwrap(Throwable error) {
+		return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+	}
+
+}
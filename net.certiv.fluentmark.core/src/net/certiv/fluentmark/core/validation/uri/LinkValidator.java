@@ -10,26 +10,111 @@
 package net.certiv.fluentmark.core.validation.uri;
 
 import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.ICoreRunnable;
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
-import org.eclipse.core.runtime.jobs.Job;
 
 import net.certiv.fluentmark.core.FluentCore;
 import net.certiv.fluentmark.core.extensionpoints.UriValidatorsManager;
 import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
 import net.certiv.fluentmark.core.validation.IValidationResultReporter;
+import net.certiv.fluentmark.core.validation.ValidationResult;
 
 public class LinkValidator implements IValidationResultReporter {
+	
+	/**
+	 * Set this system property to <code>true</code> to skip checking web addresses, e.g. when validating
+	 * files on a build server without internet access.
+	 */
+	public static final String PROPERTY_OFFLINE = FluentCore.PLUGIN_ID + ".offline";
+	
+	private static final int MAX_EXTENSION_VALIDATOR_THREADS = 4;
+	
+	// URI validators from extensions check URIs synchronously, thus we run them in a few background threads
+	private static final ExecutorService extensionValidatorThreads;
+	static {
+		AtomicInteger threadCount = new AtomicInteger();
+		extensionValidatorThreads = Executors.newFixedThreadPool(MAX_EXTENSION_VALIDATOR_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "FluentMark URI validation " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	// checks running in the background and the files they belong to,
+	// each check completes after its result was handed over to its batcher (if any)
+	private static final Map<CompletableFuture<?>, IFile> pendingChecks = new ConcurrentHashMap<>();
+	private static final Set<ValidationResultBatcher> batchers = Collections.synchronizedSet(
+			Collections.newSetFromMap(new WeakHashMap<>()));
+	
+	/**
+	 * Waits until all web addresses that are being checked in the background have been checked and their
+	 * results have been reported, e.g. before a headless validation ends.
+	 */
+	public static void awaitPendingChecks() {
+		while (!pendingChecks.isEmpty()) {
+			CompletableFuture.allOf(pendingChecks.keySet().toArray(new CompletableFuture<?>[0]))
+				.exceptionally(error -> null)
+				.join();
+		}
+		
+		flushBatchers();
+	}
+	
+	/**
+	 * Allows to wait for the results of a file's link checks without blocking, e.g. to update the file's
+	 * markers only once after its validation.
+	 * 
+	 * @return a future that completes after the web addresses of the given file that are being checked in
+	 *         the background right now have been checked and their results have been reported
+	 */
+	public static CompletableFuture<Void> whenChecksReported(IFile file) {
+		CompletableFuture<?>[] checksOfFile = pendingChecks.entrySet().stream()
+				.filter(entry -> entry.getValue().equals(file))
+				.map(Map.Entry::getKey)
+				.toArray(CompletableFuture<?>[]::new);
+		
+		if (checksOfFile.length == 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		
+		return CompletableFuture.allOf(checksOfFile)
+				.handle((result, error) -> {
+					flushBatchers();
+					return null;
+				});
+	}
+	
+	private static void flushBatchers() {
+		List<ValidationResultBatcher> batchersToFlush;
+		synchronized (batchers) {
+			batchersToFlush = new ArrayList<>(batchers);
+		}
+		batchersToFlush.forEach(ValidationResultBatcher::flush);
+	}
+	
+	private static void addPendingCheck(CompletableFuture<?> check, IFile file) {
+		pendingChecks.put(check, file);
+		check.whenComplete((result, error) -> pendingChecks.remove(check));
+	}
 
 	private DefaultUriValidator defaultUriValidator;
+	private IValidationResultConsumer issueConsumer;
+	private ValidationResultBatcher resultBatcher;
 	
 	public LinkValidator() {
 		defaultUriValidator = DefaultUriValidator.getDefaultUriValidator();
@@ -37,6 +122,7 @@ public class LinkValidator implements IValidationResultReporter {
 	
 	@Override
 	public void setValidationResultConsumer(IValidationResultConsumer issueConsumer) {
+		this.issueConsumer = issueConsumer;
 		this.defaultUriValidator.setValidationResultConsumer(issueConsumer);
 		
 		List<IUriValidator> uriValidators = UriValidatorsManager.getInstance().getUriValidators();
@@ -46,7 +132,7 @@ public class LinkValidator implements IValidationResultReporter {
 	}
 	
 	public void checkHttpUri(String uriText, IFile file, Map<String, String> contextDetails, int lineNumber, int offset) throws CoreException {
-		if (uriText == null) {
+		if (uriText == null || Boolean.getBoolean(PROPERTY_OFFLINE)) {
 			return;
 		}
 		
@@ -63,47 +149,58 @@ public class LinkValidator implements IValidationResultReporter {
 			}
 		}
 		
-		asyncCheckHttpUri(defaultUriValidator, defaultUriValidator.getHttpClient(), uriText, file,
-				contextDetails, lineNumber, offset);
+		CompletableFuture<ValidationResult> check = defaultUriValidator.checkUriAsync(uriText, file, contextDetails, lineNumber, offset);
+		if (check.isDone()) {
+			// report results that are available immediately as part of the file's validation
+			reportResult(check.join());
+			return;
+		}
+		
+		ValidationResultBatcher batcher = getResultBatcher();
+		addPendingCheck(check.thenAccept(result -> {
+			if (result != null) {
+				batcher.add(result);
+			}
+		}), file);
+	}
+	
+	private void reportResult(ValidationResult result) {
+		if (result != null) {
+			issueConsumer.reportValidationResult(result.file, result.issueTypeId, result.issueSeverity, result.message,
+					result.issueLineNumber, result.issueStartOffset, result.issueEndOffset);
+		}
+	}
+	
+	private synchronized ValidationResultBatcher getResultBatcher() {
+		if (resultBatcher == null || resultBatcher.getConsumer() != issueConsumer) {
+			resultBatcher = new ValidationResultBatcher(issueConsumer);
+			batchers.add(resultBatcher);
+		}
+		return resultBatcher;
 	}
 	
 	private void asyncCheckHttpUri(IUriValidator uriValidator, HttpClient httpClient, String uriText, IFile file,
 			Map<String, String> contextDetails, int lineNumber, int offset) {
-		Job checkingJob = Job.create("Checking URI " + uriText, new ICoreRunnable() {
-
+		ISafeRunnable runnable = new ISafeRunnable() {
 			@Override
-			public void run(IProgressMonitor monitor) throws CoreException {
-				ISafeRunnable runnable = new ISafeRunnable() {
-					@Override
-					public void handleException(Throwable e) {
-						Exception ex;
-						if (e instanceof Exception) {
-							ex = (Exception) e;
-						} else {
-							ex = new RuntimeException(e);
-						}
-						FluentCore.log(IStatus.WARNING,
-								String.format("Could not run URI validator \"%s\".", uriValidator.getClass().getName()),
-								ex);
-					}
+			public void handleException(Throwable e) {
+				Exception ex;
+				if (e instanceof Exception) {
+					ex = (Exception) e;
+				} else {
+					ex = new RuntimeException(e);
+				}
+				FluentCore.log(IStatus.WARNING,
+						String.format("Could not run URI validator \"%s\".", uriValidator.getClass().getName()),
+						ex);
+			}
 
-					@Override
-					public void run() throws Exception {
-						if (monitor.isCanceled()) {
-							return;
-						}
-						
-						uriValidator.checkUri(uriText, file, contextDetails, lineNumber, offset, httpClient);
-					}
-				};
-				SafeRunner.run(runnable);
+			@Override
+			public void run() throws Exception {
+				uriValidator.checkUri(uriText, file, contextDetails, lineNumber, offset, httpClient);
 			}
-			
-		});
+		};
 		
-		checkingJob.setUser(false);
-		checkingJob.setPriority(Job.DECORATE);
-		checkingJob.setRule(file);
-		checkingJob.schedule();
+		addPendingCheck(CompletableFuture.runAsync(() -> SafeRunner.run(runnable), extensionValidatorThreads), file);
 	}
 }
@@ -0,0 +1,280 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.uri;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+
+import net.certiv.fluentmark.core.FluentCore;
+
+/**
+ * Cache for the results of checking the reachability of web addresses.
+ *
+ * <p>Per address, only the HTTP status code, the time of the check, and the class of the error that
+ * made the check fail (if any) are kept. Successful checks expire after a day, failed checks (errors and
+ * status codes &ge; 400) after an hour. Checks that failed with an I/O error (e.g. a timeout or a lost
+ * connection) may fail for temporary reasons only, thus they expire after five minutes already. The
+ * durations can be configured in minutes with the system properties {@value #PROPERTY_POSITIVE_TTL},
+ * {@value #PROPERTY_NEGATIVE_TTL}, and {@value #PROPERTY_TRANSIENT_TTL}. If the cache is full, the least
+ * recently used entries are dropped.</p>
+ *
+ * <p>The cache is saved to the plug-in's state location when the plug-in is stopped, so that restarting
+ * the IDE does not mean checking all addresses once again. Results of checks that failed with an I/O
+ * error are not saved.</p>
+ */
+public class UriReachabilityCache {
+	
+	public static final String PROPERTY_POSITIVE_TTL = FluentCore.PLUGIN_ID + ".uriCache.positiveTtlMinutes";
+	public static final String PROPERTY_NEGATIVE_TTL = FluentCore.PLUGIN_ID + ".uriCache.negativeTtlMinutes";
+	public static final String PROPERTY_TRANSIENT_TTL = FluentCore.PLUGIN_ID + ".uriCache.transientTtlMinutes";
+	
+	private static final Duration DEFAULT_POSITIVE_TTL = Duration.ofDays(1);
+	private static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofHours(1);
+	private static final Duration DEFAULT_TRANSIENT_TTL = Duration.ofMinutes(5);
+	
+	static final int DEFAULT_MAX_ENTRIES = 100000;
+	private static final int MAX_URI_LENGTH = 4096;
+	
+	private static final String CACHE_FILE_NAME = "uri-cache.dat";
+	private static final int CACHE_FORMAT_VERSION = 1;
+	
+	public static final int NO_STATUS_CODE = -1;
+	
+	private static UriReachabilityCache INSTANCE = null;
+	
+	public static synchronized UriReachabilityCache getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new UriReachabilityCache(getTtl(PROPERTY_POSITIVE_TTL, DEFAULT_POSITIVE_TTL),
+					getTtl(PROPERTY_NEGATIVE_TTL, DEFAULT_NEGATIVE_TTL),
+					getTtl(PROPERTY_TRANSIENT_TTL, DEFAULT_TRANSIENT_TTL),
+					DEFAULT_MAX_ENTRIES);
+			INSTANCE.load();
+		}
+		return INSTANCE;
+	}
+	
+	/**
+	 * Saves the cache (if it was used at all).
+	 */
+	public static synchronized void shutdown() {
+		if (INSTANCE == null) {
+			return;
+		}
+		
+		INSTANCE.save();
+		INSTANCE = null;
+	}
+	
+	private static Duration getTtl(String property, Duration defaultTtl) {
+		try {
+			Long minutes = Long.getLong(property);
+			return minutes != null && minutes >= 0 ? Duration.ofMinutes(minutes) : defaultTtl;
+		} catch (SecurityException e) {
+			return defaultTtl;
+		}
+	}
+	
+	/**
+	 * The result of checking a web address.
+	 */
+	public static final class Entry {
+		
+		public final int statusCode;
+		public final long checkedAt;
+		public final String errorClass;
+		public final boolean transientError;
+		
+		Entry(int statusCode, long checkedAt, String errorClass, boolean transientError) {
+			this.statusCode = statusCode;
+			this.checkedAt = checkedAt;
+			this.errorClass = errorClass;
+			this.transientError = transientError;
+		}
+		
+		/**
+		 * @return <code>true</code> if the address was reachable, i.e. there was no error and no status code &ge; 400
+		 */
+		public boolean isReachable() {
+			return errorClass == null && statusCode < 400;
+		}
+	}
+	
+	private final long positiveTtlMillis;
+	private final long negativeTtlMillis;
+	private final long transientTtlMillis;
+	private final int maxEntries;
+	
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	
+	UriReachabilityCache(Duration positiveTtl, Duration negativeTtl, Duration transientTtl, int maxEntries) {
+		if (positiveTtl == null || negativeTtl == null || transientTtl == null
+				|| positiveTtl.isNegative() || negativeTtl.isNegative() || transientTtl.isNegative()
+				|| maxEntries < 1) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.positiveTtlMillis = positiveTtl.toMillis();
+		this.negativeTtlMillis = negativeTtl.toMillis();
+		this.transientTtlMillis = transientTtl.toMillis();
+		this.maxEntries = maxEntries;
+	}
+	
+	/**
+	 * @return the result of the last check of the given address, or <code>null</code> if the address was
+	 *         not checked yet or if the result expired
+	 */
+	public synchronized Entry get(String uri) {
+		Entry entry = entries.get(uri);
+		if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+			entries.remove(uri);
+			return null;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Remembers the status code that the server answered for the given address.
+	 */
+	public Entry putStatusCode(String uri, int statusCode) {
+		return put(uri, new Entry(statusCode, System.currentTimeMillis(), null, false));
+	}
+	
+	/**
+	 * Remembers that checking the given address failed with the given error. I/O errors (e.g. an
+	 * {@link java.net.http.HttpTimeoutException}) are remembered for a short time only.
+	 */
+	public Entry putError(String uri, Throwable error) {
+		if (error == null) {
+			throw new IllegalArgumentException();
+		}
+		return put(uri, new Entry(NO_STATUS_CODE, System.currentTimeMillis(), error.getClass().getName(), error instanceof IOException));
+	}
+	
+	public synchronized void clear() {
+		entries.clear();
+	}
+	
+	private synchronized Entry put(String uri, Entry entry) {
+		if (uri == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (uri.length() > MAX_URI_LENGTH) {
+			return entry;
+		}
+		
+		entries.put(uri, entry);
+		
+		Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+		while (entries.size() > maxEntries && leastRecentlyUsed.hasNext()) {
+			leastRecentlyUsed.next();
+			leastRecentlyUsed.remove();
+		}
+		
+		return entry;
+	}
+	
+	private boolean isExpired(Entry entry, long now) {
+		long ttlMillis = entry.transientError ? transientTtlMillis
+				: entry.isReachable() ? positiveTtlMillis : negativeTtlMillis;
+		return now - entry.checkedAt >= ttlMillis || entry.checkedAt > now;
+	}
+	
+	private File getCacheFile() {
+		IPath stateLocation = FluentCore.getStateLocation();
+		if (stateLocation == null) {
+			return null;
+		}
+		return stateLocation.append(CACHE_FILE_NAME).toFile();
+	}
+	
+	private void load() {
+		File cacheFile = getCacheFile();
+		if (cacheFile != null) {
+			load(cacheFile);
+		}
+	}
+	
+	synchronized void load(File cacheFile) {
+		if (!cacheFile.isFile()) {
+			return;
+		}
+		
+		long now = System.currentTimeMillis();
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (in.readInt() != CACHE_FORMAT_VERSION) {
+				return;
+			}
+			
+			int numEntries = in.readInt();
+			for (int i = 0; i < numEntries; i++) {
+				String uri = in.readUTF();
+				int statusCode = in.readShort();
+				long checkedAt = in.readLong();
+				String errorClass = in.readBoolean() ? in.readUTF() : null;
+				
+				Entry entry = new Entry(statusCode, checkedAt, errorClass, false);
+				if (!isExpired(entry, now)) {
+					entries.put(uri, entry);
+				}
+			}
+		} catch (IOException e) {
+			FluentCore.log(IStatus.WARNING, "Could not load the cache of checked web addresses.", e);
+			entries.clear();
+		}
+	}
+	
+	private void save() {
+		File cacheFile = getCacheFile();
+		if (cacheFile != null) {
+			save(cacheFile);
+		}
+	}
+	
+	synchronized void save(File cacheFile) {
+		// the reasons for transient errors are probably gone after a restart
+		long now = System.currentTimeMillis();
+		entries.values().removeIf(entry -> entry.transientError || isExpired(entry, now));
+		
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile)))) {
+			out.writeInt(CACHE_FORMAT_VERSION);
+			
+			// entries are written (and thus loaded) from least to most recently used
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeShort(entry.getValue().statusCode);
+				out.writeLong(entry.getValue().checkedAt);
+				out.writeBoolean(entry.getValue().errorClass != null);
+				if (entry.getValue().errorClass != null) {
+					out.writeUTF(entry.getValue().errorClass);
+				}
+			}
+		} catch (IOException e) {
+			FluentCore.log(IStatus.WARNING, "Could not save the cache of checked web addresses.", e);
+			cacheFile.delete();
+		}
+	}
+
+}
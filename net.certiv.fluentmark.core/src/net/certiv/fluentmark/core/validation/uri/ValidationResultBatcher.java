@@ -0,0 +1,84 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ * 
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ * 
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.uri;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+
+import net.certiv.fluentmark.core.FluentCore;
+import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
+import net.certiv.fluentmark.core.validation.ValidationResult;
+
+/**
+ * Collects validation results that are determined asynchronously and hands them over to a consumer in
+ * batches, either if a batch is full or shortly after its first result was added.
+ */
+class ValidationResultBatcher {
+	
+	private static final int MAX_BATCH_SIZE = 100;
+	private static final long MAX_DELAY_MILLIS = 500;
+	
+	private final IValidationResultConsumer consumer;
+	
+	private List<ValidationResult> batch = new ArrayList<>();
+	private boolean flushScheduled = false;
+	
+	ValidationResultBatcher(IValidationResultConsumer consumer) {
+		if (consumer == null) {
+			throw new IllegalArgumentException();
+		}
+		this.consumer = consumer;
+	}
+	
+	IValidationResultConsumer getConsumer() {
+		return consumer;
+	}
+	
+	void add(ValidationResult result) {
+		boolean batchFull;
+		synchronized (this) {
+			batch.add(result);
+			batchFull = batch.size() >= MAX_BATCH_SIZE;
+			
+			if (!batchFull && !flushScheduled) {
+				flushScheduled = true;
+				CompletableFuture.delayedExecutor(MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS).execute(this::flush);
+			}
+		}
+		
+		if (batchFull) {
+			flush();
+		}
+	}
+	
+	void flush() {
+		List<ValidationResult> results;
+		synchronized (this) {
+			results = batch;
+			batch = new ArrayList<>();
+			flushScheduled = false;
+		}
+		
+		if (results.isEmpty()) {
+			return;
+		}
+		
+		try {
+			consumer.reportValidationResults(results);
+		} catch (RuntimeException e) {
+			FluentCore.log(IStatus.WARNING, "Could not report link validation results.", e);
+		}
+	}
+
+}
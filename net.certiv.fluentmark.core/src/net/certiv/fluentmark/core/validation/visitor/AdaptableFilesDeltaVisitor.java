@@ -0,0 +1,106 @@
+/*
+ * This work is made available under the terms of the Eclipse Public License (EPL) Version 1.0.
+ * The EPL 1.0 accompanies this distribution.
+ *
+ * You may obtain a copy of the License at
+ * https://www.eclipse.org/org/documents/epl-v10.html
+ *
+ * Copyright © 2025 Advantest Europe GmbH. All rights reserved.
+ */
+package net.certiv.fluentmark.core.validation.visitor;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import net.certiv.fluentmark.core.validation.FileValidator;
+
+/**
+ * Collects the files from a resource delta that have to be re-validated, i.e. added files
+ * and files with changed contents. Additionally, the locations of all added or removed resources
+ * and of all files with changed contents are collected, so that files linking to them can be found.
+ * Marker-only changes are ignored, since they are usually caused by the validation itself.
+ */
+public class AdaptableFilesDeltaVisitor extends AbstractFileValidationVisitor implements IResourceDeltaVisitor {
+	
+	private static final int RELEVANT_FILE_CHANGES = IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING;
+	
+	private final Set<IFile> changedFiles = new LinkedHashSet<>();
+	private final Set<IFile> removedFiles = new LinkedHashSet<>();
+	private final Set<IPath> addedOrRemovedLocations = new LinkedHashSet<>();
+	private final Set<IPath> changedLocations = new LinkedHashSet<>();
+	
+	public AdaptableFilesDeltaVisitor(FileValidator validator, IProgressMonitor monitor) {
+		super(validator, monitor);
+	}
+	
+	public Set<IFile> getChangedFiles() {
+		return Collections.unmodifiableSet(changedFiles);
+	}
+	
+	public Set<IFile> getRemovedFiles() {
+		return Collections.unmodifiableSet(removedFiles);
+	}
+	
+	public Set<IPath> getAddedOrRemovedLocations() {
+		return Collections.unmodifiableSet(addedOrRemovedLocations);
+	}
+	
+	public Set<IPath> getChangedLocations() {
+		return Collections.unmodifiableSet(changedLocations);
+	}
+	
+	@Override
+	public boolean visit(IResourceDelta delta) throws CoreException {
+		if (progressMonitor.isCanceled()) {
+			return false;
+		}
+		
+		IResource resource = delta.getResource();
+		
+		switch (delta.getKind()) {
+			case IResourceDelta.REMOVED:
+				rememberLocation(resource, addedOrRemovedLocations);
+				if (resource instanceof IFile) {
+					removedFiles.add((IFile) resource);
+				}
+				return true;
+			
+			case IResourceDelta.ADDED:
+				rememberLocation(resource, addedOrRemovedLocations);
+				return visit(resource);
+			
+			case IResourceDelta.CHANGED:
+				if (resource instanceof IFile) {
+					if ((delta.getFlags() & RELEVANT_FILE_CHANGES) == 0) {
+						return false;
+					}
+					rememberLocation(resource, changedLocations);
+				}
+				return visit(resource);
+			
+			default:
+				return false;
+		}
+	}
+	
+	@Override
+	protected void handleFile(IFile file) {
+		changedFiles.add(file);
+	}
+	
+	private void rememberLocation(IResource resource, Set<IPath> locations) {
+		IPath location = resource.getLocation();
+		if (location != null) {
+			locations.add(location);
+		}
+	}
+}
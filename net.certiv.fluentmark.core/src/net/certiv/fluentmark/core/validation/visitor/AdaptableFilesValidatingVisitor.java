@@ -9,14 +9,21 @@
  */
 package net.certiv.fluentmark.core.validation.visitor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jface.text.IDocument;
 
 import net.certiv.fluentmark.core.FluentCore;
@@ -24,9 +31,46 @@ import net.certiv.fluentmark.core.extensionpoints.DocumentResolversManager;
 import net.certiv.fluentmark.core.validation.FileValidator;
 
 public class AdaptableFilesValidatingVisitor extends AbstractFileValidationVisitor {
+	
+	private final ExecutorService executor;
+	private final List<Future<?>> pendingValidations = new ArrayList<>();
 
 	public AdaptableFilesValidatingVisitor(FileValidator validator, IProgressMonitor monitor) {
+		this(validator, monitor, null);
+	}
+	
+	/**
+	 * Creates a visitor that only prepares the files' validation in the visiting thread
+	 * and validates the files in the given executor's threads (if an executor is given).
+	 * Call {@link #awaitValidations(IProgressMonitor)} after visiting all resources.
+	 */
+	public AdaptableFilesValidatingVisitor(FileValidator validator, IProgressMonitor monitor, ExecutorService executor) {
 		super(validator, monitor);
+		this.executor = executor;
+	}
+	
+	/**
+	 * Waits for the validations running in the executor's threads and reports one unit of work per validated file.
+	 */
+	public void awaitValidations(IProgressMonitor monitor) {
+		try {
+			for (Future<?> validation : pendingValidations) {
+				try {
+					validation.get();
+				} catch (ExecutionException e) {
+					FluentCore.log(IStatus.ERROR, "File validation failed.", e);
+				} catch (CancellationException e) {
+					// validation was not started, nothing to report
+				}
+				monitor.worked(1);
+			}
+		} catch (InterruptedException e) {
+			pendingValidations.forEach(validation -> validation.cancel(false));
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			pendingValidations.clear();
+		}
 	}
 	
 	@Override
@@ -57,10 +101,39 @@ public class AdaptableFilesValidatingVisitor extends AbstractFileValidationVisit
 			.findFirst();
 		
 		// perform the validation
-		if (document.isPresent()) {
+		if (executor != null) {
+			IDocument resolvedDocument = document.orElse(null);
+			pendingValidations.add(executor.submit(() -> validateInWorkerThread(resolvedDocument, file)));
+		} else if (document.isPresent()) {
 			validator.performResourceValidation(document.get(), file, this.progressMonitor);
 		} else {
 			validator.performResourceValidation(file, this.progressMonitor);
 		}
 	}
+	
+	private void validateInWorkerThread(IDocument document, IFile file) {
+		// progress is reported by the visiting thread, we only forward cancellation to the validation
+		IProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return progressMonitor.isCanceled();
+			}
+		};
+		
+		if (workerMonitor.isCanceled()) {
+			return;
+		}
+		
+		// We already refreshed the file in the visiting thread. Refreshing it once again in a worker thread
+		// (which FileValidator does for files without a document) would need a scheduling rule that is
+		// owned by the visiting thread, e.g. by a builder. Thus, we read the file here.
+		IDocument documentToValidate = document;
+		if (documentToValidate == null) {
+			documentToValidate = FileValidator.readDocument(file);
+		}
+		
+		if (documentToValidate != null) {
+			validator.performResourceValidation(documentToValidate, file, workerMonitor);
+		}
+	}
 }
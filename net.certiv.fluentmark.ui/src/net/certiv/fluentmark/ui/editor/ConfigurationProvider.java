@@ -63,6 +63,12 @@ public class ConfigurationProvider implements IConfigurationProvider {
 		return store.getString(Prefs.EDITOR_PANDOC_PROGRAM);
 	}
 	
+	@Override
+	public boolean usePandocServer() {
+		return Prefs.KEY_PANDOC.equals(store.getString(Prefs.EDITOR_MD_CONVERTER))
+				&& store.getBoolean(Prefs.EDITOR_PANDOC_SERVER);
+	}
+	
 	@Override
 	public String getDotCommand() {
 		return store.getString(Prefs.EDITOR_DOT_PROGRAM);
@@ -86,6 +86,7 @@ import org.eclipse.ui.texteditor.ITextEditorActionConstants;
 import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
 
 import net.certiv.fluentmark.core.convert.Converter;
+import net.certiv.fluentmark.core.convert.HtmlBlocks;
 import net.certiv.fluentmark.core.convert.HtmlGen;
 import net.certiv.fluentmark.core.convert.Kind;
 import net.certiv.fluentmark.core.dot.DotRecord;
@@ -94,7 +95,7 @@ import net.certiv.fluentmark.core.markdown.model.ISourceRange;
 import net.certiv.fluentmark.core.markdown.model.ISourceReference;
 import net.certiv.fluentmark.core.markdown.model.PagePart;
 import net.certiv.fluentmark.core.markdown.model.PageRoot;
-import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownSymbolTable;
 import net.certiv.fluentmark.core.markdown.parsing.RegexMatch;
 import net.certiv.fluentmark.core.markdown.partitions.MarkdownPartitioner;
 import net.certiv.fluentmark.core.util.FileUtils;
@@ -690,6 +691,24 @@ public class FluentEditor extends TextEditor
 		return htmlGen.buildHtml(filePath, basepath, getDocument(), kind);
 	}
 	
+	/**
+	 * Returns the Html content block by block, re-using the unchanged blocks of the previous result,
+	 * or null if the configured converter cannot convert block by block.
+	 */
+	public HtmlBlocks getHtmlBlocks(HtmlBlocks previous) {
+		IEditorInput input = this.getEditorInput();
+		if (input == null) return null;
+		
+		IPath filePath = null;
+		if (input instanceof IPathEditorInput) {
+			filePath = ((IPathEditorInput) input).getPath();
+		} else if (input instanceof IURIEditorInput) {
+			filePath = new Path(((IURIEditorInput) input).getURI().getPath());
+		}
+		
+		return converter.convertBlocks(filePath, getDocument(), previous);
+	}
+	
 	/**
 	 * React to change selection event in the editor and outline!
 	 */
@@ -1068,9 +1087,7 @@ public class FluentEditor extends TextEditor
 		
 		IDocument document = this.getDocument();
 		if (document != null) {
-			String documentContent = document.get();
-			
-			Optional<RegexMatch> linkRefDefMatch = MarkdownParsingTools.findLinkReferenceDefinition(documentContent, linkReferenceDefinitionName);
+			Optional<RegexMatch> linkRefDefMatch = MarkdownSymbolTable.of(document).findLinkReferenceDefinition(linkReferenceDefinitionName);
 			
 			if (linkRefDefMatch.isPresent()) {
 				selectAndReveal(linkRefDefMatch.get().startIndex, linkRefDefMatch.get().matchedText.length());
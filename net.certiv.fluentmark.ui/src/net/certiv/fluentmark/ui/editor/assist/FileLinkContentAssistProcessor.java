@@ -34,6 +34,7 @@ import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.texteditor.ITextEditor;
 
 import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownSymbolTable;
 import net.certiv.fluentmark.core.util.FileUtils;
 import net.certiv.fluentmark.ui.FluentImages;
 import net.certiv.fluentmark.ui.FluentUI;
@@ -295,8 +296,8 @@ public class FileLinkContentAssistProcessor implements IContentAssistProcessor {
 		if ((linkTextLeftFromCursor.isEmpty() && linkTextRightFromCursor.isEmpty())
 				|| (linkTextLeftFromCursor + linkTextRightFromCursor).matches("#\\S*")) {
 			
-			String markdownFileContent = document.get();
-			addProposalsWithSectionAnchorsFromMarkdownCode(proposals, markdownFileContent, replacmentOffset, replacementLength, currentEditorsMarkdownFile);
+			Set<String> anchors = MarkdownSymbolTable.of(document).getValidSectionAnchors();
+			addProposalsWithSectionAnchors(proposals, anchors, replacmentOffset, replacementLength, currentEditorsMarkdownFile);
 			
 		// we have a path to a Markdown file in our link target
 		} else if (cursorInOptionalAnchorAfterMarkdownFilePath(linkTextLeftFromCursor, linkTextRightFromCursor)) {
@@ -312,10 +313,10 @@ public class FileLinkContentAssistProcessor implements IContentAssistProcessor {
 				// look up IDocument for the IFile in case it is opened in a text editor
 				IDocument targetFileDocument = DocumentEditorUtils.findDocumentFor(targetFile);
 				
-				String markdownFileContent = targetFileDocument != null ?
-						targetFileDocument.get() : 
-						FileUtils.readFileContents(targetFile);
-				addProposalsWithSectionAnchorsFromMarkdownCode(proposals, markdownFileContent, replacmentOffset, replacementLength, targetFile);
+				Set<String> anchors = targetFileDocument != null ?
+						MarkdownSymbolTable.of(targetFileDocument).getValidSectionAnchors() :
+						MarkdownParsingTools.findValidSectionAnchorsInMarkdownCode(FileUtils.readFileContents(targetFile));
+				addProposalsWithSectionAnchors(proposals, anchors, replacmentOffset, replacementLength, targetFile);
 			}
 		}
 	}
@@ -325,10 +326,8 @@ public class FileLinkContentAssistProcessor implements IContentAssistProcessor {
 		return linkTextLeftFromCursor.matches(regex);
 	}
 	
-	private void addProposalsWithSectionAnchorsFromMarkdownCode(List<ICompletionProposal> proposals, String markdownCode,
+	private void addProposalsWithSectionAnchors(List<ICompletionProposal> proposals, Set<String> anchors,
 			int replacementOffset, int replacementLength, IFile markdownSourceCodeFile) {
-		Set<String> anchors = MarkdownParsingTools.findValidSectionAnchorsInMarkdownCode(markdownCode);
-		
 		for (String anchor: anchors) {
 			Image img = FluentUI.getDefault().getImageProvider().get(FluentImages.DESC_OBJ_ANCHOR);
 			String fileName = markdownSourceCodeFile != null ? markdownSourceCodeFile.getName() : "";
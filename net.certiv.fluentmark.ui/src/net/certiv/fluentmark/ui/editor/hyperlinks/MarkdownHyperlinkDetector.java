@@ -26,6 +26,7 @@ import org.eclipse.jface.text.hyperlink.IHyperlinkDetector;
 import org.eclipse.jface.text.hyperlink.IHyperlinkDetectorExtension;
 
 import net.certiv.fluentmark.core.markdown.parsing.MarkdownParsingTools;
+import net.certiv.fluentmark.core.markdown.parsing.MarkdownSymbolTable;
 import net.certiv.fluentmark.core.markdown.parsing.RegexMatch;
 import net.certiv.fluentmark.core.util.DocumentUtils;
 import net.certiv.fluentmark.core.util.FileUtils;
@@ -283,7 +284,7 @@ public class MarkdownHyperlinkDetector extends AbstractHyperlinkDetector
 			return null;
 		}
 		
-		if (MarkdownParsingTools.findLinkReferenceDefinition(currentDocument.get(), linkReferenceDefinitionName).isEmpty()) {
+		if (MarkdownSymbolTable.of(currentDocument).findLinkReferenceDefinition(linkReferenceDefinitionName).isEmpty()) {
 			return null;
 		}
 		
@@ -8,6 +8,7 @@ package net.certiv.fluentmark.ui.handlers;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
@@ -99,7 +100,12 @@ public class PdfGen {
 					// send document to pandoc to convert & save
 					File out = new File(pathname);
 					String content = doc.get();
-					String err = convert(base, template, content, out);
+					String err;
+					try {
+						err = convert(base, template, content, out, monitor);
+					} catch (OperationCanceledException e) {
+						return Status.CANCEL_STATUS;
+					}
 
 					cleanup(dir);
 					if (!err.isEmpty()) {
@@ -173,6 +179,10 @@ public class PdfGen {
 	}
 
 	protected String convert(String base, String template, String content, File out) {
+		return convert(base, template, content, out, null);
+	}
+
+	protected String convert(String base, String template, String content, File out, IProgressMonitor monitor) {
 		List<String> ops = new ArrayList<>();
 
 		String cmd = configurationProvider.getPandocCommand();
@@ -189,7 +199,7 @@ public class PdfGen {
 		ops.add(out.getPath());
 
 		String[] args = ops.toArray(new String[ops.size()]);
-		CmdResult result = Cmd.process(args, base, content);
+		CmdResult result = Cmd.process(args, base, content, Strings.EOL, monitor);
 		
 		if (result.hasErrors()) {
 			FluentUI.log(IStatus.ERROR, "Problems occured while generating PDF file:\n\n" + result.errOutput);
@@ -231,8 +241,8 @@ public class PdfGen {
 		String cmd = configurationProvider.getDotCommand();
 		if (cmd.trim().isEmpty() || data.trim().isEmpty()) return false;
 
-		// generate a new value by executing dot
-		String[] args = DOT2PDF;
+		// generate a new value by executing dot (several threads may do that concurrently, thus we copy the options)
+		String[] args = DOT2PDF.clone();
 		args[0] = cmd;
 		args[DOT2PDF.length - 1] = file.getPath();
 
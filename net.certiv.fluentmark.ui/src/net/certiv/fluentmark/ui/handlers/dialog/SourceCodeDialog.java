@@ -22,7 +22,7 @@ import org.eclipse.swt.widgets.Text;
 
 public class SourceCodeDialog extends Dialog {
 	
-	private static final String CONTENTS_SOURCE_CODE = "contents: 'Ready...',";
+	private static final String CONTENTS_SOURCE_CODE = "<span id=\"app\">Ready...</span>";
 	
 	private final String sourceCode;
 	private final String contents;
@@ -46,13 +46,8 @@ public class SourceCodeDialog extends Dialog {
         			.map(line -> "\t\t\t" + line)
         			.collect(Collectors.joining("\n"));
         	
-        	replacementContent = CONTENTS_SOURCE_CODE.replace("'Ready...'", "`" + replacementContent + "`");
+        	replacementContent = "<span id=\"app\">\n" + replacementContent + "\n\t\t</span>";
         	text = text.replace(CONTENTS_SOURCE_CODE, replacementContent);
-        	
-        	// clean up code if browser engine is edge
-        	if (!text.contains("<span id=\"app\" v-html=\"contents\">")) {
-        		text = text.replace("<span id=\"app\">", "<span id=\"app\" v-html=\"contents\">");
-        	}
         }
         
         Text textField = new Text(container, SWT.MULTI | SWT.READ_ONLY | SWT.V_SCROLL | SWT.H_SCROLL);
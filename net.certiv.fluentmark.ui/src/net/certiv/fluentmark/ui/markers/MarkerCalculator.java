@@ -130,15 +130,7 @@ public class MarkerCalculator {
 			return;
 		}
 		
-		monitor.subTask("Delete obsolete markers");
-		MarkerCreator.deleteAllDocumentationProblemMarkers(file);
-		MarkerCreator.deleteAllMarkdownTaskMarkers(file);
-		MarkerCreator.deleteAllPlantUmlTaskMarkers(file);
-		
-		if (monitor.isCanceled()) {
-			return;
-		}
-		
+		// the marker creator replaces the file's obsolete markers after the validation
 		monitor.subTask("Calculate new markers");
 		fileValidator.performResourceValidation(document, file, monitor);
 	}
@@ -9,111 +9,331 @@
  */
 package net.certiv.fluentmark.ui.markers;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 
 import net.certiv.fluentmark.core.validation.IValidationResultConsumer;
 import net.certiv.fluentmark.core.validation.IssueTypes;
+import net.certiv.fluentmark.core.validation.ValidationResult;
+import net.certiv.fluentmark.core.validation.uri.LinkValidator;
 import net.certiv.fluentmark.ui.FluentUI;
 
+/**
+ * Creates markers for reported validation results.
+ * 
+ * <p>The results of a file's validation are buffered until the validation ends. Then the file's markers are
+ * updated in a single workspace operation (thus, with a single resource change event): Existing markers that
+ * are equal to a reported result are kept, all other markers of the file are deleted, and markers for the
+ * remaining results are created. If web addresses of the file are still being checked in the background when
+ * its validation ends, the markers are updated after the results of these checks were reported. Thus, markers
+ * for broken links are not deleted and re-created on each validation. Results that are reported after the
+ * file's markers were updated are added to the file's markers.</p>
+ */
 public class MarkerCreator implements IValidationResultConsumer {
+	
+	private static final String[] MARKER_TYPES = {
+			MarkerConstants.MARKER_ID_DOCUMENTATION_PROBLEM,
+			MarkerConstants.MARKER_ID_TASK_MARKDOWN,
+			MarkerConstants.MARKER_ID_TASK_PLANTUML
+	};
+	
+	private static final class MarkerData {
+		
+		private final String type;
+		private final Map<String, Object> attributes;
+		
+		MarkerData(String type, Map<String, Object> attributes) {
+			this.type = type;
+			this.attributes = attributes != null ? attributes : Map.of();
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * type.hashCode() + attributes.hashCode();
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof MarkerData other
+					&& type.equals(other.type)
+					&& attributes.equals(other.attributes);
+		}
+	}
+	
+	/**
+	 * The markers for the results reported during a file's validation. Results may be reported from other
+	 * threads (e.g. by asynchronous link checks), even while the validation ends.
+	 */
+	private static final class PendingMarkers {
+		
+		private final List<MarkerData> markers = new ArrayList<>();
+		private final List<MarkerData> lateMarkers = new ArrayList<>();
+		private boolean ended = false;
+		private boolean updated = false;
+		
+		/**
+		 * @return <code>false</code> if the file's markers were updated already, thus the marker has to be
+		 *         added separately
+		 */
+		synchronized boolean add(MarkerData marker) {
+			if (updated) {
+				return false;
+			}
+			
+			if (ended) {
+				lateMarkers.add(marker);
+			} else {
+				markers.add(marker);
+			}
+			return true;
+		}
+		
+		/**
+		 * @return the markers reported until the validation ended and its link checks were reported
+		 */
+		synchronized List<MarkerData> end() {
+			ended = true;
+			return new ArrayList<>(markers);
+		}
+		
+		/**
+		 * @return the markers reported after the validation ended, but before the file's markers were updated
+		 */
+		synchronized List<MarkerData> markUpdated() {
+			updated = true;
+			return new ArrayList<>(lateMarkers);
+		}
+	}
+	
+	// files validated in parallel report their results from different threads
+	private final Map<IFile, PendingMarkers> pendingMarkers = new ConcurrentHashMap<>();
+	
+	@Override
+	public void beginValidation(IFile file) {
+		pendingMarkers.put(file, new PendingMarkers());
+	}
+	
+	@Override
+	public void endValidation(IFile file, boolean completed) {
+		PendingMarkers pending = pendingMarkers.get(file);
+		if (pending == null) {
+			return;
+		}
+		
+		// completes immediately if there are no link checks running for the file
+		LinkValidator.whenChecksReported(file)
+			.whenComplete((result, error) -> finishValidation(file, pending, completed));
+	}
+	
+	private void finishValidation(IFile file, PendingMarkers pending, boolean completed) {
+		if (pendingMarkers.get(file) != pending) {
+			// the file is being validated once again, that validation will update the markers
+			return;
+		}
+		
+		List<MarkerData> markers = pending.end();
+		try {
+			// keep the previous markers if we did not get all new ones
+			if (completed && file.exists()) {
+				IWorkspace workspace = file.getWorkspace();
+				workspace.run(monitor -> updateMarkers(file, markers),
+						workspace.getRuleFactory().markerRule(file), IWorkspace.AVOID_UPDATE, null);
+			}
+		} catch (CoreException e) {
+			FluentUI.log(IStatus.WARNING, "Markers couldn't be updated.", e);
+		} finally {
+			// add late results only now, updating the markers would delete them
+			List<MarkerData> lateMarkers = pending.markUpdated();
+			pendingMarkers.remove(file, pending);
+			if (!lateMarkers.isEmpty()) {
+				addMarkers(Map.of(file, lateMarkers));
+			}
+		}
+	}
 
 	@Override
 	public void reportValidationResult(IFile file, String issueTypeId, int issueSeverity, String message,
 			Integer issueLineNumber, Integer issueStartOffset, Integer issueEndOffset) {
 		
-		switch (issueTypeId) {
+		MarkerData marker = createMarkerData(issueTypeId, issueSeverity, message,
+				issueLineNumber, issueStartOffset, issueEndOffset);
+		
+		PendingMarkers markers = pendingMarkers.get(file);
+		if (markers == null || !markers.add(marker)) {
+			// result reported outside of a file validation
+			addMarkers(Map.of(file, List.of(marker)));
+		}
+	}
+	
+	@Override
+	public void reportValidationResults(List<ValidationResult> results) {
+		Map<IFile, List<MarkerData>> markersToAdd = new LinkedHashMap<>();
+		
+		for (ValidationResult result : results) {
+			MarkerData marker = createMarkerData(result.issueTypeId, result.issueSeverity, result.message,
+					result.issueLineNumber, result.issueStartOffset, result.issueEndOffset);
+			
+			PendingMarkers markers = pendingMarkers.get(result.file);
+			if (markers == null || !markers.add(marker)) {
+				markersToAdd.computeIfAbsent(result.file, file -> new ArrayList<>()).add(marker);
+			}
+		}
+		
+		if (!markersToAdd.isEmpty()) {
+			addMarkers(markersToAdd);
+		}
+	}
+	
+	private MarkerData createMarkerData(String issueTypeId, int issueSeverity, String message,
+			Integer issueLineNumber, Integer issueStartOffset, Integer issueEndOffset) {
+		return switch (issueTypeId) {
 			case IssueTypes.MARKDOWN_ISSUE ->
-				createDocumentationProblemMarker(file, issueSeverity, message,
+				createDocumentationProblemMarkerData(issueSeverity, message,
 					issueLineNumber, issueStartOffset, issueEndOffset);
 
 			case IssueTypes.PLANTUML_ISSUE ->
-				createDocumentationProblemMarker(file, issueSeverity, message,
+				createDocumentationProblemMarkerData(issueSeverity, message,
 					issueLineNumber, issueStartOffset, issueEndOffset);
 			
 			case TaskTypes.MARKDOWN_TASK ->
-				createMarkdownTaskMarker(file, issueSeverity, message,
+				createTaskMarkerData(MarkerConstants.MARKER_ID_TASK_MARKDOWN, issueSeverity, message,
 						issueLineNumber, issueStartOffset, issueEndOffset);
 			
 			case TaskTypes.PLANTUML_TASK ->
-				createPlantUmlTaskMarker(file, issueSeverity, message,
+				createTaskMarkerData(MarkerConstants.MARKER_ID_TASK_PLANTUML, issueSeverity, message,
 					issueLineNumber, issueStartOffset, issueEndOffset);
 			
 			default ->
 				throw new IllegalArgumentException("Unexpected issue type ID: " + issueTypeId);
-		}
+		};
 	}
 	
-	private IMarker createDocumentationProblemMarker(IResource resource, int markerSeverity, String markerMessage,
+	private MarkerData createDocumentationProblemMarkerData(int markerSeverity, String markerMessage,
 			Integer lineNumber, Integer startOffset, Integer endOffset) {
-		IMarker marker;
-		try {
-			marker  = resource.createMarker(MarkerConstants.MARKER_ID_DOCUMENTATION_PROBLEM);
-			marker.setAttribute(IMarker.MESSAGE, markerMessage);
-			marker.setAttribute(IMarker.SEVERITY, markerSeverity);
-			marker.setAttribute(IMarker.LOCATION, String.format("line %s", lineNumber != null && lineNumber.intValue() > 0 ? lineNumber.intValue() : "unknown"));
-			if (startOffset != null && endOffset != null) {
-				marker.setAttribute(IMarker.CHAR_START, startOffset.intValue());
-				marker.setAttribute(IMarker.CHAR_END, endOffset.intValue());
-			}
-			if (lineNumber != null && lineNumber.intValue() > 0) {
-				marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
-			}
-			
-			return marker;
-		} catch (CoreException e) {
-			FluentUI.log(IStatus.WARNING, "Problem marker couldn't be created.", e);
-		}
-		return null;
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put(IMarker.MESSAGE, markerMessage);
+		attributes.put(IMarker.SEVERITY, markerSeverity);
+		addLocationAttributes(attributes, lineNumber, startOffset, endOffset);
+		
+		return new MarkerData(MarkerConstants.MARKER_ID_DOCUMENTATION_PROBLEM, attributes);
 	}
 	
-	private IMarker createMarkdownTaskMarker(IResource resource, int markerPriority, String markerMessage,
+	private MarkerData createTaskMarkerData(String markerType, int markerPriority, String markerMessage,
 			Integer lineNumber, Integer startOffset, Integer endOffset) {
-		return createTaskMarker(resource, MarkerConstants.MARKER_ID_TASK_MARKDOWN, markerPriority, markerMessage, lineNumber, startOffset, endOffset);
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put(IMarker.MESSAGE, markerMessage);
+		attributes.put(IMarker.PRIORITY, markerPriority);
+		attributes.put(IMarker.USER_EDITABLE, false);
+		addLocationAttributes(attributes, lineNumber, startOffset, endOffset);
+		
+		return new MarkerData(markerType, attributes);
 	}
 	
-	private IMarker createPlantUmlTaskMarker(IResource resource, int markerPriority, String markerMessage,
-			Integer lineNumber, Integer startOffset, Integer endOffset) {
-		return createTaskMarker(resource, MarkerConstants.MARKER_ID_TASK_PLANTUML, markerPriority, markerMessage, lineNumber, startOffset, endOffset);
+	private void addLocationAttributes(Map<String, Object> attributes, Integer lineNumber, Integer startOffset, Integer endOffset) {
+		attributes.put(IMarker.LOCATION, String.format("line %s", lineNumber != null && lineNumber.intValue() > 0 ? lineNumber.intValue() : "unknown"));
+		if (startOffset != null && endOffset != null) {
+			attributes.put(IMarker.CHAR_START, startOffset.intValue());
+			attributes.put(IMarker.CHAR_END, endOffset.intValue());
+		}
+		if (lineNumber != null && lineNumber.intValue() > 0) {
+			attributes.put(IMarker.LINE_NUMBER, lineNumber.intValue());
+		}
 	}
 	
-	private IMarker createTaskMarker(IResource resource, String markerType, int markerPriority, String markerMessage,
-			Integer lineNumber, Integer startOffset, Integer endOffset) {
-		IMarker marker;
-		try {
-			marker  = resource.createMarker(markerType);
-			marker.setAttribute(IMarker.MESSAGE, markerMessage);
-			marker.setAttribute(IMarker.PRIORITY, markerPriority);
-			marker.setAttribute(IMarker.LOCATION, String.format("line %s", lineNumber != null && lineNumber.intValue() > 0 ? lineNumber.intValue() : "unknown"));
-			marker.setAttribute(IMarker.USER_EDITABLE, false);
-			if (startOffset != null && endOffset != null) {
-				marker.setAttribute(IMarker.CHAR_START, startOffset.intValue());
-				marker.setAttribute(IMarker.CHAR_END, endOffset.intValue());
+	private void updateMarkers(IFile file, List<MarkerData> markers) throws CoreException {
+		Map<MarkerData, Integer> missingMarkers = new HashMap<>();
+		for (MarkerData marker : markers) {
+			missingMarkers.merge(marker, 1, Integer::sum);
+		}
+		
+		// keep existing markers that would be created once again, delete all others
+		List<IMarker> obsoleteMarkers = new ArrayList<>();
+		for (String markerType : MARKER_TYPES) {
+			for (IMarker existingMarker : file.findMarkers(markerType, false, IResource.DEPTH_ZERO)) {
+				MarkerData existingMarkerData = new MarkerData(markerType, existingMarker.getAttributes());
+				Integer missingCount = missingMarkers.get(existingMarkerData);
+				if (missingCount != null && missingCount > 0) {
+					missingMarkers.put(existingMarkerData, missingCount - 1);
+				} else {
+					obsoleteMarkers.add(existingMarker);
+				}
 			}
-			if (lineNumber != null && lineNumber.intValue() > 0) {
-				marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
+		}
+		
+		if (!obsoleteMarkers.isEmpty()) {
+			file.getWorkspace().deleteMarkers(obsoleteMarkers.toArray(new IMarker[obsoleteMarkers.size()]));
+		}
+		
+		for (MarkerData marker : markers) {
+			Integer missingCount = missingMarkers.get(marker);
+			if (missingCount > 0) {
+				missingMarkers.put(marker, missingCount - 1);
+				createMarker(file, marker);
 			}
-			
-			return marker;
+		}
+	}
+	
+	/**
+	 * Adds markers to files that are not being validated, skipping markers that already exist
+	 * (e.g. markers for results that were reported twice by asynchronous validations).
+	 */
+	private void addMarkers(Map<IFile, List<MarkerData>> markersToAdd) {
+		IWorkspace workspace = markersToAdd.keySet().iterator().next().getWorkspace();
+		try {
+			// creating markers does not need a scheduling rule
+			workspace.run(monitor -> {
+				for (Map.Entry<IFile, List<MarkerData>> entry : markersToAdd.entrySet()) {
+					IFile file = entry.getKey();
+					if (!file.exists()) {
+						continue;
+					}
+					
+					Set<MarkerData> existingMarkers = new HashSet<>();
+					for (String markerType : MARKER_TYPES) {
+						for (IMarker existingMarker : file.findMarkers(markerType, false, IResource.DEPTH_ZERO)) {
+							existingMarkers.add(new MarkerData(markerType, existingMarker.getAttributes()));
+						}
+					}
+					
+					for (MarkerData marker : entry.getValue()) {
+						if (existingMarkers.add(marker)) {
+							createMarker(file, marker);
+						}
+					}
+				}
+			}, null, IWorkspace.AVOID_UPDATE, null);
 		} catch (CoreException e) {
-			FluentUI.log(IStatus.WARNING, "Task marker couldn't be created.", e);
+			FluentUI.log(IStatus.WARNING, "Markers couldn't be created.", e);
 		}
-		return null;
 	}
 	
-	private static void deleteAllMarkersOfType(IResource resource, String markerTypeId) throws CoreException {
-		IMarker[] markers = resource.findMarkers(markerTypeId, true, IResource.DEPTH_INFINITE);
-		
-		for (IMarker marker: markers) {
-			if (marker.exists()) {
-				marker.delete();
-			}
+	private void createMarker(IResource resource, MarkerData markerData) {
+		try {
+			IMarker marker = resource.createMarker(markerData.type);
+			marker.setAttributes(markerData.attributes.keySet().toArray(new String[markerData.attributes.size()]),
+					markerData.attributes.values().toArray());
+		} catch (CoreException e) {
+			FluentUI.log(IStatus.WARNING, "Marker couldn't be created.", e);
 		}
 	}
 	
+	private static void deleteAllMarkersOfType(IResource resource, String markerTypeId) throws CoreException {
+		resource.deleteMarkers(markerTypeId, true, IResource.DEPTH_INFINITE);
+	}
+	
 	public static void deleteAllDocumentationProblemMarkers(IResource resource) throws CoreException {
 		deleteAllMarkersOfType(resource, MarkerConstants.MARKER_ID_DOCUMENTATION_PROBLEM);
 	}
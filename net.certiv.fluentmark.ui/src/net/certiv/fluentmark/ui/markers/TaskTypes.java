@@ -13,6 +13,7 @@ import net.certiv.fluentmark.ui.FluentUI;
 
 public interface TaskTypes {
 
+	// the SARIF log of the headless validation knows these IDs, too (see net.certiv.fluentmark.core.validation.cli.SarifWriter)
 	String PREFIX = FluentUI.PLUGIN_ID + ".validation.task.";
 	String MARKDOWN_TASK = PREFIX + "markdown";
 	String PLANTUML_TASK = PREFIX + "plantuml";
@@ -8,6 +8,7 @@
 package net.certiv.fluentmark.ui.outline;
 
 import org.eclipse.jface.viewers.IBaseLabelProvider;
+import org.eclipse.jface.viewers.IElementComparer;
 import org.eclipse.jface.viewers.IOpenListener;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
@@ -17,7 +18,6 @@ import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.jface.viewers.OpenEvent;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
-import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
@@ -67,8 +67,12 @@ import org.eclipse.swt.widgets.TreeItem;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import net.certiv.fluentmark.core.markdown.model.ElementChangedEvent;
@@ -191,7 +195,11 @@ public class FluentOutlinePage extends ContentOutlinePage implements IShowInSour
 					@Override
 					public void run() {
 						if (viewer != null) {
-							FluentOutlinePage.this.setInput((PageRoot) e.getDelta());
+							if (e.isIncremental() && viewer.getInput() == e.getDelta()) {
+								viewer.reconcile(e);
+							} else {
+								FluentOutlinePage.this.setInput((PageRoot) e.getDelta());
+							}
 						}
 					}
 				});
@@ -212,6 +220,20 @@ public class FluentOutlinePage extends ContentOutlinePage implements IShowInSour
 			super(tree);
 			setAutoExpandLevel(ALL_LEVELS);
 			setUseHashlookup(true);
+			
+			// parts are equal by offset and content, but incremental model updates move and keep them
+			setComparer(new IElementComparer() {
+				
+				@Override
+				public boolean equals(Object a, Object b) {
+					return a == b;
+				}
+				
+				@Override
+				public int hashCode(Object element) {
+					return System.identityHashCode(element);
+				}
+			});
 		}
 		
 		public void setHeadingsOnlyFilter(boolean enabled) {
@@ -296,10 +318,31 @@ public class FluentOutlinePage extends ContentOutlinePage implements IShowInSour
 		/**
 		 * Investigates the given element change event and if affected incrementally updates the outline.
 		 *
-		 * @param delta the Dsl element delta used to reconcile the Dsl outline
+		 * @param event the incremental element change event used to reconcile the outline
 		 */
-		public void reconcile(PagePart delta) {
-			refresh(true);
+		public void reconcile(ElementChangedEvent event) {
+			Set<Object> parents = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (List<IElement> elements : Arrays.asList(event.getRemovedElements(), event.getAddedElements(),
+					event.getChangedElements())) {
+				for (IElement element : elements) {
+					parents.add(((IParent) element).getParent());
+				}
+			}
+			
+			if (parents.isEmpty()) return;
+			if (parents.contains(getInput())) {
+				refresh(true);
+			} else {
+				for (Object parent : parents) {
+					refresh(parent, true);
+				}
+			}
+			
+			for (IElement element : event.getAddedElements()) {
+				if (((IParent) element).hasChildren()) {
+					expandToLevel(element, ALL_LEVELS);
+				}
+			}
 		}
 	}
 
@@ -497,13 +540,16 @@ public class FluentOutlinePage extends ContentOutlinePage implements IShowInSour
 	public void setInput(PageRoot inputElement) {
 		input = inputElement;
 		if (viewer != null) {
-			Object[] expandedElements = viewer.getExpandedElements();
-			TreePath[] expandedTreePaths = viewer.getExpandedTreePaths();
+			// the new parts are equal to the expanded ones, but not identical
+			Set<Object> expandedElements = new HashSet<>(Arrays.asList(viewer.getExpandedElements()));
 
 			viewer.setInput(input);
 
-			viewer.setExpandedElements(expandedElements);
-			viewer.setExpandedTreePaths(expandedTreePaths);
+			if (input != null) {
+				viewer.setExpandedElements(input.getPageParts().stream()
+						.filter(expandedElements::contains)
+						.toArray());
+			}
 
 			actions.get(ACTION_COPY).setEnabled(true);
 			actions.get(ACTION_CUT).setEnabled(true);
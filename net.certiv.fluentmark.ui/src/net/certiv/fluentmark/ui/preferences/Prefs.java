@@ -49,6 +49,7 @@ public interface Prefs extends PrefsSpelling {
 	String EDITOR_PANDOC_ADDTOC = MD_ID + ".pandocAddToc";
 	String EDITOR_PANDOC_SMART = MD_ID + ".pandocSmart";
 	String EDITOR_PANDOC_MATHJAX = MD_ID + ".pandocMathjax";
+	String EDITOR_PANDOC_SERVER = MD_ID + ".pandocServer";
 	
 	String EDITOR_FLEXMARK_MATHJAX = MD_ID + ".flexmarkMathjax";
 
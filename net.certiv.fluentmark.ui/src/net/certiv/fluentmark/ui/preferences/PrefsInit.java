@@ -108,6 +108,7 @@ public class PrefsInit extends AbstractPreferenceInitializer implements Prefs {
 		store.setDefault(EDITOR_PANDOC_ADDTOC, false);
 		store.setDefault(EDITOR_PANDOC_MATHJAX, true);
 		store.setDefault(EDITOR_PANDOC_SMART, true);
+		store.setDefault(EDITOR_PANDOC_SERVER, false);
 		store.setDefault(EDITOR_PANDOC_PROGRAM, getDefaultPandocCommand());
 		store.setDefault(EDITOR_PANDOC_TEMPLATES, "");
 		store.setDefault(EDITOR_PANDOC_TEMPLATE, "");
@@ -9,6 +9,7 @@ package net.certiv.fluentmark.ui.preferences.pages;
 import static net.certiv.fluentmark.ui.preferences.Prefs.EDITOR_PANDOC_ADDTOC;
 import static net.certiv.fluentmark.ui.preferences.Prefs.EDITOR_PANDOC_MATHJAX;
 import static net.certiv.fluentmark.ui.preferences.Prefs.EDITOR_PANDOC_PROGRAM;
+import static net.certiv.fluentmark.ui.preferences.Prefs.EDITOR_PANDOC_SERVER;
 import static net.certiv.fluentmark.ui.preferences.Prefs.EDITOR_PANDOC_SMART;
 import static net.certiv.fluentmark.ui.preferences.Prefs.EDITOR_PANDOC_TEMPLATES;
 import static net.certiv.fluentmark.ui.preferences.Prefs.KEY_PANDOC;
@@ -48,6 +49,7 @@ public class ConverterPandocOps extends AbstractOptionsBlock {
 		addField(new BooleanFieldEditor(EDITOR_PANDOC_SMART, "Use smart typography", bools));
 		addField(new BooleanFieldEditor(EDITOR_PANDOC_ADDTOC, "Add table of contents", bools));
 		addField(new BooleanFieldEditor(EDITOR_PANDOC_MATHJAX, "Enable Mathjax rendering", bools));
+		addField(new BooleanFieldEditor(EDITOR_PANDOC_SERVER, "Keep a Pandoc server running for the preview", bools));
 
 		SwtUtil.addSpacer(comp, 3);
 		pandocExe = new ProgramFieldEditor(EDITOR_PANDOC_PROGRAM, "Program:", comp, PD_MSG);
@@ -44,6 +44,7 @@ import com.vladsch.flexmark.ast.Image;
 import com.vladsch.flexmark.util.ast.Document;
 
 import net.certiv.fluentmark.core.util.FileUtils;
+import net.certiv.fluentmark.core.util.FlexmarkAstCache;
 import net.certiv.fluentmark.core.util.FlexmarkUtil;
 import net.certiv.fluentmark.ui.FluentUI;
 import net.certiv.fluentmark.ui.util.FlexmarkUiUtil;
@@ -234,11 +235,8 @@ public abstract class AbstractReplaceMarkdownImageRefactoring extends Refactorin
 	protected Stream<Image> streamOfMarkdownImagesInGivenFile(IFile markdownFile, IDocument markdownDocument) {
 		Assert.isNotNull(markdownFile);
 		
-		// read file contents
-		String markdownFileContents = getMarkdownFileContents(markdownFile, markdownDocument);
-		
-		// parse markdown code
-		Document markdownAst = FlexmarkUtil.parseMarkdown(markdownFileContents);
+		// parse markdown code, or re-use the AST of the file's current version
+		Document markdownAst = getMarkdownAst(markdownFile, markdownDocument);
 		
 		return FlexmarkUtil.getStreamOf(markdownAst, Image.class)
 			.filter(image -> isChangeApplicableTo(image));
@@ -373,11 +371,11 @@ public abstract class AbstractReplaceMarkdownImageRefactoring extends Refactorin
 		markdownFilesCollection.putAll(missingFilesSubset);
 	}
 	
-	protected String getMarkdownFileContents(IFile markdownFile, IDocument markdownDocument) {
+	protected Document getMarkdownAst(IFile markdownFile, IDocument markdownDocument) {
 		if (markdownDocument == null) {
-			return FileUtils.readFileContents(markdownFile);
+			return FlexmarkAstCache.getInstance().get(markdownFile);
 		} else {
-			return markdownDocument.get();
+			return FlexmarkAstCache.getInstance().get(markdownDocument);
 		}
 	}
 	
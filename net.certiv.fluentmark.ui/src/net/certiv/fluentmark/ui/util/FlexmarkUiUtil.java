@@ -18,6 +18,7 @@ import com.vladsch.flexmark.ext.plantuml.PlantUmlFencedCodeBlockNode;
 import com.vladsch.flexmark.util.ast.Block;
 import com.vladsch.flexmark.util.ast.Document;
 
+import net.certiv.fluentmark.core.util.FlexmarkAstCache;
 import net.certiv.fluentmark.core.util.FlexmarkUtil;
 
 public class FlexmarkUiUtil {
@@ -27,8 +28,7 @@ public class FlexmarkUiUtil {
 			return null;
 		}
 		
-		String markdownFileContent = markdownDocument.get();
-		return FlexmarkUtil.parseMarkdown(markdownFileContent);
+		return FlexmarkAstCache.getInstance().get(markdownDocument);
 	}
 	
 	public static Image findMarkdownImageForTextSelection(IDocument document, ITextSelection textSelection) {
@@ -15,6 +15,7 @@ import org.eclipse.core.runtime.jobs.Job;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.browser.Browser;
 import org.eclipse.swt.browser.BrowserFunction;
 import org.eclipse.swt.browser.ProgressAdapter;
@@ -28,6 +29,7 @@ import java.io.IOException;
 
 import java.math.BigDecimal;
 
+import net.certiv.fluentmark.core.convert.HtmlBlocks;
 import net.certiv.fluentmark.core.convert.Kind;
 import net.certiv.fluentmark.core.util.FileUtils;
 import net.certiv.fluentmark.core.util.Strings;
@@ -40,9 +42,13 @@ public class ViewJob extends Job {
 
 	private static final String Render = "Fluent.set('%s');";
 	private static final String CMD_SCROLL_TO = "Fluent.scrollTo('%s');";
+	private static final String CMD_PATCH = "return Fluent.patch([%s], {%s});";
 	
 	private String currentAnchorToScrollTo;
 	private String previewContents;
+	
+	// the blocks currently shown in the browser, if the page was updated block by block
+	private volatile HtmlBlocks previewBlocks;
 
 	private enum State {
 		NONE,
@@ -94,6 +100,7 @@ public class ViewJob extends Job {
 
 	public boolean load(boolean firebug) {
 		this.previewContents = null;
+		this.previewBlocks = null;
 		
 		FluentEditor editor = view.getActiveFluentEditor();
 		if (editor == null) {
@@ -228,9 +235,15 @@ public class ViewJob extends Job {
 		}
 		
 		timer = System.nanoTime();
+		
+		HtmlBlocks blocks = editor.getHtmlBlocks(previewBlocks);
+		if (blocks != null) {
+			return updateBlocks(blocks);
+		}
 
 		String html = editor.getHtml(Kind.UPDATE);
 		this.previewContents = html;
+		this.previewBlocks = null;
 		
 		if (html.isEmpty()) {
 			return Status.CANCEL_STATUS;
@@ -248,13 +261,8 @@ public class ViewJob extends Job {
 					
 					boolean ok = browser.execute(script);
 					if (ok) {
-						// read the temporarily saved anchor if any
-						if (currentAnchorToScrollTo != null) {
-							scrollTo(currentAnchorToScrollTo);
-							
-							// we've consumed the anchor, remove it now
-							currentAnchorToScrollTo = null;
-						}
+						result("Preview updated");
+						scrollToPendingAnchor();
 					} else {
 						Log.error("JavaScript execution (set page contents) failed.");
 					}
@@ -267,6 +275,84 @@ public class ViewJob extends Job {
 		
 		return Status.OK_STATUS;
 	}
+	
+	/**
+	 * Sends only the HTML of new blocks to the browser. The browser re-uses the blocks it already shows,
+	 * re-orders them as needed, and removes the blocks that are gone.
+	 */
+	private IStatus updateBlocks(HtmlBlocks blocks) {
+		HtmlBlocks shownBlocks = previewBlocks;
+		this.previewContents = blocks.getHtml();
+		
+		if (blocks.hasSameBlocks(shownBlocks)) {
+			scrollToPendingAnchor();
+			return Status.OK_STATUS;
+		}
+		
+		String script = createPatchScript(blocks, shownBlocks);
+		this.previewBlocks = blocks;
+		if (mathjax) state = State.READY;
+		
+		// execute script on UI thread
+		Display.getDefault().asyncExec(new Runnable() {
+
+			@Override
+			public void run() {
+				if (browser != null && !browser.isDisposed()) {
+					
+					Object patched;
+					try {
+						patched = browser.evaluate(script);
+					} catch (SWTException e) {
+						Log.error("JavaScript execution (patch page contents) failed.", e);
+						patched = Boolean.FALSE;
+					}
+					
+					if (Boolean.TRUE.equals(patched)) {
+						result("Preview patched");
+						scrollToPendingAnchor();
+					} else {
+						// the page does not show the blocks we expected (e.g. since it was re-loaded), send all blocks
+						previewBlocks = null;
+						update();
+					}
+					
+					// delay update of images' styling (zoom), otherwise the image are not found within JavaScript
+					updateImagesOnly();
+				}
+			}
+		});
+		
+		return Status.OK_STATUS;
+	}
+	
+	private String createPatchScript(HtmlBlocks blocks, HtmlBlocks shownBlocks) {
+		StringBuilder ids = new StringBuilder();
+		StringBuilder fragments = new StringBuilder();
+		
+		for (HtmlBlocks.Block block : blocks.getBlocks()) {
+			if (ids.length() > 0) ids.append(',');
+			ids.append('\'').append(block.id).append('\'');
+			
+			if (shownBlocks == null || !shownBlocks.contains(block.id)) {
+				if (fragments.length() > 0) fragments.append(',');
+				fragments.append('\'').append(block.id).append("':'");
+				fragments.append(StringEscapeUtils.escapeEcmaScript(block.html)).append('\'');
+			}
+		}
+		
+		return String.format(CMD_PATCH, ids, fragments);
+	}
+	
+	private void scrollToPendingAnchor() {
+		// read the temporarily saved anchor if any
+		if (currentAnchorToScrollTo != null) {
+			scrollTo(currentAnchorToScrollTo);
+			
+			// we've consumed the anchor, remove it now
+			currentAnchorToScrollTo = null;
+		}
+	}
 
 	protected void done() {
 		switch (state) {